@@ -30,11 +30,20 @@
 package io.scif;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
 
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.axis.CalibratedAxis;
+import net.imagej.axis.DefaultLinearAxis;
+import net.imagej.axis.LinearAxis;
+
 import org.scijava.io.handle.DataHandle;
 import org.scijava.io.location.Location;
 
@@ -216,6 +225,94 @@ public abstract class AbstractMetadata extends AbstractHasSource implements
 		if (!fileOnly) reset(getClass());
 	}
 
+	// -- Serialization methods --
+
+	/*
+	 * ImageMetadata, and the axes within, are not Serializable, so each image's
+	 * metadata is written field by field. Axes are restored as linear axes.
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(imageMeta.size());
+		for (final ImageMetadata iMeta : imageMeta) {
+			out.writeObject(iMeta.getName());
+			out.writeInt(iMeta.getPixelType());
+			out.writeInt(iMeta.getBitsPerPixel());
+			out.writeBoolean(iMeta.isOrderCertain());
+			out.writeBoolean(iMeta.isLittleEndian());
+			out.writeBoolean(iMeta.isIndexed());
+			out.writeBoolean(iMeta.isFalseColor());
+			out.writeBoolean(iMeta.isMetadataComplete());
+			out.writeBoolean(iMeta.isThumbnail());
+			out.writeInt(iMeta.getPlanarAxisCount());
+			out.writeInt(iMeta.getInterleavedAxisCount());
+
+			final List<CalibratedAxis> axes = iMeta.getAxes();
+			out.writeInt(axes.size());
+			for (final CalibratedAxis axis : axes) {
+				final boolean linear = axis instanceof LinearAxis;
+				out.writeUTF(axis.type().getLabel());
+				out.writeBoolean(axis.type().isSpatial());
+				out.writeObject(axis.unit());
+				out.writeDouble(linear ? ((LinearAxis) axis).scale() : axis
+					.averageScale(0, 1));
+				out.writeDouble(linear ? ((LinearAxis) axis).origin() : axis
+					.calibratedValue(0));
+				out.writeLong(iMeta.getAxisLength(axis));
+			}
+
+			out.writeObject(iMeta.getTable());
+			out.writeObject(serializable(iMeta.getROIs()));
+			out.writeObject(serializable(iMeta.getTables()));
+		}
+	}
+
+	private void readObject(final ObjectInputStream in) throws IOException,
+		ClassNotFoundException
+	{
+		in.defaultReadObject();
+		final int imageCount = in.readInt();
+		imageMeta = new ArrayList<>(imageCount);
+		for (int i = 0; i < imageCount; i++) {
+			final ImageMetadata iMeta = new DefaultImageMetadata();
+			iMeta.setName((String) in.readObject());
+			iMeta.setPixelType(in.readInt());
+			iMeta.setBitsPerPixel(in.readInt());
+			iMeta.setOrderCertain(in.readBoolean());
+			iMeta.setLittleEndian(in.readBoolean());
+			iMeta.setIndexed(in.readBoolean());
+			iMeta.setFalseColor(in.readBoolean());
+			iMeta.setMetadataComplete(in.readBoolean());
+			iMeta.setThumbnail(in.readBoolean());
+			final int planarAxisCount = in.readInt();
+			final int interleavedAxisCount = in.readInt();
+
+			final CalibratedAxis[] axes = new CalibratedAxis[in.readInt()];
+			final long[] lengths = new long[axes.length];
+			for (int a = 0; a < axes.length; a++) {
+				final String label = in.readUTF();
+				final AxisType type = Axes.get(label, in.readBoolean());
+				final String unit = (String) in.readObject();
+				final double scale = in.readDouble();
+				final double origin = in.readDouble();
+				axes[a] = new DefaultLinearAxis(type, unit, scale, origin);
+				lengths[a] = in.readLong();
+			}
+			iMeta.setAxes(axes, lengths);
+			iMeta.setPlanarAxisCount(planarAxisCount);
+			iMeta.setInterleavedAxisCount(interleavedAxisCount);
+
+			iMeta.setTable((MetaTable) in.readObject());
+			iMeta.setROIs(in.readObject());
+			iMeta.setTables(in.readObject());
+			imageMeta.add(iMeta);
+		}
+	}
+
+	private static Object serializable(final Object o) {
+		return o instanceof Serializable ? o : null;
+	}
+
 	// -- Helper Methods --
 
 	private void reset(final Class<?> type) {
@@ -30,6 +30,8 @@
 package io.scif;
 
 import io.scif.config.SCIFIOConfig;
+import io.scif.io.handle.MappedFileHandle;
+import io.scif.services.MetadataCacheService;
 import io.scif.util.SCIFIOMetadataTools;
 
 import java.io.IOException;
@@ -38,6 +40,7 @@ import java.util.Set;
 
 import org.scijava.io.handle.DataHandle;
 import org.scijava.io.handle.DataHandleService;
+import org.scijava.io.location.FileLocation;
 import org.scijava.io.location.Location;
 import org.scijava.plugin.Parameter;
 
@@ -62,6 +65,9 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 	@Parameter
 	private DataHandleService handles;
 
+	@Parameter(required = false)
+	private MetadataCacheService metadataCache;
+
 	// -- Parser API Methods --
 
 	@Override
@@ -206,7 +212,7 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 		meta.setSourceLocation(loc);
 
 		if (handle == null) { // no source set or source changed
-			handle = handles.readBuffer(loc);
+			handle = createHandle(loc, config);
 			if (handle == null) {
 				// no handle found for this location, expected for
 				// "Location-only" formats
@@ -270,6 +276,51 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 	protected abstract void typedParse(DataHandle<Location> handle, M meta,
 		SCIFIOConfig config) throws IOException, FormatException;
 
+	/*
+	 * Creates a handle for reading the given location, memory-mapped if so
+	 * configured.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private DataHandle<Location> createHandle(final Location loc,
+		final SCIFIOConfig config) throws IOException
+	{
+		if (config.mappedReadingEnabled() && loc instanceof FileLocation) {
+			return (DataHandle) new MappedFileHandle((FileLocation) loc, config
+				.mappedWindowSize());
+		}
+		return handles.readBuffer(loc);
+	}
+
+	/*
+	 * Restores the metadata of the given location from the metadata cache, if
+	 * so configured, with the given handle, or else a new one, as its source.
+	 */
+	private M restore(final Location loc, final DataHandle<Location> handle,
+		final SCIFIOConfig config) throws IOException
+	{
+		if (!config.parserIsMemoized() || metadataCache == null) return null;
+		final Metadata cached = metadataCache.get(loc, getFormat(), config);
+		if (!getFormat().getMetadataClass().isInstance(cached)) return null;
+
+		final M meta = SCIFIOMetadataTools.<M> castMeta(cached);
+		final DataHandle<Location> source = handle == null ? createHandle(loc,
+			config) : handle;
+		meta.setSourceLocation(loc);
+		if (source != null) meta.setSource(source);
+		metadata = meta;
+		return meta;
+	}
+
+	/* Saves freshly parsed metadata to the metadata cache, if so configured. */
+	private M memoize(final Location loc, final M meta,
+		final SCIFIOConfig config)
+	{
+		if (config.parserIsMemoized() && metadataCache != null) {
+			metadataCache.put(loc, meta, getUsedFiles(), config);
+		}
+		return meta;
+	}
+
 	/* Sets the input stream for this parser if provided a new stream */
 	private void init(final DataHandle<Location> handle) throws IOException {
 
@@ -300,18 +351,22 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 	public M parse(final Location loc, final SCIFIOConfig config)
 		throws IOException, FormatException
 	{
+		final M cached = restore(loc, null, config);
+		if (cached != null) return cached;
 		@SuppressWarnings("unchecked")
 		final M meta = (M) getFormat().createMetadata();
-		return parse(loc, meta, config);
+		return memoize(loc, parse(loc, meta, config), config);
 	}
 
 	@Override
 	public M parse(final DataHandle<Location> stream, final SCIFIOConfig config)
 		throws IOException, FormatException
 	{
+		final M cached = restore(stream.get(), stream, config);
+		if (cached != null) return cached;
 		@SuppressWarnings("unchecked")
 		final M meta = (M) getFormat().createMetadata();
-		return parse(stream, meta, config);
+		return memoize(stream.get(), parse(stream, meta, config), config);
 	}
 
 	@Override
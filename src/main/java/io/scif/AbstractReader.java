@@ -30,19 +30,34 @@
 package io.scif;
 
 import io.scif.config.SCIFIOConfig;
+import io.scif.io.handle.HandleTrace;
+import io.scif.io.handle.MappedFileHandle;
+import io.scif.io.handle.TracingHandle;
+import io.scif.metrics.MetricsService;
 import io.scif.util.FormatTools;
+import io.scif.util.Hyperslab;
 import io.scif.util.SCIFIOMetadataTools;
+import io.scif.util.StridedRegionReader;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
 
 import org.scijava.io.handle.DataHandle;
 import org.scijava.io.handle.DataHandleService;
+import org.scijava.io.location.FileLocation;
 import org.scijava.io.location.Location;
 import org.scijava.plugin.Parameter;
 import net.imglib2.FinalInterval;
 import net.imglib2.Interval;
+import net.imglib2.util.Intervals;
 
 /**
  * Abstract superclass of all SCIFIO {@link io.scif.Reader} implementations.
@@ -61,9 +76,15 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 	@Parameter
 	private DataHandleService handles;
 
+	@Parameter
+	private MetricsService metricsService;
+
 	/** Metadata for the current image source. */
 	private M metadata;
 
+	/** Handle to read from in place of the metadata's source, if set. */
+	private DataHandle<Location> handle;
+
 	/** Whether or not to normalize float data. */
 	private boolean normalizeData;
 
@@ -87,6 +108,102 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 	 */
 	protected abstract String[] createDomainArray();
 
+	/**
+	 * Helper for {@link #openPlanes} implementations of readers whose planes are
+	 * stored uncompressed, back to back, in plane index order. Each run of
+	 * consecutive plane indices is read with a single {@link DataHandle#read}.
+	 *
+	 * @param s the handle to read from.
+	 * @param offset offset of the first plane of the image within {@code s}.
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndices the plane indices within the image.
+	 * @param buf the buffer to fill, or null to allocate a new one.
+	 * @return The buffer containing the requested planes.
+	 */
+	protected byte[] readContiguousPlanes(final DataHandle<Location> s,
+		final long offset, final int imageIndex, final long[] planeIndices,
+		final byte[] buf) throws FormatException, IOException
+	{
+		final Interval bounds = //
+			new FinalInterval(metadata.get(imageIndex).getAxesLengthsPlanar());
+		final byte[] planes = FormatTools.checkPlanesBuffer(metadata, imageIndex,
+			planeIndices.length, bounds, buf);
+		final int planeSize = (int) FormatTools.getPlaneSize(metadata, bounds,
+			imageIndex);
+
+		int start = 0;
+		while (start < planeIndices.length) {
+			FormatTools.checkPlaneNumber(metadata, imageIndex, planeIndices[start]);
+			int end = start + 1;
+			while (end < planeIndices.length &&
+				planeIndices[end] == planeIndices[end - 1] + 1)
+			{
+				FormatTools.checkPlaneNumber(metadata, imageIndex, planeIndices[end]);
+				end++;
+			}
+			s.seek(offset + planeIndices[start] * planeSize);
+			s.readFully(planes, start * planeSize, (end - start) * planeSize);
+			start = end;
+		}
+		return planes;
+	}
+
+	/**
+	 * Helper for {@link #openRegion} implementations of readers whose pixels are
+	 * stored uncompressed in native axis order. Each block of the region that is
+	 * contiguous in the source is read with a single {@link DataHandle#read}.
+	 *
+	 * @param s the handle to read from.
+	 * @param offset offset of the first pixel of the image within {@code s}.
+	 * @param imageIndex the image index within the dataset.
+	 * @param bounds the region to read, in native axis order.
+	 * @param buf the buffer to fill, or null to allocate a new one.
+	 * @param order the axis order of the returned buffer.
+	 * @return The buffer containing the requested region.
+	 * @see Hyperslab
+	 */
+	protected byte[] readContiguousRegion(final DataHandle<Location> s,
+		final long offset, final int imageIndex, final Interval bounds,
+		final byte[] buf, final AxisType... order) throws FormatException,
+		IOException
+	{
+		final Hyperslab slab = new Hyperslab(metadata, imageIndex, bounds, order);
+		final byte[] region = slab.checkBuffer(buf);
+		final int blockAxes = slab.getContiguousAxes();
+		final int blockSize = (int) slab.getBlockSize(blockAxes);
+		final long blockCount = slab.getBlockCount(blockAxes);
+
+		// blocks can be read in place unless the axes are reordered
+		final byte[] block = slab.isNativeOrder() ? null : new byte[blockSize];
+		for (long i = 0; i < blockCount; i++) {
+			s.seek(offset + slab.getSourceOffset(blockAxes, i));
+			if (block == null) {
+				s.readFully(region, (int) (i * blockSize), blockSize);
+			}
+			else {
+				s.readFully(block);
+				slab.copyBlock(block, 0, blockAxes, i, region);
+			}
+		}
+		return region;
+	}
+
+	/**
+	 * Gets the offset of a plane within the file of {@link #getHandle()}, for
+	 * readers whose planes are stored uncompressed, contiguously and in native
+	 * axis order. Such planes can be mapped rather than read when
+	 * {@link SCIFIOConfig#readerIsMappedPlanes()} is set.
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndex the plane index within the image.
+	 * @return The offset of the plane, or -1 if it can not be mapped.
+	 */
+	protected long getRawPlaneOffset(final int imageIndex,
+		final long planeIndex) throws FormatException, IOException
+	{
+		return -1;
+	}
+
 	// -- Reader API Methods --
 
 	// TODO Merge common Reader and Writer API methods
@@ -135,15 +252,22 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 		final Interval bounds, final SCIFIOConfig config) throws FormatException,
 		IOException
 	{
+		if (config.readerIsMappedPlanes()) {
+			final ByteBufferPlane view = mapPlane(imageIndex, planeIndex, bounds);
+			if (view != null) return castToTypedPlane(view);
+		}
+
 		P plane = null;
 
 		try {
-			plane = createPlane(bounds);
+			plane = castToTypedPlane(createPlane(metadata.get(imageIndex), bounds,
+				config));
 		}
 		catch (final IllegalArgumentException e) {
 			throw new FormatException("Image plane too large. Only 2GB of data can " +
 				"be extracted at one time. You can workaround the problem by opening " +
-				"the plane in tiles; for further details, see: " +
+				"the plane with Reader#openLargePlane, or in tiles; for further " +
+				"details, see: " +
 				"http://www.openmicroscopy.org/site/support/faq/bio-formats/" +
 				"i-see-an-outofmemory-or-negativearraysize-error-message-when-" +
 				"attempting-to-open-an-svs-or-jpeg-2000-file.-what-does-this-mean", e);
@@ -185,9 +309,15 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 
 	@Override
 	public DataHandle<Location> getHandle() {
+		if (handle != null) return handle;
 		return metadata == null ? null : metadata.getSource();
 	}
 
+	@Override
+	public void setHandle(final DataHandle<Location> handle) {
+		this.handle = handle;
+	}
+
 	@Override
 	public long getOptimalTileWidth(final int imageIndex) {
 		return metadata.get(imageIndex).getAxisLength(Axes.X);
@@ -261,8 +391,7 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 		DataHandle<Location> stream = null;
 		// setting a new source
 		try {
-			stream = config.bufferedReadingEnabled() ? handles.readBuffer(loc)
-				: handles.create(loc);
+			stream = createHandle(loc, config);
 			if (stream == null) {
 				// loc only
 				setMetadata(getFormat().createParser().parse(loc, config));
@@ -385,111 +514,30 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 		final Interval bounds, final int scanlinePad, final P plane)
 		throws IOException
 	{
-		final int bpp = FormatTools.getBytesPerPixel(metadata.get(imageIndex)
-			.getPixelType());
-
 		final byte[] bytes = plane.getBytes();
-		final int xIndex = metadata.get(imageIndex).getAxisIndex(Axes.X);
-		final int yIndex = metadata.get(imageIndex).getAxisIndex(Axes.Y);
 		if (SCIFIOMetadataTools.wholePlane(imageIndex, metadata, bounds) &&
 			scanlinePad == 0)
 		{
 			s.read(bytes);
+			return plane;
 		}
-		else if (SCIFIOMetadataTools.wholeRow(imageIndex, metadata, bounds) &&
-			scanlinePad == 0)
-		{
-			if (metadata.get(imageIndex).getInterleavedAxisCount() > 0) {
-				int bytesToSkip = bpp;
-				bytesToSkip *= bounds.max(xIndex);
-				int bytesToRead = bytesToSkip;
-				for (int i = 0; i < bounds.numDimensions(); i++) {
-					if (i != xIndex) {
-						if (i == yIndex) {
-							bytesToSkip *= bounds.min(i);
-						}
-						else {
-							bytesToSkip *= bounds.max(i);
-						}
-						bytesToRead *= bounds.max(i);
-					}
-				}
-				s.skip(bytesToSkip);
-				s.read(bytes, 0, bytesToRead);
-			}
-			else {
-				final int rowLen = (int) (bpp * bounds.max(xIndex));
-				final int h = (int) bounds.max(yIndex);
-				final int y = (int) bounds.min(yIndex);
-				long c = metadata.get(imageIndex).getAxisLength(Axes.CHANNEL);
-				if (c <= 0 || !metadata.get(imageIndex).isMultichannel()) c = 1;
-				for (int channel = 0; channel < c; channel++) {
-
-					s.skipBytes(y * rowLen);
-					s.read(bytes, channel * h * rowLen, h * rowLen);
-					if (channel < c - 1) {
-						// no need to skip bytes after reading final channel
-						s.skipBytes((int) (metadata.get(imageIndex).getAxisLength(Axes.Y) -
-							y - h) * rowLen);
-					}
-				}
-			}
-		}
-		else {
-			final int scanlineWidth = (int) metadata.get(imageIndex).getAxisLength(
-				Axes.X) + scanlinePad;
-			if (metadata.get(imageIndex).getInterleavedAxisCount() > 0) {
-				long planeProduct = bpp;
-				for (int i = 0; i < bounds.numDimensions(); i++) {
-					if (i != xIndex && i != yIndex) planeProduct *= metadata.get(
-						imageIndex).getAxisLength(i);
-				}
-				int bytesToSkip = scanlineWidth * (int) planeProduct;
-				s.skipBytes((int) bounds.min(yIndex) * bytesToSkip);
-
-				bytesToSkip = bpp;
-				int bytesToRead = bytesToSkip;
-				bytesToRead *= bounds.max(xIndex);
-				bytesToRead *= planeProduct;
-				bytesToSkip *= bounds.min(xIndex);
-				bytesToSkip *= planeProduct;
-
-				for (int row = 0; row <= bounds.max(yIndex); row++) {
-					s.skipBytes(bytesToSkip);
-					s.read(bytes, row * bytesToRead, bytesToRead);
-					if (row < bounds.max(yIndex)) {
-						// no need to skip bytes after reading final row
-						s.skipBytes((int) (planeProduct * (scanlineWidth - bounds.dimension(
-							xIndex))));
-					}
-				}
-			}
-			else {
-				final long c = metadata.get(imageIndex).getAxisLength(Axes.CHANNEL);
-
-				final int w = (int) bounds.max(xIndex);
-				final int h = (int) bounds.max(yIndex);
-				final int x = (int) bounds.min(xIndex);
-				final int y = (int) bounds.min(yIndex);
-				for (int channel = 0; channel < c; channel++) {
-					s.skipBytes(y * scanlineWidth * bpp);
-					for (int row = 0; row < h; row++) {
-						s.skipBytes(x * bpp);
-						s.read(bytes, channel * w * h * bpp + row * w * bpp, w * bpp);
-						if (row < h - 1 || channel < c - 1) {
-							// no need to skip bytes after reading final row of
-							// final channel
-							s.skipBytes(bpp * (scanlineWidth - w - x));
-						}
-					}
-					if (channel < c - 1) {
-						// no need to skip bytes after reading final channel
-						s.skipBytes(scanlineWidth * bpp * (int) (metadata.get(imageIndex)
-							.getAxisLength(Axes.Y) - y - h));
-					}
-				}
-			}
+
+		// plan the byte ranges of the region within the stored plane
+		final ImageMetadata iMeta = metadata.get(imageIndex);
+		final int bpp = FormatTools.getBytesPerPixel(iMeta.getPixelType());
+		final int planarAxisCount = iMeta.getPlanarAxisCount();
+		final int xIndex = iMeta.getAxisIndex(Axes.X);
+		final long[] strides = new long[planarAxisCount];
+		final long[] min = new long[planarAxisCount];
+		final long[] dims = new long[planarAxisCount];
+		long stride = bpp;
+		for (int d = 0; d < planarAxisCount; d++) {
+			strides[d] = stride;
+			min[d] = bounds.min(d);
+			dims[d] = bounds.dimension(d);
+			stride *= iMeta.getAxisLength(d) + (d == xIndex ? scanlinePad : 0);
 		}
+		new StridedRegionReader(strides, min, dims, bpp).read(s, bytes, 0);
 		return plane;
 	}
 
@@ -502,10 +550,106 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 
 	@Override
 	public void close(final boolean fileOnly) throws IOException {
-		if (metadata != null) metadata.close(fileOnly);
+		if (handle != null) {
+			// the metadata may be shared with other readers; only close our handle
+			handle.close();
+			handle = null;
+		}
+		else if (metadata != null) metadata.close(fileOnly);
 
 		if (!fileOnly) {
 			metadata = null;
 		}
 	}
+
+	// -- Helper methods --
+
+	/*
+	 * Maps the given region of a plane directly from the source file. Returns
+	 * null if this reader's planes are not raw, or if the region is not a
+	 * contiguous range of bytes within its plane.
+	 */
+	private ByteBufferPlane mapPlane(final int imageIndex, final long planeIndex,
+		final Interval bounds) throws FormatException, IOException
+	{
+		if (!planeClass.isAssignableFrom(ByteBufferPlane.class)) return null;
+		final DataHandle<Location> stream = getHandle();
+		if (stream == null || !(stream.get() instanceof FileLocation)) return null;
+		FormatTools.checkPlaneNumber(metadata, imageIndex, planeIndex);
+		final long planeOffset = getRawPlaneOffset(imageIndex, planeIndex);
+		if (planeOffset < 0) return null;
+
+		// only the slowest varying axis of the region may be partial
+		final ImageMetadata iMeta = metadata.get(imageIndex);
+		final long[] lengths = iMeta.getAxesLengthsPlanar();
+		if (bounds.numDimensions() != lengths.length) return null;
+		long index = 0;
+		long stride = 1;
+		boolean partial = false;
+		for (int d = 0; d < lengths.length; d++) {
+			if (bounds.min(d) < 0 || bounds.max(d) >= lengths[d]) return null;
+			if (partial && bounds.dimension(d) != 1) return null;
+			index += bounds.min(d) * stride;
+			stride *= lengths[d];
+			partial |= bounds.dimension(d) != lengths[d];
+		}
+
+		final int bpp = FormatTools.getBytesPerPixel(iMeta.getPixelType());
+		final long offset = planeOffset + index * bpp;
+		final long size = Intervals.numElements(bounds) * bpp;
+		if (size > Integer.MAX_VALUE) return null;
+
+		final Path path = ((FileLocation) stream.get()).getFile().toPath();
+		try (final FileChannel channel = FileChannel.open(path,
+			StandardOpenOption.READ))
+		{
+			// NB: truncated planes are left to the regular reading path
+			if (offset + size > channel.size()) return null;
+			final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, offset, size);
+			buffer.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+				: ByteOrder.BIG_ENDIAN);
+			return new ByteBufferPlane(iMeta, bounds, buffer);
+		}
+	}
+
+	/*
+	 * Creates a handle for reading the given location, according to the
+	 * buffered, memory-mapped and traced reading settings of the given config.
+	 */
+	private DataHandle<Location> createHandle(final Location loc,
+		final SCIFIOConfig config) throws IOException
+	{
+		return createHandle(handles, metricsService, getFormatName(), loc,
+			config);
+	}
+
+	/**
+	 * Creates a handle for reading the given location, according to the
+	 * buffered, memory-mapped and traced reading settings of the given config.
+	 * Shared with {@link ReaderPool}, whose readers are given handles of their
+	 * own.
+	 *
+	 * @param formatName name of the format, recorded in the handle's trace.
+	 * @return the handle, or null if none could be created.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static DataHandle<Location> createHandle(final DataHandleService handles,
+		final MetricsService metricsService, final String formatName,
+		final Location loc, final SCIFIOConfig config) throws IOException
+	{
+		final DataHandle<Location> handle;
+		if (config.mappedReadingEnabled() && loc instanceof FileLocation) {
+			handle = (DataHandle) new MappedFileHandle((FileLocation) loc, config
+				.mappedWindowSize());
+		}
+		else {
+			handle = config.bufferedReadingEnabled() ? handles.readBuffer(loc)
+				: handles.create(loc);
+		}
+		if (handle == null || !config.tracedReadingEnabled()) return handle;
+		final HandleTrace trace = new HandleTrace(formatName, loc, config
+			.traceCapacity());
+		metricsService.addTrace(trace);
+		return new TracingHandle<>(handle, trace);
+	}
 }
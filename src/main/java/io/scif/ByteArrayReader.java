@@ -29,7 +29,16 @@
 
 package io.scif;
 
+import io.scif.config.SCIFIOConfig;
+import io.scif.services.PlaneBufferService;
+import io.scif.util.FormatTools;
+
+import java.io.IOException;
+
 import net.imglib2.Interval;
+import net.imglib2.util.Intervals;
+
+import org.scijava.plugin.Parameter;
 
 /**
  * Abstract superclass for all {@link io.scif.Reader} implementations that
@@ -44,6 +53,11 @@ public abstract class ByteArrayReader<M extends TypedMetadata> extends
 	AbstractReader<M, ByteArrayPlane>
 {
 
+	// -- Parameters --
+
+	@Parameter(required = false)
+	private PlaneBufferService planeBufferService;
+
 	// -- Constructor --
 
 	public ByteArrayReader() {
@@ -64,4 +78,70 @@ public abstract class ByteArrayReader<M extends TypedMetadata> extends
 		return new ByteArrayPlane(meta, bounds);
 	}
 
+	@Override
+	public ByteArrayPlane createPlane(final ImageMetadata meta,
+		final Interval bounds, final SCIFIOConfig config)
+	{
+		if (planeBufferService == null || !config.readerIsPooledPlanes()) {
+			return createPlane(meta, bounds);
+		}
+		final long size = Intervals.numElements(bounds) * FormatTools
+			.getBytesPerPixel(meta.getPixelType());
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Plane too large: " + size +
+				" bytes");
+		}
+		return new PooledPlane(planeBufferService, meta, bounds, (int) size);
+	}
+
+	@Override
+	public LargePlane openLargePlane(final int imageIndex,
+		final long planeIndex, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		// read each chunk in place, through a plane wrapping its array
+		final ImageMetadata meta = getMetadata().get(imageIndex);
+		final LargePlane plane = new ChunkedPlane(meta, bounds);
+		final ByteArrayPlane chunk = new ByteArrayPlane();
+		for (int i = 0; i < plane.getChunkCount(); i++) {
+			final Interval chunkBounds = plane.getChunkBounds(i);
+			chunk.populate(meta, plane.getChunk(i), chunkBounds);
+			openPlane(imageIndex, planeIndex, chunk, chunkBounds, config);
+			if (i == 0) plane.setColorTable(chunk.getColorTable());
+		}
+		return plane;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * A plane whose buffer is drawn from a {@link PlaneBufferService}, and
+	 * returned to it when the plane is {@link #release() released}.
+	 */
+	private static class PooledPlane extends ByteArrayPlane {
+
+		private PlaneBufferService planeBufferService;
+
+		private byte[] pooled;
+
+		private PooledPlane(final PlaneBufferService planeBufferService,
+			final ImageMetadata meta, final Interval bounds, final int size)
+		{
+			this.planeBufferService = planeBufferService;
+			pooled = planeBufferService.acquire(size);
+			populate(meta, pooled, bounds);
+		}
+
+		@Override
+		public synchronized void release() {
+			if (pooled == null) return;
+			// only recycle the buffer if it was not replaced
+			if (getData() == pooled) {
+				setData(null);
+				planeBufferService.release(pooled);
+			}
+			planeBufferService = null;
+			pooled = null;
+		}
+	}
 }
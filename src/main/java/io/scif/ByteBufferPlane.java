@@ -0,0 +1,109 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import java.nio.ByteBuffer;
+
+import net.imglib2.Interval;
+
+/**
+ * A {@link ByteArrayPlane} whose pixels are a read-only view of a
+ * {@link ByteBuffer}, typically a memory-mapped region of the source file.
+ * <p>
+ * Consumers aware of this class should read the pixels through
+ * {@link #getBuffer()}. The {@code byte[]} returned by {@link #getData()} and
+ * {@link #getBytes()} is only created, by copying the buffer, the first time
+ * it is requested.
+ * </p>
+ *
+ * @see io.scif.config.SCIFIOConfig#readerSetMappedPlanes(boolean)
+ */
+public class ByteBufferPlane extends ByteArrayPlane {
+
+	// -- Fields --
+
+	/** The viewed pixels, or null if this plane is backed by a byte[]. */
+	private ByteBuffer buffer;
+
+	// -- Constructors --
+
+	public ByteBufferPlane() {
+		super();
+	}
+
+	/**
+	 * @param meta ImageMetadata of the source associated with this plane.
+	 * @param bounds bounds of the planar axes.
+	 * @param buffer the pixels of this plane, from its position to its limit.
+	 */
+	public ByteBufferPlane(final ImageMetadata meta, final Interval bounds,
+		final ByteBuffer buffer)
+	{
+		super();
+		setImageMetadata(meta);
+		setBounds(bounds);
+		this.buffer = buffer.asReadOnlyBuffer().order(buffer.order());
+	}
+
+	// -- ByteBufferPlane methods --
+
+	/**
+	 * Gets a read-only view of this plane's pixels. The returned buffer has its
+	 * own position and limit, so it may be consumed freely.
+	 */
+	public ByteBuffer getBuffer() {
+		if (isView()) return buffer.duplicate().order(buffer.order());
+		return ByteBuffer.wrap(getData()).asReadOnlyBuffer();
+	}
+
+	/** @return True iff this plane's pixels have not been copied to a byte[]. */
+	public boolean isView() {
+		return buffer != null && super.getData() == null;
+	}
+
+	// -- DataPlane API methods --
+
+	@Override
+	public byte[] getData() {
+		byte[] data = super.getData();
+		if (data == null && buffer != null) {
+			data = new byte[buffer.remaining()];
+			buffer.duplicate().get(data);
+			super.setData(data);
+		}
+		return data;
+	}
+
+	@Override
+	public void setData(final byte[] data) {
+		buffer = null;
+		super.setData(data);
+	}
+}
@@ -107,4 +107,21 @@ public interface Checker extends HasFormat {
 	 * @return True if {@code block} is compatible with this {@code Format}.
 	 */
 	boolean checkHeader(byte[] block);
+
+	/**
+	 * Gets the magic byte sequences one of which every source compatible with
+	 * this {@code Format} starts with.
+	 * <p>
+	 * Signatures let the {@link io.scif.services.FormatService} rule out this
+	 * format from a single shared read of the source's header, without calling
+	 * {@link #isFormat(DataHandle)}. A source matching a signature is still
+	 * passed to {@link #isFormat(DataHandle)} for the full check.
+	 * </p>
+	 *
+	 * @return the possible leading bytes of a compatible source, or null if they
+	 *         are not known.
+	 */
+	default byte[][] getSignatures() {
+		return null;
+	}
 }
@@ -0,0 +1,222 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import io.scif.util.FormatTools;
+
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+import net.imglib2.display.ColorTable;
+import net.imglib2.util.Intervals;
+
+/**
+ * Default {@link LargePlane} implementation, holding its pixel data in lazily
+ * allocated {@code byte[]} chunks.
+ * <p>
+ * Chunks are slabs along the slowest varying planar axis whose rows (the
+ * product of all faster axes) still fit in a chunk, e.g. bands of full rows
+ * along Y for an XY plane. Every chunk holds as many rows as fit, except the
+ * last chunk of each slab, which holds the remaining rows.
+ * </p>
+ */
+public class ChunkedPlane implements LargePlane {
+
+	// -- Constants --
+
+	/** Default maximum size of a chunk, in bytes. */
+	public static final int DEFAULT_MAX_CHUNK_SIZE = 256 * 1024 * 1024;
+
+	// -- Fields --
+
+	private final ImageMetadata meta;
+
+	private final Interval bounds;
+
+	private final long size;
+
+	/** The axis along which chunks are sliced. */
+	private final int chunkAxis;
+
+	/** The size of one position along {@link #chunkAxis}, in bytes. */
+	private final long rowBytes;
+
+	/** The number of positions along {@link #chunkAxis} in a full chunk. */
+	private final long chunkRows;
+
+	/** The number of chunks along {@link #chunkAxis}. */
+	private final int chunksPerSlab;
+
+	private final int chunkSize;
+
+	private final byte[][] chunks;
+
+	private ColorTable lut;
+
+	// -- Constructors --
+
+	/**
+	 * @param meta ImageMetadata of the image this plane belongs to.
+	 * @param bounds bounds of the planar axes.
+	 */
+	public ChunkedPlane(final ImageMetadata meta, final Interval bounds) {
+		this(meta, bounds, DEFAULT_MAX_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param meta ImageMetadata of the image this plane belongs to.
+	 * @param bounds bounds of the planar axes.
+	 * @param maxChunkSize the maximum size of a chunk, in bytes.
+	 */
+	public ChunkedPlane(final ImageMetadata meta, final Interval bounds,
+		final int maxChunkSize)
+	{
+		this.meta = meta;
+		this.bounds = bounds;
+		final int bpp = FormatTools.getBytesPerPixel(meta.getPixelType());
+		size = Intervals.numElements(bounds) * bpp;
+
+		// find the slowest axis whose rows fit in a chunk
+		int axis = 0;
+		long rowBytes = bpp;
+		while (axis < bounds.numDimensions() - 1 && rowBytes * bounds.dimension(
+			axis) <= maxChunkSize)
+		{
+			rowBytes *= bounds.dimension(axis++);
+		}
+		if (rowBytes > maxChunkSize) {
+			throw new IllegalArgumentException("A single sample of " + bpp +
+				" bytes exceeds the maximum chunk size of " + maxChunkSize);
+		}
+		chunkAxis = axis;
+
+		// use as many rows as fit; the last chunk of each slab gets the rest
+		final long length = bounds.dimension(axis);
+		this.rowBytes = rowBytes;
+		chunkRows = Math.min(length, maxChunkSize / rowBytes);
+		chunkSize = (int) (chunkRows * rowBytes);
+		final long perSlab = (length + chunkRows - 1) / chunkRows;
+
+		final long count = perSlab * (size / (rowBytes * length));
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Plane too large: " + size +
+				" bytes");
+		}
+		chunksPerSlab = (int) perSlab;
+		chunks = new byte[(int) count][];
+	}
+
+	// -- LargePlane API methods --
+
+	@Override
+	public ImageMetadata getImageMetadata() {
+		return meta;
+	}
+
+	@Override
+	public Interval getBounds() {
+		return bounds;
+	}
+
+	@Override
+	public ColorTable getColorTable() {
+		return lut;
+	}
+
+	@Override
+	public void setColorTable(final ColorTable lut) {
+		this.lut = lut;
+	}
+
+	@Override
+	public long getSize() {
+		return size;
+	}
+
+	@Override
+	public int getChunkCount() {
+		return chunks.length;
+	}
+
+	@Override
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	@Override
+	public int getChunkSize(final int index) {
+		final long rows = Math.min(chunkRows, bounds.dimension(chunkAxis) -
+			index % chunksPerSlab * chunkRows);
+		return (int) (rows * rowBytes);
+	}
+
+	@Override
+	public long getChunkOffset(final int index) {
+		final long slabBytes = rowBytes * bounds.dimension(chunkAxis);
+		return index / chunksPerSlab * slabBytes + index % chunksPerSlab *
+			(long) chunkSize;
+	}
+
+	@Override
+	public int getChunkIndex(final long offset) {
+		final long slabBytes = rowBytes * bounds.dimension(chunkAxis);
+		return (int) (offset / slabBytes * chunksPerSlab + offset % slabBytes /
+			chunkSize);
+	}
+
+	@Override
+	public byte[] getChunk(final int index) {
+		if (chunks[index] == null) chunks[index] = new byte[getChunkSize(index)];
+		return chunks[index];
+	}
+
+	@Override
+	public Interval getChunkBounds(final int index) {
+		final int n = bounds.numDimensions();
+		final long[] min = new long[n];
+		final long[] max = new long[n];
+		long rem = index;
+		for (int d = 0; d < n; d++) {
+			if (d < chunkAxis) {
+				min[d] = bounds.min(d);
+				max[d] = bounds.max(d);
+			}
+			else if (d == chunkAxis) {
+				min[d] = bounds.min(d) + rem % chunksPerSlab * chunkRows;
+				max[d] = Math.min(min[d] + chunkRows - 1, bounds.max(d));
+				rem /= chunksPerSlab;
+			}
+			else {
+				min[d] = max[d] = bounds.min(d) + rem % bounds.dimension(d);
+				rem /= bounds.dimension(d);
+			}
+		}
+		return new FinalInterval(min, max);
+	}
+}
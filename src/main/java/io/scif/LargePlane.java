@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import net.imglib2.Interval;
+import net.imglib2.display.ColorTable;
+
+/**
+ * A plane whose pixel data may exceed the 2 GB limit of a single
+ * {@code byte[]}. The data is split into chunks of at most
+ * {@link #getChunkSize()} bytes, each of which is a contiguous range of the
+ * plane's bytes covering a sub-region of the plane (see
+ * {@link #getChunkBounds(int)}), so that every chunk can be read like an
+ * ordinary plane.
+ *
+ * @see Reader#openLargePlane(int, long, Interval, io.scif.config.SCIFIOConfig)
+ * @see ChunkedPlane
+ */
+public interface LargePlane {
+
+	/**
+	 * @return The ImageMetadata of the image this plane belongs to.
+	 */
+	ImageMetadata getImageMetadata();
+
+	/**
+	 * @return The bounds of this plane relative to the origin image.
+	 */
+	Interval getBounds();
+
+	/**
+	 * @return This plane's ColorTable, or null if it has none.
+	 */
+	ColorTable getColorTable();
+
+	/**
+	 * @param lut The ColorTable of this plane.
+	 */
+	void setColorTable(ColorTable lut);
+
+	/**
+	 * @return The size of this plane's pixel data, in bytes.
+	 */
+	long getSize();
+
+	/**
+	 * @return The number of chunks holding this plane's pixel data.
+	 */
+	int getChunkCount();
+
+	/**
+	 * @return The maximum size of a chunk, in bytes.
+	 */
+	int getChunkSize();
+
+	/**
+	 * @param index the index of the chunk.
+	 * @return The size of the given chunk, in bytes.
+	 */
+	int getChunkSize(int index);
+
+	/**
+	 * @param index the index of the chunk.
+	 * @return The offset of the given chunk's first byte within the plane.
+	 */
+	long getChunkOffset(int index);
+
+	/**
+	 * Gets a chunk of this plane's pixel data. Chunk {@code i} holds bytes
+	 * {@code getChunkOffset(i)} (inclusive) through
+	 * {@code getChunkOffset(i) + getChunkSize(i)} (exclusive) of the plane.
+	 *
+	 * @param index the index of the chunk.
+	 * @return The chunk's bytes, by reference.
+	 */
+	byte[] getChunk(int index);
+
+	/**
+	 * @param index the index of the chunk.
+	 * @return The region of the image covered by the given chunk.
+	 */
+	Interval getChunkBounds(int index);
+
+	/**
+	 * @param offset an offset within the plane, in bytes.
+	 * @return The index of the chunk holding the byte at the given offset.
+	 */
+	default int getChunkIndex(final long offset) {
+		int lo = 0;
+		int hi = getChunkCount() - 1;
+		while (lo < hi) {
+			final int mid = (lo + hi + 1) >>> 1;
+			if (getChunkOffset(mid) <= offset) lo = mid;
+			else hi = mid - 1;
+		}
+		return lo;
+	}
+
+	/**
+	 * Copies bytes of this plane, starting at the given offset, to an array.
+	 */
+	default void get(final long offset, final byte[] dst, final int dstOffset,
+		final int length)
+	{
+		int copied = 0;
+		while (copied < length) {
+			final long position = offset + copied;
+			final int index = getChunkIndex(position);
+			final int pos = (int) (position - getChunkOffset(index));
+			final int n = Math.min(length - copied, getChunkSize(index) - pos);
+			System.arraycopy(getChunk(index), pos, dst, dstOffset + copied, n);
+			copied += n;
+		}
+	}
+
+	/**
+	 * Copies bytes from an array into this plane, starting at the given offset.
+	 */
+	default void put(final long offset, final byte[] src, final int srcOffset,
+		final int length)
+	{
+		int copied = 0;
+		while (copied < length) {
+			final long position = offset + copied;
+			final int index = getChunkIndex(position);
+			final int pos = (int) (position - getChunkOffset(index));
+			final int n = Math.min(length - copied, getChunkSize(index) - pos);
+			System.arraycopy(src, srcOffset + copied, getChunk(index), pos, n);
+			copied += n;
+		}
+	}
+}
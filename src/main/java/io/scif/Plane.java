@@ -140,4 +140,14 @@ public interface Plane {
 	 * Sets this plane's bounds relative to the underlying image.
 	 */
 	void setBounds(Interval bounds);
+
+	/**
+	 * Releases any resources held by this plane, such as a pooled buffer. The
+	 * plane and its bytes must not be used afterwards. Does nothing by default.
+	 *
+	 * @see io.scif.config.SCIFIOConfig#readerSetPooledPlanes(boolean)
+	 */
+	default void release() {
+		// NB: No action needed.
+	}
 }
@@ -30,9 +30,14 @@
 package io.scif;
 
 import io.scif.config.SCIFIOConfig;
+import io.scif.util.FormatTools;
+import io.scif.util.Hyperslab;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+import net.imagej.axis.AxisType;
+import net.imglib2.FinalInterval;
 import net.imglib2.Interval;
 
 import org.scijava.io.handle.DataHandle;
@@ -150,6 +155,165 @@ public interface Reader extends HasFormat, HasSource, Groupable {
 	Plane openPlane(int imageIndex, long planeIndex, Plane plane, Interval bounds,
 		SCIFIOConfig config) throws FormatException, IOException;
 
+	/**
+	 * As {@link #openPlanes(int, long[], Interval, byte[], SCIFIOConfig)} with a
+	 * newly allocated buffer and default configuration.
+	 */
+	default byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds) throws FormatException, IOException
+	{
+		return openPlanes(imageIndex, planeIndices, bounds, null,
+			new SCIFIOConfig());
+	}
+
+	/**
+	 * Reads the same sub-region of several planes into one buffer. The planes
+	 * are stored one after another, in the order of {@code planeIndices}, each
+	 * occupying {@link FormatTools#getPlaneSize(Metadata, Interval, int)} bytes.
+	 * <p>
+	 * The default implementation opens each plane in turn, reusing a single
+	 * {@code Plane}. Readers whose pixels are stored contiguously may override
+	 * it to read many planes with a single I/O operation, and then also
+	 * override {@link #isBulkReadable}.
+	 * </p>
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndices the plane indices within the image.
+	 * @param bounds bounds of the planar axes, shared by all planes.
+	 * @param buf the buffer to fill, or null to allocate a new one.
+	 * @param config Configuration information to use for this read.
+	 * @return The buffer containing the requested planes.
+	 */
+	default byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final byte[] planes = FormatTools.checkPlanesBuffer(getMetadata(),
+			imageIndex, planeIndices.length, bounds, buf);
+		final int planeSize = (int) FormatTools.getPlaneSize(getMetadata(), bounds,
+			imageIndex);
+
+		Plane plane = null;
+		for (int i = 0; i < planeIndices.length; i++) {
+			plane = plane == null ? openPlane(imageIndex, planeIndices[i], bounds,
+				config) : openPlane(imageIndex, planeIndices[i], plane, bounds, config);
+			System.arraycopy(plane.getBytes(), 0, planes, i * planeSize, planeSize);
+		}
+		if (plane != null) plane.release();
+		return planes;
+	}
+
+	/**
+	 * Returns true if
+	 * {@link #openPlanes(int, long[], Interval, byte[], SCIFIOConfig)} reads
+	 * the given sub-region of several planes of the given image faster than
+	 * opening each plane in turn. Otherwise, reading planes in bulk only adds a
+	 * copy of each plane. The default implementation returns false.
+	 */
+	default boolean isBulkReadable(final int imageIndex, final Interval bounds) {
+		return false;
+	}
+
+	/**
+	 * As {@link #openRegion(int, Interval, byte[], SCIFIOConfig, AxisType...)}
+	 * with a newly allocated buffer, default configuration and the image's
+	 * native axis order.
+	 */
+	default byte[] openRegion(final int imageIndex, final Interval bounds)
+		throws FormatException, IOException
+	{
+		return openRegion(imageIndex, bounds, null, new SCIFIOConfig());
+	}
+
+	/**
+	 * Reads an N-dimensional region, spanning planar and non-planar axes, into
+	 * one buffer. The layout of the buffer is described by {@link Hyperslab}:
+	 * the axes listed in {@code order} vary fastest, followed by any remaining
+	 * axes in native order.
+	 * <p>
+	 * The default implementation opens each plane intersecting the region in
+	 * turn; when the native axis order is requested, it delegates to
+	 * {@link #openPlanes(int, long[], Interval, byte[], SCIFIOConfig)}. Readers
+	 * of uncompressed data may override it to compute the location of each
+	 * block of pixels directly.
+	 * </p>
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param bounds the region to read, in native axis order.
+	 * @param buf the buffer to fill, or null to allocate a new one.
+	 * @param config Configuration information to use for this read.
+	 * @param order the axis order of the returned buffer.
+	 * @return The buffer containing the requested region.
+	 */
+	default byte[] openRegion(final int imageIndex, final Interval bounds,
+		final byte[] buf, final SCIFIOConfig config, final AxisType... order)
+		throws FormatException, IOException
+	{
+		final Hyperslab slab = new Hyperslab(getMetadata(), imageIndex, bounds,
+			order);
+		final byte[] region = slab.checkBuffer(buf);
+		final long[] planeIndices = slab.getPlaneIndices();
+		final Interval planeBounds = slab.getPlanarBounds();
+		if (slab.isNativeOrder()) {
+			return openPlanes(imageIndex, planeIndices, planeBounds, region, config);
+		}
+
+		final int planarAxisCount = planeBounds.numDimensions();
+		Plane plane = null;
+		for (int i = 0; i < planeIndices.length; i++) {
+			plane = plane == null ? openPlane(imageIndex, planeIndices[i],
+				planeBounds, config) : openPlane(imageIndex, planeIndices[i], plane,
+					planeBounds, config);
+			slab.copyBlock(plane.getBytes(), 0, planarAxisCount, i, region);
+		}
+		if (plane != null) plane.release();
+		return region;
+	}
+
+	/**
+	 * As {@link #openLargePlane(int, long, Interval, SCIFIOConfig)} for the
+	 * whole plane, with default configuration.
+	 */
+	default LargePlane openLargePlane(final int imageIndex,
+		final long planeIndex) throws FormatException, IOException
+	{
+		final Interval bounds = //
+			new FinalInterval(getMetadata().get(imageIndex).getAxesLengthsPlanar());
+		return openLargePlane(imageIndex, planeIndex, bounds, new SCIFIOConfig());
+	}
+
+	/**
+	 * Opens a plane which may be larger than the 2 GB limit of the planes
+	 * returned by {@link #openPlane}. The plane is read one chunk at a time,
+	 * each chunk being an ordinary plane over its
+	 * {@link LargePlane#getChunkBounds(int) bounds}.
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndex the plane index within the image.
+	 * @param bounds bounds of the planar axes.
+	 * @param config Configuration information to use for this read.
+	 * @return The {@link LargePlane} containing the requested data.
+	 */
+	default LargePlane openLargePlane(final int imageIndex,
+		final long planeIndex, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final LargePlane plane = new ChunkedPlane(getMetadata().get(imageIndex),
+			bounds);
+		Plane chunk = null;
+		for (int i = 0; i < plane.getChunkCount(); i++) {
+			final Interval chunkBounds = plane.getChunkBounds(i);
+			chunk = chunk == null ? openPlane(imageIndex, planeIndex, chunkBounds,
+				config) : openPlane(imageIndex, planeIndex, chunk, chunkBounds,
+					config);
+			System.arraycopy(chunk.getBytes(), 0, plane.getChunk(i), 0, plane
+				.getChunkSize(i));
+			if (i == 0) plane.setColorTable(chunk.getColorTable());
+		}
+		if (chunk != null) chunk.release();
+		return plane;
+	}
+
 	/** Returns the current file. */
 	Location getCurrentLocation();
 
@@ -163,12 +327,54 @@ public interface Reader extends HasFormat, HasSource, Groupable {
 	 */
 	DataHandle<Location> getHandle();
 
+	/**
+	 * Sets a handle for this reader to read pixels from, in place of the source
+	 * of its {@code Metadata}. This allows several readers to share a single
+	 * {@code Metadata} instance while reading concurrently. Closing the reader
+	 * then only closes this handle, leaving the shared {@code Metadata} intact.
+	 * Setting a null handle reads from the {@code Metadata}'s source again.
+	 *
+	 * @see #isMetadataShareable()
+	 * @see ReaderPool
+	 */
+	void setHandle(DataHandle<Location> handle);
+
+	/**
+	 * Returns true if several instances of this reader may share one
+	 * {@code Metadata} instance, each reading through its own handle (see
+	 * {@link #setHandle}). This requires that reading planes never modifies the
+	 * {@code Metadata}.
+	 */
+	default boolean isMetadataShareable() {
+		return false;
+	}
+
 	/** Returns the optimal sub-image width for use with {@link #openPlane}. */
 	long getOptimalTileWidth(int imageIndex);
 
 	/** Returns the optimal sub-image height for use with {@link #openPlane}. */
 	long getOptimalTileHeight(int imageIndex);
 
+	/**
+	 * Returns the shape of the blocks in which pixels of the given image are
+	 * stored, with one entry per axis of its {@link ImageMetadata}. Each block is
+	 * decoded as a whole, so reading any part of one costs as much as reading
+	 * all of it; regions aligned to these blocks are decoded exactly once.
+	 * <p>
+	 * An entry of 1 means that axis is not chunked. This generalizes
+	 * {@link #getOptimalTileWidth} and {@link #getOptimalTileHeight} to every
+	 * axis, e.g. to report Z chunks of volumetric formats, or planar channels
+	 * interleaved within each tile. The default implementation reports no
+	 * chunking at all.
+	 * </p>
+	 */
+	default long[] getNativeBlockSize(final int imageIndex) {
+		final long[] blockSize = new long[getMetadata().get(imageIndex).getAxes()
+			.size()];
+		Arrays.fill(blockSize, 1);
+		return blockSize;
+	}
+
 	/**
 	 * Sets the Metadata for this Reader.
 	 * <p>
@@ -280,6 +486,22 @@ public interface Reader extends HasFormat, HasSource, Groupable {
 	 */
 	Plane createPlane(ImageMetadata meta, Interval bounds);
 
+	/**
+	 * Creates a blank plane compatible with this reader, honoring the given
+	 * configuration (e.g. {@link SCIFIOConfig#readerIsPooledPlanes()}).
+	 *
+	 * @param meta - ImageMetadata to use to populate the new plane.
+	 * @param bounds bounds of the planar axes.
+	 * @param config Configuration information for the read the plane is used
+	 *          for.
+	 * @return The created plane
+	 */
+	default Plane createPlane(final ImageMetadata meta, final Interval bounds,
+		final SCIFIOConfig config)
+	{
+		return createPlane(meta, bounds);
+	}
+
 	/**
 	 * Convenience method for casting {@code Plane} implementations to the type
 	 * associated with this {@code Reader}.
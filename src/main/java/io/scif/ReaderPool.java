@@ -0,0 +1,301 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import io.scif.config.SCIFIOConfig;
+import io.scif.metrics.MetricsService;
+import io.scif.services.ReaderPoolService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.handle.DataHandleService;
+import org.scijava.io.location.Location;
+
+/**
+ * A pool of {@link Reader}s for one dataset, allowing it to be read from
+ * several threads at once. Each thread {@link #acquire()}s a reader of its
+ * own, and {@link #release(Reader)}s it when done.
+ * <p>
+ * The dataset is parsed once. If the format's reader
+ * {@link Reader#isMetadataShareable() can share} its {@link Metadata}, every
+ * pooled reader uses the same {@code Metadata} instance with a handle of its
+ * own; otherwise each additional reader parses the dataset again.
+ * </p>
+ * <p>
+ * At most {@link #getMaxReaders()} readers, and hence open handles, exist at
+ * any time. {@link #acquire()} blocks while all of them are in use.
+ * </p>
+ * <p>
+ * A pool may also be created for a dataset already open in a reader, whose
+ * metadata it then borrows, and may decorate each pooled reader, e.g. with the
+ * same filters as the reader it stands in for.
+ * </p>
+ *
+ * @see ReaderPoolService
+ */
+public class ReaderPool implements Closeable {
+
+	// -- Fields --
+
+	private final Format format;
+
+	private final Metadata metadata;
+
+	private final SCIFIOConfig config;
+
+	private final DataHandleService dataHandleService;
+
+	private final MetricsService metricsService;
+
+	private final Location location;
+
+	/** Byte order of the handle the metadata was parsed from. */
+	private final ByteOrder order;
+
+	private final boolean shared;
+
+	private final int maxReaders;
+
+	private final Semaphore permits;
+
+	/** Readers which are not currently in use, most recently released first. */
+	private final Deque<Reader> idle = new ConcurrentLinkedDeque<>();
+
+	/** The parsed metadata, until it is handed to a reader that can't share. */
+	private final AtomicReference<Metadata> unclaimed;
+
+	/** Applied to each reader once created, or null. */
+	private final UnaryOperator<Reader> decorator;
+
+	/** The readers created by the pool, by their decorated readers. */
+	private final Map<Reader, Reader> undecorated = Collections
+		.synchronizedMap(new IdentityHashMap<>());
+
+	private volatile boolean closed;
+
+	// -- Constructors --
+
+	/**
+	 * @param metadata the parsed metadata of the dataset, with its source open.
+	 *          The pool takes ownership of the metadata and its source.
+	 * @param config configuration used to open additional readers.
+	 * @param maxReaders the maximum number of readers to open at once.
+	 */
+	public ReaderPool(final Metadata metadata, final SCIFIOConfig config,
+		final int maxReaders) throws FormatException, IOException
+	{
+		this(metadata, config, maxReaders, true, null);
+	}
+
+	/**
+	 * Creates a pool for the dataset open in the given reader, whose metadata
+	 * is shared with the pooled readers if the format allows. Neither the
+	 * reader nor its metadata is closed by the pool.
+	 *
+	 * @param reader an unfiltered reader, with its source set.
+	 * @param config configuration used to open additional readers.
+	 * @param maxReaders the maximum number of readers to open at once.
+	 * @param decorator applied to each pooled reader once created, returning
+	 *          the reader handed out by {@link #acquire()}, or null to hand out
+	 *          the pooled readers themselves. When the pool closes a decorated
+	 *          reader, only the reader passed to the decorator is closed.
+	 */
+	public ReaderPool(final Reader reader, final SCIFIOConfig config,
+		final int maxReaders, final UnaryOperator<Reader> decorator)
+		throws FormatException, IOException
+	{
+		this(reader.getMetadata(), config, maxReaders, false, decorator);
+	}
+
+	private ReaderPool(final Metadata metadata, final SCIFIOConfig config,
+		final int maxReaders, final boolean owned,
+		final UnaryOperator<Reader> decorator) throws FormatException,
+		IOException
+	{
+		if (maxReaders < 1) {
+			throw new IllegalArgumentException("Invalid reader count: " +
+				maxReaders);
+		}
+		this.metadata = metadata;
+		this.config = config;
+		this.maxReaders = maxReaders;
+		this.decorator = decorator;
+		format = metadata.getFormat();
+		dataHandleService = format.getContext().getService(
+			DataHandleService.class);
+		metricsService = format.getContext().getService(MetricsService.class);
+		shared = format.createReader().isMetadataShareable();
+		permits = new Semaphore(maxReaders, true);
+		unclaimed = new AtomicReference<>(shared || !owned ? null : metadata);
+
+		final DataHandle<Location> source = metadata.getSource();
+		location = metadata.getSourceLocation() == null && source != null ? source
+			.get() : metadata.getSourceLocation();
+		order = source == null ? ByteOrder.BIG_ENDIAN : source.getOrder();
+		// pooled readers open handles of their own
+		if (owned && shared && source != null) source.close();
+	}
+
+	// -- ReaderPool methods --
+
+	/**
+	 * Returns the metadata of the dataset. If readers share their metadata,
+	 * this is the shared instance.
+	 */
+	public Metadata getMetadata() {
+		return metadata;
+	}
+
+	/** Returns true if the pooled readers share one {@link Metadata}. */
+	public boolean isShared() {
+		return shared;
+	}
+
+	/** Returns the maximum number of readers open at once. */
+	public int getMaxReaders() {
+		return maxReaders;
+	}
+
+	/**
+	 * Returns a reader for the exclusive use of the calling thread, waiting for
+	 * one to be released if all readers are in use.
+	 *
+	 * @throws InterruptedIOException if interrupted while waiting.
+	 */
+	public Reader acquire() throws IOException {
+		if (closed) throw new IllegalStateException("Reader pool is closed");
+		try {
+			permits.acquire();
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a reader");
+		}
+
+		final Reader reader = idle.pollFirst();
+		if (reader != null) return reader;
+		try {
+			return createReader();
+		}
+		catch (final IOException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a reader obtained from {@link #acquire()} to the pool. The reader
+	 * must not be used afterwards.
+	 */
+	public void release(final Reader reader) throws IOException {
+		try {
+			if (closed) close(reader);
+			else idle.offerFirst(reader);
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes all idle readers. Readers still in use are closed as they are
+	 * released.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		Reader reader;
+		while ((reader = idle.pollFirst()) != null) {
+			close(reader);
+		}
+		final Metadata meta = unclaimed.getAndSet(null);
+		if (meta != null) meta.close();
+	}
+
+	// -- Helper methods --
+
+	private Reader createReader() throws IOException {
+		final Reader reader = createUndecoratedReader();
+		if (decorator == null) return reader;
+		final Reader decorated = decorator.apply(reader);
+		undecorated.put(decorated, reader);
+		return decorated;
+	}
+
+	private void close(final Reader reader) throws IOException {
+		final Reader pooled = undecorated.remove(reader);
+		(pooled == null ? reader : pooled).close();
+	}
+
+	private Reader createUndecoratedReader() throws IOException {
+		final Reader reader;
+		try {
+			reader = format.createReader();
+		}
+		catch (final FormatException e) {
+			throw new IOException(e);
+		}
+
+		if (shared) {
+			reader.setMetadata(metadata);
+			reader.setHandle(createHandle());
+			return reader;
+		}
+
+		// the first reader gets the metadata parsed by the pool
+		final Metadata meta = unclaimed.getAndSet(null);
+		if (meta != null) reader.setMetadata(meta);
+		else reader.setSource(location, config);
+		return reader;
+	}
+
+	private DataHandle<Location> createHandle() throws IOException {
+		final DataHandle<Location> handle = AbstractReader.createHandle(
+			dataHandleService, metricsService, format.getFormatName(), location,
+			config);
+		if (handle == null) {
+			throw new IOException("Could not open a handle for " + location);
+		}
+		handle.setOrder(order);
+		return handle;
+	}
+}
@@ -36,10 +36,13 @@ import io.scif.formats.tiff.TiffService;
 import io.scif.gui.GUIService;
 import io.scif.img.ImgUtilityService;
 import io.scif.img.converters.PlaneConverterService;
+import io.scif.metrics.MetricsService;
 import io.scif.services.DatasetIOService;
 import io.scif.services.FilePatternService;
 import io.scif.services.FormatService;
 import io.scif.services.InitializeService;
+import io.scif.services.MetadataCacheService;
+import io.scif.services.ReaderPoolService;
 import io.scif.services.TranslatorService;
 import io.scif.xml.XMLService;
 
@@ -156,6 +159,15 @@ public class SCIFIO extends AbstractGateway {
 		return get(InitializeService.class);
 	}
 
+	/**
+	 * Gets this application context's {@link MetadataCacheService}.
+	 *
+	 * @return The {@link MetadataCacheService} of this application context.
+	 */
+	public MetadataCacheService metadataCache() {
+		return get(MetadataCacheService.class);
+	}
+
 	/**
 	 * Gets this application context's {@link MetadataService}.
 	 *
@@ -165,6 +177,15 @@ public class SCIFIO extends AbstractGateway {
 		return get(MetadataService.class);
 	}
 
+	/**
+	 * Gets this application context's {@link MetricsService}.
+	 *
+	 * @return The {@link MetricsService} of this application context.
+	 */
+	public MetricsService metrics() {
+		return get(MetricsService.class);
+	}
+
 	/**
 	 * Gets this application context's {@link NIOService}.
 	 *
@@ -192,6 +213,15 @@ public class SCIFIO extends AbstractGateway {
 		return get(QTJavaService.class);
 	}
 
+	/**
+	 * Gets this application context's {@link ReaderPoolService}.
+	 *
+	 * @return The {@link ReaderPoolService} of this application context.
+	 */
+	public ReaderPoolService readerPool() {
+		return get(ReaderPoolService.class);
+	}
+
 	/**
 	 * Gets this application context's {@link TiffService}.
 	 *
@@ -41,4 +41,21 @@ import org.scijava.plugin.SingletonService;
 public interface CodecService extends SingletonService<Codec>, SCIFIOService {
 
 	<C extends Codec> C getCodec(Class<C> codecClass);
+
+	/**
+	 * Gets the codec of the given class as {@link #getCodec}, but wrapped to
+	 * record the time taken by each call, and the bytes passed in and out, in
+	 * the {@link io.scif.metrics.MetricsService}. The overhead is a few
+	 * nanoseconds per call. If instrumentation is disabled, the codec itself is
+	 * returned.
+	 *
+	 * @see io.scif.metrics.MetricsService#getCodecMetrics(String)
+	 */
+	Codec getInstrumentedCodec(Class<? extends Codec> codecClass);
+
+	/** Whether {@link #getInstrumentedCodec} records metrics. Default: true */
+	boolean isInstrumentationEnabled();
+
+	/** Sets whether {@link #getInstrumentedCodec} records metrics. */
+	void setInstrumentationEnabled(boolean enabled);
 }
@@ -29,6 +29,11 @@
 
 package io.scif.codec;
 
+import io.scif.metrics.MetricsService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.scijava.object.ObjectService;
 import org.scijava.plugin.AbstractSingletonService;
 import org.scijava.plugin.Parameter;
@@ -48,6 +53,14 @@ public class DefaultCodecService extends AbstractSingletonService<Codec>
 	@Parameter
 	private ObjectService objectService;
 
+	@Parameter
+	private MetricsService metricsService;
+
+	/** Instrumented codecs, by codec class. */
+	private final Map<Class<?>, Codec> instrumented = new ConcurrentHashMap<>();
+
+	private volatile boolean instrumentationEnabled = true;
+
 	// -- CodecService methods --
 
 	@Override
@@ -55,6 +68,27 @@ public class DefaultCodecService extends AbstractSingletonService<Codec>
 		return getInstance(codecClass);
 	}
 
+	@Override
+	public Codec getInstrumentedCodec(final Class<? extends Codec> codecClass) {
+		if (!instrumentationEnabled) return getCodec(codecClass);
+		return instrumented.computeIfAbsent(codecClass, c -> {
+			final Codec codec = getCodec(codecClass);
+			if (codec == null) return null;
+			return new InstrumentedCodec(codec, metricsService.getCodecMetrics(
+				codecClass.getSimpleName()));
+		});
+	}
+
+	@Override
+	public boolean isInstrumentationEnabled() {
+		return instrumentationEnabled;
+	}
+
+	@Override
+	public void setInstrumentationEnabled(final boolean enabled) {
+		instrumentationEnabled = enabled;
+	}
+
 	// -- PTService methods --
 
 	@Override
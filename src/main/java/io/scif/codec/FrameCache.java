@@ -0,0 +1,232 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import io.scif.FormatException;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Cache of fully decoded frames for delta (inter-frame) codecs such as
+ * {@link QTRLECodec}, {@link MSRLECodec} and {@link MSVideoCodec}.
+ * <p>
+ * Frames compressed with these codecs can only be reconstructed from the
+ * preceding frame. Rather than remembering every decoded frame, this cache
+ * keeps periodic <em>checkpoints</em> - one every {@code interval} frames -
+ * within a fixed byte budget. Any frame can then be reached by decoding forward
+ * from the nearest preceding checkpoint or key frame, so the cost of a random
+ * seek is bounded by the checkpoint interval rather than by the distance to the
+ * start of the movie.
+ * </p>
+ * <p>
+ * When the byte budget is exceeded, the checkpoint interval is doubled and
+ * every checkpoint not on the new grid is discarded, so the timeline stays
+ * evenly covered however long the movie is.
+ * </p>
+ * <p>
+ * All arrays passed into and returned from this cache are copies: codecs such
+ * as {@link MSRLECodec} decode in place into
+ * {@link CodecOptions#previousImage}, which must never corrupt a checkpoint.
+ * </p>
+ */
+public class FrameCache {
+
+	// -- Constants --
+
+	/** Default byte budget for cached checkpoints: 64 MiB. */
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+	/** Default number of frames between checkpoints. */
+	public static final int DEFAULT_INTERVAL = 16;
+
+	// -- Fields --
+
+	/** Decoded checkpoint frames, keyed by frame index. */
+	private final TreeMap<Long, byte[]> checkpoints = new TreeMap<>();
+
+	/** Frames which can be decoded without a preceding frame. */
+	private final TreeSet<Long> keyFrames = new TreeSet<>();
+
+	/** Maximum number of bytes to retain in {@link #checkpoints}. */
+	private final long maxBytes;
+
+	/** Current distance between checkpoints. */
+	private long interval;
+
+	/** Number of bytes currently retained. */
+	private long cachedBytes;
+
+	// -- Constructors --
+
+	public FrameCache() {
+		this(DEFAULT_MAX_BYTES, DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * @param maxBytes Maximum number of bytes of decoded frames to retain.
+	 * @param interval Initial number of frames between checkpoints.
+	 */
+	public FrameCache(final long maxBytes, final int interval) {
+		if (interval < 1) {
+			throw new IllegalArgumentException("Invalid checkpoint interval: " +
+				interval);
+		}
+		this.maxBytes = maxBytes;
+		this.interval = interval;
+	}
+
+	// -- FrameCache API methods --
+
+	/**
+	 * Reconstructs the given frame, decoding forward from the nearest checkpoint
+	 * or key frame at or before it. Intermediate frames falling on the checkpoint
+	 * grid are cached along the way.
+	 *
+	 * @param frame Index of the frame to reconstruct.
+	 * @param decoder Callback which decodes a single frame given its predecessor.
+	 * @return A copy of the fully decoded frame.
+	 */
+	public synchronized byte[] reconstruct(final long frame,
+		final FrameDecoder decoder) throws FormatException, IOException
+	{
+		final Map.Entry<Long, byte[]> checkpoint = checkpoints.floorEntry(frame);
+		final Long keyFrame = keyFrames.floor(frame);
+		long start = checkpoint == null ? -1 : checkpoint.getKey();
+		if (keyFrame != null && keyFrame > start) start = keyFrame;
+
+		byte[] current = null;
+		long next = 0;
+		if (checkpoint != null && checkpoint.getKey() == start) {
+			current = checkpoint.getValue().clone();
+			next = start + 1;
+		}
+		else if (start >= 0) {
+			// key frame: decode without a predecessor
+			next = start;
+		}
+
+		for (long f = next; f <= frame; f++) {
+			current = decoder.decode(f, keyFrames.contains(f) ? null : current);
+			if (f % interval == 0 && f != frame) put(f, current);
+		}
+		if (frame % interval == 0) put(frame, current);
+		return current.clone();
+	}
+
+	/**
+	 * Offers a frame that was decoded outside of
+	 * {@link #reconstruct(long, FrameDecoder)}. It is retained only if it falls
+	 * on the current checkpoint grid.
+	 */
+	public synchronized void offer(final long frame, final byte[] data) {
+		if (data != null && frame % interval == 0) put(frame, data);
+	}
+
+	/**
+	 * Marks a frame as a key frame, i.e. one that can be decoded without any
+	 * preceding frame.
+	 */
+	public synchronized void markKeyFrame(final long frame) {
+		keyFrames.add(frame);
+	}
+
+	/** Returns true if the given frame was marked as a key frame. */
+	public synchronized boolean isKeyFrame(final long frame) {
+		return keyFrames.contains(frame);
+	}
+
+	/** Returns true if a checkpoint is cached for the given frame. */
+	public synchronized boolean isCached(final long frame) {
+		return checkpoints.containsKey(frame);
+	}
+
+	/** Returns the number of bytes of decoded frames currently retained. */
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	/** Returns the current number of frames between checkpoints. */
+	public synchronized long getInterval() {
+		return interval;
+	}
+
+	/** Discards all checkpoints and key frame information. */
+	public synchronized void clear() {
+		checkpoints.clear();
+		keyFrames.clear();
+		cachedBytes = 0;
+	}
+
+	// -- Helper methods --
+
+	private void put(final long frame, final byte[] data) {
+		if (data == null || data.length > maxBytes) return;
+		final byte[] old = checkpoints.put(frame, data.clone());
+		if (old != null) cachedBytes -= old.length;
+		cachedBytes += data.length;
+
+		while (cachedBytes > maxBytes && checkpoints.size() > 1) {
+			// coarsen the checkpoint grid until we are back within budget
+			interval *= 2;
+			final Iterator<Map.Entry<Long, byte[]>> iter = checkpoints.entrySet()
+				.iterator();
+			while (iter.hasNext()) {
+				final Map.Entry<Long, byte[]> entry = iter.next();
+				if (entry.getKey() % interval != 0) {
+					cachedBytes -= entry.getValue().length;
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Callback used to decode a single frame of a delta-compressed sequence.
+	 */
+	@FunctionalInterface
+	public interface FrameDecoder {
+
+		/**
+		 * @param frame Index of the frame to decode.
+		 * @param previous Fully decoded preceding frame, or null if {@code frame}
+		 *          is the first frame or a key frame. Implementations may modify
+		 *          this array.
+		 * @return The fully decoded frame.
+		 */
+		byte[] decode(long frame, byte[] previous) throws FormatException,
+			IOException;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import io.scif.AbstractSCIFIOPlugin;
+import io.scif.FormatException;
+import io.scif.metrics.CodecMetrics;
+
+import java.io.IOException;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+
+/**
+ * {@link Codec} which passes every call to another codec, recording its
+ * duration and the bytes passed in and out in {@link CodecMetrics}.
+ *
+ * @see CodecService#getInstrumentedCodec(Class)
+ */
+class InstrumentedCodec extends AbstractSCIFIOPlugin implements Codec {
+
+	// -- Fields --
+
+	private final Codec codec;
+
+	private final CodecMetrics metrics;
+
+	// -- Constructors --
+
+	InstrumentedCodec(final Codec codec, final CodecMetrics metrics) {
+		this.codec = codec;
+		this.metrics = metrics;
+		setContext(codec.getContext());
+	}
+
+	// -- InstrumentedCodec methods --
+
+	/** Gets the wrapped codec. */
+	Codec getCodec() {
+		return codec;
+	}
+
+	// -- Codec API methods --
+
+	@Override
+	public byte[] compress(final byte[] data, final CodecOptions options)
+		throws FormatException
+	{
+		final long start = System.nanoTime();
+		final byte[] result = codec.compress(data, options);
+		metrics.recordCompress(System.nanoTime() - start, data.length,
+			length(result));
+		return result;
+	}
+
+	@Override
+	public byte[] compress(final byte[][] data, final CodecOptions options)
+		throws FormatException
+	{
+		final long start = System.nanoTime();
+		final byte[] result = codec.compress(data, options);
+		metrics.recordCompress(System.nanoTime() - start, length(data), length(
+			result));
+		return result;
+	}
+
+	@Override
+	public byte[] decompress(final byte[] data, final CodecOptions options)
+		throws FormatException
+	{
+		final long start = System.nanoTime();
+		final byte[] result = codec.decompress(data, options);
+		metrics.recordDecompress(System.nanoTime() - start, data.length, length(
+			result));
+		return result;
+	}
+
+	@Override
+	public byte[] decompress(final byte[][] data, final CodecOptions options)
+		throws FormatException
+	{
+		final long start = System.nanoTime();
+		final byte[] result = codec.decompress(data, options);
+		metrics.recordDecompress(System.nanoTime() - start, length(data), length(
+			result));
+		return result;
+	}
+
+	@Override
+	public byte[] decompress(final byte[] data) throws FormatException {
+		return decompress(data, null);
+	}
+
+	@Override
+	public byte[] decompress(final byte[][] data) throws FormatException {
+		return decompress(data, null);
+	}
+
+	@Override
+	public byte[] decompress(final DataHandle<Location> in,
+		final CodecOptions options) throws FormatException, IOException
+	{
+		final long offset = in.offset();
+		final long start = System.nanoTime();
+		final byte[] result = codec.decompress(in, options);
+		metrics.recordDecompress(System.nanoTime() - start, in.offset() - offset,
+			length(result));
+		return result;
+	}
+
+	// -- Helper methods --
+
+	private static long length(final byte[] data) {
+		return data == null ? 0 : data.length;
+	}
+
+	private static long length(final byte[][] data) {
+		long length = 0;
+		for (final byte[] d : data) {
+			length += length(d);
+		}
+		return length;
+	}
+}
@@ -41,6 +41,8 @@ import io.scif.img.ImgOpener;
 import io.scif.img.ImgSaver;
 import io.scif.img.Range;
 import io.scif.img.converters.PlaneConverter;
+import io.scif.io.handle.HandleTrace;
+import io.scif.io.handle.MappedFileHandle;
 
 import java.awt.image.ColorModel;
 import java.util.HashMap;
@@ -81,6 +83,14 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 
 	private boolean bufferedReading = true;
 
+	private boolean mappedReading = false;
+
+	private int mappedWindowSize = MappedFileHandle.DEFAULT_WINDOW_SIZE;
+
+	private boolean tracedReading = false;
+
+	private int traceCapacity = HandleTrace.DEFAULT_CAPACITY;
+
 	// Parser
 	private MetadataLevel level;
 
@@ -88,6 +98,13 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 
 	private boolean saveOriginalMetadata;
 
+	private boolean memoize = false;
+
+	// Reader
+	private boolean pooledPlanes = false;
+
+	private boolean mappedPlanes = false;
+
 	// Writer
 	private boolean writeSequential = false;
 
@@ -140,6 +157,15 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 	// Whether or not to use a MinMaxFilter
 	private boolean computeMinMax = false;
 
+	// Maximum size of the plane cache in bytes, or 0 for no cache
+	private long planeCacheSize = 0;
+
+	// Number of planes to read ahead, or 0 for none
+	private int prefetchDepth = 0;
+
+	// Number of readers loading the cells of a cell image at once
+	private int cellReaders = 1;
+
 	// Custom plane converter
 	private PlaneConverter planeConverter = null;
 
@@ -167,6 +193,9 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		level = config.level;
 		filterMetadata = config.filterMetadata;
 		saveOriginalMetadata = config.saveOriginalMetadata;
+		memoize = config.memoize;
+		pooledPlanes = config.pooledPlanes;
+		mappedPlanes = config.mappedPlanes;
 		writeSequential = config.writeSequential;
 		failIfOverwriting = config.failIfOverwriting;
 		model = config.model;
@@ -178,10 +207,17 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		range = config.range;
 		region = config.region;
 		computeMinMax = config.computeMinMax;
+		planeCacheSize = config.planeCacheSize;
+		prefetchDepth = config.prefetchDepth;
+		cellReaders = config.cellReaders;
 		planeConverter = config.planeConverter;
 		imgFactoryHeuristic = config.imgFactoryHeuristic;
 		writeRGB = config.writeRGB;
 		bufferedReading = config.bufferedReading;
+		mappedReading = config.mappedReading;
+		mappedWindowSize = config.mappedWindowSize;
+		tracedReading = config.tracedReading;
+		traceCapacity = config.traceCapacity;
 	}
 
 	// -- Checker Methods --
@@ -195,6 +231,70 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return bufferedReading;
 	}
 
+	/**
+	 * Memory-mapped reading serves reads of local files from a
+	 * {@link MappedFileHandle}, avoiding a system call per read for formats with
+	 * many small, scattered reads (e.g. tiled TIFFs). Takes precedence over
+	 * {@link #enableBufferedReading(boolean)} for local files. Default: false
+	 *
+	 * @param enabled Whether or not to memory-map local files.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig enableMappedReading(final boolean enabled) {
+		mappedReading = enabled;
+		return this;
+	}
+
+	public boolean mappedReadingEnabled() {
+		return mappedReading;
+	}
+
+	/**
+	 * @param windowSize Maximum number of bytes of a file to map at once when
+	 *          memory-mapped reading is enabled.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig setMappedWindowSize(final int windowSize) {
+		mappedWindowSize = windowSize;
+		return this;
+	}
+
+	public int mappedWindowSize() {
+		return mappedWindowSize;
+	}
+
+	/**
+	 * Traced reading records every read, seek and skip on the handles of
+	 * readers, in a {@link HandleTrace} added to the
+	 * {@link io.scif.metrics.MetricsService}, for diagnosing the access
+	 * patterns of formats. Default: false
+	 *
+	 * @param enabled Whether or not to trace the handles of readers.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig enableTracedReading(final boolean enabled) {
+		tracedReading = enabled;
+		return this;
+	}
+
+	public boolean tracedReadingEnabled() {
+		return tracedReading;
+	}
+
+	/**
+	 * @param capacity Maximum number of calls kept by each trace when traced
+	 *          reading is enabled.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig setTraceCapacity(final int capacity) {
+		traceCapacity = capacity;
+		return this;
+	}
+
+	public int traceCapacity() {
+		return traceCapacity;
+	}
+
 	public SCIFIOConfig checkerSetOpen(final boolean open) {
 		openDataset = open;
 		return this;
@@ -256,6 +356,79 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return this;
 	}
 
+	/**
+	 * @return True if parsed metadata should be restored from, and saved to,
+	 *         the {@link io.scif.services.MetadataCacheService}. Default: false
+	 */
+	public boolean parserIsMemoized() {
+		return memoize;
+	}
+
+	/**
+	 * Only metadata implementing {@link io.scif.CacheableMetadata} is cached,
+	 * such as that of the TIFF, DICOM, FITS and PGM formats; datasets of other
+	 * formats are parsed as usual. Default: false
+	 *
+	 * @param memoize Whether parsed metadata should be cached across sessions,
+	 *          so that unchanged datasets need not be parsed again.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig parserSetMemoized(final boolean memoize) {
+		this.memoize = memoize;
+		return this;
+	}
+
+	// -- Reader methods --
+
+	/**
+	 * @return True if readers should draw the buffers of planes they create from
+	 *         the {@link io.scif.services.PlaneBufferService}.
+	 */
+	public boolean readerIsPooledPlanes() {
+		return pooledPlanes;
+	}
+
+	/**
+	 * Pooled planes return their buffers to the
+	 * {@link io.scif.services.PlaneBufferService} when
+	 * {@link io.scif.Plane#release() released}, where they are reused by
+	 * subsequent reads. Planes which are never released are simply garbage
+	 * collected. Default: false
+	 * <p>
+	 * <b>Warning:</b> the {@code byte[]} of a plane must not be used after the
+	 * plane is released.
+	 * </p>
+	 *
+	 * @param pooledPlanes Whether or not to use pooled plane buffers.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig readerSetPooledPlanes(final boolean pooledPlanes) {
+		this.pooledPlanes = pooledPlanes;
+		return this;
+	}
+
+	/**
+	 * @return True if readers of uncompressed formats should return planes
+	 *         which are views of the memory-mapped source file.
+	 */
+	public boolean readerIsMappedPlanes() {
+		return mappedPlanes;
+	}
+
+	/**
+	 * Mapped planes are {@link io.scif.ByteBufferPlane}s viewing the source
+	 * file directly, so their pixels are never copied onto the heap unless a
+	 * {@code byte[]} is requested. Only readers of uncompressed local files
+	 * support this; other readers ignore it. Default: false
+	 *
+	 * @param mappedPlanes Whether or not to map planes from the source file.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig readerSetMappedPlanes(final boolean mappedPlanes) {
+		this.mappedPlanes = mappedPlanes;
+		return this;
+	}
+
 	// -- Writer methods --
 
 	/**
@@ -424,6 +597,71 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return this;
 	}
 
+	/**
+	 * @return The maximum size in bytes of the cache of decoded planes kept by
+	 *         readers opened for an image, or 0 if planes are not cached.
+	 *         Default: 0
+	 * @see io.scif.filters.PlaneCacheFilter
+	 */
+	public long imgOpenerGetPlaneCacheSize() {
+		return planeCacheSize;
+	}
+
+	/**
+	 * @param planeCacheSize The maximum size in bytes of the cache of decoded
+	 *          planes, useful for cell images whose cells are loaded more than
+	 *          once. A size of 0 disables the cache.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig imgOpenerSetPlaneCacheSize(final long planeCacheSize) {
+		this.planeCacheSize = planeCacheSize;
+		return this;
+	}
+
+	/**
+	 * @return The number of planes read ahead on background threads when an
+	 *         image is read plane by plane, or 0 if planes are not read ahead.
+	 *         Default: 0
+	 * @see io.scif.filters.PrefetchFilter
+	 */
+	public int imgOpenerGetPrefetchDepth() {
+		return prefetchDepth;
+	}
+
+	/**
+	 * @param prefetchDepth The number of planes to read ahead while earlier
+	 *          planes are being converted. A depth of 0 disables reading ahead.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig imgOpenerSetPrefetchDepth(final int prefetchDepth) {
+		this.prefetchDepth = prefetchDepth;
+		return this;
+	}
+
+	/**
+	 * @return The number of readers loading the cells of a cell image at once.
+	 *         Default: 1
+	 * @see io.scif.img.cell.SCIFIOCellImgFactory#setReaderPool
+	 */
+	public int imgOpenerGetCellReaders() {
+		return cellReaders;
+	}
+
+	/**
+	 * @param cellReaders The number of readers loading the cells of a cell
+	 *          image at once, each reading through a handle of its own. With a
+	 *          single reader, cells are loaded one at a time.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig imgOpenerSetCellReaders(final int cellReaders) {
+		if (cellReaders < 1) {
+			throw new IllegalArgumentException("Invalid reader count: " +
+				cellReaders);
+		}
+		this.cellReaders = cellReaders;
+		return this;
+	}
+
 	/**
 	 * Returns a {@link ImageRegion} specifying dimension constraints. This may be
 	 * of a different dimensionality than the underlying image, in which case the
@@ -273,6 +273,16 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 		return getParent().getHandle();
 	}
 
+	@Override
+	public void setHandle(final DataHandle<Location> handle) {
+		getParent().setHandle(handle);
+	}
+
+	@Override
+	public boolean isMetadataShareable() {
+		return getParent().isMetadataShareable();
+	}
+
 	@Override
 	public long getOptimalTileWidth(final int imageIndex) {
 		return getParent().getOptimalTileWidth(imageIndex);
@@ -283,6 +293,25 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 		return getParent().getOptimalTileHeight(imageIndex);
 	}
 
+	/**
+	 * Maps the parent's block sizes onto this filter's axes by axis type, as
+	 * filters may reorder or split axes. Axes unknown to the parent are not
+	 * chunked.
+	 */
+	@Override
+	public long[] getNativeBlockSize(final int imageIndex) {
+		final long[] parentBlocks = getParent().getNativeBlockSize(imageIndex);
+		final ImageMetadata parentMeta = getParentMeta().get(imageIndex);
+		final ImageMetadata meta = getMetadata().get(imageIndex);
+		final long[] blocks = new long[meta.getAxes().size()];
+		for (int d = 0; d < blocks.length; d++) {
+			final int p = parentMeta.getAxisIndex(meta.getAxis(d).type());
+			blocks[d] = p < 0 || p >= parentBlocks.length ? 1 : Math.max(1, Math
+				.min(parentBlocks[p], meta.getAxisLength(d)));
+		}
+		return blocks;
+	}
+
 	@Override
 	public void setMetadata(final Metadata meta) throws IOException {
 		getParent().setMetadata(meta);
@@ -392,6 +421,13 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 		return getParent().createPlane(meta, bounds);
 	}
 
+	@Override
+	public Plane createPlane(final ImageMetadata meta, final Interval bounds,
+		final SCIFIOConfig config)
+	{
+		return getParent().createPlane(meta, bounds, config);
+	}
+
 	@Override
 	public <P extends Plane> P castToTypedPlane(final Plane plane) {
 		return getParent().<P> castToTypedPlane(plane);
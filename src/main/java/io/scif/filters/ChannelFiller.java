@@ -74,6 +74,9 @@ public class ChannelFiller extends AbstractReaderFilter {
 	 */
 	private Plane lastPlane = null;
 
+	/** Whether {@link #lastPlane} was opened by this filter for itself. */
+	private boolean ownsLastPlane;
+
 	/** Bounds of last plane opened. */
 	private Interval lastPlaneBounds = null;
 
@@ -143,8 +146,12 @@ public class ChannelFiller extends AbstractReaderFilter {
 		final Interval bounds, final SCIFIOConfig config) throws FormatException,
 		IOException
 	{
-		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds);
-		return openPlane(imageIndex, planeIndex, plane, bounds, config);
+		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds,
+			config);
+		final Plane opened = openPlane(imageIndex, planeIndex, plane, bounds,
+			config);
+		if (opened != plane) plane.release();
+		return opened;
 	}
 
 	@Override
@@ -154,15 +161,19 @@ public class ChannelFiller extends AbstractReaderFilter {
 	{
 		// If the wrapped Metadata wasn't indexed, we can use the parent reader
 		// directly
-		if (getParentMeta().get(imageIndex).isFalseColor() || !getParentMeta().get(
-			imageIndex).isIndexed())
-		{
+		if (passesThrough(imageIndex)) {
+			if (config.readerIsPooledPlanes()) {
+				// NB: the caller releases pooled planes, so they are not cached
+				setLastPlane(null, false);
+				return getParent().openPlane(imageIndex, planeIndex, plane, bounds,
+					config);
+			}
 			if (!haveCached(imageIndex, planeIndex, bounds)) {
 				lastPlaneBounds = new FinalInterval(bounds);
 				lastPlaneIndex = planeIndex;
 				lastImageIndex = imageIndex;
-				lastPlane = getParent().openPlane(imageIndex, planeIndex, plane, bounds,
-					config);
+				setLastPlane(getParent().openPlane(imageIndex, planeIndex, plane,
+					bounds, config), false);
 			}
 			return lastPlane;
 		}
@@ -176,8 +187,8 @@ public class ChannelFiller extends AbstractReaderFilter {
 			updateLastPlaneInfo(imageIndex, lutLength, bounds);
 
 			// Now we can read the desired plane
-			lastPlane = getParent().openPlane(imageIndex, planeIndex, //
-				lastPlaneBounds, config);
+			setLastPlane(getParent().openPlane(imageIndex, planeIndex, //
+				lastPlaneBounds, config), true);
 			lastPlaneIndex = planeIndex;
 			lastImageIndex = imageIndex;
 
@@ -228,6 +239,24 @@ public class ChannelFiller extends AbstractReaderFilter {
 		return plane;
 	}
 
+	@Override
+	public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		if (passesThrough(imageIndex)) {
+			return getParent().openPlanes(imageIndex, planeIndices, bounds, buf,
+				config);
+		}
+		return super.openPlanes(imageIndex, planeIndices, bounds, buf, config);
+	}
+
+	@Override
+	public boolean isBulkReadable(final int imageIndex, final Interval bounds) {
+		return passesThrough(imageIndex) && getParent().isBulkReadable(imageIndex,
+			bounds);
+	}
+
 	// -- AbstractReaderFilter API Methods --
 
 	/* lutLength is 0 until a plane is opened */
@@ -252,6 +281,25 @@ public class ChannelFiller extends AbstractReaderFilter {
 
 	// -- Helper Methods --
 
+	/** Returns true if planes of the given image pass through unchanged. */
+	private boolean passesThrough(final int imageIndex) {
+		// planes which are not indexed are not expanded
+		return getParentMeta().get(imageIndex).isFalseColor() || !getParentMeta()
+			.get(imageIndex).isIndexed();
+	}
+
+	/**
+	 * Replaces the cached plane, releasing the previous one if this filter
+	 * opened it for itself.
+	 */
+	private void setLastPlane(final Plane plane, final boolean owned) {
+		if (ownsLastPlane && lastPlane != null && lastPlane != plane) {
+			lastPlane.release();
+		}
+		lastPlane = plane;
+		ownsLastPlane = owned;
+	}
+
 	/**
 	 * Converts the given plane information using the current metadata to a format
 	 * usable by the wrapped reader, stored in the "lastPlane"... variables.
@@ -288,7 +336,7 @@ public class ChannelFiller extends AbstractReaderFilter {
 		super.cleanUp();
 		lastPlaneIndex = 0;
 		lastImageIndex = 0;
-		lastPlane = null;
+		setLastPlane(null, false);
 		lastPlaneBounds = null;
 	}
 }
@@ -365,8 +365,12 @@ public class FileStitcher extends AbstractReaderFilter {
 		final Interval bounds, final SCIFIOConfig config) throws FormatException,
 		IOException
 	{
-		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds);
-		return openPlane(imageIndex, planeIndex, plane, bounds, config);
+		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds,
+			config);
+		final Plane opened = openPlane(imageIndex, planeIndex, plane, bounds,
+			config);
+		if (opened != plane) plane.release();
+		return opened;
 	}
 
 	@Override
@@ -389,9 +393,8 @@ public class FileStitcher extends AbstractReaderFilter {
 		// Check for plane compatibility
 		Plane bp;
 		if (!isCompatible(plane.getClass())) {
-			bp = new ByteArrayPlane();
-			bp.populate(plane);
-			((ByteArrayPlane) bp).setData(new byte[plane.getBytes().length]);
+			bp = new ByteArrayPlane().populate(plane.getImageMetadata(),
+				new byte[plane.getBytes().length], plane.getBounds());
 		}
 		else bp = plane;
 
@@ -0,0 +1,243 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import io.scif.FormatException;
+import io.scif.Metadata;
+import io.scif.Plane;
+import io.scif.Reader;
+import io.scif.config.SCIFIOConfig;
+import io.scif.io.handle.CountingHandle;
+import io.scif.metrics.MetricsService;
+import io.scif.metrics.ReaderMetrics;
+
+import java.io.IOException;
+
+import net.imglib2.Interval;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Records the time taken to open each plane, and the reads and seeks it
+ * caused on the source's {@link DataHandle}, in the {@link MetricsService}.
+ * <p>
+ * Metrics are kept for this reader, see {@link #getMetrics()}, and added to
+ * those of its format. While enabled, this filter wraps the reader's handle in
+ * a {@link CountingHandle}; time spent opening a plane outside of reading that
+ * handle is attributed to decoding. Reads by the parser, before the filter is
+ * enabled, are not recorded.
+ * </p>
+ */
+@Plugin(type = Filter.class)
+public class MetricsFilter extends AbstractReaderFilter {
+
+	// -- Fields --
+
+	@Parameter
+	private MetricsService metricsService;
+
+	private ReaderMetrics metrics;
+
+	private ReaderMetrics formatMetrics;
+
+	private CountingHandle<Location> counter;
+
+	// -- MetricsFilter API methods --
+
+	/**
+	 * Gets the metrics of this reader, or null if no source has been set.
+	 */
+	public ReaderMetrics getMetrics() {
+		return metrics;
+	}
+
+	// -- AbstractReaderFilter API methods --
+
+	@Override
+	protected void setSourceHelper(final Location source,
+		final SCIFIOConfig config) throws IOException
+	{
+		super.setSourceHelper(source, config);
+		if (source == null) return;
+
+		final Reader tail = tail();
+		if (metrics == null) {
+			final String format = tail.getFormat().getFormatName();
+			formatMetrics = metricsService.getFormatMetrics(format);
+			metrics = new ReaderMetrics(format + ": " + source.getName());
+			metricsService.addReaderMetrics(metrics);
+		}
+		wrapHandle(tail);
+	}
+
+	// -- Filter API methods --
+
+	@Override
+	public void reset() {
+		if (getParent() != null) unwrapHandle(tail());
+		counter = null;
+		if (metrics != null) metricsService.removeReaderMetrics(metrics);
+		metrics = formatMetrics = null;
+		super.reset();
+	}
+
+	// -- Reader API methods --
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final SCIFIOConfig config) throws FormatException, IOException
+	{
+		final long start = start();
+		final Plane plane = super.openPlane(imageIndex, planeIndex, config);
+		record(start);
+		return plane;
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		final long start = start();
+		final Plane plane = super.openPlane(imageIndex, planeIndex, bounds, config);
+		record(start);
+		return plane;
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		final long start = start();
+		final Plane result = super.openPlane(imageIndex, planeIndex, plane, config);
+		record(start);
+		return result;
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final long start = start();
+		final Plane result = super.openPlane(imageIndex, planeIndex, plane, bounds,
+			config);
+		record(start);
+		return result;
+	}
+
+	@Override
+	public void close(final boolean fileOnly) throws IOException {
+		super.close(fileOnly);
+		counter = null;
+		if (!fileOnly && metrics != null) {
+			metricsService.removeReaderMetrics(metrics);
+			metrics = formatMetrics = null;
+		}
+	}
+
+	// -- Prioritized API --
+
+	/** Sits above all other filters, so that their overhead is recorded. */
+	@Override
+	public double getPriority() {
+		return 6.0;
+	}
+
+	// -- Helper methods --
+
+	/** Starts timing a plane, resetting the handle's counts. */
+	private long start() {
+		if (counter != null) counter.reset();
+		return System.nanoTime();
+	}
+
+	/** Records a plane opened since the given {@link #start()}. */
+	private void record(final long start) {
+		final long nanos = System.nanoTime() - start;
+		if (metrics == null) return;
+		final CountingHandle<Location> c = counter;
+		final long bytes = c == null ? 0 : c.getBytesRead();
+		final long reads = c == null ? 0 : c.getReadCount();
+		final long seeks = c == null ? 0 : c.getSeekCount();
+		final long readNanos = c == null ? 0 : c.getReadNanos();
+		metrics.record(nanos, bytes, reads, seeks, readNanos);
+		formatMetrics.record(nanos, bytes, reads, seeks, readNanos);
+	}
+
+	/** Gets the reader at the bottom of the filter stack. */
+	private Reader tail() {
+		Object parent = getParent();
+		while (parent instanceof Filter) {
+			parent = ((Filter) parent).getParent();
+		}
+		return (Reader) parent;
+	}
+
+	/**
+	 * Wraps the reader's handle in a {@link CountingHandle}, be it its own or
+	 * the source of its metadata.
+	 */
+	private void wrapHandle(final Reader reader) {
+		final DataHandle<Location> handle = reader.getHandle();
+		if (handle == null) {
+			counter = null;
+			return;
+		}
+		if (handle instanceof CountingHandle) {
+			@SuppressWarnings("unchecked")
+			final CountingHandle<Location> existing =
+				(CountingHandle<Location>) handle;
+			counter = existing;
+			return;
+		}
+		final CountingHandle<Location> wrapper = new CountingHandle<>(handle);
+		final Metadata meta = reader.getMetadata();
+		if (meta != null && meta.getSource() == handle) meta.setSource(wrapper);
+		else reader.setHandle(wrapper);
+		counter = wrapper;
+	}
+
+	/** Restores the handle wrapped by {@link #wrapHandle}. */
+	private void unwrapHandle(final Reader reader) {
+		if (counter == null) return;
+		final Metadata meta = reader.getMetadata();
+		if (meta != null && meta.getSource() == counter) {
+			meta.setSource(counter.getHandle());
+		}
+		else if (reader.getHandle() == counter) {
+			reader.setHandle(counter.getHandle());
+		}
+	}
+}
@@ -213,8 +213,12 @@ public class MinMaxFilter extends AbstractReaderFilter {
 		final Interval bounds, final SCIFIOConfig config) throws FormatException,
 		IOException
 	{
-		final Plane plane = createPlane(bounds);
-		return openPlane(imageIndex, planeIndex, plane, bounds, config);
+		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds,
+			config);
+		final Plane opened = openPlane(imageIndex, planeIndex, plane, bounds,
+			config);
+		if (opened != plane) plane.release();
+		return opened;
 	}
 
 	@Override
@@ -223,13 +227,36 @@ public class MinMaxFilter extends AbstractReaderFilter {
 		throws FormatException, IOException
 	{
 //		FormatTools.assertId(getCurrentFile(), true, 2);
-		super.openPlane(imageIndex, planeIndex, plane, bounds, config);
+		// NB: the parent may return a plane other than the one given
+		final Plane opened = super.openPlane(imageIndex, planeIndex, plane, bounds,
+			config);
 
 		final int bytesPerPixel = FormatTools.getBytesPerPixel(//
 			getMetadata().get(imageIndex).getPixelType());
 		final int len = (int) (bytesPerPixel * Intervals.numElements(bounds));
-		updateMinMax(imageIndex, planeIndex, plane.getBytes(), len);
-		return plane;
+		updateMinMax(imageIndex, planeIndex, opened.getBytes(), 0, len);
+		return opened;
+	}
+
+	@Override
+	public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final byte[] planes = getParent().openPlanes(imageIndex, planeIndices,
+			bounds, buf, config);
+
+		final int len = (int) FormatTools.getPlaneSize(getMetadata(), bounds,
+			imageIndex);
+		for (int i = 0; i < planeIndices.length; i++) {
+			updateMinMax(imageIndex, planeIndices[i], planes, i * len, len);
+		}
+		return planes;
+	}
+
+	@Override
+	public boolean isBulkReadable(final int imageIndex, final Interval bounds) {
+		return getParent().isBulkReadable(imageIndex, bounds);
 	}
 
 	@Override
@@ -258,11 +285,12 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	 * @param imageIndex the image index within the dataset
 	 * @param planeIndex the plane index within the image.
 	 * @param buf a pre-allocated buffer.
+	 * @param offset the offset of the plane's pixels within {@code buf}.
 	 * @param len as {@code buf} may be larger than the actual pixel count having
 	 *          been written to it, the length (in bytes) of the those pixels.
 	 */
 	private void updateMinMax(final int imageIndex, final long planeIndex,
-		final byte[] buf, final int len)
+		final byte[] buf, final int offset, final int len)
 	{
 		if (buf == null) return;
 		initMinMax();
@@ -292,7 +320,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 		for (int i = 0; i < pixels; i++) {
 			// get the value for this pixel
 			final int idx = bpp * i;
-			long bits = Bytes.toLong(buf, idx, bpp, little);
+			long bits = Bytes.toLong(buf, offset + idx, bpp, little);
 			if (signed) {
 				if (bits >= threshold) bits -= 2 * threshold;
 			}
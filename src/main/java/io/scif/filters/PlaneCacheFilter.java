@@ -0,0 +1,454 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import io.scif.ByteArrayPlane;
+import io.scif.FormatException;
+import io.scif.Plane;
+import io.scif.config.SCIFIOConfig;
+import io.scif.util.FormatTools;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+import net.imglib2.display.ColorTable;
+import net.imglib2.util.Intervals;
+
+import org.scijava.io.location.Location;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Keeps recently opened planes in memory, so that revisiting a plane does not
+ * decode it again. Planes are cached by image index, plane index and bounds; a
+ * request for a region which lies within a cached region of the same plane is
+ * served from the cached copy.
+ * <p>
+ * The cache holds at most {@link #getMaxBytes()} bytes of pixel data. When full,
+ * planes are evicted according to the {@link Eviction} policy. Callers always
+ * receive a copy of the cached data, so modifying a returned plane does not
+ * affect the cache.
+ * </p>
+ */
+@Plugin(type = Filter.class)
+public class PlaneCacheFilter extends AbstractReaderFilter {
+
+	// -- Constants --
+
+	/** Default maximum size of the cache, in bytes. */
+	public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+	/** Policies for choosing which plane to evict when the cache is full. */
+	public enum Eviction {
+		/** Evicts the least recently used plane. */
+		LRU,
+		/** Evicts the least frequently used plane, oldest first among equals. */
+		LFU
+	}
+
+	// -- Fields --
+
+	/** Cached regions, grouped by image and plane index. */
+	private final Map<PlaneKey, List<Entry>> entries = new HashMap<>();
+
+	private long maxBytes = DEFAULT_MAX_BYTES;
+
+	private Eviction eviction = Eviction.LRU;
+
+	private long cachedBytes;
+
+	/** Logical time of the most recent access. */
+	private long clock;
+
+	private long hits;
+
+	private long containedHits;
+
+	private long misses;
+
+	private long evictions;
+
+	// -- PlaneCacheFilter API methods --
+
+	/** Returns the maximum size of the cache, in bytes. */
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Sets the maximum size of the cache, in bytes, evicting planes as needed.
+	 */
+	public synchronized void setMaxBytes(final long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Invalid cache size: " + maxBytes);
+		}
+		this.maxBytes = maxBytes;
+		evict(0);
+	}
+
+	/** Returns the policy used to choose which plane to evict. */
+	public synchronized Eviction getEviction() {
+		return eviction;
+	}
+
+	/** Sets the policy used to choose which plane to evict. */
+	public synchronized void setEviction(final Eviction eviction) {
+		this.eviction = eviction;
+	}
+
+	/** Returns the total size of the cached planes, in bytes. */
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	/** Returns the number of requests served from the cache. */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of requests served from a larger cached region of the
+	 * same plane. These are included in {@link #getHitCount()}.
+	 */
+	public synchronized long getContainedHitCount() {
+		return containedHits;
+	}
+
+	/** Returns the number of requests which had to be read from the parent. */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/** Returns the number of planes evicted to make room for others. */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the fraction of requests served from the cache, or 0 if no
+	 * planes have been requested.
+	 */
+	public synchronized double getHitRate() {
+		final long requests = hits + misses;
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+
+	/** Resets the hit, miss and eviction counts. */
+	public synchronized void resetStatistics() {
+		hits = containedHits = misses = evictions = 0;
+	}
+
+	/** Discards all cached planes. */
+	public synchronized void clear() {
+		entries.clear();
+		cachedBytes = 0;
+	}
+
+	// -- Reader API methods --
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final SCIFIOConfig config) throws FormatException, IOException
+	{
+		return openPlane(imageIndex, planeIndex, planarBounds(imageIndex), config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		return openPlane(imageIndex, planeIndex, plane, planarBounds(imageIndex),
+			config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		if (lookup(imageIndex, planeIndex, bounds) != null) {
+			final Plane plane = createPlane(getMetadata().get(imageIndex), bounds,
+				config);
+			final Plane opened = openPlane(imageIndex, planeIndex, plane, bounds,
+				config);
+			if (opened != plane) plane.release();
+			return opened;
+		}
+		synchronized (this) {
+			misses++;
+		}
+		openPlaneHelper();
+		return store(imageIndex, planeIndex, bounds, getParent().openPlane(
+			imageIndex, planeIndex, bounds, config));
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		Plane plane, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final int size = regionSize(imageIndex, bounds);
+		synchronized (this) {
+			final Entry entry = lookup(imageIndex, planeIndex, bounds);
+			if (entry != null) {
+				if (!(plane instanceof ByteArrayPlane) || ((ByteArrayPlane) plane)
+					.getData().length < size)
+				{
+					plane = new ByteArrayPlane(getMetadata().get(imageIndex), bounds);
+				}
+				copy(entry, bounds, ((ByteArrayPlane) plane).getData(), FormatTools
+					.getBytesPerPixel(getMetadata().get(imageIndex).getPixelType()));
+				plane.setColorTable(entry.lut);
+				touch(entry, !Intervals.equals(entry.bounds, bounds));
+				return plane;
+			}
+			misses++;
+		}
+		openPlaneHelper();
+		return store(imageIndex, planeIndex, bounds, getParent().openPlane(
+			imageIndex, planeIndex, plane, bounds, config));
+	}
+
+	// -- AbstractReaderFilter API Methods --
+
+	@Override
+	protected void cleanUp() throws IOException {
+		super.cleanUp();
+		clear();
+	}
+
+	@Override
+	protected void setSourceHelper(final Location source,
+		final SCIFIOConfig config) throws IOException
+	{
+		super.setSourceHelper(source, config);
+		clear();
+	}
+
+	// -- Prioritized API --
+
+	/** Sits above all other filters, so that their output is what is cached. */
+	@Override
+	public double getPriority() {
+		return 5.0;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Returns a cached region of the given plane containing the given bounds,
+	 * preferring an exact match, or null if there is none.
+	 */
+	private synchronized Entry lookup(final int imageIndex,
+		final long planeIndex, final Interval bounds)
+	{
+		final List<Entry> list = entries.get(new PlaneKey(imageIndex, planeIndex));
+		if (list == null) return null;
+		Entry contained = null;
+		for (final Entry entry : list) {
+			if (Intervals.equals(entry.bounds, bounds)) return entry;
+			if (contained == null && contains(entry.bounds, bounds)) {
+				contained = entry;
+			}
+		}
+		return contained;
+	}
+
+	/** Records a cache hit on the given entry. */
+	private void touch(final Entry entry, final boolean contained) {
+		entry.lastUsed = ++clock;
+		entry.useCount++;
+		hits++;
+		if (contained) containedHits++;
+	}
+
+	/** Caches a copy of the given freshly read plane, then returns it. */
+	private Plane store(final int imageIndex, final long planeIndex,
+		final Interval bounds, final Plane plane)
+	{
+		final int size = regionSize(imageIndex, bounds);
+		final byte[] bytes = plane.getBytes();
+		synchronized (this) {
+			if (size > maxBytes || bytes == null || bytes.length < size) return plane;
+			final PlaneKey key = new PlaneKey(imageIndex, planeIndex);
+			List<Entry> list = entries.get(key);
+			if (list == null) {
+				list = new ArrayList<>(1);
+				entries.put(key, list);
+			}
+			else {
+				// a new region supersedes any cached region it contains
+				for (final Iterator<Entry> iter = list.iterator(); iter.hasNext();) {
+					final Entry entry = iter.next();
+					if (contains(bounds, entry.bounds)) {
+						iter.remove();
+						cachedBytes -= entry.data.length;
+					}
+				}
+			}
+			evict(size);
+			final byte[] data = new byte[size];
+			System.arraycopy(bytes, 0, data, 0, size);
+			final Entry entry = new Entry(key, new FinalInterval(bounds), data, plane
+				.getColorTable());
+			entry.lastUsed = ++clock;
+			list.add(entry);
+			cachedBytes += size;
+		}
+		return plane;
+	}
+
+	/**
+	 * Evicts planes until the given number of bytes can be added without
+	 * exceeding the maximum size.
+	 */
+	private void evict(final long required) {
+		while (cachedBytes > 0 && cachedBytes + required > maxBytes) {
+			Entry victim = null;
+			for (final List<Entry> list : entries.values()) {
+				for (final Entry entry : list) {
+					if (victim == null || evictsBefore(entry, victim)) victim = entry;
+				}
+			}
+			final List<Entry> list = entries.get(victim.key);
+			list.remove(victim);
+			if (list.isEmpty()) entries.remove(victim.key);
+			cachedBytes -= victim.data.length;
+			evictions++;
+		}
+	}
+
+	private boolean evictsBefore(final Entry a, final Entry b) {
+		if (eviction == Eviction.LFU && a.useCount != b.useCount) {
+			return a.useCount < b.useCount;
+		}
+		return a.lastUsed < b.lastUsed;
+	}
+
+	/** Returns true if {@code outer} contains all of {@code inner}. */
+	private static boolean contains(final Interval outer, final Interval inner) {
+		if (outer.numDimensions() != inner.numDimensions()) return false;
+		for (int d = 0; d < outer.numDimensions(); d++) {
+			if (inner.min(d) < outer.min(d) || inner.max(d) > outer.max(d)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int regionSize(final int imageIndex, final Interval bounds) {
+		return (int) (Intervals.numElements(bounds) * FormatTools.getBytesPerPixel(
+			getMetadata().get(imageIndex).getPixelType()));
+	}
+
+	/**
+	 * Copies the given bounds, which lie within the entry's bounds, from the
+	 * entry into a densely packed buffer.
+	 */
+	private static void copy(final Entry entry, final Interval bounds,
+		final byte[] dst, final int bpp)
+	{
+		final Interval src = entry.bounds;
+		final int n = bounds.numDimensions();
+		final int runBytes = (int) bounds.dimension(0) * bpp;
+		final long runs = Intervals.numElements(bounds) / bounds.dimension(0);
+		for (long run = 0; run < runs; run++) {
+			long rem = run;
+			long offset = (bounds.min(0) - src.min(0)) * bpp;
+			long stride = src.dimension(0) * bpp;
+			for (int d = 1; d < n; d++) {
+				final long pos = rem % bounds.dimension(d);
+				rem /= bounds.dimension(d);
+				offset += (bounds.min(d) - src.min(d) + pos) * stride;
+				stride *= src.dimension(d);
+			}
+			System.arraycopy(entry.data, (int) offset, dst, (int) (run * runBytes),
+				runBytes);
+		}
+	}
+
+	// -- Helper classes --
+
+	/** Identifies one plane of the dataset. */
+	private static final class PlaneKey {
+
+		private final int imageIndex;
+
+		private final long planeIndex;
+
+		private PlaneKey(final int imageIndex, final long planeIndex) {
+			this.imageIndex = imageIndex;
+			this.planeIndex = planeIndex;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof PlaneKey)) return false;
+			final PlaneKey other = (PlaneKey) o;
+			return imageIndex == other.imageIndex && planeIndex == other.planeIndex;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * imageIndex + Long.hashCode(planeIndex);
+		}
+	}
+
+	/** A cached region of one plane. */
+	private static final class Entry {
+
+		private final PlaneKey key;
+
+		private final Interval bounds;
+
+		private final byte[] data;
+
+		private final ColorTable lut;
+
+		private long lastUsed;
+
+		private long useCount;
+
+		private Entry(final PlaneKey key, final Interval bounds, final byte[] data,
+			final ColorTable lut)
+		{
+			this.key = key;
+			this.bounds = bounds;
+			this.data = data;
+			this.lut = lut;
+		}
+	}
+}
@@ -34,6 +34,7 @@ import io.scif.FormatException;
 import io.scif.Metadata;
 import io.scif.Plane;
 import io.scif.config.SCIFIOConfig;
+import io.scif.services.PlaneBufferService;
 import io.scif.util.FormatTools;
 import io.scif.util.ImageTools;
 import io.scif.util.MemoryTools;
@@ -50,6 +51,7 @@ import net.imglib2.util.Intervals;
 
 import org.scijava.io.handle.DataHandle;
 import org.scijava.io.location.Location;
+import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 import org.scijava.util.ArrayUtils;
 
@@ -59,11 +61,19 @@ import org.scijava.util.ArrayUtils;
 @Plugin(type = Filter.class)
 public class PlaneSeparator extends AbstractReaderFilter {
 
+	// -- Parameters --
+
+	@Parameter(required = false)
+	private PlaneBufferService planeBufferService;
+
 	// -- Fields --
 
 	/** Last plane opened. */
 	private Plane lastPlane = null;
 
+	/** Whether {@link #lastPlane} was opened by this filter for itself. */
+	private boolean ownsLastPlane;
+
 	/** Index of last plane opened. */
 	private long lastPlaneIndex = -1;
 
@@ -195,8 +205,12 @@ public class PlaneSeparator extends AbstractReaderFilter {
 		final Interval bounds, final SCIFIOConfig config) throws FormatException,
 		IOException
 	{
-		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds);
-		return openPlane(imageIndex, planeIndex, plane, bounds, config);
+		final Plane plane = createPlane(getMetadata().get(imageIndex), bounds,
+			config);
+		final Plane opened = openPlane(imageIndex, planeIndex, plane, bounds,
+			config);
+		if (opened != plane) plane.release();
+		return opened;
 	}
 
 	@Override
@@ -271,8 +285,8 @@ public class PlaneSeparator extends AbstractReaderFilter {
 					final long lastStripHeight = stripHeight + (h - (stripHeight *
 						strips));
 					byte[] strip = strips == 1 ? plane.getBytes()
-						: new byte[(int) (stripHeight * ArrayUtils.safeMultiply32(Arrays
-							.copyOf(dims, dims.length - 1)) * bpp)];
+						: allocateStrip((int) (stripHeight * ArrayUtils.safeMultiply32(
+							Arrays.copyOf(dims, dims.length - 1)) * bpp), config);
 					updateLastPlaneInfo(source, imageIndex, splitOffset, bounds);
 					final int parentYIndex = parentMeta.get(imageIndex).getAxisIndex(
 						Axes.Y);
@@ -286,8 +300,8 @@ public class PlaneSeparator extends AbstractReaderFilter {
 							(i == strips - 1 ? lastStripHeight : stripHeight) - 1;
 
 						// Open the plane
-						lastPlane = getParent().openPlane(imageIndex, (int) source,
-							new FinalInterval(lastPlaneMin, lastPlaneMax), config);
+						setLastPlane(getParent().openPlane(imageIndex, (int) source,
+							new FinalInterval(lastPlaneMin, lastPlaneMax), config), true);
 						// store the color table
 						plane.setColorTable(lastPlane.getColorTable());
 
@@ -296,8 +310,10 @@ public class PlaneSeparator extends AbstractReaderFilter {
 						if (strips != 1 && lastStripHeight != stripHeight && i == strips -
 							1)
 						{
-							strip = new byte[(int) (lastStripHeight * ArrayUtils
-								.safeMultiply32(Arrays.copyOf(dims, dims.length - 1)) * bpp)];
+							releaseStrip(strip, config);
+							strip = allocateStrip((int) (lastStripHeight * ArrayUtils
+								.safeMultiply32(Arrays.copyOf(dims, dims.length - 1)) * bpp),
+								config);
 						}
 
 						// Extract the requested channel from the plane
@@ -311,6 +327,7 @@ public class PlaneSeparator extends AbstractReaderFilter {
 									dims.length - 1))) * bpp, strip.length);
 						}
 					}
+					if (strips != 1) releaseStrip(strip, config);
 				}
 				else {
 					// Have a cached instance of the plane containing the
@@ -323,19 +340,43 @@ public class PlaneSeparator extends AbstractReaderFilter {
 				return plane;
 			}
 
+			if (pooling(config)) {
+				// NB: the caller releases pooled planes, so they are not cached
+				setLastPlane(null, false);
+				updateLastPlaneInfo(source, imageIndex, splitOffset, bounds);
+				return getParent().openPlane(imageIndex, planeIndex, plane,
+					new FinalInterval(lastPlaneMin, lastPlaneMax), config);
+			}
 			if (!haveCached(source, imageIndex, bounds)) {
 				// Convert the current positional information to the format of
 				// the
 				// parent
 				updateLastPlaneInfo(source, imageIndex, splitOffset, bounds);
 				// Delegate directly to the parent
-				lastPlane = getParent().openPlane(imageIndex, planeIndex, plane,
-					new FinalInterval(lastPlaneMin, lastPlaneMax), config);
+				setLastPlane(getParent().openPlane(imageIndex, planeIndex, plane,
+					new FinalInterval(lastPlaneMin, lastPlaneMax), config), false);
 			}
 		}
 		return lastPlane;
 	}
 
+	@Override
+	public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		if (passesThrough()) {
+			return getParent().openPlanes(imageIndex, planeIndices, bounds, buf,
+				config);
+		}
+		return super.openPlanes(imageIndex, planeIndices, bounds, buf, config);
+	}
+
+	@Override
+	public boolean isBulkReadable(final int imageIndex, final Interval bounds) {
+		return passesThrough() && getParent().isBulkReadable(imageIndex, bounds);
+	}
+
 	// -- Prioritized API --
 
 	@Override
@@ -345,6 +386,45 @@ public class PlaneSeparator extends AbstractReaderFilter {
 
 	// -- Helper Methods --
 
+	/** Returns true if planes pass through unchanged. */
+	private boolean passesThrough() {
+		// no axis is separated
+		return !metaCheck() || ((PlaneSeparatorMetadata) getMetadata())
+			.offset() == 0;
+	}
+
+	/**
+	 * Returns a scratch buffer for one strip of a split plane, from the pool if
+	 * the configuration opts into pooled planes.
+	 */
+	private byte[] allocateStrip(final int length, final SCIFIOConfig config) {
+		return pooling(config) ? planeBufferService.acquire(length)
+			: new byte[length];
+	}
+
+	/** Returns a strip buffer to the pool, if it was drawn from it. */
+	private void releaseStrip(final byte[] strip, final SCIFIOConfig config) {
+		if (pooling(config)) planeBufferService.release(strip);
+	}
+
+	/** Returns true if plane and strip buffers are drawn from the pool. */
+	private boolean pooling(final SCIFIOConfig config) {
+		return planeBufferService != null && config != null && config
+			.readerIsPooledPlanes();
+	}
+
+	/**
+	 * Replaces the cached plane, releasing the previous one if this filter
+	 * opened it for itself.
+	 */
+	private void setLastPlane(final Plane plane, final boolean owned) {
+		if (ownsLastPlane && lastPlane != null && lastPlane != plane) {
+			lastPlane.release();
+		}
+		lastPlane = plane;
+		ownsLastPlane = owned;
+	}
+
 	/**
 	 * Converts the given plane information using the current metadata to a format
 	 * usable by the wrapped reader, stored in the "lastPlane"... variables.
@@ -415,7 +495,7 @@ public class PlaneSeparator extends AbstractReaderFilter {
 	@Override
 	protected void cleanUp() throws IOException {
 		super.cleanUp();
-		lastPlane = null;
+		setLastPlane(null, false);
 		lastPlaneIndex = -1;
 		lastImageIndex = -1;
 		lastPlaneMin = null;
@@ -0,0 +1,476 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import io.scif.ByteArrayPlane;
+import io.scif.FormatException;
+import io.scif.Plane;
+import io.scif.Reader;
+import io.scif.ReaderPool;
+import io.scif.config.SCIFIOConfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+import net.imglib2.util.Intervals;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.thread.ThreadService;
+
+/**
+ * Reads planes ahead of time when they are requested in a regular pattern.
+ * <p>
+ * For each image, the stride between consecutive plane requests is tracked.
+ * Once the same stride has been seen {@link #PATTERN_LENGTH} times in a row,
+ * the next {@link #getDepth()} planes along that stride are read on background
+ * threads, with the same bounds as the last request, while the caller
+ * processes the current one. Requests which break the pattern are read
+ * directly, and planes read ahead which are no longer on the predicted path
+ * are discarded.
+ * </p>
+ * <p>
+ * Background reads use a {@link ReaderPool} of readers of their own, so that
+ * they do not contend with the wrapped reader. The pooled readers share the
+ * wrapped reader's metadata where the format allows. As they are not
+ * filtered, this filter sits directly above the wrapped reader.
+ * </p>
+ */
+@Plugin(type = Filter.class)
+public class PrefetchFilter extends AbstractReaderFilter {
+
+	// -- Constants --
+
+	/** Number of equal strides after which planes are read ahead. */
+	public static final int PATTERN_LENGTH = 2;
+
+	/** Default number of planes read ahead. */
+	public static final int DEFAULT_DEPTH = 4;
+
+	// -- Parameters --
+
+	@Parameter
+	private ThreadService threadService;
+
+	// -- Fields --
+
+	private int depth = DEFAULT_DEPTH;
+
+	private int threads = 2;
+
+	/** Access pattern of each image, by image index. */
+	private final Map<Integer, Pattern> patterns = new HashMap<>();
+
+	/** Planes being read ahead, by image and plane index. */
+	private final Map<Long, Pending> pending = new HashMap<>();
+
+	private ReaderPool pool;
+
+	/** Configuration given with the current source, if any. */
+	private SCIFIOConfig sourceConfig;
+
+	/** Whether a pool could not be created for the current source. */
+	private boolean unavailable;
+
+	private long hits;
+
+	private long misses;
+
+	// -- PrefetchFilter API methods --
+
+	/** Returns the maximum number of planes read ahead. */
+	public synchronized int getDepth() {
+		return depth;
+	}
+
+	/** Sets the maximum number of planes read ahead. */
+	public synchronized void setDepth(final int depth) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Invalid prefetch depth: " + depth);
+		}
+		this.depth = depth;
+	}
+
+	/** Returns the number of planes read ahead at the same time. */
+	public synchronized int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of planes read ahead at the same time. Takes effect the
+	 * next time a source is opened.
+	 */
+	public synchronized void setThreads(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Invalid thread count: " + threads);
+		}
+		this.threads = threads;
+	}
+
+	/** Returns the number of requests served by a plane read ahead. */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/** Returns the number of requests read directly from the wrapped reader. */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	// -- Reader API methods --
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final SCIFIOConfig config) throws FormatException, IOException
+	{
+		return openPlane(imageIndex, planeIndex, planarBounds(imageIndex), config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		return openPlane(imageIndex, planeIndex, plane, planarBounds(imageIndex),
+			config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		final Plane prefetched = take(imageIndex, planeIndex, bounds, config);
+		if (prefetched != null) return prefetched;
+		openPlaneHelper();
+		return getParent().openPlane(imageIndex, planeIndex, bounds, config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final Plane prefetched = take(imageIndex, planeIndex, bounds, config);
+		if (prefetched != null) {
+			// copy into the caller's plane where possible
+			final byte[] bytes = prefetched.getBytes();
+			if (!(plane instanceof ByteArrayPlane) || ((ByteArrayPlane) plane)
+				.getData().length < bytes.length)
+			{
+				return prefetched;
+			}
+			System.arraycopy(bytes, 0, ((ByteArrayPlane) plane).getData(), 0,
+				bytes.length);
+			plane.setColorTable(prefetched.getColorTable());
+			return plane;
+		}
+		openPlaneHelper();
+		return getParent().openPlane(imageIndex, planeIndex, plane, bounds, config);
+	}
+
+	@Override
+	public void setSource(final Location loc, final SCIFIOConfig config)
+		throws IOException
+	{
+		super.setSource(loc, config);
+		synchronized (this) {
+			sourceConfig = config;
+		}
+	}
+
+	@Override
+	public void setSource(final DataHandle<Location> handle,
+		final SCIFIOConfig config) throws IOException
+	{
+		super.setSource(handle, config);
+		synchronized (this) {
+			sourceConfig = config;
+		}
+	}
+
+	// -- AbstractReaderFilter API Methods --
+
+	@Override
+	protected void setSourceHelper(final Location source,
+		final SCIFIOConfig config) throws IOException
+	{
+		super.setSourceHelper(source, config);
+		shutdown();
+		synchronized (this) {
+			sourceConfig = null;
+		}
+	}
+
+	@Override
+	protected void cleanUp() throws IOException {
+		super.cleanUp();
+		shutdown();
+	}
+
+	@Override
+	public void close(final boolean fileOnly) throws IOException {
+		shutdown();
+		super.close(fileOnly);
+	}
+
+	// -- Prioritized API --
+
+	@Override
+	public double getPriority() {
+		return -1.0;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Records the given request, schedules any planes expected to follow it,
+	 * and returns the requested plane if it was read ahead.
+	 *
+	 * @return The plane, or null if it must be read directly.
+	 */
+	private Plane take(final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config) throws IOException
+	{
+		final Pending request;
+		final boolean hit;
+		boolean needPool = false;
+		synchronized (this) {
+			request = pending.remove(key(imageIndex, planeIndex));
+			final Pattern pattern = patterns.computeIfAbsent(imageIndex,
+				i -> new Pattern());
+			pattern.update(planeIndex);
+			if (pattern.matches()) {
+				if (pool != null) {
+					schedule(imageIndex, planeIndex, pattern.stride, bounds, config);
+				}
+				else needPool = !unavailable;
+			}
+			hit = request != null && Intervals.equals(request.bounds, bounds);
+			if (hit) hits++;
+			else {
+				if (request != null) request.future.cancel(false);
+				misses++;
+			}
+		}
+		if (needPool) {
+			createPool(config);
+			synchronized (this) {
+				// NB: only if no other request moved the pattern on meanwhile
+				final Pattern pattern = patterns.get(imageIndex);
+				if (pool != null && pattern != null &&
+					pattern.lastPlane == planeIndex && pattern.matches())
+				{
+					schedule(imageIndex, planeIndex, pattern.stride, bounds, config);
+				}
+			}
+		}
+		if (!hit) return null;
+
+		try {
+			return request.future.get();
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for plane " +
+				planeIndex);
+		}
+		catch (final ExecutionException e) {
+			// read the plane directly, so that the failure surfaces there
+			log().debug("Failed to read plane " + planeIndex + " ahead", e);
+			synchronized (this) {
+				hits--;
+				misses++;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Reads ahead the planes following the given one, discarding planes read
+	 * ahead of the given image which are no longer on its path.
+	 */
+	private void schedule(final int imageIndex, final long planeIndex,
+		final long stride, final Interval bounds, final SCIFIOConfig config)
+	{
+		final ReaderPool readers = pool;
+		final long planeCount = getPlaneCount(imageIndex);
+		for (final Iterator<Pending> iter = pending.values().iterator(); iter
+			.hasNext();)
+		{
+			final Pending p = iter.next();
+			final long ahead = (p.planeIndex - planeIndex) / stride;
+			if (p.imageIndex == imageIndex && (ahead < 1 || ahead > depth ||
+				(p.planeIndex - planeIndex) % stride != 0 || !Intervals.equals(
+					p.bounds, bounds)))
+			{
+				p.future.cancel(false);
+				iter.remove();
+			}
+		}
+
+		final Interval region = new FinalInterval(bounds);
+		for (int i = 1; i <= depth; i++) {
+			final long next = planeIndex + i * stride;
+			if (next < 0 || next >= planeCount) break;
+			final Long key = key(imageIndex, next);
+			if (pending.containsKey(key)) continue;
+			final Future<Plane> future = threadService.run(() -> {
+				final Reader reader = readers.acquire();
+				try {
+					return reader.openPlane(imageIndex, next, region, config);
+				}
+				finally {
+					readers.release(reader);
+				}
+			});
+			pending.put(key, new Pending(imageIndex, next, region, future));
+		}
+	}
+
+	/**
+	 * Creates the pool of background readers, unless it exists already. The
+	 * pool shares the metadata of the wrapped reader where the format allows,
+	 * and opens any further readers with the configuration the source was
+	 * opened with here, or else with that of the request which triggered
+	 * reading ahead. As this may take a while, it is done without holding
+	 * this filter's monitor.
+	 */
+	private void createPool(final SCIFIOConfig config) {
+		final Reader parent = getParent();
+		final SCIFIOConfig poolConfig;
+		final int maxReaders;
+		synchronized (this) {
+			poolConfig = sourceConfig != null ? sourceConfig : config;
+			maxReaders = threads;
+		}
+		ReaderPool created = null;
+		try {
+			created = new ReaderPool(parent, poolConfig, maxReaders, null);
+		}
+		catch (final FormatException | IOException e) {
+			log().debug("Planes will not be read ahead", e);
+		}
+		synchronized (this) {
+			if (created == null) unavailable = true;
+			else if (pool == null && created.getMetadata() == parent
+				.getMetadata())
+			{
+				pool = created;
+				created = null;
+			}
+		}
+		// another request created the pool first, or the source changed
+		if (created != null) closePool(created);
+	}
+
+	private void closePool(final ReaderPool readers) {
+		try {
+			readers.close();
+		}
+		catch (final IOException e) {
+			log().debug("Failed to close background readers", e);
+		}
+	}
+
+	/** Cancels all reads ahead and closes the background readers. */
+	private synchronized void shutdown() throws IOException {
+		for (final Pending p : pending.values()) {
+			p.future.cancel(false);
+		}
+		pending.clear();
+		patterns.clear();
+		unavailable = false;
+		if (pool != null) {
+			pool.close();
+			pool = null;
+		}
+	}
+
+	private static Long key(final int imageIndex, final long planeIndex) {
+		return ((long) imageIndex << 40) ^ planeIndex;
+	}
+
+	// -- Helper classes --
+
+	/** Tracks the stride between consecutive requests for one image. */
+	private static final class Pattern {
+
+		private long lastPlane = -1;
+
+		private long stride;
+
+		private int repeats;
+
+		private void update(final long planeIndex) {
+			final long step = planeIndex - lastPlane;
+			if (lastPlane >= 0 && step != 0 && step == stride) repeats++;
+			else {
+				stride = lastPlane >= 0 ? step : 0;
+				repeats = stride == 0 ? 0 : 1;
+			}
+			lastPlane = planeIndex;
+		}
+
+		private boolean matches() {
+			return repeats >= PATTERN_LENGTH;
+		}
+	}
+
+	/** A plane being read ahead. */
+	private static final class Pending {
+
+		private final int imageIndex;
+
+		private final long planeIndex;
+
+		private final Interval bounds;
+
+		private final Future<Plane> future;
+
+		private Pending(final int imageIndex, final long planeIndex,
+			final Interval bounds, final Future<Plane> future)
+		{
+			this.imageIndex = imageIndex;
+			this.planeIndex = planeIndex;
+			this.bounds = bounds;
+			this.future = future;
+		}
+	}
+}
@@ -29,11 +29,18 @@
 
 package io.scif.filters;
 
+import io.scif.FormatException;
+import io.scif.LargePlane;
 import io.scif.Metadata;
 import io.scif.Reader;
+import io.scif.config.SCIFIOConfig;
 
+import java.io.IOException;
 import java.util.Set;
 
+import net.imagej.axis.AxisType;
+import net.imglib2.Interval;
+
 /**
  * {@link io.scif.filters.MasterFilter} for wrapping {@link io.scif.Reader}
  * components.
@@ -103,4 +110,39 @@ public class ReaderFilter extends AbstractReaderFilter implements
 	public Metadata getMetadata() {
 		return fHelper.getParent().getMetadata();
 	}
+
+	@Override
+	public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		// NB: the master filter itself does not modify planes, so let the top of
+		// the filter stack (or the wrapped reader) use its own bulk read
+		openPlaneHelper();
+		return getParent().openPlanes(imageIndex, planeIndices, bounds, buf,
+			config);
+	}
+
+	@Override
+	public boolean isBulkReadable(final int imageIndex, final Interval bounds) {
+		return getParent().isBulkReadable(imageIndex, bounds);
+	}
+
+	@Override
+	public LargePlane openLargePlane(final int imageIndex,
+		final long planeIndex, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		openPlaneHelper();
+		return getParent().openLargePlane(imageIndex, planeIndex, bounds, config);
+	}
+
+	@Override
+	public byte[] openRegion(final int imageIndex, final Interval bounds,
+		final byte[] buf, final SCIFIOConfig config, final AxisType... order)
+		throws FormatException, IOException
+	{
+		openPlaneHelper();
+		return getParent().openRegion(imageIndex, bounds, buf, config, order);
+	}
 }
@@ -45,8 +45,10 @@ import io.scif.MetaTable;
 import io.scif.Plane;
 import io.scif.UnsupportedCompressionException;
 import io.scif.codec.BitBuffer;
+import io.scif.codec.Codec;
 import io.scif.codec.CodecOptions;
 import io.scif.codec.CodecService;
+import io.scif.codec.FrameCache;
 import io.scif.codec.JPEGCodec;
 import io.scif.codec.MSRLECodec;
 import io.scif.codec.MSVideoCodec;
@@ -58,6 +60,7 @@ import io.scif.util.SCIFIOMetadataTools;
 
 import java.awt.image.IndexColorModel;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -98,6 +101,9 @@ public class AVIFormat extends AbstractFormat {
 
 	// -- Constants --
 
+	/** Flag of idx1 entries which can be decoded without a preceding frame. */
+	private static final int AVIIF_KEYFRAME = 0x10;
+
 	/** Huffman table for MJPEG data. */
 	private static final byte[] MJPEG_HUFFMAN_TABLE = new byte[] { (byte) 0xff,
 		(byte) 0xc4, 1, (byte) 0xa2, 0, 0, 1, 5, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0,
@@ -190,6 +196,12 @@ public class AVIFormat extends AbstractFormat {
 
 		private int[] lastDims;
 
+		/**
+		 * Decoded checkpoints for random access into delta-compressed movies, and
+		 * the key frames flagged in the idx1 index.
+		 */
+		private transient FrameCache frameCache;
+
 		// -- Metadata Accessors --
 
 		public short getBmpBitsPerPixel() {
@@ -280,6 +292,11 @@ public class AVIFormat extends AbstractFormat {
 			return bytesPerPlane;
 		}
 
+		public FrameCache getFrameCache() {
+			if (frameCache == null) frameCache = new FrameCache();
+			return frameCache;
+		}
+
 		public void setBytesPerPlane(final int bytesPerPlane) {
 			this.bytesPerPlane = bytesPerPlane;
 		}
@@ -414,6 +431,7 @@ public class AVIFormat extends AbstractFormat {
 			if (!fileOnly) {
 				lastPlane = null;
 				lastPlaneIndex = -1;
+				frameCache = null;
 				bmpColorsUsed = bmpWidth = bmpCompression = bmpScanLineSize = 0;
 				bmpBitsPerPixel = 0;
 				bytesPerPlane = 0;
@@ -449,6 +467,12 @@ public class AVIFormat extends AbstractFormat {
 			return type.equals(AVI_MAGIC_STRING) && format.equals("AVI ");
 		}
 
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { AVI_MAGIC_STRING.getBytes(
+				StandardCharsets.US_ASCII) };
+		}
+
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -482,12 +506,49 @@ public class AVIFormat extends AbstractFormat {
 				readChunk(meta);
 			}
 
+			readKeyFrames(meta);
+
 			log().info("Populating metadata");
 
 		}
 
 		// -- Helper Methods --
 
+		/**
+		 * Finds the planes flagged with {@code AVIIF_KEYFRAME} in the idx1 index,
+		 * if there is one. They are only recorded if the index lists exactly the
+		 * planes found in the movi list, so that they map onto plane indices.
+		 */
+		private void readKeyFrames(final Metadata meta) throws IOException {
+			final DataHandle<Location> source = getSource();
+			final List<Long> keyFrames = new ArrayList<>();
+			long pos = 12;
+			while (pos + 8 <= source.length()) {
+				source.seek(pos);
+				readTypeAndSize();
+				if (size < 0) return;
+				if (type.equals("idx1")) {
+					long plane = 0;
+					for (int i = 0; i < size / 16; i++) {
+						final String check = source.readString(4).substring(2);
+						final int flags = source.readInt();
+						source.skipBytes(4);
+						final int length = source.readInt();
+						if (!check.equals("db") && !check.equals("dc")) continue;
+						if (length <= 0 && meta.getBmpCompression() == 0) continue;
+						if ((flags & AVIIF_KEYFRAME) != 0) keyFrames.add(plane);
+						plane++;
+					}
+					if (plane != meta.getOffsets().size()) return;
+					for (final Long frame : keyFrames) {
+						meta.getFrameCache().markKeyFrame(frame);
+					}
+					return;
+				}
+				pos += 8 + size + (size & 1);
+			}
+		}
+
 		private void readChunkHeader() throws IOException {
 			readTypeAndSize();
 			fcc = getSource().readString(4);
@@ -1014,15 +1075,20 @@ public class AVIFormat extends AbstractFormat {
 					openPlane(imageIndex, lastPlane, tmpPlane);
 					options.previousImage = meta.getLastPlaneBytes();
 				}
-				if (options.previousImage == null && meta.getBmpCompression() != JPEG) {
-					while (meta.getLastPlaneIndex() < planeIndex - 1) {
-						openPlane(imageIndex, meta.getLastPlaneIndex() + 1, tmpPlane);
-					}
-					options.previousImage = meta.getLastPlaneBytes();
+				if (options.previousImage == null && meta.getBmpCompression() != JPEG &&
+					planeIndex > 0 && !meta.getFrameCache().isKeyFrame(planeIndex))
+				{
+					// reconstruct the preceding frame from the nearest checkpoint
+					options.previousImage = meta.getFrameCache().reconstruct(
+						planeIndex - 1, (frame, previous) -> decodeFrame(imageIndex, frame,
+							previous));
 				}
 
 				buf = AVIUtils.extractCompression(meta, options, getHandle(), tmpPlane,
 					planeIndex, new int[] { x, y, w, h });
+				if (meta.getBmpCompression() != JPEG) {
+					meta.getFrameCache().offer(planeIndex, buf);
+				}
 			}
 
 			final int rowLen = (int) FormatTools.getPlaneSize(meta, w, 1, imageIndex);
@@ -1039,6 +1105,27 @@ public class AVIFormat extends AbstractFormat {
 			return plane;
 		}
 
+		/**
+		 * Decodes a complete frame of a delta-compressed movie, given the fully
+		 * decoded preceding frame.
+		 */
+		private byte[] decodeFrame(final int imageIndex, final long planeIndex,
+			final byte[] previous) throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			final CodecOptions options = AVIUtils.createCodecOptions(meta,
+				imageIndex, planeIndex);
+			options.previousImage = previous;
+
+			final Interval bounds = //
+				new FinalInterval(meta.get(imageIndex).getAxesLengthsPlanar());
+			final ByteArrayPlane tmpPlane = createPlane(bounds);
+			final int[] dims = { 0, 0, (int) meta.get(imageIndex).getAxisLength(
+				Axes.X), (int) meta.get(imageIndex).getAxisLength(Axes.Y) };
+			return AVIUtils.extractCompression(meta, options, getHandle(), tmpPlane,
+				planeIndex, dims);
+		}
+
 		private boolean sufficientRegion(final Metadata meta, final int x,
 			final int y, final int w, final int h)
 		{
@@ -1794,7 +1881,8 @@ public class AVIFormat extends AbstractFormat {
 				final byte[] b = new byte[(int) meta.getLengths().get((int) planeIndex)
 					.longValue()];
 				stream.read(b);
-				final MSRLECodec codec = codecService.getCodec(MSRLECodec.class);
+				final Codec codec = codecService.getInstrumentedCodec(
+					MSRLECodec.class);
 				buf = codec.decompress(b, options);
 				plane.setData(buf);
 				if (updateLastPlane(meta, planeIndex, dims)) {
@@ -1804,7 +1892,8 @@ public class AVIFormat extends AbstractFormat {
 				}
 			}
 			else if (bmpCompression == MS_VIDEO) {
-				final MSVideoCodec codec = codecService.getCodec(MSVideoCodec.class);
+				final Codec codec = codecService.getInstrumentedCodec(
+					MSVideoCodec.class);
 				buf = codec.decompress(stream, options);
 				plane.setData(buf);
 				if (updateLastPlane(meta, planeIndex, dims)) {
@@ -48,6 +48,7 @@ import io.scif.util.FormatTools;
 import io.scif.util.ImageTools;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import net.imagej.axis.Axes;
 import net.imglib2.Interval;
@@ -216,6 +217,12 @@ public class BMPFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.readString(blockLen).startsWith(BMP_MAGIC_STRING);
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { BMP_MAGIC_STRING.getBytes(
+				StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -338,6 +345,11 @@ public class BMPFormat extends AbstractFormat {
 
 		// -- Reader API Methods --
 
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
@@ -35,6 +35,7 @@ import io.scif.AbstractMetadata;
 import io.scif.AbstractParser;
 import io.scif.ByteArrayPlane;
 import io.scif.ByteArrayReader;
+import io.scif.CacheableMetadata;
 import io.scif.FilePattern;
 import io.scif.Format;
 import io.scif.FormatException;
@@ -55,6 +56,9 @@ import io.scif.services.InitializeService;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -72,6 +76,7 @@ import org.scijava.io.handle.DataHandle;
 import org.scijava.io.handle.DataHandle.ByteOrder;
 import org.scijava.io.handle.DataHandleService;
 import org.scijava.io.location.BrowsableLocation;
+import org.scijava.io.location.FileLocation;
 import org.scijava.io.location.Location;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
@@ -106,15 +111,15 @@ public class DICOMFormat extends AbstractFormat {
 	// -- Nested Classes --
 
 	public static class Metadata extends AbstractMetadata implements
-		HasColorTable
+		HasColorTable, CacheableMetadata
 	{
 
 		// -- Fields --
 
 		transient byte[][] lut = null;
 		transient short[][] shortLut = null;
-		private ColorTable8 lut8;
-		private ColorTable16 lut16;
+		private transient ColorTable8 lut8;
+		private transient ColorTable16 lut16;
 		private long[] offsets = null;
 		private boolean isJP2K = false;
 		private boolean isJPEG = false;
@@ -506,6 +511,79 @@ public class DICOMFormat extends AbstractFormat {
 				// companionFiles.clear();
 			}
 		}
+
+		// -- Serialization methods --
+
+		/*
+		 * Locations are not Serializable, so the file lists are written as paths.
+		 * A lookup table is inverted when its color table is first built, so the
+		 * color tables are rebuilt right away from the tables written.
+		 */
+		private void writeObject(final ObjectOutputStream out)
+			throws IOException
+		{
+			out.defaultWriteObject();
+			out.writeObject(lut);
+			out.writeObject(shortLut);
+			out.writeBoolean(lut8 != null);
+			out.writeBoolean(lut16 != null);
+			out.writeObject(paths(companionFiles));
+			out.writeInt(fileList == null ? -1 : fileList.size());
+			if (fileList == null) return;
+			for (final Map.Entry<Integer, List<BrowsableLocation>> series : fileList
+				.entrySet())
+			{
+				out.writeInt(series.getKey());
+				out.writeObject(paths(series.getValue()));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void readObject(final ObjectInputStream in) throws IOException,
+			ClassNotFoundException
+		{
+			in.defaultReadObject();
+			lut = (byte[][]) in.readObject();
+			shortLut = (short[][]) in.readObject();
+			if (in.readBoolean()) lut8 = new ColorTable8(lut);
+			if (in.readBoolean()) lut16 = new ColorTable16(shortLut);
+			companionFiles = locations((List<String>) in.readObject());
+			final int seriesCount = in.readInt();
+			if (seriesCount < 0) return;
+			fileList = new HashMap<>();
+			for (int i = 0; i < seriesCount; i++) {
+				final int series = in.readInt();
+				fileList.put(series, locations((List<String>) in.readObject()));
+			}
+		}
+
+		// -- Helper methods --
+
+		private static ArrayList<String> paths(
+			final List<BrowsableLocation> files) throws NotSerializableException
+		{
+			if (files == null) return null;
+			final ArrayList<String> paths = new ArrayList<>(files.size());
+			for (final BrowsableLocation file : files) {
+				if (file == null) paths.add(null);
+				else if (file instanceof FileLocation) {
+					paths.add(((FileLocation) file).getFile().getPath());
+				}
+				else throw new NotSerializableException(file.getClass().getName());
+			}
+			return paths;
+		}
+
+		private static List<BrowsableLocation> locations(
+			final List<String> paths)
+		{
+			if (paths == null) return null;
+			final List<BrowsableLocation> files = new ArrayList<>(paths.size());
+			for (final String path : paths) {
+				files.add(path == null ? null : new FileLocation(path));
+			}
+			return files;
+		}
 	}
 
 	public static class Checker extends AbstractChecker {
@@ -1522,8 +1600,8 @@ public class DICOMFormat extends AbstractFormat {
 				options.interleaved = meta.get(imageIndex)
 					.getInterleavedAxisCount() > 0;
 				final Codec codec = meta.isJPEG() ? //
-					codecService.getCodec(JPEGCodec.class) : //
-					codecService.getCodec(JPEG2000Codec.class);
+					codecService.getInstrumentedCodec(JPEGCodec.class) : //
+					codecService.getInstrumentedCodec(JPEG2000Codec.class);
 				b = codec.decompress(b, options);
 
 				final int rowLen = w * bpp;
@@ -34,15 +34,18 @@ import io.scif.AbstractMetadata;
 import io.scif.AbstractParser;
 import io.scif.ByteArrayPlane;
 import io.scif.ByteArrayReader;
+import io.scif.CacheableMetadata;
 import io.scif.Format;
 import io.scif.FormatException;
 import io.scif.ImageMetadata;
 import io.scif.config.SCIFIOConfig;
 import io.scif.util.FormatTools;
+import io.scif.util.SCIFIOMetadataTools;
 
 import java.io.IOException;
 
 import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
 import net.imglib2.Interval;
 
 import org.scijava.io.handle.DataHandle;
@@ -70,7 +73,9 @@ public class FITSFormat extends AbstractFormat {
 
 	// -- Nested Classes --
 
-	public static class Metadata extends AbstractMetadata {
+	public static class Metadata extends AbstractMetadata implements
+		CacheableMetadata
+	{
 
 		// -- Fields --
 
@@ -195,8 +200,21 @@ public class FITSFormat extends AbstractFormat {
 				FormatTools.UNKNOWN_DOMAIN };
 		}
 
+		@Override
+		protected long getRawPlaneOffset(final int imageIndex,
+			final long planeIndex) throws FormatException, IOException
+		{
+			return getMetadata().getPixelOffset() + planeIndex * FormatTools
+				.getPlaneSize(this, imageIndex);
+		}
+
 		// -- Reader API Methods --
 
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
@@ -211,5 +229,33 @@ public class FITSFormat extends AbstractFormat {
 				.getPlaneSize(this, imageIndex));
 			return readPlane(getHandle(), imageIndex, bounds, plane);
 		}
+
+		@Override
+		public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+			final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+			throws FormatException, IOException
+		{
+			if (!isBulkReadable(imageIndex, bounds)) {
+				return super.openPlanes(imageIndex, planeIndices, bounds, buf, config);
+			}
+			return readContiguousPlanes(getHandle(), getMetadata().getPixelOffset(),
+				imageIndex, planeIndices, buf);
+		}
+
+		@Override
+		public boolean isBulkReadable(final int imageIndex,
+			final Interval bounds)
+		{
+			return SCIFIOMetadataTools.wholePlane(imageIndex, getMetadata(), bounds);
+		}
+
+		@Override
+		public byte[] openRegion(final int imageIndex, final Interval bounds,
+			final byte[] buf, final SCIFIOConfig config, final AxisType... order)
+			throws FormatException, IOException
+		{
+			return readContiguousRegion(getHandle(), getMetadata().getPixelOffset(),
+				imageIndex, bounds, buf, order);
+		}
 	}
 }
@@ -1415,6 +1415,20 @@ public class ICSFormat extends AbstractFormat {
 				FormatTools.UNKNOWN_DOMAIN };
 		}
 
+		@Override
+		protected long getRawPlaneOffset(final int imageIndex,
+			final long planeIndex) throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			if (gzip || invertY || (!meta.get(imageIndex).isMultichannel() && meta
+				.storedRGB()))
+			{
+				return -1;
+			}
+			return meta.offset + planeIndex * FormatTools.getPlaneSize(this,
+				imageIndex);
+		}
+
 		// -- Reader API Methods --
 
 		@Override
@@ -1546,6 +1560,44 @@ public class ICSFormat extends AbstractFormat {
 			return plane;
 		}
 
+		@Override
+		public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+			final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+			throws FormatException, IOException
+		{
+			if (!isBulkReadable(imageIndex, bounds)) {
+				return super.openPlanes(imageIndex, planeIndices, bounds, buf, config);
+			}
+			return readContiguousPlanes(getHandle(), getMetadata().offset,
+				imageIndex, planeIndices, buf);
+		}
+
+		@Override
+		public boolean isBulkReadable(final int imageIndex,
+			final Interval bounds)
+		{
+			final Metadata meta = getMetadata();
+			// only uncompressed, planar data can be read in bulk
+			return !gzip && !invertY && (meta.get(imageIndex).isMultichannel() ||
+				!meta.storedRGB()) && SCIFIOMetadataTools.wholePlane(imageIndex, meta,
+					bounds);
+		}
+
+		@Override
+		public byte[] openRegion(final int imageIndex, final Interval bounds,
+			final byte[] buf, final SCIFIOConfig config, final AxisType... order)
+			throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			if (gzip || invertY || (!meta.get(imageIndex).isMultichannel() && meta
+				.storedRGB()))
+			{
+				return super.openRegion(imageIndex, bounds, buf, config, order);
+			}
+			return readContiguousRegion(getHandle(), meta.offset, imageIndex, bounds,
+				buf, order);
+		}
+
 		@Override
 		public void close(final boolean fileOnly) throws IOException {
 			super.close(fileOnly);
@@ -167,6 +167,17 @@ public abstract class ImageIOFormat extends AbstractFormat {
 		public long getOptimalTileHeight(final int imageIndex) {
 			return getMetadata().get(imageIndex).getAxisLength(Axes.Y);
 		}
+
+		@Override
+		public long[] getNativeBlockSize(final int imageIndex) {
+			// ImageIO always decodes whole planes
+			final ImageMetadata iMeta = getMetadata().get(imageIndex);
+			final long[] blockSize = super.getNativeBlockSize(imageIndex);
+			for (int d = 0; d < iMeta.getPlanarAxisCount(); d++) {
+				blockSize[d] = iMeta.getAxisLength(d);
+			}
+			return blockSize;
+		}
 	}
 
 	public static class Writer<M extends Metadata> extends AbstractWriter<M> {
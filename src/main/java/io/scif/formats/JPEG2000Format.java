@@ -42,6 +42,7 @@ import io.scif.FormatException;
 import io.scif.HasColorTable;
 import io.scif.ImageMetadata;
 import io.scif.Plane;
+import io.scif.codec.Codec;
 import io.scif.codec.CodecOptions;
 import io.scif.codec.CodecService;
 import io.scif.codec.CompressionType;
@@ -785,7 +786,8 @@ public class JPEG2000Format extends AbstractFormat {
 			}
 
 			getHandle().seek(meta.getPixelsOffset());
-			final JPEG2000Codec codec = codecService.getCodec(JPEG2000Codec.class);
+			final Codec codec = codecService.getInstrumentedCodec(
+				JPEG2000Codec.class);
 			final byte[] lastIndexPlane = codec.decompress(getHandle(), options);
 			meta.setLastIndexBytes(lastIndexPlane);
 			final DataHandle<Location> s = dataHandleService.create(new BytesLocation(
@@ -867,7 +869,8 @@ public class JPEG2000Format extends AbstractFormat {
 				CompressionType.J2K.getCompression());
 			options.colorModel = getColorModel();
 
-			final JPEG2000Codec codec = codecService.getCodec(JPEG2000Codec.class);
+			final Codec codec = codecService.getInstrumentedCodec(
+				JPEG2000Codec.class);
 			return codec.compress(buf, options);
 		}
 
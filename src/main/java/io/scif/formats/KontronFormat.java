@@ -165,6 +165,11 @@ public class KontronFormat extends AbstractFormat {
 
 			return true;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { KONTRON_ID.clone() };
+		}
 	}
 
 	public static class Reader extends ByteArrayReader<Metadata> {
@@ -174,6 +179,11 @@ public class KontronFormat extends AbstractFormat {
 			return new String[] { FormatTools.SEM_DOMAIN };
 		}
 
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
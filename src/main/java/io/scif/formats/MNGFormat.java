@@ -44,6 +44,7 @@ import io.scif.util.FormatTools;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Hashtable;
 import java.util.Vector;
 
@@ -153,6 +154,12 @@ public class MNGFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.readLong() == MNG_MAGIC_BYTES;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { ByteBuffer.allocate(8).putLong(MNG_MAGIC_BYTES)
+				.array() };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
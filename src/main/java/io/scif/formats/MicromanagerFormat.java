@@ -850,6 +850,20 @@ public class MicromanagerFormat extends AbstractFormat {
 			return tiffReader.getOptimalTileHeight(imageIndex);
 		}
 
+		@Override
+		public long[] getNativeBlockSize(final int imageIndex) {
+			if (tiffReader == null || tiffReader.getCurrentLocation() == null) {
+				setupReader(imageIndex);
+			}
+			final ImageMetadata iMeta = getMetadata().get(imageIndex);
+			final long[] blockSize = super.getNativeBlockSize(imageIndex);
+			blockSize[iMeta.getAxisIndex(Axes.X)] = tiffReader.getOptimalTileWidth(
+				imageIndex);
+			blockSize[iMeta.getAxisIndex(Axes.Y)] = tiffReader
+				.getOptimalTileHeight(imageIndex);
+			return blockSize;
+		}
+
 		// -- Groupable API Methods --
 
 		@Override
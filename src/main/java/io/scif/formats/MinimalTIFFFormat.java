@@ -35,6 +35,7 @@ import io.scif.AbstractMetadata;
 import io.scif.AbstractParser;
 import io.scif.ByteArrayPlane;
 import io.scif.ByteArrayReader;
+import io.scif.CacheableMetadata;
 import io.scif.Format;
 import io.scif.FormatException;
 import io.scif.HasColorTable;
@@ -50,6 +51,8 @@ import io.scif.services.FormatService;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -90,7 +93,7 @@ public class MinimalTIFFFormat extends AbstractFormat {
 	// -- Nested classes --
 
 	public static class Metadata extends AbstractMetadata implements
-		HasColorTable
+		HasColorTable, CacheableMetadata
 	{
 
 		// -- Fields --
@@ -107,7 +110,7 @@ public class MinimalTIFFFormat extends AbstractFormat {
 		 */
 		private List<IFDList> subResolutionIFDs;
 
-		private TiffParser tiffParser;
+		private transient TiffParser tiffParser;
 
 		private boolean equalStrips = false;
 
@@ -121,7 +124,10 @@ public class MinimalTIFFFormat extends AbstractFormat {
 		private Integer resolutionLevels;
 
 		/** Codec options to use when decoding JPEG 2000 data. */
-		private JPEG2000CodecOptions j2kCodecOptions;
+		private transient JPEG2000CodecOptions j2kCodecOptions;
+
+		/** Whether this metadata was deserialized, and still needs a parser. */
+		private transient boolean restored;
 
 		// -- MinimalTIFFMetadata getters and setters --
 
@@ -306,6 +312,28 @@ public class MinimalTIFFFormat extends AbstractFormat {
 			}
 		}
 
+		// -- HasSource API Methods --
+
+		@Override
+		public void setSource(final DataHandle<Location> source) {
+			super.setSource(source);
+
+			// NB: metadata restored from the cache has its IFDs, but no parser
+			if (!restored || source == null) return;
+			restored = false;
+			tiffParser = new TiffParser(getContext(), source);
+			tiffParser.setDoCaching(false);
+			tiffParser.setUse64BitOffsets(use64Bit);
+			tiffParser.setAssumeEqualStrips(equalStrips);
+			restoreLog(ifds);
+			restoreLog(thumbnailIFDs);
+			if (subResolutionIFDs != null) {
+				for (final IFDList list : subResolutionIFDs) {
+					restoreLog(list);
+				}
+			}
+		}
+
 		// -- HasColorTable API methods --
 
 		@Override
@@ -374,6 +402,40 @@ public class MinimalTIFFFormat extends AbstractFormat {
 			}
 			return table;
 		}
+
+		// -- Serialization methods --
+
+		/*
+		 * The TIFF parser reads from the source, so it is rebuilt when one is
+		 * set. JPEG 2000 options are not Serializable, and restored to their
+		 * defaults.
+		 */
+		private void writeObject(final ObjectOutputStream out)
+			throws IOException
+		{
+			out.defaultWriteObject();
+			out.writeBoolean(j2kCodecOptions != null);
+		}
+
+		private void readObject(final ObjectInputStream in) throws IOException,
+			ClassNotFoundException
+		{
+			in.defaultReadObject();
+			if (in.readBoolean()) {
+				j2kCodecOptions = JPEG2000CodecOptions.getDefaultOptions();
+			}
+			restored = true;
+		}
+
+		// -- Helper methods --
+
+		/* Copies deserialized IFDs, which have no log service. */
+		private void restoreLog(final IFDList list) {
+			if (list == null) return;
+			for (int i = 0; i < list.size(); i++) {
+				list.set(i, new IFD(list.get(i), log()));
+			}
+		}
 	}
 
 	public static class Checker extends AbstractChecker {
@@ -389,6 +451,15 @@ public class MinimalTIFFFormat extends AbstractFormat {
 		public boolean isFormat(final DataHandle<Location> stream) {
 			return new TiffParser(getContext(), stream).isValidHeader();
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			// II or MM, followed by the (Big)TIFF magic number in that byte order
+			return new byte[][] { { 0x49, 0x49, 0x2a, 0x00 }, //
+				{ 0x49, 0x49, 0x2b, 0x00 }, //
+				{ 0x4d, 0x4d, 0x00, 0x2a }, //
+				{ 0x4d, 0x4d, 0x00, 0x2b } };
+		}
 	}
 
 	public static class Parser<M extends Metadata> extends AbstractParser<M> {
@@ -652,6 +723,30 @@ public class MinimalTIFFFormat extends AbstractFormat {
 			return super.getOptimalTileHeight(imageIndex);
 		}
 
+		@Override
+		public long[] getNativeBlockSize(final int imageIndex) {
+			final ImageMetadata iMeta = getMetadata().get(imageIndex);
+			final long[] blockSize = super.getNativeBlockSize(imageIndex);
+			boolean chunky = true;
+			try {
+				final IFD ifd = getMetadata().getIfds().get(0);
+				// uncompressed strips can be read in part, so they are no blocks
+				if (!ifd.isTiled() && isUncompressed(ifd)) return blockSize;
+				chunky = ifd.getPlanarConfiguration() == 1;
+			}
+			catch (final FormatException e) {
+				log().debug("Could not retrieve planar configuration", e);
+			}
+			// chunky tiles hold the samples of every planar channel
+			for (int d = 0; d < iMeta.getPlanarAxisCount(); d++) {
+				if (chunky) blockSize[d] = iMeta.getAxisLength(d);
+			}
+			blockSize[iMeta.getAxisIndex(Axes.X)] = getOptimalTileWidth(imageIndex);
+			blockSize[iMeta.getAxisIndex(Axes.Y)] = getOptimalTileHeight(
+				imageIndex);
+			return blockSize;
+		}
+
 		/**
 		 * Sets the resolution level when we have JPEG 2000 compressed data.
 		 *
@@ -669,5 +764,15 @@ public class MinimalTIFFFormat extends AbstractFormat {
 				j2kCodecOptions.resolution);
 			meta.getTiffParser().setCodecOptions(j2kCodecOptions);
 		}
+
+		// -- Helper methods --
+
+		private static boolean isUncompressed(final IFD ifd)
+			throws FormatException
+		{
+			final TiffCompression compression = ifd.getCompression();
+			return compression == TiffCompression.UNCOMPRESSED ||
+				compression == TiffCompression.DEFAULT_UNCOMPRESSED;
+		}
 	}
 }
@@ -43,11 +43,14 @@ import io.scif.UnsupportedCompressionException;
 import io.scif.config.SCIFIOConfig;
 import io.scif.services.FormatService;
 import io.scif.util.FormatTools;
+import io.scif.util.SCIFIOMetadataTools;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
 import net.imglib2.Interval;
 
 import org.scijava.io.handle.DataHandle;
@@ -228,6 +231,12 @@ public class NRRDFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.readString(blockLen).startsWith(NRRD_MAGIC_STRING);
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { NRRD_MAGIC_STRING.getBytes(
+				StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -448,6 +457,18 @@ public class NRRDFormat extends AbstractFormat {
 			return new String[] { FormatTools.UNKNOWN_DOMAIN };
 		}
 
+		@Override
+		protected long getRawPlaneOffset(final int imageIndex,
+			final long planeIndex) throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			if (meta.getDataFile() != null || !meta.getEncoding().equals("raw")) {
+				return -1;
+			}
+			return meta.getOffset() + planeIndex * FormatTools.getPlaneSize(this,
+				imageIndex);
+		}
+
 		// -- Groupable API Methods --
 
 		@Override
@@ -521,5 +542,56 @@ public class NRRDFormat extends AbstractFormat {
 			throw new FormatException("Could not find a supporting Format");
 		}
 
+		@Override
+		public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+			final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+			throws FormatException, IOException
+		{
+			if (!isBulkReadable(imageIndex, bounds)) {
+				return super.openPlanes(imageIndex, planeIndices, bounds, buf, config);
+			}
+			final Metadata meta = getMetadata();
+			if (meta.getDataFile() == null) {
+				return readContiguousPlanes(getHandle(), meta.getOffset(), imageIndex,
+					planeIndices, buf);
+			}
+			try (final DataHandle<Location> s = dataHandleService.create(meta
+				.getDataFile()))
+			{
+				return readContiguousPlanes(s, meta.getOffset(), imageIndex,
+					planeIndices, buf);
+			}
+		}
+
+		@Override
+		public boolean isBulkReadable(final int imageIndex,
+			final Interval bounds)
+		{
+			final Metadata meta = getMetadata();
+			return meta.getEncoding().equals("raw") && SCIFIOMetadataTools
+				.wholePlane(imageIndex, meta, bounds);
+		}
+
+		@Override
+		public byte[] openRegion(final int imageIndex, final Interval bounds,
+			final byte[] buf, final SCIFIOConfig config, final AxisType... order)
+			throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			if (!meta.getEncoding().equals("raw")) {
+				return super.openRegion(imageIndex, bounds, buf, config, order);
+			}
+			if (meta.getDataFile() == null) {
+				return readContiguousRegion(getHandle(), meta.getOffset(), imageIndex,
+					bounds, buf, order);
+			}
+			try (final DataHandle<Location> s = dataHandleService.create(meta
+				.getDataFile()))
+			{
+				return readContiguousRegion(s, meta.getOffset(), imageIndex, bounds,
+					buf, order);
+			}
+		}
+
 	}
 }
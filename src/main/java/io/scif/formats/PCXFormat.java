@@ -164,6 +164,11 @@ public class PCXFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.read() == PCX_MAGIC_BYTE;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { PCX_MAGIC_BYTE } };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -231,6 +236,11 @@ public class PCXFormat extends AbstractFormat {
 
 		// -- Reader API Methods --
 
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
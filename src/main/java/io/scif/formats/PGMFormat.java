@@ -35,6 +35,7 @@ import io.scif.AbstractMetadata;
 import io.scif.AbstractParser;
 import io.scif.ByteArrayPlane;
 import io.scif.ByteArrayReader;
+import io.scif.CacheableMetadata;
 import io.scif.Format;
 import io.scif.FormatException;
 import io.scif.ImageMetadata;
@@ -72,7 +73,9 @@ public class PGMFormat extends AbstractFormat {
 
 	// -- Nested classes --
 
-	public static class Metadata extends AbstractMetadata {
+	public static class Metadata extends AbstractMetadata implements
+		CacheableMetadata
+	{
 
 		// -- Fields --
 
@@ -145,6 +148,11 @@ public class PGMFormat extends AbstractFormat {
 				.read());
 		}
 
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { (byte) PGM_MAGIC_CHAR } };
+		}
+
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -245,8 +253,21 @@ public class PGMFormat extends AbstractFormat {
 			return new String[] { FormatTools.GRAPHICS_DOMAIN };
 		}
 
+		@Override
+		protected long getRawPlaneOffset(final int imageIndex,
+			final long planeIndex) throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			return meta.isRawBits() ? meta.getOffset() : -1;
+		}
+
 		// -- Reader API methods --
 
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
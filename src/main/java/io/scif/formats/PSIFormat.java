@@ -5,6 +5,7 @@ import io.scif.config.SCIFIOConfig;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.StringTokenizer;
 
 import net.imagej.axis.Axes;
@@ -373,6 +374,12 @@ public class PSIFormat extends AbstractFormat {
             return correctSignature && correctTrailer;
         }
 
+        @Override
+        public byte[][] getSignatures() {
+            return new byte[][] { PSI_MAGIC_STRING.getBytes(
+                    StandardCharsets.US_ASCII) };
+        }
+
     }
 
     public static class Parser extends AbstractParser<Metadata> {
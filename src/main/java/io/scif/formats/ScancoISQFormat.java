@@ -41,14 +41,17 @@ import io.scif.FormatException;
 import io.scif.ImageMetadata;
 import io.scif.config.SCIFIOConfig;
 import io.scif.util.FormatTools;
+import io.scif.util.SCIFIOMetadataTools;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 
 import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
 import net.imagej.axis.DefaultLinearAxis;
 import net.imglib2.Interval;
 
@@ -141,6 +144,11 @@ public class ScancoISQFormat extends AbstractFormat {
 			final String fileStart = new String(firstBytes);
 			return ISQ_ID.equals(fileStart);
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { ISQ_ID.getBytes(StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Metadata extends AbstractMetadata {
@@ -561,6 +569,22 @@ public class ScancoISQFormat extends AbstractFormat {
 			return new String[] { FormatTools.MEDICAL_DOMAIN };
 		}
 
+		@Override
+		protected long getRawPlaneOffset(final int imageIndex,
+			final long planeIndex) throws FormatException, IOException
+		{
+			final Metadata metadata = getMetadata();
+			if (metadata.sliceBytes != FormatTools.getPlaneSize(this, imageIndex)) {
+				return -1;
+			}
+			return metadata.dataOffset + metadata.sliceBytes * planeIndex;
+		}
+
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
@@ -573,5 +597,39 @@ public class ScancoISQFormat extends AbstractFormat {
 			stream.seek(offset);
 			return readPlane(stream, imageIndex, bounds, plane);
 		}
+
+		@Override
+		public byte[] openPlanes(final int imageIndex, final long[] planeIndices,
+			final Interval bounds, final byte[] buf, final SCIFIOConfig config)
+			throws FormatException, IOException
+		{
+			if (!isBulkReadable(imageIndex, bounds)) {
+				return super.openPlanes(imageIndex, planeIndices, bounds, buf, config);
+			}
+			return readContiguousPlanes(getHandle(), getMetadata().dataOffset,
+				imageIndex, planeIndices, buf);
+		}
+
+		@Override
+		public boolean isBulkReadable(final int imageIndex,
+			final Interval bounds)
+		{
+			final Metadata metadata = getMetadata();
+			return SCIFIOMetadataTools.wholePlane(imageIndex, metadata, bounds) &&
+				metadata.sliceBytes == FormatTools.getPlaneSize(this, imageIndex);
+		}
+
+		@Override
+		public byte[] openRegion(final int imageIndex, final Interval bounds,
+			final byte[] buf, final SCIFIOConfig config, final AxisType... order)
+			throws FormatException, IOException
+		{
+			final Metadata metadata = getMetadata();
+			if (metadata.sliceBytes != FormatTools.getPlaneSize(this, imageIndex)) {
+				return super.openRegion(imageIndex, bounds, buf, config, order);
+			}
+			return readContiguousRegion(getHandle(), metadata.dataOffset, imageIndex,
+				bounds, buf, order);
+		}
 	}
 }
@@ -445,6 +445,18 @@ public class StratecPQCTFormat extends AbstractFormat {
 			return new String[] { FormatTools.MEDICAL_DOMAIN };
 		}
 
+		@Override
+		protected long getRawPlaneOffset(final int imageIndex,
+			final long planeIndex) throws FormatException, IOException
+		{
+			return HEADER_SIZE;
+		}
+
+		@Override
+		public boolean isMetadataShareable() {
+			return true;
+		}
+
 		@Override
 		public ByteArrayPlane openPlane(final int imageIndex, final long planeIndex,
 			final ByteArrayPlane plane, final Interval bounds,
@@ -56,6 +56,9 @@ import io.scif.util.FormatTools;
 import io.scif.xml.XMLService;
 
 import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -76,6 +79,7 @@ import net.imglib2.display.ColorTable8;
 import org.scijava.io.handle.DataHandle;
 import org.scijava.io.handle.DataHandleService;
 import org.scijava.io.location.BrowsableLocation;
+import org.scijava.io.location.FileLocation;
 import org.scijava.io.location.Location;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
@@ -127,7 +131,7 @@ public class TIFFFormat extends AbstractFormat {
 
 		private String imageDescription;
 
-		private Location companionFile;
+		private transient Location companionFile;
 
 		private String description;
 
@@ -139,7 +143,7 @@ public class TIFFFormat extends AbstractFormat {
 
 		private byte[][] lut;
 
-		private List<ColorTable> colorTable;
+		private transient List<ColorTable> colorTable;
 
 		// -- TIFFMetadata getters and setters --
 
@@ -337,6 +341,32 @@ public class TIFFFormat extends AbstractFormat {
 				yOrigin = null;
 			}
 		}
+
+		// -- Serialization methods --
+
+		/*
+		 * Locations are not Serializable, so the companion file is written as a
+		 * path. The color tables are rebuilt from the LUT when next requested.
+		 */
+		private void writeObject(final ObjectOutputStream out)
+			throws IOException
+		{
+			out.defaultWriteObject();
+			if (companionFile == null) out.writeObject(null);
+			else if (companionFile instanceof FileLocation) {
+				out.writeObject(((FileLocation) companionFile).getFile().getPath());
+			}
+			else throw new NotSerializableException(companionFile.getClass()
+				.getName());
+		}
+
+		private void readObject(final ObjectInputStream in) throws IOException,
+			ClassNotFoundException
+		{
+			in.defaultReadObject();
+			final String path = (String) in.readObject();
+			if (path != null) companionFile = new FileLocation(path);
+		}
 	}
 
 	public static class Parser extends BaseTIFFParser {
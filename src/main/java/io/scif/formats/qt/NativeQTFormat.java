@@ -47,6 +47,7 @@ import io.scif.codec.Codec;
 import io.scif.codec.CodecOptions;
 import io.scif.codec.CodecService;
 import io.scif.codec.CompressionType;
+import io.scif.codec.FrameCache;
 import io.scif.codec.JPEGCodec;
 import io.scif.codec.MJPBCodec;
 import io.scif.codec.MJPBCodecOptions;
@@ -132,6 +133,12 @@ public class NativeQTFormat extends AbstractFormat {
 		/** Flag indicating whether we can safely use prevPixels. */
 		private boolean canUsePrevious;
 
+		/**
+		 * Decoded checkpoints for random access into delta-compressed movies, and
+		 * the sync samples listed in the stss atom.
+		 */
+		private transient FrameCache frameCache;
+
 		/** Video codec used by this movie. */
 		private String codec;
 
@@ -221,6 +228,11 @@ public class NativeQTFormat extends AbstractFormat {
 			this.canUsePrevious = canUsePrevious;
 		}
 
+		public FrameCache getFrameCache() {
+			if (frameCache == null) frameCache = new FrameCache();
+			return frameCache;
+		}
+
 		public String getCodec() {
 			return codec;
 		}
@@ -313,6 +325,7 @@ public class NativeQTFormat extends AbstractFormat {
 			if (!fileOnly) {
 				offsets = null;
 				prevPixels = null;
+				frameCache = null;
 				codec = altCodec = null;
 				pixelOffset = pixelBytes = bitsPerPixel = rawSize = 0;
 				prevPlane = altPlanes = 0;
@@ -486,38 +499,28 @@ public class NativeQTFormat extends AbstractFormat {
 			FormatTools.checkPlaneForReading(meta, imageIndex, planeIndex, buf.length,
 				bounds);
 
-			String code = meta.getCodec();
-			if (planeIndex >= meta.get(imageIndex).getPlaneCount() - meta
-				.getAltPlanes()) code = meta.altCodec;
+			final String code = getCodec(imageIndex, planeIndex);
+			final byte[] pixs = readPixels(planeIndex);
 
-			int offset = meta.getOffsets().get((int) planeIndex).intValue();
-			int nextOffset = (int) meta.getPixelBytes();
-
-			meta.setScale(meta.getOffsets().get(0).intValue());
-			offset -= meta.getScale();
+			meta.setCanUsePrevious((meta.getPrevPixels() != null) && (meta
+				.getPrevPlane() == planeIndex - 1) && !code.equals(meta.getAltCodec()));
 
-			if (planeIndex < meta.getOffsets().size() - 1) {
-				nextOffset = meta.getOffsets().get((int) planeIndex + 1).intValue() -
-					meta.getScale();
-			}
+			final boolean cached = meta.getPrevPlane() == planeIndex && meta
+				.getPrevPixels() != null && !code.equals(meta.getAltCodec());
 
-			if ((nextOffset - offset) < 0) {
-				final int temp = offset;
-				offset = nextOffset;
-				nextOffset = temp;
+			if (!cached && !meta.isCanUsePrevious() && planeIndex > 0 &&
+				NativeQTUtils.isDeltaCodec(code) && !code.equals(meta.getAltCodec()) &&
+				!meta.getFrameCache().isKeyFrame(planeIndex))
+			{
+				// reconstruct the preceding frame from the nearest checkpoint
+				meta.setPrevPixels(meta.getFrameCache().reconstruct(planeIndex - 1, (
+					frame, previous) -> decodeFrame(imageIndex, frame, previous)));
+				meta.setPrevPlane(planeIndex - 1);
+				meta.setCanUsePrevious(true);
 			}
 
-			final byte[] pixs = new byte[nextOffset - offset];
-
-			getHandle().seek(meta.getPixelOffset() + offset);
-			getHandle().read(pixs);
-
-			meta.setCanUsePrevious((meta.getPrevPixels() != null) && (meta
-				.getPrevPlane() == planeIndex - 1) && !code.equals(meta.getAltCodec()));
-
-			byte[] t = meta.getPrevPlane() == planeIndex && meta
-				.getPrevPixels() != null && !code.equals(meta.getAltCodec()) ? meta
-					.getPrevPixels() : NativeQTUtils.uncompress(pixs, code, meta);
+			byte[] t = cached ? meta.getPrevPixels() : NativeQTUtils.uncompress(pixs,
+				code, meta);
 			if (code.equals("rpza")) {
 				for (int i = 0; i < t.length; i++) {
 					t[i] = (byte) (255 - t[i]);
@@ -535,6 +538,9 @@ public class NativeQTFormat extends AbstractFormat {
 
 			meta.setPrevPixels(t);
 			meta.setPrevPlane(planeIndex);
+			if (NativeQTUtils.isDeltaCodec(code)) {
+				meta.getFrameCache().offer(planeIndex, t);
+			}
 
 			// determine whether we need to strip out any padding bytes
 
@@ -610,6 +616,65 @@ public class NativeQTFormat extends AbstractFormat {
 			}
 			return plane;
 		}
+
+		// -- Helper methods --
+
+		/** Returns the codec identifier used by the given plane. */
+		private String getCodec(final int imageIndex, final long planeIndex) {
+			final Metadata meta = getMetadata();
+			if (planeIndex >= meta.get(imageIndex).getPlaneCount() - meta
+				.getAltPlanes()) return meta.getAltCodec();
+			return meta.getCodec();
+		}
+
+		/** Reads the compressed pixel data of the given plane. */
+		private byte[] readPixels(final long planeIndex) throws IOException {
+			final Metadata meta = getMetadata();
+			int offset = meta.getOffsets().get((int) planeIndex).intValue();
+			int nextOffset = (int) meta.getPixelBytes();
+
+			meta.setScale(meta.getOffsets().get(0).intValue());
+			offset -= meta.getScale();
+
+			if (planeIndex < meta.getOffsets().size() - 1) {
+				nextOffset = meta.getOffsets().get((int) planeIndex + 1).intValue() -
+					meta.getScale();
+			}
+
+			if ((nextOffset - offset) < 0) {
+				final int temp = offset;
+				offset = nextOffset;
+				nextOffset = temp;
+			}
+
+			final byte[] pixs = new byte[nextOffset - offset];
+
+			getHandle().seek(meta.getPixelOffset() + offset);
+			getHandle().read(pixs);
+			return pixs;
+		}
+
+		/**
+		 * Decodes a complete frame of a delta-compressed movie, given the fully
+		 * decoded preceding frame.
+		 */
+		private byte[] decodeFrame(final int imageIndex, final long planeIndex,
+			final byte[] previous) throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			final String code = getCodec(imageIndex, planeIndex);
+			final byte[] prev = code.equals(meta.getAltCodec()) ? null : previous;
+			byte[] t = NativeQTUtils.uncompress(readPixels(planeIndex), code, meta,
+				prev);
+
+			// on rare occassions, we need to trim the data
+			if (prev != null && prev.length < t.length) {
+				final byte[] temp = t;
+				t = new byte[prev.length];
+				System.arraycopy(temp, 0, t, 0, t.length);
+			}
+			return t;
+		}
 	}
 
 	public static class Writer extends AbstractWriter<Metadata> {
@@ -1343,7 +1408,8 @@ public class NativeQTFormat extends AbstractFormat {
 
 							final CodecService codecService = meta.context().service(
 								CodecService.class);
-							final Codec codec = codecService.getCodec(ZlibCodec.class);
+							final Codec codec = codecService.getInstrumentedCodec(
+								ZlibCodec.class);
 							final byte[] output = codec.decompress(b, null);
 
 							// ensure data
@@ -1461,6 +1527,15 @@ public class NativeQTFormat extends AbstractFormat {
 							}
 						}
 					}
+					else if (atomType.equals("stss") && meta.getOffsets().isEmpty()) {
+						// found the sync samples of the first track, numbered from 1
+						stream.skipBytes(4);
+						final int numEntries = stream.readInt();
+						for (int i = 0; i < numEntries; i++) {
+							meta.getFrameCache().markKeyFrame((stream.readInt() &
+								0xffffffffL) - 1);
+						}
+					}
 					else if (atomType.equals("stts")) {
 						stream.skipBytes(12);
 						final int fps = stream.readInt();
@@ -1500,9 +1575,25 @@ public class NativeQTFormat extends AbstractFormat {
 			log.debug(sb.toString());
 		}
 
+		/** Returns true if the given codec depends on the preceding frame. */
+		private static boolean isDeltaCodec(final String code) {
+			return code.equals("rle ");
+		}
+
 		/** Uncompresses an image plane according to the the codec identifier. */
 		private static byte[] uncompress(final byte[] pixs, final String code,
 			final Metadata meta) throws FormatException
+		{
+			return uncompress(pixs, code, meta, meta.isCanUsePrevious() ? meta
+				.getPrevPixels() : null);
+		}
+
+		/**
+		 * Uncompresses an image plane according to the the codec identifier, using
+		 * the given preceding frame for delta codecs.
+		 */
+		private static byte[] uncompress(final byte[] pixs, final String code,
+			final Metadata meta, final byte[] previousImage) throws FormatException
 		{
 			final CodecService codecService = meta.context().service(
 				CodecService.class);
@@ -1512,25 +1603,24 @@ public class NativeQTFormat extends AbstractFormat {
 			options.bitsPerSample = meta.getBitsPerPixel();
 			options.channels = meta.getBitsPerPixel() < 40 ? meta.getBitsPerPixel() /
 				8 : (meta.getBitsPerPixel() - 32) / 8;
-			options.previousImage = meta.isCanUsePrevious() ? meta.getPrevPixels()
-				: null;
+			options.previousImage = previousImage;
 			options.littleEndian = meta.get(0).isLittleEndian();
 			options.interleaved = meta.get(0).isMultichannel();
 
 			final Codec codec;
 			if (code.equals("raw ")) return pixs;
 			else if (code.equals("rle ")) {
-				codec = codecService.getCodec(QTRLECodec.class);
+				codec = codecService.getInstrumentedCodec(QTRLECodec.class);
 			}
 			else if (code.equals("rpza")) {
-				codec = codecService.getCodec(QTRLECodec.class);
+				codec = codecService.getInstrumentedCodec(QTRLECodec.class);
 			}
 			else if (code.equals("mjpb")) {
 				((MJPBCodecOptions) options).interlaced = meta.isInterlaced();
-				codec = codecService.getCodec(MJPBCodec.class);
+				codec = codecService.getInstrumentedCodec(MJPBCodec.class);
 			}
 			else if (code.equals("jpeg")) {
-				codec = codecService.getCodec(JPEGCodec.class);
+				codec = codecService.getInstrumentedCodec(JPEGCodec.class);
 			}
 			else {
 				throw new UnsupportedCompressionException("Unsupported codec : " +
@@ -727,7 +727,8 @@ public class PICTFormat extends AbstractFormat {
 						options.interleaved = meta.get(0).getInterleavedAxisCount() > 0;
 						options.littleEndian = meta.get(0).isLittleEndian();
 
-						final Codec codec = codecService.getCodec(JPEGCodec.class);
+						final Codec codec = codecService.getInstrumentedCodec(
+							JPEGCodec.class);
 						decompressedImages.write(codec.decompress(compressedImages,
 							options));
 					}
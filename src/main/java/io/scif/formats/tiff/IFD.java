@@ -323,7 +323,8 @@ public class IFD extends HashMap<Integer, Object> {
 
 	// -- Fields --
 
-	private final LogService log;
+	/* Not serialized; restored IFDs are copied with a new log service. */
+	private final transient LogService log;
 
 	// -- Constructors --
 
@@ -270,7 +270,7 @@ public enum TiffCompression implements CodedEnum {
 				" compression mode is not supported");
 		}
 
-		final Codec codec = codecService.getCodec(codecClass);
+		final Codec codec = codecService.getInstrumentedCodec(codecClass);
 		return codec.decompress(input, options);
 	}
 
@@ -321,7 +321,7 @@ public enum TiffCompression implements CodedEnum {
 			throw new FormatException("Sorry, " + getCodecName() +
 				" compression mode is not supported");
 		}
-		final Codec codec = codecService.getCodec(codecClass);
+		final Codec codec = codecService.getInstrumentedCodec(codecClass);
 		return codec.compress(input, options);
 	}
 
@@ -29,6 +29,8 @@
 
 package io.scif.formats.tiff;
 
+import java.io.Serializable;
+
 /**
  * This class represents a single raw TIFF IFD entry. It does not retrieve or
  * store the values from the entry's specific offset and is based on the TIFF
@@ -36,7 +38,7 @@ package io.scif.formats.tiff;
  *
  * @author Chris Allan
  */
-public class TiffIFDEntry implements Comparable<Object> {
+public class TiffIFDEntry implements Comparable<Object>, Serializable {
 
 	/** The <i>Tag</i> that identifies the field. */
 	private final int tag;
@@ -31,14 +31,21 @@ package io.scif.img;
 
 import static org.scijava.util.ListUtils.first;
 
+import io.scif.ByteArrayPlane;
 import io.scif.FormatException;
 import io.scif.Metadata;
 import io.scif.Plane;
 import io.scif.Reader;
+import io.scif.ReaderPool;
 import io.scif.config.SCIFIOConfig;
 import io.scif.filters.ChannelFiller;
+import io.scif.filters.Filter;
+import io.scif.filters.MetricsFilter;
 import io.scif.filters.MinMaxFilter;
+import io.scif.filters.PlaneCacheFilter;
 import io.scif.filters.PlaneSeparator;
+import io.scif.filters.PlaneSeparatorMetadata;
+import io.scif.filters.PrefetchFilter;
 import io.scif.filters.ReaderFilter;
 import io.scif.img.cell.SCIFIOCellImgFactory;
 import io.scif.img.converters.PlaneConverter;
@@ -50,6 +57,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -84,6 +92,13 @@ import org.scijava.plugin.Parameter;
  */
 public class ImgOpener extends AbstractImgIOComponent {
 
+	// -- Constants --
+
+	/** Maximum size of consecutive planes read at once, in bytes. */
+	private static final int MAX_PLANES_BYTES = 64 * 1024 * 1024;
+
+	// -- Parameters --
+
 	@Parameter
 	private StatusService statusService;
 
@@ -398,6 +413,11 @@ public class ImgOpener extends AbstractImgIOComponent {
 				((SCIFIOCellImgFactory<?>) imgFactory).setReader(reader, i(imageIndex));
 				((SCIFIOCellImgFactory<?>) imgFactory).setSubRegion(config
 					.imgOpenerGetRegion());
+				((SCIFIOCellImgFactory<?>) imgFactory).setConfig(config);
+				// each image closes its own pool when disposed
+				final ReaderPool readerPool = config.imgOpenerGetCellReaders() > 1
+					? createCellReaderPool((ReaderFilter) reader, config) : null;
+				((SCIFIOCellImgFactory<?>) imgFactory).setReaderPool(readerPool);
 			}
 			final Img<T> img = imgFactory.create(dimLengths);
 			final SCIFIOImgPlus<T> imgPlus = makeImgPlus(img, reader, i(imageIndex));
@@ -484,6 +504,14 @@ public class ImgOpener extends AbstractImgIOComponent {
 			r.enable(ChannelFiller.class);
 			r.enable(PlaneSeparator.class).separate(axesToSplit(r));
 			if (computeMinMax) r.enable(MinMaxFilter.class);
+			if (config.imgOpenerGetPlaneCacheSize() > 0) {
+				r.enable(PlaneCacheFilter.class).setMaxBytes(config
+					.imgOpenerGetPlaneCacheSize());
+			}
+			if (config.imgOpenerGetPrefetchDepth() > 0) {
+				r.enable(PrefetchFilter.class).setDepth(config
+					.imgOpenerGetPrefetchDepth());
+			}
 		}
 		catch (FormatException | IOException e) {
 			throw new ImgIOException(e);
@@ -491,6 +519,60 @@ public class ImgOpener extends AbstractImgIOComponent {
 		return r;
 	}
 
+	/**
+	 * Creates a pool of readers loading cells in place of the given reader. Each
+	 * pooled reader reads through a handle of its own, sharing the metadata of
+	 * the reader if the format allows, and has the same filters shaping its
+	 * planes. Filters which leave planes as they are, such as caches, are left
+	 * out.
+	 *
+	 * @return the pool, or null if the reader has other filters, or the pool
+	 *         could not be created.
+	 */
+	private ReaderPool createCellReaderPool(final ReaderFilter reader,
+		final SCIFIOConfig config)
+	{
+		final Reader tail = reader.getTail();
+		final List<Class<?>> unchanged = Arrays.asList(MinMaxFilter.class,
+			PlaneCacheFilter.class, PrefetchFilter.class, MetricsFilter.class);
+		boolean fill = false;
+		final Set<AxisType> separated = new HashSet<>();
+		for (Reader r = reader.getParent(); r != tail; r = (Reader) ((Filter) r)
+			.getParent())
+		{
+			if (r instanceof ChannelFiller) fill = true;
+			else if (r instanceof PlaneSeparator) {
+				final PlaneSeparatorMetadata meta = (PlaneSeparatorMetadata) r
+					.getMetadata();
+				for (final AxisType type : axesToSplit(reader)) {
+					if (meta.splitting(type)) separated.add(type);
+				}
+			}
+			else if (!unchanged.contains(r.getClass())) {
+				log().debug("Cells will be loaded one at a time, as " + r
+					.getClass().getSimpleName() + " can not be pooled");
+				return null;
+			}
+		}
+
+		final boolean fillChannels = fill;
+		final AxisType[] split = separated.toArray(new AxisType[0]);
+		try {
+			return new ReaderPool(tail, config, config.imgOpenerGetCellReaders(),
+				pooled -> {
+					final ReaderFilter filter = new ReaderFilter(pooled);
+					if (fillChannels) filter.enable(ChannelFiller.class);
+					if (split.length > 0) filter.enable(PlaneSeparator.class).separate(
+						split);
+					return filter;
+				});
+		}
+		catch (final FormatException | IOException e) {
+			log().debug("Cells will be loaded one at a time", e);
+			return null;
+		}
+	}
+
 	/**
 	 * Returns a list of all AxisTypes that should be split out. This is a list of
 	 * all non-X,Y planar axes. Always tries to split {@link Axes#CHANNEL}.
@@ -710,8 +792,10 @@ public class ImgOpener extends AbstractImgIOComponent {
 		final Interval bounds, final Range[] npRanges, final long[] npIndices)
 		throws FormatException, IOException
 	{
-		read(imageIndex, imgPlus, r, config, converter, null, bounds, npRanges,
-			npIndices, 0, new int[] { 0 });
+		final Plane plane = read(imageIndex, imgPlus, r, config, converter, null,
+			bounds, npRanges, npIndices, 0, new int[] { 0 });
+		// the plane was reused for every read, and its pixels are copied now
+		if (plane != null) plane.release();
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -726,6 +810,13 @@ public class ImgOpener extends AbstractImgIOComponent {
 			// axis index, to ensure axes are iteratead in fastest to slowest
 			// order
 			final int npPosition = npRanges.length - 1 - depth;
+			if (npPosition == 0 && canReadPlanes(r, imageIndex, config, bounds,
+				npRanges[0]))
+			{
+				readPlanes(imageIndex, imgPlus, r, config, converter, bounds,
+					npRanges[0], npIndices, planeCount);
+				return tmpPlane;
+			}
 			// Recursive step. Sets the non-planar indices
 			for (int i = 0; i < npRanges[npPosition].size(); i++) {
 				npIndices[npPosition] = npRanges[npPosition].get(i);
@@ -744,8 +835,13 @@ public class ImgOpener extends AbstractImgIOComponent {
 			}
 			// FIXME: what if tmpPlane length does not match bounds size?
 			// Invent a utility method for checking tmpPlane vs. bounds.
-			if (tmpPlane == null) {
-				tmpPlane = r.openPlane(imageIndex, planeIndex, bounds);
+			if (config.readerIsMappedPlanes()) {
+				// NB: views can not be reused, as that would copy the pixels
+				if (tmpPlane != null) tmpPlane.release();
+				tmpPlane = r.openPlane(imageIndex, planeIndex, bounds, config);
+			}
+			else if (tmpPlane == null) {
+				tmpPlane = r.openPlane(imageIndex, planeIndex, bounds, config);
 			}
 			else {
 				tmpPlane = r.openPlane(imageIndex, planeIndex, tmpPlane, bounds,
@@ -753,8 +849,8 @@ public class ImgOpener extends AbstractImgIOComponent {
 			}
 
 			// copy the data to the ImgPlus
-			converter.populatePlane(r, imageIndex, planeCount[0], tmpPlane.getBytes(),
-				imgPlus, config);
+			converter.populatePlane(r, imageIndex, planeCount[0], tmpPlane, imgPlus,
+				config);
 
 			// store color table
 			imgPlus.setColorTable(tmpPlane.getColorTable(), planeCount[0]);
@@ -766,6 +862,70 @@ public class ImgOpener extends AbstractImgIOComponent {
 		return tmpPlane;
 	}
 
+	/**
+	 * Returns true if the planes along the fastest non-planar axis can be read
+	 * in bulk with {@link Reader#openPlanes}, which yields neither color tables
+	 * nor mapped planes. Only readers which {@link Reader#isBulkReadable read
+	 * such planes faster} than one at a time are asked to.
+	 */
+	private boolean canReadPlanes(final Reader r, final int imageIndex,
+		final SCIFIOConfig config, final Interval bounds, final Range range)
+	{
+		return range.size() > 1 && !config.readerIsMappedPlanes() && !r
+			.getMetadata().get(imageIndex).isIndexed() && FormatTools.getPlaneSize(r
+				.getMetadata(), bounds, imageIndex) <= MAX_PLANES_BYTES && r
+					.isBulkReadable(imageIndex, bounds);
+	}
+
+	/**
+	 * Reads the planes along the fastest non-planar axis, opening each run of
+	 * consecutive plane indices with a single {@link Reader#openPlanes} call.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void readPlanes(final int imageIndex, final ImgPlus imgPlus,
+		final Reader r, final SCIFIOConfig config, final PlaneConverter converter,
+		final Interval bounds, final Range range, final long[] npIndices,
+		final int[] planeCount) throws FormatException, IOException
+	{
+		final long[] planeIndices = new long[range.size()];
+		for (int i = 0; i < planeIndices.length; i++) {
+			npIndices[0] = range.get(i);
+			planeIndices[i] = FormatTools.positionToRaster(0, r, npIndices);
+		}
+
+		final int planeSize = (int) FormatTools.getPlaneSize(r.getMetadata(),
+			bounds, imageIndex);
+		final int maxRun = MAX_PLANES_BYTES / planeSize;
+		final ByteArrayPlane plane = new ByteArrayPlane();
+		final byte[] bytes = new byte[planeSize];
+		plane.populate(r.getMetadata().get(imageIndex), bytes, bounds);
+		byte[] buf = null;
+		int start = 0;
+		while (start < planeIndices.length) {
+			int end = start + 1;
+			while (end < planeIndices.length && end - start < maxRun &&
+				planeIndices[end] == planeIndices[end - 1] + 1)
+			{
+				end++;
+			}
+			final int runBytes = (end - start) * planeSize;
+			buf = r.openPlanes(imageIndex, Arrays.copyOfRange(planeIndices, start,
+				end), bounds, buf != null && buf.length >= runBytes ? buf : null,
+				config);
+
+			for (int i = 0; i < end - start; i++) {
+				if (config.imgOpenerIsComputeMinMax()) {
+					populateMinMax(r, imgPlus, imageIndex);
+				}
+				System.arraycopy(buf, i * planeSize, bytes, 0, planeSize);
+				converter.populatePlane(r, imageIndex, planeCount[0], plane, imgPlus,
+					config);
+				planeCount[0]++;
+			}
+			start = end;
+		}
+	}
+
 	private void populateMinMax(final Reader r, final ImgPlus<?> imgPlus,
 		final int imageIndex)
 	{
@@ -31,7 +31,10 @@ package io.scif.img.cell;
 
 import io.scif.FormatException;
 import io.scif.Reader;
+import io.scif.ReaderPool;
 import io.scif.img.cell.loaders.SCIFIOArrayLoader;
+import io.scif.metrics.CellCacheMetrics;
+import io.scif.metrics.MetricsService;
 
 import java.io.IOException;
 
@@ -46,6 +49,7 @@ import net.imglib2.img.cell.CellGrid;
 import net.imglib2.type.NativeType;
 import net.imglib2.util.Fraction;
 
+import org.scijava.Context;
 import org.scijava.Disposable;
 
 /**
@@ -67,17 +71,43 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 
 	private final IoSync iosync;
 
-	// -- Constructor --
+	private final CellCacheMetrics cacheMetrics;
 
+	private ReaderPool readerPool;
+
+	// -- Constructors --
+
+	/**
+	 * Creates an image whose {@link #getCacheMetrics() cache metrics} stay
+	 * empty, as the given cache does not record them.
+	 */
 	public SCIFIOCellImg(final SCIFIOCellImgFactory<T> factory,
 		final CellGrid grid, final Fraction entitiesPerPixel,
 		final Cache<Long, Cell<A>> cache, final A accessType,
 		final IoSync iosync)
+	{
+		this(factory, grid, entitiesPerPixel, cache, accessType, iosync,
+			new CellCacheMetrics(factory.cacheMetricsName()));
+	}
+
+	/**
+	 * @param cacheMetrics Metrics recorded by the given cache, which are added
+	 *          to the {@link MetricsService} of the reader's context until this
+	 *          image is disposed.
+	 */
+	public SCIFIOCellImg(final SCIFIOCellImgFactory<T> factory,
+		final CellGrid grid, final Fraction entitiesPerPixel,
+		final Cache<Long, Cell<A>> cache, final A accessType,
+		final IoSync iosync, final CellCacheMetrics cacheMetrics)
 	{
 		super(grid, entitiesPerPixel, cache, accessType);
 		this.factory = factory;
 		reader = factory.reader();
 		this.iosync = iosync;
+		this.cacheMetrics = cacheMetrics;
+		final MetricsService metricsService = metricsService();
+		if (metricsService != null) metricsService.addCellCacheMetrics(
+			cacheMetrics);
 	}
 
 	// -- SCIFIOCellImg methods --
@@ -112,6 +142,18 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 		return reader;
 	}
 
+	/**
+	 * Gets the metrics of this image's cache: how many requests for a cell were
+	 * served from memory, how many cells were loaded, by reading planes or from
+	 * the disk cache, evicted and written to disk, and how many are held in
+	 * memory.
+	 *
+	 * @see MetricsService#getCellCacheMetrics()
+	 */
+	public CellCacheMetrics getCacheMetrics() {
+		return cacheMetrics;
+	}
+
 	public void setLoader(final SCIFIOArrayLoader<?> loader) {
 		this.loader = loader;
 	}
@@ -127,10 +169,31 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 
 	@Override
 	public void dispose() {
+		final MetricsService metricsService = metricsService();
+		if (metricsService != null) metricsService.removeCellCacheMetrics(
+			cacheMetrics);
 		iosync.shutdown();
 		try {
+			if (readerPool != null) readerPool.close();
 			reader.close();
 		}
 		catch (final IOException e) {}
 	}
+
+	// -- Helper methods --
+
+	/** Sets the pool of readers loading cells, to be closed on disposal. */
+	void setReaderPool(final ReaderPool readerPool) {
+		this.readerPool = readerPool;
+	}
+
+	/** Gets the pool of readers loading cells, or null if there is none. */
+	ReaderPool getReaderPool() {
+		return readerPool;
+	}
+
+	private MetricsService metricsService() {
+		final Context context = reader == null ? null : reader.getContext();
+		return context == null ? null : context.getService(MetricsService.class);
+	}
 }
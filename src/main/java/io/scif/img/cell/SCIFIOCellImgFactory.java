@@ -29,9 +29,13 @@
 
 package io.scif.img.cell;
 
+import io.scif.ImageMetadata;
 import io.scif.Reader;
+import io.scif.ReaderPool;
+import io.scif.config.SCIFIOConfig;
 import io.scif.filters.ReaderFilter;
 import io.scif.img.ImageRegion;
+import io.scif.img.Range;
 import io.scif.img.cell.loaders.AbstractArrayLoader;
 import io.scif.img.cell.loaders.ByteArrayLoader;
 import io.scif.img.cell.loaders.CharArrayLoader;
@@ -40,13 +44,18 @@ import io.scif.img.cell.loaders.FloatArrayLoader;
 import io.scif.img.cell.loaders.IntArrayLoader;
 import io.scif.img.cell.loaders.LongArrayLoader;
 import io.scif.img.cell.loaders.ShortArrayLoader;
+import io.scif.metrics.CellCacheMetrics;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
+import net.imagej.axis.AxisType;
 import net.imglib2.Dimensions;
+import net.imglib2.Dirty;
 import net.imglib2.cache.Cache;
 import net.imglib2.cache.CacheLoader;
 import net.imglib2.cache.IoSync;
@@ -60,6 +69,7 @@ import net.imglib2.cache.img.LoadedCellCacheLoader;
 import net.imglib2.cache.img.SingleCellArrayImg;
 import net.imglib2.cache.ref.GuardedStrongRefLoaderRemoverCache;
 import net.imglib2.cache.ref.SoftRefLoaderRemoverCache;
+import net.imglib2.cache.util.LoaderCacheAsCacheAdapter;
 import net.imglib2.exception.IncompatibleTypeException;
 import net.imglib2.img.ImgFactory;
 import net.imglib2.img.NativeImgFactory;
@@ -77,6 +87,7 @@ import net.imglib2.img.cell.CellGrid;
 import net.imglib2.img.cell.CellImgFactory;
 import net.imglib2.type.NativeType;
 import net.imglib2.type.NativeTypeFactory;
+import net.imglib2.type.PrimitiveType;
 import net.imglib2.util.Fraction;
 import net.imglib2.util.Intervals;
 import net.imglib2.util.Util;
@@ -92,6 +103,13 @@ import net.imglib2.util.Util;
 public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 	NativeImgFactory<T>
 {
+	// -- Constants --
+
+	/**
+	 * Default limit on the size of cells enlarged to whole native blocks: 8 MiB.
+	 */
+	public static final long DEFAULT_MAX_ALIGNED_CELL_BYTES = 8L * 1024 * 1024;
+
 	// -- Fields --
 
 	private int index;
@@ -100,8 +118,18 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 
 	private ImageRegion subregion;
 
+	private SCIFIOConfig config;
+
+	private ReaderPool readerPool;
+
 	private int[] defaultCellDimensions;
 
+	private int[] cellDimensions;
+
+	private long[] blockSize;
+
+	private long maxAlignedCellBytes = DEFAULT_MAX_ALIGNED_CELL_BYTES;
+
 	private DiskCachedCellImgOptions factoryOptions;
 
 	// -- Constructors --
@@ -167,6 +195,7 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 
 		defaultCellDimensions = new int[] { (int) reader.getOptimalTileWidth(
 			imageIndex), (int) reader.getOptimalTileHeight(imageIndex), 1, 1, 1 };
+		blockSize = reader.getNativeBlockSize(imageIndex);
 	}
 
 	/**
@@ -177,6 +206,54 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 		subregion = region;
 	}
 
+	/**
+	 * @param cellDimensions Dimensions of the cells of any created
+	 *          {@link io.scif.img.cell.SCIFIOCellImg}s, overriding the
+	 *          reader's optimal tile size. Dimensions beyond those given are 1;
+	 *          null restores the default. Each dimension is rounded up to a
+	 *          multiple of the reader's native block size (see
+	 *          {@link Reader#getNativeBlockSize}), so that no stored block is
+	 *          split between cells, unless a subregion starting between
+	 *          blocks is opened or the cells would grow beyond
+	 *          {@link #setMaxAlignedCellBytes the limit}.
+	 */
+	public void setCellDimensions(final int... cellDimensions) {
+		this.cellDimensions = cellDimensions == null ? null : cellDimensions
+			.clone();
+	}
+
+	/**
+	 * @param maxAlignedCellBytes Maximum size in bytes of the cells of any
+	 *          created {@link io.scif.img.cell.SCIFIOCellImg}s when enlarged to
+	 *          whole native blocks. Cells which would grow beyond it keep their
+	 *          requested dimensions. Defaults to
+	 *          {@link #DEFAULT_MAX_ALIGNED_CELL_BYTES}.
+	 */
+	public void setMaxAlignedCellBytes(final long maxAlignedCellBytes) {
+		this.maxAlignedCellBytes = maxAlignedCellBytes;
+	}
+
+	/**
+	 * @param config Configuration used by any created
+	 *          {@link io.scif.img.cell.SCIFIOCellImg}s when opening planes.
+	 */
+	public void setConfig(final SCIFIOConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * @param readerPool Pool of readers loading the cells of the next created
+	 *          {@link io.scif.img.cell.SCIFIOCellImg}, so that cells can be
+	 *          loaded by several threads at once, or null to load them with the
+	 *          {@link #reader()}, one at a time. The pooled readers must present
+	 *          the same metadata as the reader. The image takes ownership of
+	 *          the pool and closes it when disposed, so later images load
+	 *          their cells one at a time unless given a pool of their own.
+	 */
+	public void setReaderPool(final ReaderPool readerPool) {
+		this.readerPool = readerPool;
+	}
+
 	// -- Helper Methods --
 
 	private static class SCIFIOCellLoader<T extends NativeType<T>, A> implements
@@ -238,21 +315,40 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 	{
 		final SCIFIOCellLoader<T, A> cellLoader = createCellLoader(typeFactory);
 		cellLoader.loader.setIndex(index);
+		cellLoader.loader.setConfig(config);
+		cellLoader.loader.setReaderPool(readerPool);
 
 		final DiskCachedCellImgOptions.Values options = factoryOptions.values;
 
 		final Fraction entitiesPerPixel = type.getEntitiesPerPixel();
 
-		final CellGrid grid = createCellGrid(dimensions, entitiesPerPixel);
+		final int bytesPerEntity = bytesPerEntity(typeFactory.getPrimitiveType());
+		final CellGrid grid = createCellGrid(dimensions, entitiesPerPixel,
+			bytesPerEntity);
 
 		final CellLoader<T> actualCellLoader = options.initializeCellsAsDirty()
 			? cell -> {
 				cellLoader.load(cell);
 				cell.setDirty();
 			} : cellLoader;
-		final CacheLoader<Long, Cell<A>> backingLoader = LoadedCellCacheLoader.get(
+		final CacheLoader<Long, Cell<A>> readerLoader = LoadedCellCacheLoader.get(
 			grid, actualCellLoader, type, options.accessFlags());
 
+		final CellCacheMetrics metrics = new CellCacheMetrics(cacheMetricsName());
+		final ToLongFunction<Long> cellBytes = key -> {
+			final int[] cellDims = new int[grid.numDimensions()];
+			grid.getCellDimensions(key, new long[cellDims.length], cellDims);
+			return entitiesPerPixel.mulCeil(Intervals.numElements(cellDims)) *
+				bytesPerEntity;
+		};
+
+		final CacheLoader<Long, Cell<A>> backingLoader = key -> {
+			final long start = System.nanoTime();
+			final Cell<A> cell = readerLoader.get(key);
+			metrics.recordReaderLoad(System.nanoTime() - start);
+			return cell;
+		};
+
 		final Path blockcache = createBlockCachePath(options);
 
 		@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -262,8 +358,19 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 					blockcache, grid, backingLoader, AccessIo.get(type, options
 						.accessFlags()), entitiesPerPixel);
 
-		final IoSync<Long, Cell<A>, A> iosync = new IoSync<>(diskcache, options
-			.numIoThreads(), options.maxIoQueueSize());
+		// NB: dirty disk caches only write the cells that were modified
+		final boolean writeAll = !options.dirtyAccesses();
+		final IoSync<Long, Cell<A>, A> iosync = new IoSync<Long, Cell<A>, A>(
+			diskcache, options.numIoThreads(), options.maxIoQueueSize())
+		{
+
+			@Override
+			public void onRemoval(final Long key, final A valueData) {
+				metrics.recordEviction(cellBytes.applyAsLong(key), writeAll ||
+					((Dirty) valueData).isDirty());
+				super.onRemoval(key, valueData);
+			}
+		};
 
 		LoaderRemoverCache<Long, Cell<A>, A> listenableCache;
 		switch (options.cacheType()) {
@@ -277,13 +384,43 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 				break;
 		}
 
-		final Cache<Long, Cell<A>> cache = listenableCache.withRemover(iosync)
-			.withLoader(iosync);
+		final CacheLoader<Long, Cell<A>> memoryLoader = key -> {
+			final Cell<A> cell = iosync.get(key);
+			metrics.recordLoad(cellBytes.applyAsLong(key));
+			return cell;
+		};
+		// NB: counts the memory hits and misses of every request for a cell
+		final Cache<Long, Cell<A>> cache =
+			new LoaderCacheAsCacheAdapter<Long, Cell<A>>(listenableCache
+				.withRemover(iosync), memoryLoader)
+			{
+
+				@Override
+				public Cell<A> getIfPresent(final Long key) {
+					final Cell<A> cell = super.getIfPresent(key);
+					if (cell == null) metrics.recordMemoryMiss();
+					else metrics.recordMemoryHit();
+					return cell;
+				}
+
+				@Override
+				public Cell<A> get(final Long key) throws ExecutionException {
+					final Cell<A> cell = super.getIfPresent(key);
+					if (cell != null) {
+						metrics.recordMemoryHit();
+						return cell;
+					}
+					metrics.recordMemoryMiss();
+					return super.get(key);
+				}
+			};
 
 		final A accessType = ArrayDataAccessFactory.get(typeFactory, options
 			.accessFlags());
 		final SCIFIOCellImg<T, ? extends A> img = new SCIFIOCellImg<>(this, grid,
-			entitiesPerPixel, cache, accessType, iosync);
+			entitiesPerPixel, cache, accessType, iosync, metrics);
+		img.setReaderPool(readerPool);
+		readerPool = null;
 		img.setLinkedType(typeFactory.createLinkedType(img));
 		return img;
 	}
@@ -300,20 +437,91 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 	}
 
 	private CellGrid createCellGrid(final long[] dimensions,
-		final Fraction entitiesPerPixel)
+		final Fraction entitiesPerPixel, final int bytesPerEntity)
 	{
 		CellImgFactory.verifyDimensions(dimensions);
 		final int n = dimensions.length;
 
-		final int[] defaultDims = new int[dimensions.length];
-		for (int d = 0; d < defaultDims.length; d++) {
-			defaultDims[d] = dimensions[d] < defaultCellDimensions[d] ? //
-				(int) dimensions[d] : defaultCellDimensions[d];
+		final int[] requestedDims = new int[dimensions.length];
+		final int[] alignedDims = new int[dimensions.length];
+		for (int d = 0; d < requestedDims.length; d++) {
+			final int cellDim = cellDimensions == null ? defaultCellDimensions[d] : //
+				d < cellDimensions.length ? cellDimensions[d] : 1;
+			final long aligned = alignToBlock(cellDim, d, dimensions[d]);
+			requestedDims[d] = (int) Math.min(cellDim, dimensions[d]);
+			alignedDims[d] = (int) Math.min(aligned, dimensions[d]);
 		}
+		// e.g. a single-strip TIFF would otherwise be loaded in one cell
+		final long alignedBytes = entitiesPerPixel.mulCeil(Intervals.numElements(
+			alignedDims)) * bytesPerEntity;
+		final int[] defaultDims = alignedBytes > maxAlignedCellBytes
+			? requestedDims : alignedDims;
 
-		final int[] cellDimensions = CellImgFactory.getCellDimensions(defaultDims,
+		final int[] gridCellDims = CellImgFactory.getCellDimensions(defaultDims,
 			n, entitiesPerPixel);
-		return new CellGrid(dimensions, cellDimensions);
+		return new CellGrid(dimensions, gridCellDims);
+	}
+
+	/**
+	 * Rounds a cell dimension up to a multiple of the reader's native block size
+	 * along that dimension, so that each block is decoded by a single cell.
+	 * <p>
+	 * The grid starts at the origin of the {@link #setSubRegion subregion}, so
+	 * cells can only follow the blocks along dimensions where the subregion is
+	 * contiguous and starts on a block boundary. Other dimensions keep the
+	 * requested cell dimension.
+	 * </p>
+	 */
+	private long alignToBlock(final int cellDim, final int d,
+		final long dimension)
+	{
+		if (blockSize == null || d >= blockSize.length) return cellDim;
+		final long block = Math.min(blockSize[d], dimension);
+		if (block <= 1) return cellDim;
+		final long offset = regionOffset(d);
+		if (offset < 0 || offset % block != 0) return cellDim;
+		final long blocks = Math.max(1, (cellDim + block - 1) / block);
+		return Math.min(blocks * block, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Gets the position in the reader's image of the first element along the
+	 * given dimension, or -1 if the subregion skips elements along it.
+	 */
+	private long regionOffset(final int d) {
+		if (subregion == null || reader == null) return 0;
+		final ImageMetadata iMeta = reader.getMetadata().get(index);
+		if (d >= iMeta.getAxes().size()) return 0;
+		final AxisType type = iMeta.getAxis(d).type();
+		if (!subregion.hasRange(type)) return 0;
+		final Range range = subregion.getRange(type);
+		if (range.tail() - range.head() + 1 != range.size()) return -1;
+		return range.head();
+	}
+
+	/** Gets the name of the cache metrics of the created images. */
+	String cacheMetricsName() {
+		if (reader == null) return "#" + index;
+		final String location = String.valueOf(reader.getCurrentLocation());
+		return reader.getFormatName() + ": " + location + " #" + index;
+	}
+
+	private static int bytesPerEntity(final PrimitiveType primitiveType) {
+		switch (primitiveType) {
+			case BYTE:
+				return 1;
+			case CHAR:
+			case SHORT:
+				return 2;
+			case FLOAT:
+			case INT:
+				return 4;
+			case DOUBLE:
+			case LONG:
+				return 8;
+			default:
+				throw new IllegalArgumentException();
+		}
 	}
 
 	private Path createBlockCachePath(
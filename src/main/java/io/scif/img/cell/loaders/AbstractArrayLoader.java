@@ -29,11 +29,15 @@
 
 package io.scif.img.cell.loaders;
 
+import io.scif.ByteBufferPlane;
 import io.scif.FormatException;
 import io.scif.ImageMetadata;
+import io.scif.LargePlane;
 import io.scif.Metadata;
 import io.scif.Plane;
 import io.scif.Reader;
+import io.scif.ReaderPool;
+import io.scif.config.SCIFIOConfig;
 import io.scif.filters.MetadataWrapper;
 import io.scif.img.ImageRegion;
 import io.scif.img.ImgUtilityService;
@@ -41,6 +45,7 @@ import io.scif.img.Range;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -73,6 +78,10 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 
 	final private boolean compatible;
 
+	private SCIFIOConfig config;
+
+	private ReaderPool readerPool;
+
 	@Parameter
 	private ImgUtilityService imgUtilityService;
 
@@ -94,6 +103,25 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 		this.index = index;
 	}
 
+	/**
+	 * @param config Configuration for opening planes, or null for the default.
+	 *          If {@link SCIFIOConfig#readerIsMappedPlanes()} is set, planes
+	 *          which can be mapped are converted straight from the source file.
+	 */
+	public void setConfig(final SCIFIOConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * @param readerPool Pool of readers to load arrays with, so that several
+	 *          threads can load at once, or null to load with this loader's
+	 *          reader, one array at a time. The pooled readers must present the
+	 *          same metadata as this loader's reader.
+	 */
+	public void setReaderPool(final ReaderPool readerPool) {
+		this.readerPool = readerPool;
+	}
+
 	@Override
 	public ColorTable loadTable(final int imageIndex, final int planeIndex)
 		throws FormatException, IOException
@@ -116,148 +144,158 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 
 	@Override
 	public A loadArray(final Interval bounds) {
-		synchronized (reader) {
-			final Metadata meta = reader.getMetadata();
-
-			int entities = 1;
-
-			// Starting indices for the planar dimensions
-			final long[] planarMin = new long[meta.get(0).getAxesPlanar().size()];
-			// Lengths in the planar dimensions
-			final long[] planarMax = new long[meta.get(0).getAxesPlanar().size()];
-			// Non-planar indices to open
-			final Range[] npRanges = new Range[meta.get(0).getAxesNonPlanar().size()];
-			final long[] npIndices = new long[npRanges.length];
-
-			int axisIndex = 0;
-			// Get planar ranges
-			for (final CalibratedAxis axis : meta.get(0).getAxesPlanar()) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
-
-				// Constrain on passed dims
-				if (index < bounds.numDimensions()) {
-					planarMin[axisIndex] = bounds.min(index);
-					planarMax[axisIndex] = bounds.max(index);
-					entities *= bounds.dimension(index);
-				}
-
-				axisIndex++;
+		final Metadata meta = reader.getMetadata();
+
+		int entities = 1;
+
+		// Starting indices for the planar dimensions
+		final long[] planarMin = new long[meta.get(0).getAxesPlanar().size()];
+		// Lengths in the planar dimensions
+		final long[] planarMax = new long[meta.get(0).getAxesPlanar().size()];
+		// Non-planar indices to open
+		final Range[] npRanges = new Range[meta.get(0).getAxesNonPlanar().size()];
+		final long[] npIndices = new long[npRanges.length];
+
+		int axisIndex = 0;
+		// Get planar ranges
+		for (final CalibratedAxis axis : meta.get(0).getAxesPlanar()) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
+
+			// Constrain on passed dims
+			if (index < bounds.numDimensions()) {
+				planarMin[axisIndex] = bounds.min(index);
+				planarMax[axisIndex] = bounds.max(index);
+				entities *= bounds.dimension(index);
 			}
 
-			axisIndex = 0;
-			for (final CalibratedAxis axis : meta.get(0).getAxesNonPlanar()) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
+			axisIndex++;
+		}
 
-				// otherwise just make a straightforward range
-				// spanning the passed dimensional constraints
-				npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
+		axisIndex = 0;
+		for (final CalibratedAxis axis : meta.get(0).getAxesNonPlanar()) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
 
-				if (subRegion != null) {
-					entities *= subRegion.getRange(axis.type()).size();
-				}
-				else {
-					entities *= npRanges[axisIndex].size();
-				}
+			// otherwise just make a straightforward range
+			// spanning the passed dimensional constraints
+			npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
 
-				axisIndex++;
+			if (subRegion != null) {
+				entities *= subRegion.getRange(axis.type()).size();
+			}
+			else {
+				entities *= npRanges[axisIndex].size();
 			}
 
-			A data = null;
+			axisIndex++;
+		}
 
-			data = emptyArray(entities);
+		A data = null;
 
-			try {
-				final Interval planarBounds = new FinalInterval(planarMin, planarMax);
-				read(data, planarBounds, npRanges, npIndices);
-			}
-			catch (final FormatException e) {
-				throw new IllegalStateException(
-					"Could not open a plane for the given dimensions", e);
-			}
-			catch (final IOException e) {
-				throw new IllegalStateException(
-					"Could not open a plane for the given dimensions", e);
-			}
+		data = emptyArray(entities);
 
-			return data;
+		try {
+			final Interval planarBounds = new FinalInterval(planarMin, planarMax);
+			read(data, planarBounds, npRanges, npIndices);
 		}
+		catch (final FormatException e) {
+			throw new IllegalStateException(
+				"Could not open a plane for the given dimensions", e);
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(
+				"Could not open a plane for the given dimensions", e);
+		}
+
+		return data;
 	}
 
 	public void loadArray(final Interval bounds, final A data) {
-		synchronized (reader) {
-			final Metadata meta = reader.getMetadata();
-
-			final List<CalibratedAxis> planarAxes = meta.get(0).getAxesPlanar();
-			final List<CalibratedAxis> nonPlanarAxes = meta.get(0).getAxesNonPlanar();
-			final int planarAxisCount = planarAxes.size();
-			final int nonPlanarAxisCount = nonPlanarAxes.size();
-
-			// Starting indices for the planar dimensions
-			final long[] planarMin = new long[planarAxisCount];
-			// Lengths in the planar dimensions
-			final long[] planarMax = new long[planarAxisCount];
-			// Non-planar indices to open
-			final Range[] npRanges = new Range[nonPlanarAxisCount];
-			final long[] npIndices = new long[npRanges.length];
-
-			int axisIndex = 0;
-			// Get planar ranges
-			for (final CalibratedAxis axis : planarAxes) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
-
-				// Constrain on passed dims
-				if (index < bounds.numDimensions()) {
-					planarMin[axisIndex] = bounds.min(index);
-					planarMax[axisIndex] = bounds.max(index);
-				}
-
-				axisIndex++;
+		final Metadata meta = reader.getMetadata();
+
+		final List<CalibratedAxis> planarAxes = meta.get(0).getAxesPlanar();
+		final List<CalibratedAxis> nonPlanarAxes = meta.get(0).getAxesNonPlanar();
+		final int planarAxisCount = planarAxes.size();
+		final int nonPlanarAxisCount = nonPlanarAxes.size();
+
+		// Starting indices for the planar dimensions
+		final long[] planarMin = new long[planarAxisCount];
+		// Lengths in the planar dimensions
+		final long[] planarMax = new long[planarAxisCount];
+		// Non-planar indices to open
+		final Range[] npRanges = new Range[nonPlanarAxisCount];
+		final long[] npIndices = new long[npRanges.length];
+
+		int axisIndex = 0;
+		// Get planar ranges
+		for (final CalibratedAxis axis : planarAxes) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
+
+			// Constrain on passed dims
+			if (index < bounds.numDimensions()) {
+				planarMin[axisIndex] = bounds.min(index);
+				planarMax[axisIndex] = bounds.max(index);
 			}
 
-			axisIndex = 0;
-			for (final CalibratedAxis axis : nonPlanarAxes) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
+			axisIndex++;
+		}
 
-				// otherwise just make a straightforward range spanning the
-				// passed
-				// dimensional constraints
-				npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
+		axisIndex = 0;
+		for (final CalibratedAxis axis : nonPlanarAxes) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
 
-				axisIndex++;
-			}
+			// otherwise just make a straightforward range spanning the
+			// passed
+			// dimensional constraints
+			npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
 
-			try {
-				final Interval planarBounds = new FinalInterval(planarMin, planarMax);
-				read(data, planarBounds, npRanges, npIndices);
-			}
-			catch (final FormatException e) {
-				throw new IllegalStateException(
-					"Could not open a plane for the given dimensions", e);
-			}
-			catch (final IOException e) {
-				throw new IllegalStateException(
-					"Could not open a plane for the given dimensions", e);
-			}
+			axisIndex++;
+		}
+
+		try {
+			final Interval planarBounds = new FinalInterval(planarMin, planarMax);
+			read(data, planarBounds, npRanges, npIndices);
+		}
+		catch (final FormatException e) {
+			throw new IllegalStateException(
+				"Could not open a plane for the given dimensions", e);
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(
+				"Could not open a plane for the given dimensions", e);
 		}
 	}
 
 	/**
 	 * Entry point for
-	 * {@link #read(Object, Plane, Interval, Range[], long[], int, int)}
+	 * {@link #read(Reader, Object, Plane, Interval, Range[], long[], int, int)}.
+	 * Reads with a reader of the {@link #setReaderPool pool} if there is one,
+	 * and otherwise locks this loader's reader.
 	 */
 	private void read(final A data, final Interval bounds, final Range[] npRanges,
 		final long[] npIndices) throws FormatException, IOException
 	{
-		read(data, null, bounds, npRanges, npIndices, 0, 0);
+		if (readerPool == null) {
+			synchronized (reader) {
+				read(reader, data, null, bounds, npRanges, npIndices, 0, 0);
+			}
+			return;
+		}
+		final Reader pooled = readerPool.acquire();
+		try {
+			read(pooled, data, null, bounds, npRanges, npIndices, 0, 0);
+		}
+		finally {
+			readerPool.release(pooled);
+		}
 	}
 
 	/**
 	 * Recurses over all the provided {@link Range}s, reading the corresponding
-	 * bytes and storing them in the provided data object.
+	 * bytes with the given reader and storing them in the provided data object.
 	 */
-	private void read(final A data, Plane tmpPlane, final Interval bounds,
-		final Range[] npRanges, final long[] npIndices, final int depth,
-		int planeCount) throws FormatException, IOException
+	private void read(final Reader r, final A data, Plane tmpPlane,
+		final Interval bounds, final Range[] npRanges, final long[] npIndices,
+		final int depth, int planeCount) throws FormatException, IOException
 	{
 		if (depth < npRanges.length) {
 			// We need to invert the depth index to get the current non-planar
@@ -266,7 +304,7 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 			final int npPosition = npRanges.length - 1 - depth;
 			for (int i = 0; i < npRanges[npPosition].size(); i++) {
 				npIndices[npPosition] = npRanges[npPosition].get(i);
-				read(data, tmpPlane, bounds, npRanges, npIndices, depth + 1,
+				read(r, data, tmpPlane, bounds, npRanges, npIndices, depth + 1,
 					planeCount);
 				planeCount++;
 			}
@@ -277,8 +315,26 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 
 			validateBounds(reader.getMetadata().get(0).getAxesLengthsPlanar(), bounds);
 
-			if (tmpPlane == null) {
-				tmpPlane = reader.openPlane(index, planeIndex, bounds);
+			if (FormatTools.getPlaneSize(reader.getMetadata(), bounds,
+				index) > Integer.MAX_VALUE)
+			{
+				// too large for a single byte[]; convert the plane chunk by chunk
+				final LargePlane largePlane = r.openLargePlane(index, planeIndex,
+					bounds, config == null ? new SCIFIOConfig() : config);
+				convertLargePlane(data, largePlane, planeCount);
+				if (!loadedTable()[index][planeIndex]) {
+					addTable(index, planeIndex, largePlane.getColorTable());
+				}
+				return;
+			}
+
+			if (config != null && config.readerIsMappedPlanes()) {
+				// NB: views can not be reused, as that would copy the pixels
+				tmpPlane = r.openPlane(index, planeIndex, bounds, config);
+			}
+			else if (tmpPlane == null) {
+				tmpPlane = config == null ? r.openPlane(index, planeIndex, bounds) : r
+					.openPlane(index, planeIndex, bounds, config);
 			}
 			else {
 				// Sanity check!
@@ -287,18 +343,63 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 					throw new IllegalArgumentException("Expected tmpPlane length " +
 						expectedLength + " but was " + tmpPlane.getBytes().length);
 				}
-				tmpPlane = reader.openPlane(index, planeIndex, tmpPlane, bounds);
+				tmpPlane = r.openPlane(index, planeIndex, tmpPlane, bounds);
+			}
+			if (tmpPlane instanceof ByteBufferPlane && ((ByteBufferPlane) tmpPlane)
+				.isView())
+			{
+				convertBuffer(data, ((ByteBufferPlane) tmpPlane).getBuffer(),
+					planeCount);
+			}
+			else {
+				convertBytes(data, tmpPlane.getBytes(), planeCount);
 			}
-			convertBytes(data, tmpPlane.getBytes(), planeCount);
 
 			// update color table
 			if (!loadedTable()[index][planeIndex]) {
 				addTable(index, planeIndex, tmpPlane.getColorTable());
 			}
+			// NB: each plane is opened afresh, so its buffer can be pooled again
+			tmpPlane.release();
 		}
 
 	}
 
+	/**
+	 * Converts the chunks of a {@link LargePlane} in pieces of a size dividing
+	 * every chunk, so that each piece's index matches its offset in the data.
+	 */
+	private void convertLargePlane(final A data, final LargePlane plane,
+		final int planeCount)
+	{
+		final int chunkCount = plane.getChunkCount();
+		int piece = 0;
+		for (int i = 0; i < chunkCount; i++) {
+			int size = plane.getChunkSize(i);
+			while (size != 0) {
+				final int rest = piece % size;
+				piece = size;
+				size = rest;
+			}
+		}
+
+		final long planeOffset = planeCount * plane.getSize();
+		byte[] buffer = null;
+		for (int i = 0; i < chunkCount; i++) {
+			final byte[] chunk = plane.getChunk(i);
+			final long offset = planeOffset + plane.getChunkOffset(i);
+			if (chunk.length == piece) {
+				convertBytes(data, chunk, (int) (offset / piece));
+				continue;
+			}
+			if (buffer == null) buffer = new byte[piece];
+			for (int pos = 0; pos < chunk.length; pos += piece) {
+				System.arraycopy(chunk, pos, buffer, 0, piece);
+				convertBytes(data, buffer, (int) ((offset + pos) / piece));
+			}
+		}
+	}
+
 	private void validateBounds(final long[] lengths, final Interval bounds) {
 		if (lengths.length != bounds.numDimensions()) {
 			throw new IllegalArgumentException("Expected bounds of dimensionality " +
@@ -313,7 +414,7 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 		}
 	}
 
-	private boolean[][] loadedTable() {
+	private synchronized boolean[][] loadedTable() {
 		if (loadedTable == null) {
 			final Metadata m = reader.getMetadata();
 			loadedTable = new boolean[m.getImageCount()][(int) m.get(0)
@@ -325,7 +426,7 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 	/**
 	 * Lazy accessor for the 2D {@link ColorTable} list.
 	 */
-	private List<List<ColorTable>> tables() {
+	private synchronized List<List<ColorTable>> tables() {
 		if (tables == null) {
 			tables = new ArrayList<>();
 		}
@@ -336,7 +437,9 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 	 * @return the possibly null {@link ColorTable} at the specified image and
 	 *         plane indices
 	 */
-	private ColorTable getTable(final int imageIndex, final int planeIndex) {
+	private synchronized ColorTable getTable(final int imageIndex,
+		final int planeIndex)
+	{
 		final List<List<ColorTable>> tables = tables();
 
 		// Ensure capacity
@@ -354,8 +457,8 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 	/**
 	 * Inserts the given {@link ColorTable} at the specified indices.
 	 */
-	private void addTable(final int imageIndex, final int planeIndex,
-		final ColorTable colorTable)
+	private synchronized void addTable(final int imageIndex,
+		final int planeIndex, final ColorTable colorTable)
 	{
 		final ColorTable ct = getTable(imageIndex, planeIndex);
 		if (ct == null) {
@@ -437,6 +540,20 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 	 */
 	public abstract void convertBytes(A data, byte[] bytes, int planesRead);
 
+	/**
+	 * As {@link #convertBytes(Object, byte[], int)}, but reads the plane's pixels
+	 * from the remaining bytes of the given buffer, without consuming them.
+	 * Subclasses should override this to convert directly from the buffer; by
+	 * default, the pixels are copied to a byte array first.
+	 */
+	public void convertBuffer(final A data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		final byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		convertBytes(data, bytes, planesRead);
+	}
+
 	/**
 	 * @return The generic type of this loader.
 	 */
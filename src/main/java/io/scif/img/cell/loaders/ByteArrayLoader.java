@@ -34,6 +34,8 @@ import io.scif.Reader;
 import io.scif.img.ImageRegion;
 import io.scif.util.FormatTools;
 
+import java.nio.ByteBuffer;
+
 import net.imglib2.img.basictypeaccess.array.ByteArray;
 import net.imglib2.type.numeric.integer.GenericByteType;
 
@@ -72,6 +74,19 @@ public class ByteArrayLoader extends AbstractArrayLoader<ByteArray> {
 		}
 	}
 
+	@Override
+	public void convertBuffer(final ByteArray data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		if (!isCompatible()) {
+			super.convertBuffer(data, buffer, planesRead);
+			return;
+		}
+		final int count = buffer.remaining();
+		buffer.duplicate().get(data.getCurrentStorageArray(), planesRead * count,
+			count);
+	}
+
 	@Override
 	public ByteArray emptyArray(final int entities) {
 		return new ByteArray(entities);
@@ -80,6 +80,26 @@ public class DoubleArrayLoader extends AbstractArrayLoader<DoubleArray> {
 		}
 	}
 
+	@Override
+	public void convertBuffer(final DoubleArray data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		if (!isCompatible()) {
+			super.convertBuffer(data, buffer, planesRead);
+			return;
+		}
+		final ImageMetadata iMeta = reader().getMetadata().get(0);
+		final int bpp = getBitsPerElement() / 8;
+		final int count = buffer.remaining() / bpp;
+
+		final ByteBuffer bb = buffer.duplicate();
+
+		bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+		bb.asDoubleBuffer().get(data.getCurrentStorageArray(), planesRead * count,
+			count);
+	}
+
 	@Override
 	public DoubleArray emptyArray(final int entities) {
 		return new DoubleArray(entities);
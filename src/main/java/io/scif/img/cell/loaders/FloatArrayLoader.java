@@ -79,6 +79,26 @@ public class FloatArrayLoader extends AbstractArrayLoader<FloatArray> {
 		}
 	}
 
+	@Override
+	public void convertBuffer(final FloatArray data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		if (!isCompatible()) {
+			super.convertBuffer(data, buffer, planesRead);
+			return;
+		}
+		final ImageMetadata iMeta = reader().getMetadata().get(0);
+		final int bpp = getBitsPerElement() / 8;
+		final int count = buffer.remaining() / bpp;
+
+		final ByteBuffer bb = buffer.duplicate();
+
+		bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+		bb.asFloatBuffer().get(data.getCurrentStorageArray(), planesRead * count,
+			count);
+	}
+
 	@Override
 	public FloatArray emptyArray(final int entities) {
 		return new FloatArray(entities);
@@ -80,6 +80,26 @@ public class IntArrayLoader extends AbstractArrayLoader<IntArray> {
 		}
 	}
 
+	@Override
+	public void convertBuffer(final IntArray data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		if (!isCompatible()) {
+			super.convertBuffer(data, buffer, planesRead);
+			return;
+		}
+		final ImageMetadata iMeta = reader().getMetadata().get(0);
+		final int bpp = getBitsPerElement() / 8;
+		final int count = buffer.remaining() / bpp;
+
+		final ByteBuffer bb = buffer.duplicate();
+
+		bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+		bb.asIntBuffer().get(data.getCurrentStorageArray(), planesRead * count,
+			count);
+	}
+
 	@Override
 	public IntArray emptyArray(final int entities) {
 		return new IntArray(entities);
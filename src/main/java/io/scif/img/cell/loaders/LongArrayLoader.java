@@ -80,6 +80,26 @@ public class LongArrayLoader extends AbstractArrayLoader<LongArray> {
 		}
 	}
 
+	@Override
+	public void convertBuffer(final LongArray data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		if (!isCompatible()) {
+			super.convertBuffer(data, buffer, planesRead);
+			return;
+		}
+		final ImageMetadata iMeta = reader().getMetadata().get(0);
+		final int bpp = getBitsPerElement() / 8;
+		final int count = buffer.remaining() / bpp;
+
+		final ByteBuffer bb = buffer.duplicate();
+
+		bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+		bb.asLongBuffer().get(data.getCurrentStorageArray(), planesRead * count,
+			count);
+	}
+
 	@Override
 	public LongArray emptyArray(final int entities) {
 		return new LongArray(entities);
@@ -81,6 +81,26 @@ public class ShortArrayLoader extends AbstractArrayLoader<ShortArray> {
 		}
 	}
 
+	@Override
+	public void convertBuffer(final ShortArray data, final ByteBuffer buffer,
+		final int planesRead)
+	{
+		if (!isCompatible()) {
+			super.convertBuffer(data, buffer, planesRead);
+			return;
+		}
+		final ImageMetadata iMeta = reader().getMetadata().get(0);
+		final int bpp = getBitsPerElement() / 8;
+		final int count = buffer.remaining() / bpp;
+
+		final ByteBuffer bb = buffer.duplicate();
+
+		bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+		bb.asShortBuffer().get(data.getCurrentStorageArray(), planesRead * count,
+			count);
+	}
+
 	@Override
 	public ShortArray emptyArray(final int entities) {
 		return new ShortArray(entities);
@@ -29,8 +29,11 @@
 
 package io.scif.img.converters;
 
+import io.scif.ByteBufferPlane;
+import io.scif.Plane;
 import io.scif.Reader;
 import io.scif.config.SCIFIOConfig;
+import io.scif.img.ImageRegion;
 import io.scif.img.cell.loaders.ByteAccessLoader;
 import io.scif.img.cell.loaders.ByteArrayLoader;
 import io.scif.img.cell.loaders.CharAccessLoader;
@@ -46,6 +49,8 @@ import io.scif.img.cell.loaders.LongArrayLoader;
 import io.scif.img.cell.loaders.ShortAccessLoader;
 import io.scif.img.cell.loaders.ShortArrayLoader;
 
+import java.nio.ByteBuffer;
+
 import net.imagej.ImgPlus;
 import net.imglib2.img.array.ArrayImg;
 import net.imglib2.img.basictypeaccess.ByteAccess;
@@ -168,4 +173,59 @@ public class ArrayDataAccessConverter extends AbstractPlaneConverter {
 
 	}
 
+	/**
+	 * Converts mapped {@link ByteBufferPlane}s straight into the
+	 * {@link ArrayImg}'s primitive array, without an intermediate
+	 * {@code byte[]}.
+	 */
+	@Override
+	public <T extends RealType<T>> void populatePlane(final Reader reader,
+		final int imageIndex, final int planeIndex, final Plane source,
+		final ImgPlus<T> dest, final SCIFIOConfig config)
+	{
+		if (!(source instanceof ByteBufferPlane) || !((ByteBufferPlane) source)
+			.isView())
+		{
+			populatePlane(reader, imageIndex, planeIndex, source.getBytes(), dest,
+				config);
+			return;
+		}
+
+		final ByteBuffer buffer = ((ByteBufferPlane) source).getBuffer();
+		final ImageRegion region = config.imgOpenerGetRegion();
+		final Object store = ((ArrayImg<?, ?>) dest.getImg()).update(null);
+
+		if (store instanceof ByteArray) {
+			new ByteArrayLoader(reader, region).convertBuffer((ByteArray) store,
+				buffer, planeIndex);
+		}
+		else if (store instanceof ShortArray) {
+			new ShortArrayLoader(reader, region).convertBuffer((ShortArray) store,
+				buffer, planeIndex);
+		}
+		else if (store instanceof LongArray) {
+			new LongArrayLoader(reader, region).convertBuffer((LongArray) store,
+				buffer, planeIndex);
+		}
+		else if (store instanceof CharArray) {
+			new CharArrayLoader(reader, region).convertBuffer((CharArray) store,
+				buffer, planeIndex);
+		}
+		else if (store instanceof DoubleArray) {
+			new DoubleArrayLoader(reader, region).convertBuffer((DoubleArray) store,
+				buffer, planeIndex);
+		}
+		else if (store instanceof FloatArray) {
+			new FloatArrayLoader(reader, region).convertBuffer((FloatArray) store,
+				buffer, planeIndex);
+		}
+		else if (store instanceof IntArray) {
+			new IntArrayLoader(reader, region).convertBuffer((IntArray) store,
+				buffer, planeIndex);
+		}
+		else {
+			populatePlane(reader, imageIndex, planeIndex, source.getBytes(), dest,
+				config);
+		}
+	}
 }
@@ -29,6 +29,7 @@
 
 package io.scif.img.converters;
 
+import io.scif.Plane;
 import io.scif.Reader;
 import io.scif.SCIFIOPlugin;
 import io.scif.config.SCIFIOConfig;
@@ -56,4 +57,24 @@ public interface PlaneConverter extends SCIFIOPlugin, SingletonPlugin {
 	 */
 	<T extends RealType<T>> void populatePlane(Reader reader, int imageIndex,
 		int planeIndex, byte[] source, ImgPlus<T> dest, SCIFIOConfig config);
+
+	/**
+	 * As {@link #populatePlane(Reader, int, int, byte[], ImgPlus, SCIFIOConfig)},
+	 * but allows converters to read the pixels of the source plane without
+	 * requesting a {@code byte[]}, e.g. from a {@link io.scif.ByteBufferPlane}.
+	 *
+	 * @param reader Reader that was used to open the source plane
+	 * @param imageIndex image index within the dataset
+	 * @param planeIndex plane index within the image
+	 * @param source the opened plane
+	 * @param dest the ImgPlus to populate
+	 * @param config SCIFIOConfig for opening this plane
+	 */
+	default <T extends RealType<T>> void populatePlane(final Reader reader,
+		final int imageIndex, final int planeIndex, final Plane source,
+		final ImgPlus<T> dest, final SCIFIOConfig config)
+	{
+		populatePlane(reader, imageIndex, planeIndex, source.getBytes(), dest,
+			config);
+	}
 }
@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import java.io.IOException;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+
+/**
+ * {@link DataHandle} which passes every call to another handle, counting the
+ * reads, bytes read and seeks, and the time spent reading.
+ * <p>
+ * The counts are not synchronized, as handles are used by one thread at a
+ * time.
+ * </p>
+ */
+public class CountingHandle<L extends Location> extends DelegatingHandle<L> {
+
+	// -- Fields --
+
+	private long reads;
+
+	private long bytesRead;
+
+	private long seeks;
+
+	private long readNanos;
+
+	// -- Constructors --
+
+	/**
+	 * @param handle the handle to count the calls to.
+	 */
+	public CountingHandle(final DataHandle<L> handle) {
+		super(handle);
+	}
+
+	// -- CountingHandle methods --
+
+	/** Gets the number of read calls. */
+	public long getReadCount() {
+		return reads;
+	}
+
+	/** Gets the number of bytes read. */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/** Gets the number of seeks which moved the offset. */
+	public long getSeekCount() {
+		return seeks;
+	}
+
+	/** Gets the time spent in read calls, in nanoseconds. */
+	public long getReadNanos() {
+		return readNanos;
+	}
+
+	/** Resets all counts to zero. */
+	public void reset() {
+		reads = bytesRead = seeks = readNanos = 0;
+	}
+
+	// -- DataHandle methods --
+
+	@Override
+	public void seek(final long pos) throws IOException {
+		if (pos != offset()) seeks++;
+		super.seek(pos);
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		final long start = System.nanoTime();
+		final int n = super.read(b, off, len);
+		readNanos += System.nanoTime() - start;
+		reads++;
+		if (n > 0) bytesRead += n;
+		return n;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		final long start = System.nanoTime();
+		final byte b = super.readByte();
+		readNanos += System.nanoTime() - start;
+		reads++;
+		bytesRead++;
+		return b;
+	}
+}
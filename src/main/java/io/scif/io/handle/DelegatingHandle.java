@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Date;
+
+import org.scijava.io.handle.AbstractDataHandle;
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+
+/**
+ * Abstract {@link DataHandle} which passes every call to another handle, for
+ * subclasses to observe some of them. Closing this handle closes the wrapped
+ * handle.
+ */
+public abstract class DelegatingHandle<L extends Location> extends
+	AbstractDataHandle<L>
+{
+
+	// -- Fields --
+
+	private final DataHandle<L> handle;
+
+	// -- Constructors --
+
+	/**
+	 * @param handle the handle to pass all calls to.
+	 */
+	public DelegatingHandle(final DataHandle<L> handle) {
+		this.handle = handle;
+		set(handle.get());
+		super.setOrder(handle.getOrder());
+	}
+
+	// -- DelegatingHandle methods --
+
+	/** Gets the wrapped handle. */
+	public DataHandle<L> getHandle() {
+		return handle;
+	}
+
+	// -- DataHandle methods --
+
+	@Override
+	public boolean isReadable() {
+		return handle.isReadable();
+	}
+
+	@Override
+	public boolean isWritable() {
+		return handle.isWritable();
+	}
+
+	@Override
+	public boolean exists() throws IOException {
+		return handle.exists();
+	}
+
+	@Override
+	public Date lastModified() throws IOException {
+		return handle.lastModified();
+	}
+
+	@Override
+	public String checksum() throws IOException {
+		return handle.checksum();
+	}
+
+	@Override
+	public long offset() throws IOException {
+		return handle.offset();
+	}
+
+	@Override
+	public void seek(final long pos) throws IOException {
+		handle.seek(pos);
+	}
+
+	@Override
+	public long length() throws IOException {
+		return handle.length();
+	}
+
+	@Override
+	public void setLength(final long length) throws IOException {
+		handle.setLength(length);
+	}
+
+	@Override
+	public void setOrder(final ByteOrder order) {
+		super.setOrder(order);
+		handle.setOrder(order);
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		return handle.read(b, off, len);
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		return handle.readByte();
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		handle.write(b);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		handle.write(b, off, len);
+	}
+
+	@Override
+	public void close() throws IOException {
+		handle.close();
+	}
+
+	@Override
+	public Class<L> getType() {
+		return handle.getType();
+	}
+}
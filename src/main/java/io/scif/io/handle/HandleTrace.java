@@ -0,0 +1,209 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.scijava.io.location.Location;
+
+/**
+ * Ring buffer of the calls made on a {@link TracingHandle}: their kind, offset
+ * and length. Once full, the oldest calls are overwritten.
+ * <p>
+ * Each call takes 13 bytes; the buffer is allocated up front. All methods are
+ * thread-safe.
+ * </p>
+ */
+public class HandleTrace {
+
+	// -- Constants --
+
+	/** Default maximum number of calls kept. */
+	public static final int DEFAULT_CAPACITY = 16384;
+
+	/** Kinds of traced calls. */
+	public enum Op {
+			/** A read, at the offset it started at, of the bytes it returned. */
+			READ,
+			/** A seek, to the offset it moved to, with a length of 0. */
+			SEEK,
+			/** A skip, at the offset it started at, of the bytes requested. */
+			SKIP
+	}
+
+	private static final Op[] OPS = Op.values();
+
+	// -- Fields --
+
+	private final String formatName;
+
+	private final Location location;
+
+	private final byte[] ops;
+
+	private final long[] offsets;
+
+	private final int[] lengths;
+
+	/** Number of calls recorded since the trace was created or cleared. */
+	private long count;
+
+	// -- Constructors --
+
+	/**
+	 * @param formatName the name of the format reading the traced handle.
+	 * @param location the location of the traced handle.
+	 * @param capacity the maximum number of calls kept.
+	 */
+	public HandleTrace(final String formatName, final Location location,
+		final int capacity)
+	{
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		this.formatName = formatName;
+		this.location = location;
+		ops = new byte[capacity];
+		offsets = new long[capacity];
+		lengths = new int[capacity];
+	}
+
+	// -- HandleTrace methods --
+
+	/** Gets the name of the format reading the traced handle. */
+	public String getFormatName() {
+		return formatName;
+	}
+
+	/** Gets the location of the traced handle. */
+	public Location getLocation() {
+		return location;
+	}
+
+	/** Gets the maximum number of calls kept. */
+	public int getCapacity() {
+		return ops.length;
+	}
+
+	/** Records a call. */
+	public synchronized void record(final Op op, final long offset,
+		final int length)
+	{
+		final int i = (int) (count % ops.length);
+		ops[i] = (byte) op.ordinal();
+		offsets[i] = offset;
+		lengths[i] = length;
+		count++;
+	}
+
+	/** Gets the number of calls recorded, including those overwritten. */
+	public synchronized long getRecordedCount() {
+		return count;
+	}
+
+	/** Gets the number of calls overwritten because the buffer was full. */
+	public synchronized long getDroppedCount() {
+		return Math.max(0, count - ops.length);
+	}
+
+	/** Returns the calls kept, oldest first. */
+	public synchronized List<Event> getEvents() {
+		final int size = (int) Math.min(count, ops.length);
+		final List<Event> events = new ArrayList<>(size);
+		for (long c = count - size; c < count; c++) {
+			final int i = (int) (c % ops.length);
+			events.add(new Event(OPS[ops[i]], offsets[i], lengths[i]));
+		}
+		return events;
+	}
+
+	/** Discards all recorded calls. */
+	public synchronized void clear() {
+		count = 0;
+	}
+
+	/**
+	 * Writes the calls kept, oldest first, as comma-separated
+	 * {@code op,offset,length} lines.
+	 */
+	public void write(final Writer out) throws IOException {
+		out.write("op,offset,length\n");
+		for (final Event event : getEvents()) {
+			out.write(event.op() + "," + event.offset() + "," + event.length() +
+				"\n");
+		}
+		out.flush();
+	}
+
+	// -- Object methods --
+
+	@Override
+	public String toString() {
+		return formatName + ": " + location;
+	}
+
+	// -- Helper classes --
+
+	/** A single traced call. */
+	public static final class Event {
+
+		private final Op op;
+
+		private final long offset;
+
+		private final int length;
+
+		public Event(final Op op, final long offset, final int length) {
+			this.op = op;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public Op op() {
+			return op;
+		}
+
+		public long offset() {
+			return offset;
+		}
+
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public String toString() {
+			return op + " " + offset + " " + length;
+		}
+	}
+}
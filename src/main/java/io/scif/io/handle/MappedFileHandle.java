@@ -0,0 +1,290 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.scijava.Priority;
+import org.scijava.io.handle.AbstractDataHandle;
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.FileLocation;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Read-only {@link DataHandle} for local files which serves reads from
+ * memory-mapped windows of the file, rather than issuing a system call per
+ * read.
+ * <p>
+ * Files of any size are supported: only one window of at most
+ * {@link #getWindowSize()} bytes is mapped at a time, and a new window is
+ * mapped whenever a read leaves the current one. Windows are aligned to
+ * multiples of the window size, so nearby random accesses (e.g. the tiles of
+ * one TIFF plane) share a mapping.
+ * </p>
+ * <p>
+ * This handle has a very low priority, so it is never selected by the
+ * {@link org.scijava.io.handle.DataHandleService} on its own. Readers and
+ * parsers use it when
+ * {@link io.scif.config.SCIFIOConfig#enableMappedReading(boolean)} is set.
+ * Note that the JVM releases mappings only once they are garbage collected.
+ * </p>
+ */
+@Plugin(type = DataHandle.class, priority = Priority.VERY_LOW)
+public class MappedFileHandle extends AbstractDataHandle<FileLocation> {
+
+	// -- Constants --
+
+	/** Default size of a mapped window, in bytes. */
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	// -- Fields --
+
+	private int windowSize = DEFAULT_WINDOW_SIZE;
+
+	private FileChannel channel;
+
+	/** The currently mapped window, or null if none is mapped. */
+	private MappedByteBuffer window;
+
+	/** Offset in the file of the first byte of {@link #window}. */
+	private long windowStart;
+
+	/** Current offset in the file. */
+	private long offset;
+
+	// -- Constructors --
+
+	public MappedFileHandle() {
+		// NB: Required for plugin discovery.
+	}
+
+	/**
+	 * @param location the file to read.
+	 * @param windowSize the maximum number of bytes to map at once.
+	 */
+	public MappedFileHandle(final FileLocation location, final int windowSize) {
+		setWindowSize(windowSize);
+		set(location);
+	}
+
+	// -- MappedFileHandle methods --
+
+	/** Gets the maximum number of bytes mapped at once. */
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	/**
+	 * Sets the maximum number of bytes mapped at once. Takes effect the next
+	 * time a window is mapped.
+	 */
+	public void setWindowSize(final int windowSize) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("Invalid window size: " +
+				windowSize);
+		}
+		this.windowSize = windowSize;
+	}
+
+	// -- DataHandle methods --
+
+	@Override
+	public boolean isReadable() {
+		return true;
+	}
+
+	@Override
+	public boolean isWritable() {
+		return false;
+	}
+
+	@Override
+	public boolean exists() throws IOException {
+		return get().getFile().exists();
+	}
+
+	@Override
+	public long offset() throws IOException {
+		return offset;
+	}
+
+	@Override
+	public void seek(final long pos) throws IOException {
+		offset = pos;
+	}
+
+	@Override
+	public long length() throws IOException {
+		return exists() ? channel().size() : -1;
+	}
+
+	@Override
+	public void setLength(final long length) throws IOException {
+		throw new IOException("MappedFileHandle is read-only");
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!map(1)) return -1;
+		return window.get((int) (offset++ - windowStart)) & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		if (len == 0) return 0;
+		int read = 0;
+		while (read < len && map(1)) {
+			final int pos = (int) (offset - windowStart);
+			final int n = Math.min(len - read, window.limit() - pos);
+			window.position(pos);
+			window.get(b, off + read, n);
+			offset += n;
+			read += n;
+		}
+		return read == 0 ? -1 : read;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		final int b = read();
+		if (b < 0) throw new EOFException();
+		return (byte) b;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		if (!map(2)) return super.readShort();
+		final short v = window.getShort((int) (offset - windowStart));
+		offset += 2;
+		return v;
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		if (!map(4)) return super.readInt();
+		final int v = window.getInt((int) (offset - windowStart));
+		offset += 4;
+		return v;
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		if (!map(8)) return super.readLong();
+		final long v = window.getLong((int) (offset - windowStart));
+		offset += 8;
+		return v;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		throw new IOException("MappedFileHandle is read-only");
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		throw new IOException("MappedFileHandle is read-only");
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	@Override
+	public Class<FileLocation> getType() {
+		return FileLocation.class;
+	}
+
+	// -- WrapperPlugin methods --
+
+	@Override
+	public void set(final FileLocation data) {
+		super.set(data);
+		try {
+			close();
+		}
+		catch (final IOException e) {
+			// NB: Nothing more can be done with the previous file.
+		}
+		offset = 0;
+	}
+
+	// -- Helper methods --
+
+	/** Lazily opens the file channel. */
+	private FileChannel channel() throws IOException {
+		if (channel == null) {
+			channel = FileChannel.open(get().getFile().toPath(),
+				StandardOpenOption.READ);
+		}
+		return channel;
+	}
+
+	/**
+	 * Ensures the current window holds the byte at the current offset, and
+	 * sets the window's byte order to match this handle's.
+	 *
+	 * @param count the number of bytes which must be available in the window.
+	 * @return false if fewer than {@code count} bytes are available in a single
+	 *         window, e.g. because the end of the file has been reached.
+	 */
+	private boolean map(final int count) throws IOException {
+		if (window == null || offset < windowStart || offset + count >
+			windowStart + window.limit())
+		{
+			final long size = channel().size();
+			if (offset < 0 || offset >= size) return false;
+			final long start = offset / windowSize * windowSize;
+			if (window == null || start != windowStart) {
+				window = channel.map(MapMode.READ_ONLY, start, Math.min(windowSize,
+					size - start));
+				windowStart = start;
+			}
+			if (offset + count > windowStart + window.limit()) return false;
+		}
+		window.order(isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+		return true;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import io.scif.io.handle.HandleTrace.Op;
+
+import java.io.IOException;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+
+/**
+ * {@link DataHandle} which passes every call to another handle, recording
+ * each read, seek and skip in a {@link HandleTrace}.
+ *
+ * @see io.scif.config.SCIFIOConfig#enableTracedReading(boolean)
+ */
+public class TracingHandle<L extends Location> extends DelegatingHandle<L> {
+
+	// -- Fields --
+
+	private final HandleTrace trace;
+
+	// -- Constructors --
+
+	/**
+	 * @param handle the handle to trace the calls to.
+	 * @param trace the trace to record the calls in.
+	 */
+	public TracingHandle(final DataHandle<L> handle, final HandleTrace trace) {
+		super(handle);
+		this.trace = trace;
+	}
+
+	// -- TracingHandle methods --
+
+	/** Gets the trace the calls are recorded in. */
+	public HandleTrace getTrace() {
+		return trace;
+	}
+
+	// -- DataHandle methods --
+
+	@Override
+	public void seek(final long pos) throws IOException {
+		trace.record(Op.SEEK, pos, 0);
+		super.seek(pos);
+	}
+
+	@Override
+	public int skipBytes(final int n) throws IOException {
+		trace.record(Op.SKIP, offset(), n);
+		return getHandle().skipBytes(n);
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		final long offset = offset();
+		final int n = super.read(b, off, len);
+		trace.record(Op.READ, offset, Math.max(0, n));
+		return n;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		final long offset = offset();
+		final byte b = super.readByte();
+		trace.record(Op.READ, offset, 1);
+		return b;
+	}
+}
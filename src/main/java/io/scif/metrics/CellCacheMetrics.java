@@ -0,0 +1,269 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics of the cache of one
+ * {@link io.scif.img.cell.SCIFIOCellImg}.
+ * <p>
+ * Every request for a cell is a memory hit or miss. A cell missing from memory
+ * is loaded from the disk cache if it was evicted before, and by reading planes
+ * otherwise. Evicted cells are written to the disk cache, unless the cache only
+ * keeps dirty cells and the cell is clean. The counts of cells held in memory
+ * are estimates: cells released by the garbage collector are only counted as
+ * evicted once the cache notices.
+ * </p>
+ *
+ * @see io.scif.img.cell.SCIFIOCellImg#getCacheMetrics()
+ * @see MetricsService#getCellCacheMetrics()
+ */
+public class CellCacheMetrics implements CellCacheMetricsMBean {
+
+	// -- Constants --
+
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	// -- Fields --
+
+	private final String name;
+
+	private final LongAdder memoryHits = new LongAdder();
+
+	private final LongAdder memoryMisses = new LongAdder();
+
+	private final LongAdder loads = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder diskWrites = new LongAdder();
+
+	private final LongAdder diskBytesWritten = new LongAdder();
+
+	private final LongAdder residentCells = new LongAdder();
+
+	private final LongAdder residentBytes = new LongAdder();
+
+	/** Times taken to load cells by reading planes, also counting them. */
+	private final LatencyHistogram readerLoads = new LatencyHistogram();
+
+	// -- Constructors --
+
+	/**
+	 * @param name the name of the cell image the metrics describe.
+	 */
+	public CellCacheMetrics(final String name) {
+		this.name = name;
+	}
+
+	// -- CellCacheMetrics methods --
+
+	/** Records a request for a cell found in memory. */
+	public void recordMemoryHit() {
+		memoryHits.increment();
+	}
+
+	/** Records a request for a cell missing from memory. */
+	public void recordMemoryMiss() {
+		memoryMisses.increment();
+	}
+
+	/**
+	 * Records a cell loaded into memory.
+	 *
+	 * @param bytes the size of the cell.
+	 */
+	public void recordLoad(final long bytes) {
+		loads.increment();
+		residentCells.increment();
+		residentBytes.add(bytes);
+	}
+
+	/**
+	 * Records a cell loaded by reading planes. The cell is also recorded by
+	 * {@link #recordLoad}.
+	 *
+	 * @param nanos the time taken.
+	 */
+	public void recordReaderLoad(final long nanos) {
+		readerLoads.record(nanos);
+	}
+
+	/**
+	 * Records a cell evicted from memory.
+	 *
+	 * @param bytes the size of the cell.
+	 * @param written whether the cell was written to the disk cache.
+	 */
+	public void recordEviction(final long bytes, final boolean written) {
+		evictions.increment();
+		residentCells.decrement();
+		residentBytes.add(-bytes);
+		if (written) {
+			diskWrites.increment();
+			diskBytesWritten.add(bytes);
+		}
+	}
+
+	/** Gets the histogram of the times taken to load cells by reading planes. */
+	public LatencyHistogram getReaderLoadLatency() {
+		return readerLoads;
+	}
+
+	/** Adds all metrics recorded by another instance to this one. */
+	public void add(final CellCacheMetrics other) {
+		memoryHits.add(other.getMemoryHitCount());
+		memoryMisses.add(other.getMemoryMissCount());
+		loads.add(other.getLoadCount());
+		evictions.add(other.getEvictionCount());
+		diskWrites.add(other.getDiskWriteCount());
+		diskBytesWritten.add(other.getDiskBytesWritten());
+		residentCells.add(other.getResidentCells());
+		residentBytes.add(other.getResidentBytes());
+		readerLoads.add(other.readerLoads);
+	}
+
+	/** Returns a copy of these metrics, with the same name. */
+	public CellCacheMetrics copy() {
+		final CellCacheMetrics copy = new CellCacheMetrics(name);
+		copy.add(this);
+		return copy;
+	}
+
+	// -- CellCacheMetricsMBean methods --
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getMemoryHitCount() {
+		return memoryHits.sum();
+	}
+
+	@Override
+	public long getMemoryMissCount() {
+		return memoryMisses.sum();
+	}
+
+	@Override
+	public double getMemoryHitRate() {
+		final long hits = getMemoryHitCount();
+		final long count = hits + getMemoryMissCount();
+		return count == 0 ? 0 : (double) hits / count;
+	}
+
+	@Override
+	public long getLoadCount() {
+		return loads.sum();
+	}
+
+	@Override
+	public long getReaderLoadCount() {
+		return readerLoads.getCount();
+	}
+
+	@Override
+	public long getDiskLoadCount() {
+		return Math.max(0, getLoadCount() - getReaderLoadCount());
+	}
+
+	@Override
+	public double getDiskHitRate() {
+		final long count = getLoadCount();
+		return count == 0 ? 0 : (double) getDiskLoadCount() / count;
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public long getDiskWriteCount() {
+		return diskWrites.sum();
+	}
+
+	@Override
+	public long getDiskBytesWritten() {
+		return diskBytesWritten.sum();
+	}
+
+	@Override
+	public long getResidentCells() {
+		return residentCells.sum();
+	}
+
+	@Override
+	public long getResidentBytes() {
+		return residentBytes.sum();
+	}
+
+	@Override
+	public double getReaderLoadMillis() {
+		return readerLoads.getTotalNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanReaderLoadMillis() {
+		return readerLoads.getMeanNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getReaderLoad99thPercentileMillis() {
+		return readerLoads.getPercentile(99, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void reset() {
+		memoryHits.reset();
+		memoryMisses.reset();
+		loads.reset();
+		evictions.reset();
+		diskWrites.reset();
+		diskBytesWritten.reset();
+		readerLoads.reset();
+	}
+
+	// -- Object methods --
+
+	@Override
+	public String toString() {
+		return String.format("%s: %.1f%% memory hits, %d loads (%d from " +
+			"reader, %.3f ms), %d evictions, %d bytes spilled to disk, " +
+			"%d cells (%d bytes) resident", name, 100 * getMemoryHitRate(),
+			getLoadCount(), getReaderLoadCount(), getReaderLoadMillis(),
+			getEvictionCount(), getDiskBytesWritten(), getResidentCells(),
+			getResidentBytes());
+	}
+}
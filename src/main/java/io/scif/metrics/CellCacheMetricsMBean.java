@@ -0,0 +1,100 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+/**
+ * JMX management interface of {@link CellCacheMetrics}. Times are in
+ * milliseconds.
+ */
+public interface CellCacheMetricsMBean {
+
+	/** Gets the name of the cell image the metrics describe. */
+	String getName();
+
+	/** Gets the number of requests for a cell found in memory. */
+	long getMemoryHitCount();
+
+	/** Gets the number of requests for a cell missing from memory. */
+	long getMemoryMissCount();
+
+	/** Gets the fraction of requests for a cell found in memory. */
+	double getMemoryHitRate();
+
+	/**
+	 * Gets the number of cells loaded into memory. Concurrent misses of one
+	 * cell share a single load.
+	 */
+	long getLoadCount();
+
+	/** Gets the number of cells loaded by reading planes. */
+	long getReaderLoadCount();
+
+	/**
+	 * Gets the number of cells loaded without reading planes, from the disk
+	 * cache or the queue of cells waiting to be written to it.
+	 */
+	long getDiskLoadCount();
+
+	/** Gets the fraction of cells loaded without reading planes. */
+	double getDiskHitRate();
+
+	/** Gets the number of cells evicted from memory. */
+	long getEvictionCount();
+
+	/** Gets the number of evicted cells written to the disk cache. */
+	long getDiskWriteCount();
+
+	/** Gets the number of bytes written to the disk cache. */
+	long getDiskBytesWritten();
+
+	/** Gets the number of cells currently held in memory. */
+	long getResidentCells();
+
+	/** Gets the number of bytes of the cells currently held in memory. */
+	long getResidentBytes();
+
+	/** Gets the total time spent loading cells by reading planes. */
+	double getReaderLoadMillis();
+
+	/** Gets the mean time to load a cell by reading planes. */
+	double getMeanReaderLoadMillis();
+
+	/**
+	 * Gets the estimated 99th percentile of the time to load a cell by reading
+	 * planes.
+	 */
+	double getReaderLoad99thPercentileMillis();
+
+	/**
+	 * Resets all counts to zero. The cells currently held in memory are still
+	 * counted.
+	 */
+	void reset();
+}
@@ -0,0 +1,202 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics of the calls to one {@link io.scif.codec.Codec}, in both
+ * directions.
+ *
+ * @see io.scif.codec.CodecService#getInstrumentedCodec(Class)
+ * @see MetricsService
+ */
+public class CodecMetrics implements CodecMetricsMBean {
+
+	// -- Constants --
+
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	// -- Fields --
+
+	private final String name;
+
+	private final LongAdder compressedBytes = new LongAdder();
+
+	private final LongAdder uncompressedBytes = new LongAdder();
+
+	/** Times taken to compress, also counting the calls. */
+	private final LatencyHistogram compress = new LatencyHistogram();
+
+	/** Times taken to decompress, also counting the calls. */
+	private final LatencyHistogram decompress = new LatencyHistogram();
+
+	// -- Constructors --
+
+	/**
+	 * @param name the name of the codec the metrics describe.
+	 */
+	public CodecMetrics(final String name) {
+		this.name = name;
+	}
+
+	// -- CodecMetrics methods --
+
+	/**
+	 * Records a compress call.
+	 *
+	 * @param nanos the time taken.
+	 * @param in the number of uncompressed bytes passed in.
+	 * @param out the number of compressed bytes returned.
+	 */
+	public void recordCompress(final long nanos, final long in, final long out) {
+		compress.record(nanos);
+		uncompressedBytes.add(in);
+		compressedBytes.add(out);
+	}
+
+	/**
+	 * Records a decompress call.
+	 *
+	 * @param nanos the time taken.
+	 * @param in the number of compressed bytes consumed.
+	 * @param out the number of uncompressed bytes returned.
+	 */
+	public void recordDecompress(final long nanos, final long in,
+		final long out)
+	{
+		decompress.record(nanos);
+		compressedBytes.add(in);
+		uncompressedBytes.add(out);
+	}
+
+	/** Gets the histogram of the times taken to compress. */
+	public LatencyHistogram getCompressLatency() {
+		return compress;
+	}
+
+	/** Gets the histogram of the times taken to decompress. */
+	public LatencyHistogram getDecompressLatency() {
+		return decompress;
+	}
+
+	/** Adds all metrics recorded by another instance to this one. */
+	public void add(final CodecMetrics other) {
+		compress.add(other.compress);
+		decompress.add(other.decompress);
+		compressedBytes.add(other.getCompressedBytes());
+		uncompressedBytes.add(other.getUncompressedBytes());
+	}
+
+	/** Returns a copy of these metrics, with the same name. */
+	public CodecMetrics copy() {
+		final CodecMetrics copy = new CodecMetrics(name);
+		copy.add(this);
+		return copy;
+	}
+
+	// -- CodecMetricsMBean methods --
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getCompressCount() {
+		return compress.getCount();
+	}
+
+	@Override
+	public long getDecompressCount() {
+		return decompress.getCount();
+	}
+
+	@Override
+	public long getCompressedBytes() {
+		return compressedBytes.sum();
+	}
+
+	@Override
+	public long getUncompressedBytes() {
+		return uncompressedBytes.sum();
+	}
+
+	@Override
+	public double getCompressionRatio() {
+		final long compressed = getCompressedBytes();
+		return compressed == 0 ? 0 : (double) getUncompressedBytes() / compressed;
+	}
+
+	@Override
+	public double getCompressMillis() {
+		return compress.getTotalNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getDecompressMillis() {
+		return decompress.getTotalNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanCompressMillis() {
+		return compress.getMeanNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanDecompressMillis() {
+		return decompress.getMeanNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getDecompress99thPercentileMillis() {
+		return decompress.getPercentile(99, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void reset() {
+		compress.reset();
+		decompress.reset();
+		compressedBytes.reset();
+		uncompressedBytes.reset();
+	}
+
+	// -- Object methods --
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d compress (%.3f ms), %d decompress " +
+			"(%.3f ms), %d compressed / %d uncompressed bytes (%.2fx)", name,
+			getCompressCount(), getCompressMillis(), getDecompressCount(),
+			getDecompressMillis(), getCompressedBytes(), getUncompressedBytes(),
+			getCompressionRatio());
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+/**
+ * JMX management interface of {@link CodecMetrics}. Times are in
+ * milliseconds.
+ */
+public interface CodecMetricsMBean {
+
+	/** Gets the name of the codec the metrics describe. */
+	String getName();
+
+	/** Gets the number of compress calls. */
+	long getCompressCount();
+
+	/** Gets the number of decompress calls. */
+	long getDecompressCount();
+
+	/** Gets the number of compressed bytes read or written. */
+	long getCompressedBytes();
+
+	/** Gets the number of uncompressed bytes read or written. */
+	long getUncompressedBytes();
+
+	/** Gets the ratio of uncompressed to compressed bytes. */
+	double getCompressionRatio();
+
+	/** Gets the total time spent compressing. */
+	double getCompressMillis();
+
+	/** Gets the total time spent decompressing. */
+	double getDecompressMillis();
+
+	/** Gets the mean time per compress call. */
+	double getMeanCompressMillis();
+
+	/** Gets the mean time per decompress call. */
+	double getMeanDecompressMillis();
+
+	/** Gets the estimated 99th percentile of the time per decompress call. */
+	double getDecompress99thPercentileMillis();
+
+	/** Resets all metrics to zero. */
+	void reset();
+}
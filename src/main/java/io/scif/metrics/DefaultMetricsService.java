@@ -0,0 +1,279 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import io.scif.io.handle.HandleTrace;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default {@link MetricsService} implementation, registering its MBeans with
+ * the platform MBean server.
+ */
+@Plugin(type = Service.class)
+public class DefaultMetricsService extends AbstractService implements
+	MetricsService
+{
+
+	// -- Constants --
+
+	/** Maximum number of traces kept, the oldest being discarded first. */
+	public static final int MAX_TRACES = 64;
+
+	// -- Fields --
+
+	private final ConcurrentMap<String, ReaderMetrics> formats =
+		new ConcurrentHashMap<>();
+
+	private final Set<ReaderMetrics> readers = ConcurrentHashMap.newKeySet();
+
+	private final ConcurrentMap<String, CodecMetrics> codecs =
+		new ConcurrentHashMap<>();
+
+	private final Set<CellCacheMetrics> cellCaches = ConcurrentHashMap
+		.newKeySet();
+
+	private final Deque<HandleTrace> traces = new ArrayDeque<>();
+
+	private boolean jmxEnabled = true;
+
+	// -- MetricsService API methods --
+
+	@Override
+	public ReaderMetrics getFormatMetrics(final String formatName) {
+		final ReaderMetrics metrics = formats.get(formatName);
+		if (metrics != null) return metrics;
+		synchronized (this) {
+			return formats.computeIfAbsent(formatName, name -> {
+				final ReaderMetrics created = new ReaderMetrics(name);
+				if (jmxEnabled) register(created, objectName(created));
+				return created;
+			});
+		}
+	}
+
+	@Override
+	public CodecMetrics getCodecMetrics(final String codecName) {
+		final CodecMetrics metrics = codecs.get(codecName);
+		if (metrics != null) return metrics;
+		synchronized (this) {
+			return codecs.computeIfAbsent(codecName, name -> {
+				final CodecMetrics created = new CodecMetrics(name);
+				if (jmxEnabled) register(created, objectName(created));
+				return created;
+			});
+		}
+	}
+
+	@Override
+	public void addReaderMetrics(final ReaderMetrics metrics) {
+		readers.add(metrics);
+	}
+
+	@Override
+	public void removeReaderMetrics(final ReaderMetrics metrics) {
+		readers.remove(metrics);
+	}
+
+	@Override
+	public synchronized void addCellCacheMetrics(
+		final CellCacheMetrics metrics)
+	{
+		if (cellCaches.add(metrics) && jmxEnabled) register(metrics, objectName(
+			metrics));
+	}
+
+	@Override
+	public synchronized void removeCellCacheMetrics(
+		final CellCacheMetrics metrics)
+	{
+		if (cellCaches.remove(metrics) && jmxEnabled) unregister(objectName(
+			metrics));
+	}
+
+	@Override
+	public CellCacheMetrics getCellCacheMetrics() {
+		final CellCacheMetrics total = new CellCacheMetrics("All cell images");
+		for (final CellCacheMetrics metrics : cellCaches) {
+			total.add(metrics);
+		}
+		return total;
+	}
+
+	@Override
+	public MetricsSnapshot snapshot() {
+		return new MetricsSnapshot(formats.values(), readers, codecs.values(),
+			cellCaches);
+	}
+
+	@Override
+	public void reset() {
+		for (final ReaderMetrics metrics : formats.values()) {
+			metrics.reset();
+		}
+		for (final ReaderMetrics metrics : readers) {
+			metrics.reset();
+		}
+		for (final CodecMetrics metrics : codecs.values()) {
+			metrics.reset();
+		}
+		for (final CellCacheMetrics metrics : cellCaches) {
+			metrics.reset();
+		}
+	}
+
+	@Override
+	public void addTrace(final HandleTrace trace) {
+		synchronized (traces) {
+			if (traces.size() == MAX_TRACES) traces.removeFirst();
+			traces.addLast(trace);
+		}
+	}
+
+	@Override
+	public List<HandleTrace> getTraces() {
+		synchronized (traces) {
+			return new ArrayList<>(traces);
+		}
+	}
+
+	@Override
+	public void clearTraces() {
+		synchronized (traces) {
+			traces.clear();
+		}
+	}
+
+	@Override
+	public synchronized boolean isJmxEnabled() {
+		return jmxEnabled;
+	}
+
+	@Override
+	public synchronized void setJmxEnabled(final boolean enabled) {
+		if (enabled == jmxEnabled) return;
+		jmxEnabled = enabled;
+		for (final ReaderMetrics metrics : formats.values()) {
+			if (enabled) register(metrics, objectName(metrics));
+			else unregister(objectName(metrics));
+		}
+		for (final CodecMetrics metrics : codecs.values()) {
+			if (enabled) register(metrics, objectName(metrics));
+			else unregister(objectName(metrics));
+		}
+		for (final CellCacheMetrics metrics : cellCaches) {
+			if (enabled) register(metrics, objectName(metrics));
+			else unregister(objectName(metrics));
+		}
+	}
+
+	// -- Disposable methods --
+
+	@Override
+	public void dispose() {
+		setJmxEnabled(false);
+		formats.clear();
+		readers.clear();
+		codecs.clear();
+		cellCaches.clear();
+		traces.clear();
+	}
+
+	// -- Helper methods --
+
+	private void register(final Object mbean, final ObjectName name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, name);
+		}
+		catch (final JMException e) {
+			log().debug("Could not register MBean " + name, e);
+		}
+	}
+
+	private void unregister(final ObjectName name) {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(name)) server.unregisterMBean(name);
+		}
+		catch (final JMException e) {
+			log().debug("Could not unregister MBean " + name, e);
+		}
+	}
+
+	/** Gets the name of the MBean of a format's metrics. */
+	ObjectName objectName(final ReaderMetrics metrics) {
+		return objectName("ReaderMetrics", "format", metrics.getName());
+	}
+
+	/** Gets the name of the MBean of a codec's metrics. */
+	ObjectName objectName(final CodecMetrics metrics) {
+		return objectName("CodecMetrics", "codec", metrics.getName());
+	}
+
+	/**
+	 * Gets the name of the MBean of a cell image's cache metrics. As the same
+	 * image may be open more than once, the name includes the identity of the
+	 * metrics.
+	 */
+	ObjectName objectName(final CellCacheMetrics metrics) {
+		return objectName("CellCacheMetrics", "image", metrics.getName() + " @" +
+			Integer.toHexString(System.identityHashCode(metrics)));
+	}
+
+	private ObjectName objectName(final String type, final String key,
+		final String name)
+	{
+		try {
+			return new ObjectName(JMX_DOMAIN + ":type=" + type + ",context=" +
+				Integer.toHexString(System.identityHashCode(getContext())) + "," +
+				key + "=" + ObjectName.quote(name));
+		}
+		catch (final MalformedObjectNameException e) {
+			// NB: the name is quoted, so this cannot happen
+			throw new IllegalStateException(e);
+		}
+	}
+}
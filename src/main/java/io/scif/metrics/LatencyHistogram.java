@@ -0,0 +1,180 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of durations in nanoseconds, for estimating latency
+ * percentiles in constant memory.
+ * <p>
+ * Each power of two is split into four buckets, so percentiles are estimated
+ * to within 25%. Recording a value takes a few atomic increments.
+ * </p>
+ */
+public class LatencyHistogram {
+
+	// -- Constants --
+
+	/** Number of buckets, enough for any non-negative {@code long}. */
+	static final int BUCKETS = 248;
+
+	// -- Fields --
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder total = new LongAdder();
+
+	private final AtomicLong max = new AtomicLong();
+
+	// -- LatencyHistogram methods --
+
+	/** Records a duration in nanoseconds. Negative durations count as 0. */
+	public void record(final long nanos) {
+		final long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucket(value));
+		count.increment();
+		total.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/** Gets the number of recorded durations. */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/** Gets the sum of the recorded durations, in nanoseconds. */
+	public long getTotalNanos() {
+		return total.sum();
+	}
+
+	/** Gets the longest recorded duration, in nanoseconds. */
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the mean of the recorded durations, in nanoseconds, or 0 if none
+	 * were recorded.
+	 */
+	public double getMeanNanos() {
+		final long n = getCount();
+		return n == 0 ? 0 : (double) getTotalNanos() / n;
+	}
+
+	/**
+	 * Estimates a percentile of the recorded durations, as the upper bound of
+	 * the bucket it falls in.
+	 *
+	 * @param percentile the percentile, between 0 and 100.
+	 * @return The estimated duration, in nanoseconds, or 0 if none were
+	 *         recorded.
+	 */
+	public long getPercentileNanos(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Invalid percentile: " + percentile);
+		}
+		final long[] snapshot = new long[BUCKETS];
+		long n = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			snapshot[b] = counts.get(b);
+			n += snapshot[b];
+		}
+		if (n == 0) return 0;
+		final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += snapshot[b];
+			if (seen >= rank) return Math.min(upperBound(b), getMaxNanos());
+		}
+		return getMaxNanos();
+	}
+
+	/** As {@link #getPercentileNanos}, in the given unit. */
+	public double getPercentile(final double percentile, final TimeUnit unit) {
+		return (double) getPercentileNanos(percentile) / unit.toNanos(1);
+	}
+
+	/** Adds all durations recorded by another histogram to this one. */
+	public void add(final LatencyHistogram other) {
+		for (int b = 0; b < BUCKETS; b++) {
+			final long c = other.counts.get(b);
+			if (c != 0) counts.addAndGet(b, c);
+		}
+		count.add(other.getCount());
+		total.add(other.getTotalNanos());
+		max.accumulateAndGet(other.getMaxNanos(), Math::max);
+	}
+
+	/** Returns a copy of this histogram. */
+	public LatencyHistogram copy() {
+		final LatencyHistogram copy = new LatencyHistogram();
+		copy.add(this);
+		return copy;
+	}
+
+	/** Discards all recorded durations. */
+	public void reset() {
+		for (int b = 0; b < BUCKETS; b++) {
+			counts.set(b, 0);
+		}
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+
+	// -- Helper methods --
+
+	/** Gets the bucket of a non-negative value. */
+	static int bucket(final long value) {
+		if (value < 4) return (int) value;
+		final int exp = 63 - Long.numberOfLeadingZeros(value);
+		final int sub = (int) (value >>> (exp - 2)) & 3;
+		return 4 * (exp - 1) + sub;
+	}
+
+	/** Gets the smallest value of a bucket. */
+	static long lowerBound(final int bucket) {
+		if (bucket < 4) return bucket;
+		final int exp = bucket / 4 + 1;
+		return (long) (4 + bucket % 4) << (exp - 2);
+	}
+
+	/** Gets the largest value of a bucket. */
+	static long upperBound(final int bucket) {
+		return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) -
+			1;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import io.scif.SCIFIOService;
+import io.scif.io.handle.HandleTrace;
+
+import java.util.List;
+
+/**
+ * Collects the metrics of readers, as recorded by
+ * {@link io.scif.filters.MetricsFilter}, per format and per reader.
+ * <p>
+ * Metrics are only recorded for readers on which the filter is enabled. The
+ * metrics of each format are registered as a JMX MBean named
+ * {@code io.scif:type=ReaderMetrics,format=<format name>}, with a
+ * {@code context} key identifying the SciJava context, unless
+ * {@link #setJmxEnabled(boolean) disabled}. Likewise, the metrics of each
+ * codec, as recorded by
+ * {@link io.scif.codec.CodecService#getInstrumentedCodec(Class) instrumented
+ * codecs}, are registered as {@code io.scif:type=CodecMetrics}, and those of
+ * each open {@link io.scif.img.cell.SCIFIOCellImg} cache as
+ * {@code io.scif:type=CellCacheMetrics}.
+ * </p>
+ * <p>
+ * The service also keeps the {@link HandleTrace}s of readers opened with
+ * {@link io.scif.config.SCIFIOConfig#enableTracedReading(boolean)}, for
+ * analysis with {@link TraceReport}. Only the most recent traces are kept.
+ * All methods are thread-safe.
+ * </p>
+ */
+public interface MetricsService extends SCIFIOService {
+
+	/** JMX domain of the registered MBeans. */
+	String JMX_DOMAIN = "io.scif";
+
+	/**
+	 * Gets the metrics aggregated over all readers of the given format,
+	 * creating them if needed.
+	 */
+	ReaderMetrics getFormatMetrics(String formatName);
+
+	/**
+	 * Gets the metrics of the given codec, creating them if needed.
+	 */
+	CodecMetrics getCodecMetrics(String codecName);
+
+	/**
+	 * Adds the metrics of a reader, to be included in snapshots until
+	 * {@link #removeReaderMetrics removed}.
+	 */
+	void addReaderMetrics(ReaderMetrics metrics);
+
+	/** Removes the metrics of a reader, e.g. once the reader is closed. */
+	void removeReaderMetrics(ReaderMetrics metrics);
+
+	/**
+	 * Adds the metrics of a cell image's cache, to be included in snapshots
+	 * until {@link #removeCellCacheMetrics removed}.
+	 */
+	void addCellCacheMetrics(CellCacheMetrics metrics);
+
+	/** Removes the metrics of a cell image's cache, once it is disposed. */
+	void removeCellCacheMetrics(CellCacheMetrics metrics);
+
+	/**
+	 * Returns the metrics of the caches of all open cell images, added up.
+	 */
+	CellCacheMetrics getCellCacheMetrics();
+
+	/** Returns a copy of all metrics collected so far. */
+	MetricsSnapshot snapshot();
+
+	/**
+	 * Resets the metrics of every format, reader, codec and cell cache to
+	 * zero.
+	 */
+	void reset();
+
+	/**
+	 * Adds the trace of a reader's handle. Only the most recent traces are
+	 * kept, so that tracing can stay enabled in long-running processes.
+	 */
+	void addTrace(HandleTrace trace);
+
+	/** Gets the traces added so far, oldest first. */
+	List<HandleTrace> getTraces();
+
+	/** Discards all traces. */
+	void clearTraces();
+
+	/**
+	 * Whether the metrics of each format, codec and cell cache are registered as
+	 * JMX MBeans.
+	 */
+	boolean isJmxEnabled();
+
+	/**
+	 * Sets whether the metrics of each format, codec and cell cache are
+	 * registered as JMX MBeans, registering or unregistering those created so
+	 * far.
+	 */
+	void setJmxEnabled(boolean enabled);
+}
@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of the metrics collected by a {@link MetricsService} at one
+ * point in time.
+ */
+public class MetricsSnapshot {
+
+	// -- Fields --
+
+	private final long timestamp;
+
+	private final Map<String, ReaderMetrics> formats;
+
+	private final List<ReaderMetrics> readers;
+
+	private final Map<String, CodecMetrics> codecs;
+
+	private final List<CellCacheMetrics> cellCaches;
+
+	// -- Constructors --
+
+	/**
+	 * @param formats the metrics of each format, which are copied.
+	 * @param readers the metrics of each reader, which are copied.
+	 * @param codecs the metrics of each codec, which are copied.
+	 * @param cellCaches the metrics of each cell image's cache, which are
+	 *          copied.
+	 */
+	public MetricsSnapshot(final Collection<ReaderMetrics> formats,
+		final Collection<ReaderMetrics> readers,
+		final Collection<CodecMetrics> codecs,
+		final Collection<CellCacheMetrics> cellCaches)
+	{
+		timestamp = System.currentTimeMillis();
+		final Map<String, ReaderMetrics> formatCopies = new TreeMap<>();
+		for (final ReaderMetrics metrics : formats) {
+			formatCopies.put(metrics.getName(), metrics.copy());
+		}
+		this.formats = Collections.unmodifiableMap(formatCopies);
+		final List<ReaderMetrics> readerCopies = new ArrayList<>();
+		for (final ReaderMetrics metrics : readers) {
+			readerCopies.add(metrics.copy());
+		}
+		this.readers = Collections.unmodifiableList(readerCopies);
+		final Map<String, CodecMetrics> codecCopies = new TreeMap<>();
+		for (final CodecMetrics metrics : codecs) {
+			codecCopies.put(metrics.getName(), metrics.copy());
+		}
+		this.codecs = Collections.unmodifiableMap(codecCopies);
+		final List<CellCacheMetrics> cellCacheCopies = new ArrayList<>();
+		for (final CellCacheMetrics metrics : cellCaches) {
+			cellCacheCopies.add(metrics.copy());
+		}
+		this.cellCaches = Collections.unmodifiableList(cellCacheCopies);
+	}
+
+	// -- MetricsSnapshot methods --
+
+	/** Gets the time the snapshot was taken, in milliseconds since the epoch. */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the metrics aggregated over all readers of each format, by format
+	 * name.
+	 */
+	public Map<String, ReaderMetrics> getFormats() {
+		return formats;
+	}
+
+	/**
+	 * Gets the metrics aggregated over all readers of the given format, or null
+	 * if none were recorded.
+	 */
+	public ReaderMetrics getFormat(final String formatName) {
+		return formats.get(formatName);
+	}
+
+	/** Gets the metrics of each open reader. */
+	public List<ReaderMetrics> getReaders() {
+		return readers;
+	}
+
+	/** Gets the metrics of each codec, by codec name. */
+	public Map<String, CodecMetrics> getCodecs() {
+		return codecs;
+	}
+
+	/**
+	 * Gets the metrics of the given codec, or null if none were recorded.
+	 */
+	public CodecMetrics getCodec(final String codecName) {
+		return codecs.get(codecName);
+	}
+
+	/** Gets the metrics of the cache of each open cell image. */
+	public List<CellCacheMetrics> getCellCaches() {
+		return cellCaches;
+	}
+
+	// -- Object methods --
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		for (final ReaderMetrics metrics : formats.values()) {
+			sb.append(metrics).append('\n');
+		}
+		for (final CodecMetrics metrics : codecs.values()) {
+			sb.append(metrics).append('\n');
+		}
+		for (final CellCacheMetrics metrics : cellCaches) {
+			sb.append(metrics).append('\n');
+		}
+		return sb.toString();
+	}
+}
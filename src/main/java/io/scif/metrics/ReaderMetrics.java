@@ -0,0 +1,216 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics of opening planes, either of a single reader or
+ * aggregated over all readers of a format.
+ *
+ * @see io.scif.filters.MetricsFilter
+ * @see MetricsService
+ */
+public class ReaderMetrics implements ReaderMetricsMBean {
+
+	// -- Constants --
+
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	// -- Fields --
+
+	private final String name;
+
+	private final LongAdder bytesRead = new LongAdder();
+
+	private final LongAdder reads = new LongAdder();
+
+	private final LongAdder seeks = new LongAdder();
+
+	private final LongAdder readNanos = new LongAdder();
+
+	/** Latencies of opening planes, also counting the planes. */
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	// -- Constructors --
+
+	/**
+	 * @param name the name of the format or reader the metrics describe.
+	 */
+	public ReaderMetrics(final String name) {
+		this.name = name;
+	}
+
+	// -- ReaderMetrics methods --
+
+	/**
+	 * Records the opening of a plane.
+	 *
+	 * @param nanos the time taken to open the plane.
+	 * @param bytes the number of bytes read from the handle.
+	 * @param readCount the number of read calls on the handle.
+	 * @param seekCount the number of seeks on the handle.
+	 * @param readTime the time spent reading the handle, in nanoseconds.
+	 */
+	public void record(final long nanos, final long bytes, final long readCount,
+		final long seekCount, final long readTime)
+	{
+		latency.record(nanos);
+		bytesRead.add(bytes);
+		reads.add(readCount);
+		seeks.add(seekCount);
+		readNanos.add(readTime);
+	}
+
+	/** Gets the total time spent opening planes, in nanoseconds. */
+	public long getOpenPlaneNanos() {
+		return latency.getTotalNanos();
+	}
+
+	/** Gets the time spent reading the handle, in nanoseconds. */
+	public long getReadNanos() {
+		return readNanos.sum();
+	}
+
+	/**
+	 * Gets the time spent opening planes but not reading the handle, in
+	 * nanoseconds.
+	 */
+	public long getDecodeNanos() {
+		return Math.max(0, getOpenPlaneNanos() - getReadNanos());
+	}
+
+	/** Gets the histogram of the times taken to open planes. */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/** Adds all metrics recorded by another instance to this one. */
+	public void add(final ReaderMetrics other) {
+		latency.add(other.latency);
+		bytesRead.add(other.getBytesRead());
+		reads.add(other.getReadCount());
+		seeks.add(other.getSeekCount());
+		readNanos.add(other.getReadNanos());
+	}
+
+	/** Returns a copy of these metrics, with the same name. */
+	public ReaderMetrics copy() {
+		final ReaderMetrics copy = new ReaderMetrics(name);
+		copy.add(this);
+		return copy;
+	}
+
+	// -- ReaderMetricsMBean methods --
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getPlaneCount() {
+		return latency.getCount();
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	@Override
+	public long getReadCount() {
+		return reads.sum();
+	}
+
+	@Override
+	public long getSeekCount() {
+		return seeks.sum();
+	}
+
+	@Override
+	public double getOpenPlaneMillis() {
+		return getOpenPlaneNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getReadMillis() {
+		return getReadNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getDecodeMillis() {
+		return getDecodeNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanLatencyMillis() {
+		return latency.getMeanNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getLatency50thPercentileMillis() {
+		return latency.getPercentile(50, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public double getLatency90thPercentileMillis() {
+		return latency.getPercentile(90, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public double getLatency99thPercentileMillis() {
+		return latency.getPercentile(99, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public double getMaxLatencyMillis() {
+		return latency.getMaxNanos() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public void reset() {
+		latency.reset();
+		bytesRead.reset();
+		reads.reset();
+		seeks.reset();
+		readNanos.reset();
+	}
+
+	// -- Object methods --
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d planes, %d bytes in %d reads, %d seeks, " +
+			"%.3f ms (%.3f ms reading)", name, getPlaneCount(), getBytesRead(),
+			getReadCount(), getSeekCount(), getOpenPlaneMillis(), getReadMillis());
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+/**
+ * JMX management interface of {@link ReaderMetrics}. Times are in
+ * milliseconds.
+ */
+public interface ReaderMetricsMBean {
+
+	/** Gets the name of the format or reader the metrics describe. */
+	String getName();
+
+	/** Gets the number of planes, or regions of planes, opened. */
+	long getPlaneCount();
+
+	/** Gets the number of bytes read from the source's handle. */
+	long getBytesRead();
+
+	/** Gets the number of read calls on the source's handle. */
+	long getReadCount();
+
+	/** Gets the number of seeks on the source's handle. */
+	long getSeekCount();
+
+	/** Gets the total time spent opening planes. */
+	double getOpenPlaneMillis();
+
+	/** Gets the part of {@link #getOpenPlaneMillis()} spent reading. */
+	double getReadMillis();
+
+	/**
+	 * Gets the part of {@link #getOpenPlaneMillis()} not spent reading the
+	 * handle, i.e. decoding, conversion and filter overhead.
+	 */
+	double getDecodeMillis();
+
+	/** Gets the mean time to open a plane. */
+	double getMeanLatencyMillis();
+
+	/** Gets the estimated median time to open a plane. */
+	double getLatency50thPercentileMillis();
+
+	/** Gets the estimated 90th percentile of the time to open a plane. */
+	double getLatency90thPercentileMillis();
+
+	/** Gets the estimated 99th percentile of the time to open a plane. */
+	double getLatency99thPercentileMillis();
+
+	/** Gets the longest time to open a plane. */
+	double getMaxLatencyMillis();
+
+	/** Resets all metrics to zero. */
+	void reset();
+}
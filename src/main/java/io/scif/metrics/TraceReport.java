@@ -0,0 +1,235 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import io.scif.io.handle.HandleTrace;
+import io.scif.io.handle.HandleTrace.Event;
+import io.scif.io.handle.HandleTrace.Op;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of the access pattern of one or more {@link HandleTrace}s: how much
+ * data was read more than once, how many reads were small, and how many
+ * continued where the previous read ended.
+ * <p>
+ * Only the calls kept by each trace are analyzed.
+ * </p>
+ */
+public class TraceReport {
+
+	// -- Constants --
+
+	/** Default size, in bytes, below which a read counts as small. */
+	public static final int DEFAULT_SMALL_READ_SIZE = 4096;
+
+	// -- Fields --
+
+	private final String name;
+
+	private long reads;
+
+	private long bytesRead;
+
+	private long distinctBytes;
+
+	private long smallReads;
+
+	private long sequentialReads;
+
+	private long seeks;
+
+	private long skips;
+
+	// -- Constructors --
+
+	private TraceReport(final String name) {
+		this.name = name;
+	}
+
+	// -- Analysis methods --
+
+	/** Analyzes a single trace. */
+	public static TraceReport analyze(final HandleTrace trace) {
+		return analyze(trace.toString(), Collections.singleton(trace),
+			DEFAULT_SMALL_READ_SIZE);
+	}
+
+	/**
+	 * Analyzes several traces together, e.g. all traces of one format.
+	 *
+	 * @param name the name of the report.
+	 * @param traces the traces to analyze.
+	 * @param smallReadSize the size, in bytes, below which a read counts as
+	 *          small.
+	 */
+	public static TraceReport analyze(final String name,
+		final Collection<HandleTrace> traces, final int smallReadSize)
+	{
+		final TraceReport report = new TraceReport(name);
+		for (final HandleTrace trace : traces) {
+			report.add(trace.getEvents(), smallReadSize);
+		}
+		return report;
+	}
+
+	/** Analyzes the given traces grouped by format, by format name. */
+	public static Map<String, TraceReport> analyzeByFormat(
+		final Collection<HandleTrace> traces)
+	{
+		final Map<String, List<HandleTrace>> byFormat = new TreeMap<>();
+		for (final HandleTrace trace : traces) {
+			byFormat.computeIfAbsent(trace.getFormatName(), f -> new ArrayList<>())
+				.add(trace);
+		}
+		final Map<String, TraceReport> reports = new TreeMap<>();
+		for (final Map.Entry<String, List<HandleTrace>> e : byFormat.entrySet()) {
+			reports.put(e.getKey(), analyze(e.getKey(), e.getValue(),
+				DEFAULT_SMALL_READ_SIZE));
+		}
+		return reports;
+	}
+
+	// -- TraceReport methods --
+
+	/** Gets the name of the report, e.g. the format analyzed. */
+	public String getName() {
+		return name;
+	}
+
+	/** Gets the number of reads. */
+	public long getReadCount() {
+		return reads;
+	}
+
+	/** Gets the number of bytes read. */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/** Gets the number of distinct bytes read within each trace. */
+	public long getDistinctBytesRead() {
+		return distinctBytes;
+	}
+
+	/**
+	 * Gets the ratio of bytes read to distinct bytes read; 1 if no byte was
+	 * read twice.
+	 */
+	public double getReadAmplification() {
+		return distinctBytes == 0 ? 1 : (double) bytesRead / distinctBytes;
+	}
+
+	/** Gets the number of reads smaller than the small read size. */
+	public long getSmallReadCount() {
+		return smallReads;
+	}
+
+	/** Gets the mean number of bytes per read. */
+	public double getMeanReadSize() {
+		return reads == 0 ? 0 : (double) bytesRead / reads;
+	}
+
+	/** Gets the number of reads which started where the previous one ended. */
+	public long getSequentialReadCount() {
+		return sequentialReads;
+	}
+
+	/** Gets the number of reads which did not continue the previous one. */
+	public long getRandomReadCount() {
+		return reads - sequentialReads;
+	}
+
+	/** Gets the fraction of reads which were sequential. */
+	public double getSequentialRatio() {
+		return reads == 0 ? 0 : (double) sequentialReads / reads;
+	}
+
+	/** Gets the number of seeks. */
+	public long getSeekCount() {
+		return seeks;
+	}
+
+	/** Gets the number of skips. */
+	public long getSkipCount() {
+		return skips;
+	}
+
+	// -- Object methods --
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d reads of %d bytes (%.2fx amplification), " +
+			"%d small, %.1f%% sequential, %d seeks, %d skips", name, reads,
+			bytesRead, getReadAmplification(), smallReads, 100 *
+				getSequentialRatio(), seeks, skips);
+	}
+
+	// -- Helper methods --
+
+	private void add(final List<Event> events, final int smallReadSize) {
+		final List<long[]> ranges = new ArrayList<>();
+		long end = 0;
+		for (final Event event : events) {
+			if (event.op() == Op.SEEK) {
+				seeks++;
+				continue;
+			}
+			if (event.op() == Op.SKIP) {
+				skips++;
+				continue;
+			}
+			reads++;
+			bytesRead += event.length();
+			if (event.length() < smallReadSize) smallReads++;
+			if (event.offset() == end) sequentialReads++;
+			end = event.offset() + event.length();
+			if (event.length() > 0) ranges.add(new long[] { event.offset(), end });
+		}
+
+		// merge the ranges read to count the distinct bytes
+		ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+		long start = -1, stop = -1;
+		for (final long[] range : ranges) {
+			if (range[0] > stop) {
+				distinctBytes += stop - start;
+				start = range[0];
+				stop = range[1];
+			}
+			else stop = Math.max(stop, range[1]);
+		}
+		distinctBytes += stop - start;
+	}
+}
@@ -42,6 +42,7 @@ import io.scif.config.SCIFIOConfig;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -49,10 +50,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.scijava.app.AppService;
 import org.scijava.io.handle.DataHandle;
+import org.scijava.io.handle.DataHandleService;
 import org.scijava.io.location.Location;
 import org.scijava.io.location.RemoteLocation;
 import org.scijava.log.LogService;
@@ -61,7 +64,6 @@ import org.scijava.plugin.Plugin;
 import org.scijava.plugin.PluginService;
 import org.scijava.service.AbstractService;
 import org.scijava.service.Service;
-import org.scijava.thread.ThreadService;
 
 /**
  * Default {@link FormatService} implementation
@@ -83,10 +85,10 @@ public class DefaultFormatService extends AbstractService implements
 	private AppService appService;
 
 	@Parameter
-	private ThreadService threadService;
+	private LogService logService;
 
 	@Parameter
-	private LogService logService;
+	private DataHandleService dataHandleService;
 
 	// -- Fields --
 
@@ -126,16 +128,21 @@ public class DefaultFormatService extends AbstractService implements
 	private Map<Class<?>, Format> metadataMap;
 
 	/*
-	 * Maps String ids to their associated Format.
-	 * TODO: Update this logic for
-	 * https://github.com/scifio/scifio/issues/237
+	 * Caches the Format detected for each Location.
+	 */
+	private final FormatCache formatCache = new FormatCache();
+
+	/*
+	 * Suffix and signature index of all formats, rebuilt lazily whenever
+	 * formats are added or removed.
 	 */
-	private Map<Location, Format> formatCache;
+	private volatile FormatIndex formatIndex;
 
-	private boolean dirtyFormatCache = false;
+	// Released once all formats have been registered.
+	private final CountDownLatch loaded = new CountDownLatch(1);
 
-	// Flag to mark if this service has been initialized or not.
-	private boolean initialized = false;
+	// Set by the first thread to need the formats, which registers them.
+	private final AtomicBoolean loading = new AtomicBoolean();
 
 	// If this value returns true, the current thread has permission to access
 	// uninitialized data structures.
@@ -177,6 +184,7 @@ public class DefaultFormatService extends AbstractService implements
 		}
 
 		if (format.getContext() == null) format.setContext(getContext());
+		formatIndex = null;
 		return true;
 	}
 
@@ -184,7 +192,8 @@ public class DefaultFormatService extends AbstractService implements
 	public boolean removeFormat(final Format format) {
 		removeComponents(format);
 		formatMap().remove(format.getClass());
-		dirtyFormatCache = true;
+		formatCache.clear();
+		formatIndex = null;
 		return formats().remove(format);
 	}
 
@@ -318,15 +327,12 @@ public class DefaultFormatService extends AbstractService implements
 			config.checkerSetOpen(false);
 		}
 
-		Format format = formatCache().get(id);
+		Format format = formatCache.get(id);
 		if (format == null) {
 			List<Format> formatList = getFormatList(id, config, true);
 			if(formatList.isEmpty()) return null;
 			format = formatList.get(0);
-			synchronized (formats) {
-				// Synchronized to protect cache modification
-				if (formatCache().get(id) == null) formatCache().put(id, format);
-			}
+			formatCache.put(id, format);
 		}
 		return format;
 	}
@@ -342,16 +348,37 @@ public class DefaultFormatService extends AbstractService implements
 	{
 
 		final List<Format> formatList = new ArrayList<>();
+		final FormatIndex index = formatIndex();
+		final Set<Format> suffixMatches = index.matchSuffix(id.getName());
+		final boolean open = config.checkerIsOpen();
+
+		// the source is opened at most once, and shared by all checkers
+		final Header header = new Header(id, index);
+		try {
+			for (final Format format : formats()) {
+				if (!format.isEnabled()) continue;
+				final FormatIndex.Entry entry = index.get(format);
+
+				final boolean match;
+				if (entry == null || entry.custom) {
+					match = format.createChecker().isFormat(id, config);
+				}
+				else {
+					match = isFormat(format, entry, suffixMatches.contains(format), open,
+						header);
+				}
 
-		for (final Format format : formats()) {
-			if (format.isEnabled() && format.createChecker().isFormat(id, config)) {
-
-				formatList.add(format);
+				if (match) {
+					formatList.add(format);
 
-				// if greedy is true, we can end after finding the first format
-				if (greedy) break;
+					// if greedy is true, we can end after finding the first format
+					if (greedy) break;
+				}
 			}
 		}
+		finally {
+			header.close();
+		}
 
 		return formatList;
 	}
@@ -384,29 +411,46 @@ public class DefaultFormatService extends AbstractService implements
 		final SCIFIOConfig config, final boolean greedy) throws FormatException
 	{
 		final List<Format> formatList = new ArrayList<>();
-
-		boolean found = false;
-
-		for (final Format format : formats()) {
-			try {
-				if (!found && format.isEnabled() && format.createChecker().isFormat(
-					source))
+		final FormatIndex index = formatIndex();
+
+		try {
+			// read the header once to rule out formats by their signatures
+			final byte[] bytes = new byte[index.getHeaderLength()];
+			final Set<Format> signatureMatches = index.matchSignature(bytes,
+				FormatIndex.readHeader(source, bytes));
+
+			for (final Format format : formats()) {
+				if (!format.isEnabled()) continue;
+				final FormatIndex.Entry entry = index.get(format);
+				if (entry != null && (!entry.readsContent || entry.signed &&
+					!signatureMatches.contains(format)))
 				{
-					// if greedy is true, we can end after finding the first format
-					found = greedy;
-					formatList.add(format);
+					continue;
 				}
+
+				final boolean match = format.createChecker().isFormat(source);
 				// Reset the stream
 				source.seek(0);
-			}
-			catch (final IOException e) {
-				throw new FormatException(e);
+				if (match) {
+					formatList.add(format);
+
+					// if greedy is true, we can end after finding the first format
+					if (greedy) break;
+				}
 			}
 		}
+		catch (final IOException e) {
+			throw new FormatException(e);
+		}
 
 		return formatList;
 	}
 
+	@Override
+	public FormatCache getFormatCache() {
+		return formatCache;
+	}
+
 	@Override
 	public Set<Format> getAllFormats() {
 		return formats();
@@ -428,41 +472,18 @@ public class DefaultFormatService extends AbstractService implements
 
 	@Override
 	public void initialize() {
-		// TODO replace with preload implementation.
-		// See https://github.com/scijava/scijava-common/issues/145
-		threadService.run(() -> {
-			// Allow this thread to bypass the initialization check
-			threadLock.set(true);
-
-			formats = new TreeSet<>();
-			formatMap = new HashMap<>();
-			checkerMap = new HashMap<>();
-			parserMap = new HashMap<>();
-			readerMap = new HashMap<>();
-			writerMap = new HashMap<>();
-			metadataMap = new HashMap<>();
-			formatCache = new WeakHashMap<>();
-
-			// HACK: Wait until the FormatService is available from the context
-			// before initializing all the formats. Otherwise, any Format that
-			// has the FormatService as a parameter will fail to inject.
-			// TODO: Fix this to be less nightmarish.
-			while (context().getService(DefaultFormatService.class) == null) {
-				try {
-					Thread.sleep(50);
-				}
-				catch (final InterruptedException exc) {}
-			}
+		formats = new TreeSet<>();
+		formatMap = new HashMap<>();
+		checkerMap = new HashMap<>();
+		parserMap = new HashMap<>();
+		readerMap = new HashMap<>();
+		writerMap = new HashMap<>();
+		metadataMap = new HashMap<>();
 
-			// Initialize format information
-			for (final Format format : pluginService
-					.createInstancesOfType(Format.class))
-			{
-				addFormat(format);
-			}
-
-			initialized = true;
-		});
+		// NB: Formats are only instantiated when first needed, rather than here.
+		// This keeps context creation cheap, and ensures this service is
+		// available from the context by the time any Format that has the
+		// FormatService as a parameter is injected.
 	}
 
 	// -- Private Methods --
@@ -472,6 +493,61 @@ public class DefaultFormatService extends AbstractService implements
 		return formats;
 	}
 
+	private FormatIndex formatIndex() {
+		FormatIndex index = formatIndex;
+		if (index == null) {
+			synchronized (formats()) {
+				index = formatIndex;
+				if (index == null) {
+					index = new FormatIndex(formats);
+					formatIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Checks the given format against a source the same way as
+	 * {@link io.scif.AbstractChecker#isFormat(Location, SCIFIOConfig)}, but
+	 * reading the source through the shared {@link Header}.
+	 */
+	private boolean isFormat(final Format format, final FormatIndex.Entry entry,
+		final boolean suffixMatch, final boolean open, final Header header)
+		throws FormatException
+	{
+		// if file extension ID is insufficient and we can't open the file, give
+		// up
+		if (!entry.suffixSufficient && !open) return false;
+
+		if (entry.suffixNecessary || entry.suffixSufficient) {
+			// if suffix match is required but it doesn't match, failure
+			if (entry.suffixNecessary && !suffixMatch) return false;
+
+			// if suffix matches and that's all we need, green light it
+			if (suffixMatch && entry.suffixSufficient) return true;
+		}
+
+		// suffix matching was inconclusive; we need to analyze the file
+		// contents
+		if (!open || !entry.readsContent) return false;
+		final DataHandle<Location> handle = header.handle();
+		if (handle == null) return false;
+		if (entry.signed && !header.signatureMatches.contains(format)) {
+			return false;
+		}
+		try {
+			// each checker sees the source as if freshly opened
+			handle.seek(0);
+			handle.setOrder(header.order);
+			return format.createChecker().isFormat(handle);
+		}
+		catch (final IOException exc) {
+			logService.debug("", exc);
+			return false;
+		}
+	}
+
 	private Map<Class<?>, Format> formatMap() {
 		checkLock();
 		return formatMap;
@@ -502,45 +578,105 @@ public class DefaultFormatService extends AbstractService implements
 		return metadataMap;
 	}
 
-	private Map<Location, Format> formatCache() {
-		checkLock();
-		if (dirtyFormatCache) {
-			// Double lock so that a cache is only cleared once
-			synchronized (formatCache) {
-				if (dirtyFormatCache) {
-					formatCache.clear();
-					dirtyFormatCache = false;
+	/**
+	 * Helper method that ensures all formats are registered before this
+	 * service's data structures are accessed.
+	 * <p>
+	 * The first thread to get here registers the formats listed in the plugin
+	 * index, and may access the data structures while doing so. Any other thread
+	 * waits until registration is complete.
+	 * </p>
+	 */
+	private void checkLock() {
+		if (loaded.getCount() == 0 || threadLock.get()) return;
+
+		if (loading.compareAndSet(false, true)) {
+			// Allow this thread to bypass the initialization check
+			threadLock.set(true);
+			try {
+				for (final Format format : pluginService.createInstancesOfType(
+					Format.class))
+				{
+					addFormat(format);
 				}
 			}
+			finally {
+				threadLock.set(false);
+				loaded.countDown();
+			}
+			return;
 		}
-		return formatCache;
+
+		boolean interrupted = false;
+		while (loaded.getCount() > 0) {
+			try {
+				loaded.await();
+			}
+			catch (final InterruptedException e) {
+				logService.error("DefaultFormatService: " +
+					"Interrupted while waiting for format initialization.", e);
+				interrupted = true;
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
 	}
 
+	// -- Helper classes --
+
 	/**
-	 * Helper method that checks if one of these is true:
-	 * <ul>
-	 * <li>This thread is given permission to access data structures before
-	 * initialization</li>
-	 * <li>The FormatService is initialized</li>
-	 * </ul>
-	 * If either is true, returns harmlessly. If not, this thread waits for the
-	 * initialization thread to complete.
+	 * A handle on a source shared by all checkers, and the formats whose
+	 * signatures its header matches. The source is opened on first use.
 	 */
-	private void checkLock() {
-		if (!(initialized || threadLock.get())) {
-			synchronized (this) {
-				// Double locked to avoid missing signals
-				while (!(initialized || threadLock.get())) {
-					try {
-						// Limit excessive polling
-						Thread.sleep(100);
-					}
-					catch (final InterruptedException e) {
-						logService.error("DefaultFormatService: " +
-							"Interrupted while waiting for format initialization.", e);
+	private class Header {
+
+		private final Location location;
+
+		private final FormatIndex index;
+
+		private DataHandle<Location> handle;
+
+		private ByteOrder order;
+
+		private Set<Format> signatureMatches;
+
+		/** Whether opening the source has already failed. */
+		private boolean failed;
+
+		private Header(final Location location, final FormatIndex index) {
+			this.location = location;
+			this.index = index;
+		}
+
+		/** Gets the shared handle, or null if the source can't be read. */
+		private DataHandle<Location> handle() {
+			if (handle == null && !failed) {
+				try {
+					handle = dataHandleService.readBuffer(location);
+					if (handle != null) {
+						order = handle.getOrder();
+						final byte[] bytes = new byte[index.getHeaderLength()];
+						signatureMatches = index.matchSignature(bytes, FormatIndex
+							.readHeader(handle, bytes));
 					}
 				}
+				catch (final IOException exc) {
+					logService.debug("", exc);
+					close();
+				}
+				failed = handle == null;
+			}
+			return handle;
+		}
+
+		private void close() {
+			if (handle == null) return;
+			try {
+				handle.close();
+			}
+			catch (final IOException exc) {
+				logService.debug("", exc);
 			}
+			handle = null;
 		}
 	}
 }
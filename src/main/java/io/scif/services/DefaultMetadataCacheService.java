@@ -0,0 +1,378 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.CacheableMetadata;
+import io.scif.Format;
+import io.scif.Metadata;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+import org.scijava.util.VersionUtils;
+
+/**
+ * Default {@link MetadataCacheService} implementation.
+ * <p>
+ * Each entry is stored in a file named after digests of the dataset's path
+ * and of the rest of its key. The file starts with the full key and the
+ * state of the dataset's files, which are checked before the serialized
+ * metadata that follows is restored. Entries are written to a temporary file
+ * and moved into place, so that concurrent readers never see partial entries.
+ * </p>
+ */
+@Plugin(type = Service.class)
+public class DefaultMetadataCacheService extends AbstractService implements
+	MetadataCacheService
+{
+
+	// -- Constants --
+
+	/** Default maximum total size of the cached entries. */
+	public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+	/** System property overriding the default cache directory. */
+	public static final String DIRECTORY_PROPERTY = "scifio.metadata.cache";
+
+	private static final String SUFFIX = ".ser";
+
+	// -- Fields --
+
+	private volatile File directory = defaultDirectory();
+
+	private volatile long maxBytes = DEFAULT_MAX_BYTES;
+
+	// -- MetadataCacheService API Methods --
+
+	@Override
+	public Metadata get(final Location loc, final Format format,
+		final SCIFIOConfig config)
+	{
+		final File source = file(loc);
+		if (source == null || !CacheableMetadata.class.isAssignableFrom(format
+			.getMetadataClass())) return null;
+		final File entry = entryFile(source, format, config);
+		if (!entry.isFile()) return null;
+
+		try (final ObjectInputStream in = new ContextObjectInputStream(
+			new BufferedInputStream(new FileInputStream(entry))))
+		{
+			if (!in.readUTF().equals(key(source, format, config))) return null;
+			final int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				final File file = new File(in.readUTF());
+				final long length = in.readLong();
+				final long modified = in.readLong();
+				if (file.length() != length || file.lastModified() != modified) {
+					log().debug("Cached metadata is stale: " + entry);
+					delete(entry);
+					return null;
+				}
+			}
+			final Metadata meta = (CacheableMetadata) in.readObject();
+			meta.setContext(getContext());
+			entry.setLastModified(System.currentTimeMillis());
+			return meta;
+		}
+		catch (final IOException | ClassNotFoundException | RuntimeException e) {
+			// written by an incompatible version, or corrupt
+			log().debug("Discarding unreadable cached metadata: " + entry, e);
+			delete(entry);
+			return null;
+		}
+	}
+
+	@Override
+	public boolean put(final Location loc, final Metadata meta,
+		final Location[] usedFiles, final SCIFIOConfig config)
+	{
+		final File source = file(loc);
+		if (source == null) return false;
+		if (!(meta instanceof CacheableMetadata)) {
+			log().debug("Metadata of " + loc + " is not cacheable");
+			return false;
+		}
+
+		final File[] files = new File[usedFiles == null ? 1 : usedFiles.length +
+			1];
+		files[0] = source;
+		for (int i = 1; i < files.length; i++) {
+			files[i] = file(usedFiles[i - 1]);
+			if (files[i] == null) return false;
+		}
+
+		final File dir = directory;
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			log().debug("Could not create metadata cache directory: " + dir);
+			return false;
+		}
+		final File entry = entryFile(source, meta.getFormat(), config);
+		File temp = null;
+		try {
+			temp = File.createTempFile("entry", ".tmp", dir);
+			try (final ObjectOutputStream out = new ObjectOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp))))
+			{
+				out.writeUTF(key(source, meta.getFormat(), config));
+				out.writeInt(files.length);
+				for (final File file : files) {
+					out.writeUTF(file.getAbsolutePath());
+					out.writeLong(file.length());
+					out.writeLong(file.lastModified());
+				}
+				out.writeObject(meta);
+			}
+			try {
+				Files.move(temp.toPath(), entry.toPath(),
+					StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (final AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), entry.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (final IOException e) {
+			// typically a NotSerializableException for some field of the metadata
+			log().debug("Could not cache metadata of " + loc, e);
+			if (temp != null) delete(temp);
+			return false;
+		}
+		trim();
+		return true;
+	}
+
+	@Override
+	public void invalidate(final Location loc) {
+		final File source = file(loc);
+		final File[] entries = entries();
+		if (source == null || entries == null) return;
+		final String prefix = digest(source.getAbsolutePath()) + "-";
+		for (final File entry : entries) {
+			if (entry.getName().startsWith(prefix)) delete(entry);
+		}
+	}
+
+	@Override
+	public void clear() {
+		final File[] entries = entries();
+		if (entries == null) return;
+		for (final File entry : entries) {
+			delete(entry);
+		}
+	}
+
+	@Override
+	public File getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public void setDirectory(final File directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	@Override
+	public void setMaxBytes(final long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Invalid cache size: " + maxBytes);
+		}
+		this.maxBytes = maxBytes;
+		trim();
+	}
+
+	// -- Helper methods --
+
+	/** Deletes the least recently used entries until the cache fits. */
+	private synchronized void trim() {
+		final File[] entries = entries();
+		if (entries == null) return;
+		long total = 0;
+		for (final File entry : entries) {
+			total += entry.length();
+		}
+		if (total <= maxBytes) return;
+		Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+		for (final File entry : entries) {
+			if (total <= maxBytes) break;
+			total -= entry.length();
+			delete(entry);
+		}
+	}
+
+	private File[] entries() {
+		return directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+	}
+
+	private File entryFile(final File source, final Format format,
+		final SCIFIOConfig config)
+	{
+		return new File(directory, digest(source.getAbsolutePath()) + "-" +
+			digest(key(source, format, config)) + SUFFIX);
+	}
+
+	/** Everything but the state of the files which determines the metadata. */
+	private static String key(final File source, final Format format,
+		final SCIFIOConfig config)
+	{
+		return source.getAbsolutePath() + "\n" + format.getClass().getName() +
+			"\n" + VersionUtils.getVersion(SCIFIO.class) + "\n" + config
+				.parserGetLevel() + "\n" + config.parserIsFiltered();
+	}
+
+	private static File file(final Location loc) {
+		if (!(loc instanceof FileLocation)) return null;
+		final File file = ((FileLocation) loc).getFile();
+		return file.isFile() ? file : null;
+	}
+
+	private static String digest(final String s) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-1").digest(s.getBytes(
+				StandardCharsets.UTF_8));
+			final StringBuilder sb = new StringBuilder();
+			for (final byte b : hash) {
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		}
+		catch (final NoSuchAlgorithmException e) {
+			// every Java platform supports SHA-1
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void delete(final File file) {
+		if (!file.delete() && file.exists()) {
+			log().debug("Could not delete " + file);
+		}
+	}
+
+	private static File defaultDirectory() {
+		final String dir = System.getProperty(DIRECTORY_PROPERTY);
+		if (dir != null) return new File(dir);
+		return new File(System.getProperty("user.home"), ".scifio" +
+			File.separator + "metadata-cache");
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Resolves classes through the context class loader as well, so that
+	 * metadata of formats from other libraries can be restored.
+	 * <p>
+	 * Only the classes metadata is made of may be deserialized: those of the
+	 * packages in {@link #ALLOWED_PACKAGES}, and {@link CacheableMetadata}
+	 * implementations. Anything else found in the cache directory is rejected
+	 * before it is instantiated.
+	 * </p>
+	 */
+	private static class ContextObjectInputStream extends ObjectInputStream {
+
+		private static final String[] ALLOWED_PACKAGES = { "java.lang.",
+			"java.util.", "java.math.", "io.scif.", "net.imagej.axis.",
+			"net.imglib2." };
+
+		private ContextObjectInputStream(final InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc)
+			throws IOException, ClassNotFoundException
+		{
+			Class<?> c;
+			try {
+				c = super.resolveClass(desc);
+			}
+			catch (final ClassNotFoundException e) {
+				final ClassLoader loader = Thread.currentThread()
+					.getContextClassLoader();
+				if (loader == null) throw e;
+				c = Class.forName(desc.getName(), false, loader);
+			}
+			if (!isAllowed(c)) {
+				throw new InvalidClassException(desc.getName(),
+					"not allowed in the metadata cache");
+			}
+			return c;
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(final String[] interfaces)
+			throws IOException, ClassNotFoundException
+		{
+			throw new InvalidClassException("Proxy classes are not allowed in " +
+				"the metadata cache");
+		}
+
+		private static boolean isAllowed(final Class<?> c) {
+			Class<?> component = c;
+			while (component.isArray()) {
+				component = component.getComponentType();
+			}
+			if (component.isPrimitive()) return true;
+			if (CacheableMetadata.class.isAssignableFrom(component)) return true;
+			final String name = component.getName();
+			for (final String prefix : ALLOWED_PACKAGES) {
+				if (name.startsWith(prefix)) return true;
+			}
+			return false;
+		}
+	}
+}
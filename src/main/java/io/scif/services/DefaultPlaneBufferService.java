@@ -0,0 +1,140 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default {@link PlaneBufferService} implementation. Buffers of each length are
+ * kept in their own lock-free stack, so the most recently released buffer is
+ * the first to be reused. When the pool is full, buffers of other lengths are
+ * discarded to make room for newly released ones.
+ */
+@Plugin(type = Service.class)
+public class DefaultPlaneBufferService extends AbstractService implements
+	PlaneBufferService
+{
+
+	// -- Fields --
+
+	/** Pooled buffers, by length. */
+	private final Map<Integer, Deque<byte[]>> buckets =
+		new ConcurrentHashMap<>();
+
+	private final AtomicLong pooledBytes = new AtomicLong();
+
+	private volatile long maxBytes = Runtime.getRuntime().maxMemory() / 16;
+
+	// -- PlaneBufferService API --
+
+	@Override
+	public byte[] acquire(final int length) {
+		final Deque<byte[]> bucket = buckets.get(length);
+		final byte[] buf = bucket == null ? null : bucket.pollFirst();
+		if (buf == null) return new byte[length];
+		pooledBytes.addAndGet(-length);
+		Arrays.fill(buf, (byte) 0);
+		return buf;
+	}
+
+	@Override
+	public void release(final byte[] buf) {
+		if (buf == null || buf.length == 0 || buf.length > maxBytes) return;
+		if (pooledBytes.addAndGet(buf.length) > maxBytes) {
+			evict(buf.length);
+			if (pooledBytes.get() > maxBytes) {
+				pooledBytes.addAndGet(-buf.length);
+				return;
+			}
+		}
+		buckets.computeIfAbsent(buf.length, length -> new ConcurrentLinkedDeque<>())
+			.offerFirst(buf);
+	}
+
+	@Override
+	public long getPooledBytes() {
+		return pooledBytes.get();
+	}
+
+	@Override
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	@Override
+	public void setMaxBytes(final long maxBytes) {
+		this.maxBytes = maxBytes;
+		evict(-1);
+	}
+
+	@Override
+	public void clear() {
+		for (final Deque<byte[]> bucket : buckets.values()) {
+			byte[] buf;
+			while ((buf = bucket.pollFirst()) != null) {
+				pooledBytes.addAndGet(-buf.length);
+			}
+		}
+	}
+
+	// -- Service API --
+
+	@Override
+	public void dispose() {
+		clear();
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Discards pooled buffers, other than those of the given length, until the
+	 * pool fits within {@link #maxBytes}.
+	 */
+	private void evict(final int keepLength) {
+		for (final Map.Entry<Integer, Deque<byte[]>> entry : buckets.entrySet()) {
+			if (entry.getKey() == keepLength) continue;
+			while (pooledBytes.get() > maxBytes) {
+				final byte[] buf = entry.getValue().pollLast();
+				if (buf == null) break;
+				pooledBytes.addAndGet(-buf.length);
+			}
+			if (pooledBytes.get() <= maxBytes) return;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.FormatException;
+import io.scif.ReaderPool;
+import io.scif.config.SCIFIOConfig;
+
+import java.io.IOException;
+
+import org.scijava.io.location.Location;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default {@link ReaderPoolService} implementation.
+ */
+@Plugin(type = Service.class)
+public class DefaultReaderPoolService extends AbstractService implements
+	ReaderPoolService
+{
+
+	// -- Parameters --
+
+	@Parameter
+	private InitializeService initializeService;
+
+	// -- Fields --
+
+	private volatile int defaultMaxReaders = Runtime.getRuntime()
+		.availableProcessors();
+
+	// -- ReaderPoolService API Methods --
+
+	@Override
+	public ReaderPool createPool(final Location id) throws FormatException,
+		IOException
+	{
+		return createPool(id, new SCIFIOConfig().checkerSetOpen(false));
+	}
+
+	@Override
+	public ReaderPool createPool(final Location id, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		return createPool(id, config, defaultMaxReaders);
+	}
+
+	@Override
+	public ReaderPool createPool(final Location id, final SCIFIOConfig config,
+		final int maxReaders) throws FormatException, IOException
+	{
+		return new ReaderPool(initializeService.parseMetadata(id, config), config,
+			maxReaders);
+	}
+
+	@Override
+	public int getDefaultMaxReaders() {
+		return defaultMaxReaders;
+	}
+
+	@Override
+	public void setDefaultMaxReaders(final int maxReaders) {
+		if (maxReaders < 1) {
+			throw new IllegalArgumentException("Invalid reader count: " +
+				maxReaders);
+		}
+		defaultMaxReaders = maxReaders;
+	}
+}
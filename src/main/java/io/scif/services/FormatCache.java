@@ -0,0 +1,256 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.Format;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Bounded, concurrent cache of the {@link Format} detected for each
+ * {@link Location}, used by {@link FormatService#getFormat(Location)}.
+ * <p>
+ * Lookups do not lock. Entries are dropped once they are older than the
+ * {@link #getTimeToLive() time to live}, or, for {@link FileLocation}s, once
+ * the length or modification time of the file differs from when the entry was
+ * stored. When more than {@link #getMaxSize()} entries are stored, the least
+ * recently used ones are evicted.
+ * </p>
+ */
+public class FormatCache {
+
+	// -- Constants --
+
+	/** Default maximum number of cached entries. */
+	public static final int DEFAULT_MAX_SIZE = 4096;
+
+	/** Default time to live of an entry, in milliseconds. */
+	public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(
+		10);
+
+	// -- Fields --
+
+	private final Map<Location, Entry> entries = new ConcurrentHashMap<>();
+
+	private volatile int maxSize = DEFAULT_MAX_SIZE;
+
+	private volatile long timeToLive = TimeUnit.MILLISECONDS.toNanos(
+		DEFAULT_TIME_TO_LIVE);
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder invalidations = new LongAdder();
+
+	// -- FormatCache methods --
+
+	/**
+	 * Gets the cached format of the given location.
+	 *
+	 * @return the cached format, or null if there is no valid entry.
+	 */
+	public Format get(final Location location) {
+		final Entry entry = entries.get(location);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		final long now = System.nanoTime();
+		if (now - entry.created > timeToLive || !entry.isValid()) {
+			if (entries.remove(location, entry)) invalidations.increment();
+			misses.increment();
+			return null;
+		}
+		entry.lastUsed = now;
+		hits.increment();
+		return entry.format;
+	}
+
+	/** Caches the format of the given location. */
+	public void put(final Location location, final Format format) {
+		entries.put(location, new Entry(location, format));
+		if (entries.size() > maxSize) evict();
+	}
+
+	/** Removes the cached format of the given location, if any. */
+	public void invalidate(final Location location) {
+		if (entries.remove(location) != null) invalidations.increment();
+	}
+
+	/** Removes all entries. */
+	public void clear() {
+		entries.clear();
+	}
+
+	/** Gets the number of cached entries. */
+	public int size() {
+		return entries.size();
+	}
+
+	/** Gets the maximum number of cached entries. */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** Sets the maximum number of cached entries. */
+	public void setMaxSize(final int maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		if (entries.size() > maxSize) evict();
+	}
+
+	/** Gets the time to live of an entry, in milliseconds. */
+	public long getTimeToLive() {
+		return TimeUnit.NANOSECONDS.toMillis(timeToLive);
+	}
+
+	/** Sets the time to live of an entry, in milliseconds. */
+	public void setTimeToLive(final long timeToLive) {
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("Invalid time to live: " +
+				timeToLive);
+		}
+		this.timeToLive = TimeUnit.MILLISECONDS.toNanos(timeToLive);
+	}
+
+	/** Gets the number of lookups answered from the cache. */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/** Gets the number of lookups that found no valid entry. */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/** Gets the number of entries evicted to stay within the maximum size. */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Gets the number of entries dropped because they expired, their file
+	 * changed, or they were {@link #invalidate invalidated}.
+	 */
+	public long getInvalidationCount() {
+		return invalidations.sum();
+	}
+
+	/** Gets the fraction of lookups answered from the cache. */
+	public double getHitRate() {
+		final long h = getHitCount();
+		final long total = h + getMissCount();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	/** Resets all statistics to zero. */
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+		invalidations.reset();
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Evicts the least recently used entries, down to 90% of the maximum size
+	 * so that the scan is not repeated on every subsequent {@link #put}.
+	 */
+	private synchronized void evict() {
+		final int excess = entries.size() - maxSize;
+		if (excess <= 0) return;
+		final int count = Math.min(entries.size(), excess + maxSize / 10);
+
+		final List<Entry> candidates = new ArrayList<>(entries.values());
+		// sort on a snapshot, as lookups keep updating lastUsed
+		for (final Entry entry : candidates) {
+			entry.stamp = entry.lastUsed;
+		}
+		candidates.sort(Comparator.comparingLong(entry -> entry.stamp));
+		for (int i = 0; i < count; i++) {
+			final Entry entry = candidates.get(i);
+			if (entries.remove(entry.location, entry)) evictions.increment();
+		}
+	}
+
+	// -- Helper classes --
+
+	private static class Entry {
+
+		private final Location location;
+
+		private final Format format;
+
+		private final long created = System.nanoTime();
+
+		/** Length and modification time of the file, or -1 if not a file. */
+		private final long length, lastModified;
+
+		private volatile long lastUsed = created;
+
+		/** Snapshot of {@link #lastUsed} taken for eviction. */
+		private long stamp;
+
+		private Entry(final Location location, final Format format) {
+			this.location = location;
+			this.format = format;
+			final File file = file(location);
+			length = file == null ? -1 : file.length();
+			lastModified = file == null ? -1 : file.lastModified();
+		}
+
+		private boolean isValid() {
+			final File file = file(location);
+			return file == null || file.length() == length && file
+				.lastModified() == lastModified;
+		}
+
+		private static File file(final Location location) {
+			return location instanceof FileLocation ? ((FileLocation) location)
+				.getFile() : null;
+		}
+	}
+}
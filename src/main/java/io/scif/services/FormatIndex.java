@@ -0,0 +1,268 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.AbstractChecker;
+import io.scif.Checker;
+import io.scif.Format;
+import io.scif.FormatException;
+import io.scif.config.SCIFIOConfig;
+import io.scif.util.FormatTools;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+
+/**
+ * Index of the suffixes and header signatures of a set of {@link Format}s,
+ * used by {@link DefaultFormatService} to narrow format detection down to the
+ * formats that can possibly match, before running their {@link Checker}s.
+ * <p>
+ * Suffixes are kept in a map from suffix to formats, and
+ * {@link Checker#getSignatures() signatures} in a byte trie, so both can be
+ * looked up once per source rather than once per format.
+ * </p>
+ */
+final class FormatIndex {
+
+	// -- Fields --
+
+	private final Map<Format, Entry> entries = new IdentityHashMap<>();
+
+	private final Map<String, List<Format>> suffixes = new HashMap<>();
+
+	private final Node signatures = new Node();
+
+	/** Length of the longest signature. */
+	private int headerLength;
+
+	// -- Constructor --
+
+	FormatIndex(final Collection<Format> formats) {
+		for (final Format format : formats) {
+			final Checker checker;
+			try {
+				checker = format.createChecker();
+			}
+			catch (final FormatException e) {
+				// not indexed; such formats are always checked in full
+				continue;
+			}
+			final Entry entry = new Entry(checker);
+			entries.put(format, entry);
+
+			for (final String suffix : format.getSuffixes()) {
+				suffixes.computeIfAbsent(suffix, s -> new ArrayList<>()).add(format);
+			}
+			if (entry.signed) {
+				for (final byte[] signature : checker.getSignatures()) {
+					signatures.add(signature, 0, format);
+					headerLength = Math.max(headerLength, signature.length);
+				}
+			}
+		}
+	}
+
+	// -- FormatIndex methods --
+
+	/**
+	 * Gets the index entry of the given format, or null if it is not indexed.
+	 */
+	Entry get(final Format format) {
+		return entries.get(format);
+	}
+
+	/**
+	 * Gets the number of leading bytes of a source needed to match it against
+	 * all signatures.
+	 */
+	int getHeaderLength() {
+		return headerLength;
+	}
+
+	/**
+	 * Gets the formats one of whose suffixes the given name ends with, as
+	 * matched by {@link FormatTools#checkSuffix(String, String[])}.
+	 */
+	Set<Format> matchSuffix(final String name) {
+		final Set<Format> matches = newFormatSet();
+		final String lname = name.toLowerCase();
+		for (int dot = lname.indexOf('.'); dot >= 0; dot = lname.indexOf('.',
+			dot + 1))
+		{
+			final String suffix = lname.substring(dot + 1);
+			addAll(matches, suffixes.get(suffix));
+			for (final String compression : FormatTools.COMPRESSION_SUFFIXES) {
+				final String s = "." + compression;
+				if (suffix.endsWith(s)) {
+					addAll(matches, suffixes.get(suffix.substring(0, suffix.length() - s
+						.length())));
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Gets the formats one of whose signatures the given header starts with.
+	 *
+	 * @param header the leading bytes of a source.
+	 * @param length the number of valid bytes in {@code header}.
+	 */
+	Set<Format> matchSignature(final byte[] header, final int length) {
+		final Set<Format> matches = newFormatSet();
+		Node node = signatures;
+		for (int i = 0; node != null; i++) {
+			addAll(matches, node.formats);
+			if (i == length || node.children == null) break;
+			node = node.children[header[i] & 0xff];
+		}
+		return matches;
+	}
+
+	/**
+	 * Reads the first {@link #getHeaderLength()} bytes of the given handle, and
+	 * seeks it back to its start.
+	 *
+	 * @return the number of bytes read.
+	 */
+	static int readHeader(final DataHandle<Location> handle,
+		final byte[] header) throws IOException
+	{
+		handle.seek(0);
+		int length = 0;
+		while (length < header.length) {
+			final int r = handle.read(header, length, header.length - length);
+			if (r <= 0) break;
+			length += r;
+		}
+		handle.seek(0);
+		return length;
+	}
+
+	// -- Helper methods --
+
+	private static Set<Format> newFormatSet() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	private static void addAll(final Set<Format> set,
+		final List<Format> formats)
+	{
+		if (formats != null) set.addAll(formats);
+	}
+
+	// -- Helper classes --
+
+	/** What is known about the {@link Checker} of an indexed format. */
+	static final class Entry {
+
+		/**
+		 * Whether the checker has its own
+		 * {@link Checker#isFormat(Location, SCIFIOConfig)} logic, which must be
+		 * called as is.
+		 */
+		final boolean custom;
+
+		final boolean suffixNecessary;
+
+		final boolean suffixSufficient;
+
+		/**
+		 * Whether {@link Checker#isFormat(DataHandle)} can ever succeed; false if
+		 * the checker inherits the default from {@link AbstractChecker}.
+		 */
+		final boolean readsContent;
+
+		/**
+		 * Whether the checker's signatures describe every source its
+		 * {@link Checker#isFormat(DataHandle)} accepts.
+		 */
+		final boolean signed;
+
+		private Entry(final Checker checker) {
+			final Class<?> c = checker.getClass();
+			final Class<?> locationCheck = declarer(c, "isFormat", Location.class,
+				SCIFIOConfig.class);
+			final Class<?> handleCheck = declarer(c, "isFormat", DataHandle.class);
+			final Class<?> signatureSource = declarer(c, "getSignatures");
+
+			custom = locationCheck != AbstractChecker.class;
+			suffixNecessary = checker.suffixNecessary();
+			suffixSufficient = checker.suffixSufficient();
+			readsContent = handleCheck != AbstractChecker.class;
+			// signatures declared above an overridden isFormat may not cover it
+			signed = handleCheck != null && signatureSource != null &&
+				handleCheck.isAssignableFrom(signatureSource) && checker
+					.getSignatures() != null;
+		}
+
+		private static Class<?> declarer(final Class<?> c, final String name,
+			final Class<?>... types)
+		{
+			try {
+				return c.getMethod(name, types).getDeclaringClass();
+			}
+			catch (final NoSuchMethodException e) {
+				return null;
+			}
+		}
+	}
+
+	/** Node of the signature trie. */
+	private static final class Node {
+
+		private Node[] children;
+
+		/** Formats with a signature ending at this node. */
+		private List<Format> formats;
+
+		private void add(final byte[] signature, final int i, final Format format) {
+			if (i == signature.length) {
+				if (formats == null) formats = new ArrayList<>();
+				formats.add(format);
+				return;
+			}
+			if (children == null) children = new Node[256];
+			final int b = signature[i] & 0xff;
+			if (children[b] == null) children[b] = new Node();
+			children[b].add(signature, i + 1, format);
+		}
+	}
+}
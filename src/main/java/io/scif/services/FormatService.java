@@ -285,6 +285,12 @@ public interface FormatService extends SCIFIOService {
 	List<Format> getFormatList(DataHandle<Location> source, SCIFIOConfig config,
 		boolean greedy) throws FormatException;
 
+	/**
+	 * Gets the cache of formats detected by {@link #getFormat(Location)}, e.g.
+	 * to inspect its statistics or adjust its bounds.
+	 */
+	FormatCache getFormatCache();
+
 	/**
 	 * Returns a list of all Formats within this context.
 	 */
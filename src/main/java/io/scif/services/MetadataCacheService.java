@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.Format;
+import io.scif.Metadata;
+import io.scif.SCIFIOService;
+import io.scif.config.SCIFIOConfig;
+
+import java.io.File;
+
+import org.scijava.io.location.Location;
+
+/**
+ * A persistent cache of parsed {@link Metadata}, so that a dataset which has
+ * not changed since it was last opened need not be parsed again, even in a
+ * later session.
+ * <p>
+ * Metadata is serialized to files in {@link #getDirectory()}. Each entry is
+ * keyed by the dataset's location and format, the parsing configuration and
+ * the SCIFIO version, and records the size and modification time of every
+ * file the dataset uses; an entry is only restored while all of these still
+ * match. Entries are evicted, least recently used first, once the directory
+ * exceeds {@link #getMaxBytes()}.
+ * </p>
+ * <p>
+ * Only datasets on the local file system are cached, and only if their
+ * format opts in by implementing {@link io.scif.CacheableMetadata}, and the
+ * metadata is fully {@link java.io.Serializable}; anything else is silently
+ * parsed as usual. All methods are thread-safe.
+ * </p>
+ *
+ * @see SCIFIOConfig#parserSetMemoized(boolean)
+ */
+public interface MetadataCacheService extends SCIFIOService {
+
+	/**
+	 * Restores the cached metadata of the given dataset.
+	 *
+	 * @param loc the dataset's location.
+	 * @param format the format the dataset is read with.
+	 * @param config the configuration the dataset is parsed with.
+	 * @return The restored metadata, without a source, or null if no valid
+	 *         entry exists.
+	 */
+	Metadata get(Location loc, Format format, SCIFIOConfig config);
+
+	/**
+	 * Caches the given freshly parsed metadata.
+	 *
+	 * @param loc the dataset's location.
+	 * @param meta the parsed metadata.
+	 * @param usedFiles all files making up the dataset, whose changes
+	 *          invalidate the entry.
+	 * @param config the configuration the dataset was parsed with.
+	 * @return True if the metadata was cached.
+	 */
+	boolean put(Location loc, Metadata meta, Location[] usedFiles,
+		SCIFIOConfig config);
+
+	/** Discards every cached entry for the given dataset. */
+	void invalidate(Location loc);
+
+	/** Discards all cached entries. */
+	void clear();
+
+	/** Returns the directory holding the cached entries. */
+	File getDirectory();
+
+	/** Sets the directory holding the cached entries. */
+	void setDirectory(File directory);
+
+	/** Returns the maximum total size of the cached entries, in bytes. */
+	long getMaxBytes();
+
+	/** Sets the maximum total size of the cached entries, in bytes. */
+	void setMaxBytes(long maxBytes);
+}
@@ -0,0 +1,74 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.Plane;
+import io.scif.SCIFIOService;
+
+/**
+ * A pool of {@code byte[]} buffers for {@link Plane}s, so that repeated plane
+ * reads can reuse memory rather than allocating a new buffer every time.
+ * <p>
+ * Buffers are pooled by their exact length, up to a total of
+ * {@link #getMaxBytes()} bytes. All methods are thread-safe.
+ * </p>
+ * <p>
+ * A buffer must not be used after it has been released: it may be handed out
+ * again by the next {@link #acquire(int)} call.
+ * </p>
+ *
+ * @see io.scif.config.SCIFIOConfig#readerSetPooledPlanes(boolean)
+ */
+public interface PlaneBufferService extends SCIFIOService {
+
+	/**
+	 * Returns a zeroed buffer of the given length, reusing a pooled buffer if
+	 * one is available.
+	 */
+	byte[] acquire(int length);
+
+	/**
+	 * Returns the given buffer to the pool. The buffer is discarded if the pool
+	 * is full.
+	 */
+	void release(byte[] buf);
+
+	/** Returns the total size of pooled buffers, in bytes. */
+	long getPooledBytes();
+
+	/** Returns the maximum total size of pooled buffers, in bytes. */
+	long getMaxBytes();
+
+	/** Sets the maximum total size of pooled buffers, in bytes. */
+	void setMaxBytes(long maxBytes);
+
+	/** Discards all pooled buffers. */
+	void clear();
+}
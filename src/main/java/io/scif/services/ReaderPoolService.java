@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import io.scif.FormatException;
+import io.scif.ReaderPool;
+import io.scif.SCIFIOService;
+import io.scif.config.SCIFIOConfig;
+
+import java.io.IOException;
+
+import org.scijava.io.location.Location;
+
+/**
+ * Creates {@link ReaderPool}s, for reading a dataset from several threads at
+ * once.
+ *
+ * @see ReaderPool
+ */
+public interface ReaderPoolService extends SCIFIOService {
+
+	/**
+	 * See {@link #createPool(Location, SCIFIOConfig, int)}. Uses a default
+	 * configuration and {@link #getDefaultMaxReaders()} readers.
+	 */
+	ReaderPool createPool(Location id) throws FormatException, IOException;
+
+	/**
+	 * See {@link #createPool(Location, SCIFIOConfig, int)}. Uses
+	 * {@link #getDefaultMaxReaders()} readers.
+	 */
+	ReaderPool createPool(Location id, SCIFIOConfig config)
+		throws FormatException, IOException;
+
+	/**
+	 * Parses the given dataset and creates a pool of readers for it.
+	 *
+	 * @param id the dataset to read.
+	 * @param config configuration used for parsing and opening readers.
+	 * @param maxReaders the maximum number of readers, and hence open handles,
+	 *          at any one time.
+	 * @return A pool of readers for the dataset. The caller is responsible for
+	 *         closing it.
+	 */
+	ReaderPool createPool(Location id, SCIFIOConfig config, int maxReaders)
+		throws FormatException, IOException;
+
+	/** Returns the number of readers used when none is specified. */
+	int getDefaultMaxReaders();
+
+	/** Sets the number of readers used when none is specified. */
+	void setDefaultMaxReaders(int maxReaders);
+}
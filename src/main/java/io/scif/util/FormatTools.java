@@ -725,6 +725,33 @@ public final class FormatTools {
 		}
 	}
 
+	/**
+	 * Checks that a buffer can hold {@code planeCount} planes with the given
+	 * bounds, as used by {@link Reader#openPlanes}.
+	 *
+	 * @param buf the buffer to check, or null to allocate a new buffer.
+	 * @return {@code buf}, or a newly allocated buffer if it was null.
+	 * @throws FormatException if the buffer is too small, or if the planes
+	 *           cannot be held in a single array.
+	 */
+	public static byte[] checkPlanesBuffer(final Metadata m,
+		final int imageIndex, final int planeCount, final Interval bounds,
+		final byte[] buf) throws FormatException
+	{
+		checkTileSize(m, bounds, imageIndex);
+		final long size = planeCount * getPlaneSize(m, bounds, imageIndex);
+		if (size > Integer.MAX_VALUE) {
+			throw new FormatException("Requested planes too large (" + size +
+				" bytes). Only 2GB of data can be extracted at one time.");
+		}
+		if (buf == null) return new byte[(int) size];
+		if (size > buf.length) {
+			throw new FormatException("Buffer too small (got " + buf.length +
+				", expected " + size + ").");
+		}
+		return buf;
+	}
+
 	/**
 	 * Returns true if the given DataHandle contains at least 'len' bytes.
 	 */
@@ -0,0 +1,324 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import io.scif.FormatException;
+import io.scif.ImageMetadata;
+import io.scif.Metadata;
+
+import java.util.Arrays;
+
+import net.imagej.axis.AxisType;
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+
+/**
+ * Describes an N-dimensional region of an image, as read by
+ * {@link io.scif.Reader#openRegion}, and how its pixels are laid out in a
+ * single buffer.
+ * <p>
+ * The region's bounds are given in the image's native axis order, that of
+ * {@link ImageMetadata#getAxes()}. In the target buffer the axes may be
+ * reordered: the requested axes come first (varying fastest), followed by any
+ * remaining axes in native order.
+ * </p>
+ * <p>
+ * Pixels are transferred in <em>blocks</em>: dense sub-regions spanning the
+ * first {@code blockAxes} native axes of the region (for example, one plane
+ * when {@code blockAxes} is the planar axis count). Blocks are indexed in
+ * raster order over the remaining axes.
+ * </p>
+ */
+public final class Hyperslab {
+
+	// -- Fields --
+
+	private final int bytesPerPixel;
+
+	private final long[] lengths;
+
+	private final long[] min;
+
+	private final long[] dims;
+
+	private final int planarAxisCount;
+
+	/** Byte stride of each native axis in the target buffer. */
+	private final long[] strides;
+
+	private final boolean nativeOrder;
+
+	private final long size;
+
+	// -- Constructor --
+
+	/**
+	 * @param m the metadata of the image to read from.
+	 * @param imageIndex the image index within the dataset.
+	 * @param bounds the region to read, in native axis order.
+	 * @param order the axis order of the target buffer; axes which are not
+	 *          listed follow in native order.
+	 * @throws FormatException if the bounds do not fit within the image.
+	 * @throws IllegalArgumentException if {@code order} names an axis twice or
+	 *           an axis the image does not have.
+	 */
+	public Hyperslab(final Metadata m, final int imageIndex,
+		final Interval bounds, final AxisType... order) throws FormatException
+	{
+		final ImageMetadata iMeta = m.get(imageIndex);
+		lengths = iMeta.getAxesLengths();
+		final int n = lengths.length;
+		if (bounds.numDimensions() != n) {
+			throw new FormatException("Invalid region: " + bounds.numDimensions() +
+				" dimensions given, but image has " + n + " axes");
+		}
+
+		bytesPerPixel = iMeta.getBitsPerPixel() / 8;
+		planarAxisCount = iMeta.getPlanarAxisCount();
+		min = new long[n];
+		dims = new long[n];
+		for (int d = 0; d < n; d++) {
+			min[d] = bounds.min(d);
+			dims[d] = bounds.dimension(d);
+			if (min[d] < 0 || bounds.max(d) >= lengths[d]) {
+				throw new FormatException("Invalid region: axis=" + iMeta.getAxis(d)
+					.type() + ", start=" + min[d] + ", end=" + bounds.max(d) +
+					", length in metadata=" + lengths[d]);
+			}
+		}
+
+		// requested axes first, then the remaining axes in native order
+		final int[] target = new int[n];
+		final boolean[] used = new boolean[n];
+		int t = 0;
+		if (order != null) {
+			for (final AxisType type : order) {
+				final int d = iMeta.getAxisIndex(type);
+				if (d < 0 || used[d]) {
+					throw new IllegalArgumentException("Invalid axis order: " + Arrays
+						.toString(order));
+				}
+				used[d] = true;
+				target[t++] = d;
+			}
+		}
+		for (int d = 0; d < n; d++) {
+			if (!used[d]) target[t++] = d;
+		}
+
+		strides = new long[n];
+		long stride = bytesPerPixel;
+		boolean identity = true;
+		for (int i = 0; i < n; i++) {
+			strides[target[i]] = stride;
+			stride *= dims[target[i]];
+			identity &= target[i] == i;
+		}
+		nativeOrder = identity;
+		size = stride;
+	}
+
+	// -- Hyperslab methods --
+
+	/** Returns the size of the region in bytes. */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the target buffer uses the image's native axis order, in
+	 * which case consecutive blocks are stored back to back.
+	 */
+	public boolean isNativeOrder() {
+		return nativeOrder;
+	}
+
+	/** Returns the bounds of the region's planar axes. */
+	public Interval getPlanarBounds() {
+		final long[] planarMin = Arrays.copyOf(min, planarAxisCount);
+		final long[] planarMax = new long[planarAxisCount];
+		for (int d = 0; d < planarAxisCount; d++) {
+			planarMax[d] = min[d] + dims[d] - 1;
+		}
+		return new FinalInterval(planarMin, planarMax);
+	}
+
+	/**
+	 * Returns the indices of the planes intersecting the region, in block order
+	 * (i.e. plane {@code i} of the result is block {@code i} when
+	 * {@code blockAxes} is the planar axis count).
+	 */
+	public long[] getPlaneIndices() {
+		final int n = dims.length;
+		final long[] planeLengths = Arrays.copyOfRange(lengths, planarAxisCount,
+			n);
+		final long[] pos = new long[n - planarAxisCount];
+		final long[] planeIndices = new long[(int) getBlockCount(planarAxisCount)];
+		for (int i = 0; i < planeIndices.length; i++) {
+			long rem = i;
+			for (int d = planarAxisCount; d < n; d++) {
+				pos[d - planarAxisCount] = min[d] + rem % dims[d];
+				rem /= dims[d];
+			}
+			planeIndices[i] = FormatTools.positionToRaster(planeLengths, pos);
+		}
+		return planeIndices;
+	}
+
+	/**
+	 * Returns the largest number of leading axes whose blocks are contiguous in
+	 * the image's native layout: all leading axes which the region fully
+	 * covers, plus the first one it does not.
+	 */
+	public int getContiguousAxes() {
+		int d = 0;
+		while (d < dims.length && min[d] == 0 && dims[d] == lengths[d]) {
+			d++;
+		}
+		return Math.min(d + 1, dims.length);
+	}
+
+	/** Returns the number of blocks spanning {@code blockAxes} axes. */
+	public long getBlockCount(final int blockAxes) {
+		long count = 1;
+		for (int d = blockAxes; d < dims.length; d++) {
+			count *= dims[d];
+		}
+		return count;
+	}
+
+	/** Returns the size in bytes of a block spanning {@code blockAxes} axes. */
+	public long getBlockSize(final int blockAxes) {
+		long blockSize = bytesPerPixel;
+		for (int d = 0; d < blockAxes; d++) {
+			blockSize *= dims[d];
+		}
+		return blockSize;
+	}
+
+	/**
+	 * Returns the byte offset of a block within the whole image, assuming the
+	 * image is stored uncompressed in native axis order.
+	 *
+	 * @param blockAxes the number of axes spanned by each block.
+	 * @param index the index of the block.
+	 */
+	public long getSourceOffset(final int blockAxes, final long index) {
+		long offset = 0;
+		long stride = bytesPerPixel;
+		long rem = index;
+		for (int d = 0; d < dims.length; d++) {
+			long pos = min[d];
+			if (d >= blockAxes) {
+				pos += rem % dims[d];
+				rem /= dims[d];
+			}
+			offset += pos * stride;
+			stride *= lengths[d];
+		}
+		return offset;
+	}
+
+	/**
+	 * Checks that a buffer can hold the region.
+	 *
+	 * @param buf the buffer to check, or null to allocate a new buffer.
+	 * @return {@code buf}, or a newly allocated buffer if it was null.
+	 * @throws FormatException if the buffer is too small, or if the region
+	 *           cannot be held in a single array.
+	 */
+	public byte[] checkBuffer(final byte[] buf) throws FormatException {
+		if (size > Integer.MAX_VALUE) {
+			throw new FormatException("Requested region too large (" + size +
+				" bytes). Only 2GB of data can be extracted at one time.");
+		}
+		if (buf == null) return new byte[(int) size];
+		if (size > buf.length) {
+			throw new FormatException("Buffer too small (got " + buf.length +
+				", expected " + size + ").");
+		}
+		return buf;
+	}
+
+	/**
+	 * Copies one block into its place in the target buffer.
+	 *
+	 * @param src the block's pixels, in native axis order.
+	 * @param srcOffset offset of the block within {@code src}.
+	 * @param blockAxes the number of axes spanned by the block.
+	 * @param index the index of the block.
+	 * @param dst the target buffer.
+	 */
+	public void copyBlock(final byte[] src, final int srcOffset,
+		final int blockAxes, final long index, final byte[] dst)
+	{
+		long dstOffset = 0;
+		long rem = index;
+		for (int d = blockAxes; d < dims.length; d++) {
+			dstOffset += rem % dims[d] * strides[d];
+			rem /= dims[d];
+		}
+		if (nativeOrder) {
+			System.arraycopy(src, srcOffset, dst, (int) dstOffset,
+				(int) getBlockSize(blockAxes));
+			return;
+		}
+
+		// copy the block one row of its first axis at a time
+		final int rowLength = blockAxes == 0 ? 1 : (int) dims[0];
+		final int rowBytes = rowLength * bytesPerPixel;
+		final boolean contiguousRows = blockAxes == 0 ||
+			strides[0] == bytesPerPixel;
+		long rowCount = 1;
+		for (int d = 1; d < blockAxes; d++) {
+			rowCount *= dims[d];
+		}
+		int s = srcOffset;
+		for (long r = 0; r < rowCount; r++) {
+			long rowOffset = dstOffset;
+			long q = r;
+			for (int d = 1; d < blockAxes; d++) {
+				rowOffset += q % dims[d] * strides[d];
+				q /= dims[d];
+			}
+			if (contiguousRows) {
+				System.arraycopy(src, s, dst, (int) rowOffset, rowBytes);
+				s += rowBytes;
+			}
+			else {
+				for (int x = 0; x < rowLength; x++) {
+					System.arraycopy(src, s, dst, (int) (rowOffset + x * strides[0]),
+						bytesPerPixel);
+					s += bytesPerPixel;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import java.io.IOException;
+
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.location.Location;
+
+/**
+ * Reads a box-shaped region of an uncompressed, strided pixel array.
+ * <p>
+ * Rather than issuing one seek and one read per row, the byte ranges needed
+ * are planned up front: ranges which are adjacent in the source are merged
+ * into runs, and runs separated by small gaps are coalesced into a single
+ * read into a scratch buffer, from which the runs are then scattered into the
+ * destination.
+ * </p>
+ * <p>
+ * The destination is densely packed in the same axis order as the source.
+ * </p>
+ */
+public final class StridedRegionReader {
+
+	// -- Constants --
+
+	/** Largest gap between two runs which is read through rather than skipped. */
+	public static final int MAX_GAP = 64 * 1024;
+
+	/** Largest span covered by a single coalesced read. */
+	public static final int MAX_READ = 4 * 1024 * 1024;
+
+	// -- Fields --
+
+	private final long[] strides;
+
+	private final long[] min;
+
+	private final long[] dims;
+
+	/** Number of leading axes which are merged into each contiguous run. */
+	private final int runAxes;
+
+	/** Length of each contiguous run, in bytes. */
+	private final int runBytes;
+
+	private final long runCount;
+
+	// -- Constructor --
+
+	/**
+	 * @param strides the distance in bytes between consecutive samples along
+	 *          each axis of the source, in increasing order.
+	 * @param min the first position of the region along each axis.
+	 * @param dims the extent of the region along each axis.
+	 * @param bytesPerPixel the size of one sample in bytes.
+	 */
+	public StridedRegionReader(final long[] strides, final long[] min,
+		final long[] dims, final int bytesPerPixel)
+	{
+		this.strides = strides;
+		this.min = min;
+		this.dims = dims;
+
+		// merge leading axes for as long as the region stays contiguous
+		int axes = 0;
+		long bytes = bytesPerPixel;
+		while (axes < strides.length && strides[axes] == bytes) {
+			bytes *= dims[axes++];
+		}
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Region too large: " + bytes +
+				" bytes");
+		}
+		runAxes = axes;
+		runBytes = (int) bytes;
+
+		long count = 1;
+		for (int d = runAxes; d < dims.length; d++) {
+			count *= dims[d];
+		}
+		runCount = count;
+	}
+
+	// -- StridedRegionReader methods --
+
+	/** Returns the number of contiguous byte ranges making up the region. */
+	public long getRunCount() {
+		return runCount;
+	}
+
+	/** Returns the size of the region in bytes. */
+	public long getSize() {
+		return runCount * runBytes;
+	}
+
+	/**
+	 * Reads the region into {@code dst}. Source offsets are relative to the
+	 * position of {@code s} when this method is called; afterwards, {@code s} is
+	 * positioned just past the last byte read. As with
+	 * {@link DataHandle#read(byte[], int, int)}, data past the end of the
+	 * handle is left untouched.
+	 */
+	public void read(final DataHandle<Location> s, final byte[] dst,
+		final int dstOffset) throws IOException
+	{
+		final long base = s.offset();
+		byte[] scratch = null;
+
+		long run = 0;
+		while (run < runCount) {
+			// extend the group while the gaps and total span stay small
+			final long start = sourceOffset(run);
+			long end = start + runBytes;
+			boolean gaps = false;
+			long next = run + 1;
+			while (next < runCount) {
+				final long offset = sourceOffset(next);
+				if (offset - end > MAX_GAP || offset + runBytes - start > MAX_READ) {
+					break;
+				}
+				gaps |= offset != end;
+				end = offset + runBytes;
+				next++;
+			}
+
+			final int target = dstOffset + (int) (run * runBytes);
+			if (s.offset() != base + start) s.seek(base + start);
+			if (!gaps) {
+				// the whole group is contiguous in both source and destination
+				readFully(s, dst, target, (int) (end - start));
+			}
+			else {
+				final int span = (int) (end - start);
+				if (scratch == null || scratch.length < span) {
+					scratch = new byte[span];
+				}
+				final int available = readFully(s, scratch, 0, span);
+				for (long r = run; r < next; r++) {
+					final int pos = (int) (sourceOffset(r) - start);
+					final int length = Math.min(runBytes, available - pos);
+					if (length <= 0) break;
+					System.arraycopy(scratch, pos, dst, dstOffset + (int) (r * runBytes),
+						length);
+				}
+			}
+			run = next;
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Returns the offset of the given run relative to the array's origin. */
+	private long sourceOffset(final long run) {
+		long offset = 0;
+		long rem = run;
+		for (int d = 0; d < dims.length; d++) {
+			long pos = min[d];
+			if (d >= runAxes) {
+				pos += rem % dims[d];
+				rem /= dims[d];
+			}
+			offset += pos * strides[d];
+		}
+		return offset;
+	}
+
+	/**
+	 * Reads up to {@code len} bytes, stopping early only at end of data.
+	 *
+	 * @return the number of bytes read.
+	 */
+	private static int readFully(final DataHandle<Location> s, final byte[] buf,
+		final int off, final int len) throws IOException
+	{
+		int read = 0;
+		while (read < len) {
+			final int n = s.read(buf, off + read, len - read);
+			if (n <= 0) break;
+			read += n;
+		}
+		return read;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.config.SCIFIOConfig;
+import io.scif.img.ImgOpener;
+import io.scif.img.SCIFIOImgPlus;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import net.imglib2.Cursor;
+import net.imglib2.FinalInterval;
+import net.imglib2.type.numeric.RealType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Tests {@link ByteBufferPlane} and reading mapped planes.
+ */
+public class ByteBufferPlaneTest {
+
+	private static final int WIDTH = 6;
+
+	private static final int HEIGHT = 5;
+
+	private SCIFIO scifio;
+
+	private FileLocation location;
+
+	private byte[] pixels;
+
+	@Before
+	public void setUp() throws IOException {
+		scifio = new SCIFIO();
+
+		// a 16-bit binary PGM, whose pixels are stored big-endian
+		pixels = new byte[WIDTH * HEIGHT * 2];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (byte) (i * 13);
+		}
+		final File file = File.createTempFile("ByteBufferPlaneTest", ".pgm");
+		file.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(("P5\n" + WIDTH + " " + HEIGHT + "\n65535\n").getBytes(
+				StandardCharsets.US_ASCII));
+			out.write(pixels);
+		}
+		location = new FileLocation(file);
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	@Test
+	public void testMappedPlane() throws Exception {
+		final SCIFIOConfig config = new SCIFIOConfig().readerSetMappedPlanes(true);
+		final Reader reader = scifio.initializer().initializeReader(location);
+		try {
+			final Plane plane = reader.openPlane(0, 0, new FinalInterval(WIDTH,
+				HEIGHT), config);
+			assertTrue(plane instanceof ByteBufferPlane);
+			final ByteBufferPlane view = (ByteBufferPlane) plane;
+			assertTrue(view.isView());
+			assertEquals(pixels.length, view.getBuffer().remaining());
+			assertArrayEquals(pixels, view.getBytes());
+			assertFalse(view.isView());
+
+			// a run of full rows is contiguous
+			final Plane rows = reader.openPlane(0, 0, new FinalInterval(new long[] {
+				0, 1 }, new long[] { WIDTH - 1, 2 }), config);
+			assertTrue(rows instanceof ByteBufferPlane);
+			final byte[] expected = new byte[WIDTH * 2 * 2];
+			System.arraycopy(pixels, WIDTH * 2, expected, 0, expected.length);
+			assertArrayEquals(expected, rows.getBytes());
+
+			// a crop is not, so it is read as usual
+			final Plane crop = reader.openPlane(0, 0, new FinalInterval(new long[] {
+				1, 1 }, new long[] { 2, 2 }), config);
+			assertFalse(crop instanceof ByteBufferPlane);
+			assertEquals(2 * 2 * 2, crop.getBytes().length);
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testUnmappedByDefault() throws Exception {
+		final Reader reader = scifio.initializer().initializeReader(location);
+		final Plane plane = reader.openPlane(0, 0);
+		assertFalse(plane instanceof ByteBufferPlane);
+		assertArrayEquals(pixels, plane.getBytes());
+		reader.close();
+	}
+
+	@Test
+	public void testOpenImg() throws Exception {
+		final ImgOpener opener = new ImgOpener(scifio.getContext());
+		final SCIFIOImgPlus<?> expected = opener.openImgs(location,
+			new SCIFIOConfig()).get(0);
+		final SCIFIOImgPlus<?> actual = opener.openImgs(location,
+			new SCIFIOConfig().readerSetMappedPlanes(true)).get(0);
+		final Cursor<? extends RealType<?>> e = cast(expected).cursor();
+		final Cursor<? extends RealType<?>> a = cast(actual).cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().getRealDouble(), a.next().getRealDouble(), 0);
+		}
+	}
+
+	// -- Helper methods --
+
+	@SuppressWarnings("unchecked")
+	private static SCIFIOImgPlus<? extends RealType<?>> cast(
+		final SCIFIOImgPlus<?> img)
+	{
+		return (SCIFIOImgPlus<? extends RealType<?>>) img;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link ChunkedPlane} and {@link Reader#openLargePlane}.
+ */
+public class ChunkedPlaneTest {
+
+	private SCIFIO scifio;
+
+	private Reader reader;
+
+	@Before
+	public void setUp() throws FormatException, IOException {
+		scifio = new SCIFIO();
+		final Location loc = TestImgLocation.builder().name("large").pixelType(
+			"uint16").axes("X", "Y", "Channel").lengths(10, 6, 3).planarDims(3)
+			.build();
+		reader = scifio.initializer().initializeReader(loc);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		reader.close();
+		scifio.dispose();
+	}
+
+	/** Tests that chunks are whole rows. */
+	@Test
+	public void testChunkGeometry() {
+		final ImageMetadata meta = reader.getMetadata().get(0);
+		final Interval bounds = new FinalInterval(new long[] { 10, 6, 3 });
+
+		// 3 rows of 20 bytes fit in 64 bytes, and divide the 6 rows evenly
+		final ChunkedPlane plane = new ChunkedPlane(meta, bounds, 64);
+		assertEquals(10 * 6 * 3 * 2, plane.getSize());
+		assertEquals(60, plane.getChunkSize());
+		assertEquals(6, plane.getChunkCount());
+
+		final Interval chunk = plane.getChunkBounds(3);
+		assertArrayEquals(new long[] { 0, 3, 1 }, min(chunk));
+		assertArrayEquals(new long[] { 9, 5, 1 }, max(chunk));
+
+		// everything fits in one chunk
+		assertEquals(1, new ChunkedPlane(meta, bounds).getChunkCount());
+	}
+
+	/** Tests that a prime number of rows leaves a short last chunk. */
+	@Test
+	public void testShortLastChunk() {
+		final ImageMetadata meta = reader.getMetadata().get(0);
+		final Interval bounds = new FinalInterval(new long[] { 10, 7, 3 });
+
+		// 3 rows of 20 bytes per chunk: 3 + 3 + 1 rows per channel
+		final ChunkedPlane plane = new ChunkedPlane(meta, bounds, 64);
+		assertEquals(60, plane.getChunkSize());
+		assertEquals(9, plane.getChunkCount());
+		assertEquals(20, plane.getChunkSize(2));
+		assertEquals(20, plane.getChunk(2).length);
+		assertEquals(140, plane.getChunkOffset(3));
+		assertEquals(3, plane.getChunkIndex(140));
+
+		final Interval chunk = plane.getChunkBounds(5);
+		assertArrayEquals(new long[] { 0, 6, 1 }, min(chunk));
+		assertArrayEquals(new long[] { 9, 6, 1 }, max(chunk));
+
+		// round trip across the short chunk
+		final byte[] src = new byte[100];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = (byte) i;
+		}
+		plane.put(100, src, 0, src.length);
+		final byte[] dst = new byte[src.length];
+		plane.get(100, dst, 0, dst.length);
+		assertArrayEquals(src, dst);
+		assertEquals(40, plane.getChunk(3)[0]);
+	}
+
+	/** Tests reads and writes which span chunk boundaries. */
+	@Test
+	public void testGetPut() {
+		final ChunkedPlane plane = new ChunkedPlane(reader.getMetadata().get(0),
+			new FinalInterval(new long[] { 10, 6, 3 }), 64);
+		final byte[] src = new byte[150];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = (byte) i;
+		}
+		plane.put(25, src, 0, src.length);
+
+		final byte[] dst = new byte[src.length];
+		plane.get(25, dst, 0, dst.length);
+		assertArrayEquals(src, dst);
+		assertEquals(35, plane.getChunk(1)[0]);
+	}
+
+	/** Tests that a large plane holds the same bytes as a regular one. */
+	@Test
+	public void testOpenLargePlane() throws FormatException, IOException {
+		final byte[] expected = reader.openPlane(0, 0).getBytes();
+		final LargePlane plane = reader.openLargePlane(0, 0);
+		assertEquals(expected.length, plane.getSize());
+
+		final byte[] actual = new byte[expected.length];
+		plane.get(0, actual, 0, actual.length);
+		assertArrayEquals(expected, actual);
+	}
+
+	// -- Helper methods --
+
+	private static long[] min(final Interval interval) {
+		final long[] min = new long[interval.numDimensions()];
+		interval.min(min);
+		return min;
+	}
+
+	private static long[] max(final Interval interval) {
+		final long[] max = new long[interval.numDimensions()];
+		interval.max(max);
+		return max;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.config.SCIFIOConfig;
+import io.scif.filters.ReaderFilter;
+import io.scif.io.location.TestImgLocation;
+import io.scif.services.ReaderPoolService;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link ReaderPool}.
+ */
+public class ReaderPoolTest {
+
+	private SCIFIO scifio;
+
+	private ReaderPoolService readerPoolService;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		readerPoolService = scifio.readerPool();
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	/** Tests readers sharing one metadata, each with its own handle. */
+	@Test
+	public void testSharedMetadata() throws Exception {
+		final byte[] pixels = new byte[4 * 3];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (byte) (i * 7);
+		}
+		final File file = File.createTempFile("ReaderPoolTest", ".pgm");
+		file.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write("P5\n4 3\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(pixels);
+		}
+
+		try (final ReaderPool pool = readerPoolService.createPool(
+			new FileLocation(file)))
+		{
+			assertTrue(pool.isShared());
+			final Reader r1 = pool.acquire();
+			final Reader r2 = pool.acquire();
+			assertSame(r1.getMetadata(), r2.getMetadata());
+			assertNotSame(r1.getHandle(), r2.getHandle());
+			assertArrayEquals(pixels, r1.openPlane(0, 0).getBytes());
+			assertArrayEquals(pixels, r2.openPlane(0, 0).getBytes());
+			pool.release(r1);
+			pool.release(r2);
+
+			// released readers are reused
+			final Reader r3 = pool.acquire();
+			assertTrue(r3 == r1 || r3 == r2);
+			pool.release(r3);
+		}
+	}
+
+	/** Tests formats whose readers cannot share metadata. */
+	@Test
+	public void testUnsharedMetadata() throws Exception {
+		final Location loc = TestImgLocation.builder().name("pool").axes("X", "Y",
+			"Z").lengths(16, 16, 4).build();
+		try (final ReaderPool pool = readerPoolService.createPool(loc)) {
+			assertFalse(pool.isShared());
+			final Reader r1 = pool.acquire();
+			final Reader r2 = pool.acquire();
+			assertSame(pool.getMetadata(), r1.getMetadata());
+			assertNotSame(r1.getMetadata(), r2.getMetadata());
+			assertArrayEquals(r1.openPlane(0, 3).getBytes(), r2.openPlane(0, 3)
+				.getBytes());
+			pool.release(r1);
+			pool.release(r2);
+		}
+	}
+
+	/**
+	 * Tests a pool borrowing the metadata of an open reader, with decorated
+	 * readers.
+	 */
+	@Test
+	public void testBorrowedMetadata() throws Exception {
+		final File file = File.createTempFile("ReaderPoolTest", ".pgm");
+		file.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write("P5\n4 3\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[4 * 3]);
+		}
+		final Reader reader = scifio.initializer().initializeReader(
+			new FileLocation(file)).getTail();
+
+		final ReaderPool pool = new ReaderPool(reader, new SCIFIOConfig(), 2,
+			ReaderFilter::new);
+		assertTrue(pool.isShared());
+		final Reader pooled = pool.acquire();
+		assertTrue(pooled instanceof ReaderFilter);
+		assertSame(reader.getMetadata(), ((ReaderFilter) pooled).getTail()
+			.getMetadata());
+		assertNotSame(reader.getHandle(), pooled.getHandle());
+		pool.release(pooled);
+		pool.close();
+
+		// the borrowed metadata and its source are left open
+		assertNotNull(reader.getMetadata());
+		reader.openPlane(0, 0);
+		reader.close();
+	}
+
+	/** Tests that no more than the maximum number of readers is handed out. */
+	@Test
+	public void testMaxReaders() throws Exception {
+		final Location loc = TestImgLocation.builder().name("pool").axes("X", "Y")
+			.lengths(8, 8).build();
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (final ReaderPool pool = readerPoolService.createPool(loc,
+			new SCIFIOConfig().checkerSetOpen(false), 1))
+		{
+			final Reader reader = pool.acquire();
+			final Future<Reader> waiting = executor.submit(pool::acquire);
+			try {
+				waiting.get(100, TimeUnit.MILLISECONDS);
+				throw new AssertionError("Second reader was handed out");
+			}
+			catch (final TimeoutException e) {
+				// expected: the only reader is in use
+			}
+			pool.release(reader);
+			assertSame(reader, waiting.get(5, TimeUnit.SECONDS));
+			pool.release(reader);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
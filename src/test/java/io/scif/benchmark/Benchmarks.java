@@ -0,0 +1,214 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.util.FormatTools;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Utility methods for running the SCIFIO benchmarks and reporting their
+ * results.
+ */
+public final class Benchmarks {
+
+	/** Number of fresh JVMs measured by {@link #runColdAndWarm}. */
+	public static final int COLD_FORKS = 10;
+
+	/** Number of warmup and measured invocations of a warm run. */
+	public static final int WARM_ITERATIONS = 10;
+
+	private Benchmarks() {
+		// prevent instantiation of utility class
+	}
+
+	/**
+	 * Runs all benchmarks of the given class. Standard JMH command line
+	 * arguments may be used to override the defaults declared on the class.
+	 */
+	public static Collection<RunResult> run(final Class<?> benchmarkClass,
+		final String... args) throws RunnerException, CommandLineOptionException
+	{
+		return new Runner(new OptionsBuilder() //
+			.parent(new CommandLineOptions(args)) //
+			.include(benchmarkClass.getName()) //
+			.build()).run();
+	}
+
+	/**
+	 * As {@link #run}, but also profiles garbage collection, and prints the
+	 * allocation rate of each result in megabytes per second and bytes per
+	 * operation.
+	 */
+	public static Collection<RunResult> runWithAllocation(
+		final Class<?> benchmarkClass, final String... args)
+		throws RunnerException, CommandLineOptionException
+	{
+		final Collection<RunResult> results = new Runner(new OptionsBuilder() //
+			.parent(new CommandLineOptions(args)) //
+			.include(benchmarkClass.getName()) //
+			.addProfiler(GCProfiler.class) //
+			.build()).run();
+
+		System.out.println();
+		System.out.println(String.format("  %-80s %10s %12s", "Allocation",
+			"MB/s", "B/op"));
+		for (final RunResult result : results) {
+			double rate = Double.NaN, perOp = Double.NaN;
+			for (final Map.Entry<String, Result> e : result.getSecondaryResults()
+				.entrySet())
+			{
+				if (e.getKey().endsWith("gc.alloc.rate")) rate = e.getValue()
+					.getScore();
+				else if (e.getKey().endsWith("gc.alloc.rate.norm")) perOp = e
+					.getValue().getScore();
+			}
+			System.out.println(String.format("  %-80s %10.2f %12.0f", label(result
+				.getParams()), rate, perOp));
+		}
+		return results;
+	}
+
+	/**
+	 * Runs all single-shot benchmarks of the given class twice and prints the
+	 * average time of both runs side by side:
+	 * <ul>
+	 * <li><em>cold</em>: one invocation in each of {@value #COLD_FORKS} freshly
+	 * forked JVMs, so class loading and initialization are included;</li>
+	 * <li><em>warm</em>: {@value #WARM_ITERATIONS} invocations in a single JVM,
+	 * after as many warmup invocations.</li>
+	 * </ul>
+	 * Standard JMH command line arguments apply to both runs, e.g. {@code -p} to
+	 * select a subset of parameters; the forks and iterations above are fixed.
+	 */
+	public static void runColdAndWarm(final Class<?> benchmarkClass,
+		final String... args) throws RunnerException, CommandLineOptionException
+	{
+		final Collection<RunResult> cold = new Runner(new OptionsBuilder() //
+			.parent(new CommandLineOptions(args)) //
+			.include(benchmarkClass.getName()) //
+			.mode(Mode.SingleShotTime) //
+			.forks(COLD_FORKS) //
+			.warmupIterations(0) //
+			.measurementIterations(1) //
+			.build()).run();
+		final Collection<RunResult> warm = new Runner(new OptionsBuilder() //
+			.parent(new CommandLineOptions(args)) //
+			.include(benchmarkClass.getName()) //
+			.mode(Mode.SingleShotTime) //
+			.forks(1) //
+			.warmupIterations(WARM_ITERATIONS) //
+			.measurementIterations(WARM_ITERATIONS) //
+			.build()).run();
+
+		System.out.println();
+		System.out.println(String.format("  %-80s %10s %10s", "Latency", "cold",
+			"warm"));
+		final Iterator<RunResult> warmResults = warm.iterator();
+		for (final RunResult result : cold) {
+			final Result<?> coldScore = result.getPrimaryResult();
+			final Result<?> warmScore = warmResults.next().getPrimaryResult();
+			System.out.println(String.format("  %-80s %10.2f %10.2f %s", label(
+				result.getParams()), coldScore.getScore(), warmScore.getScore(),
+				coldScore.getScoreUnit()));
+		}
+	}
+
+	/**
+	 * Prints the throughput of each throughput-mode result in megabytes per
+	 * second.
+	 *
+	 * @param results Results as returned by {@link #run}.
+	 * @param bytesPerOp Number of bytes processed by a single benchmark
+	 *          invocation with the given parameters.
+	 */
+	public static void printMegabytesPerSecond(
+		final Collection<RunResult> results,
+		final ToLongFunction<BenchmarkParams> bytesPerOp)
+	{
+		System.out.println();
+		System.out.println("Throughput (MB/s):");
+		for (final RunResult result : results) {
+			final BenchmarkParams params = result.getParams();
+			final double opsPerSecond = result.getPrimaryResult().getScore();
+			final double mbPerSecond = opsPerSecond * bytesPerOp.applyAsLong(
+				params) / (1024.0 * 1024.0);
+			System.out.println(String.format("  %-80s %10.2f", label(params),
+				mbPerSecond));
+		}
+	}
+
+	/**
+	 * Returns the simple class and method name of a benchmark, followed by its
+	 * parameters.
+	 */
+	static String label(final BenchmarkParams params) {
+		final String benchmark = params.getBenchmark();
+		final StringBuilder sb = new StringBuilder(benchmark.substring(benchmark
+			.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+		for (final String key : params.getParamsKeys()) {
+			sb.append(' ').append(key).append('=').append(params.getParam(key));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the number of uncompressed bytes of a synthetic image with the
+	 * given number of square planes, as described by {@code size} and
+	 * {@code pixelType} parameters.
+	 */
+	static long imgBytes(final BenchmarkParams params, final int planes) {
+		final long size = Long.parseLong(params.getParam("size"));
+		final int bpp = FormatTools.getBytesPerPixel(FormatTools
+			.pixelTypeFromString(params.getParam("pixelType")));
+		return size * size * planes * bpp;
+	}
+
+	/** Returns the number of uncompressed bytes of a square synthetic image. */
+	static long imageBytes(final BenchmarkParams params) {
+		final long size = Long.parseLong(params.getParam("size"));
+		final int bits = Integer.parseInt(params.getParam("bitsPerSample"));
+		return size * size * SyntheticData.bytesPerSample(bits);
+	}
+}
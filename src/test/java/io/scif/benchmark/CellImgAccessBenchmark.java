@@ -0,0 +1,318 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+import io.scif.filters.ReaderFilter;
+import io.scif.img.cell.SCIFIOCellImg;
+import io.scif.img.cell.SCIFIOCellImgFactory;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.imglib2.Cursor;
+import net.imglib2.cache.img.DiskCachedCellImgOptions;
+import net.imglib2.cache.img.DiskCachedCellImgOptions.CacheType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.view.Views;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.Statistics;
+
+/**
+ * Latency of reading regions of a {@link SCIFIOCellImg} with different access
+ * patterns, cell shapes, cache types and numbers of I/O threads.
+ * <p>
+ * The source is a synthetic {@value #WIDTH} x {@value #HEIGHT} x
+ * {@value #DEPTH} uint16 image (8 GiB) served by
+ * {@link io.scif.formats.TestImgFormat}, so no sample data is required and
+ * only the visited cells are ever generated. Each invocation reads one region
+ * of the image; successive invocations move through it as described by
+ * {@link Pattern}. Besides the sampled latency, each result counts the cells
+ * the regions overlapped, the cells actually loaded from the reader and the
+ * bytes read. Run via {@link #main} from the test classpath for a summary
+ * including the latency percentiles and cache hit rate.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class CellImgAccessBenchmark {
+
+	static final long WIDTH = 8192;
+
+	static final long HEIGHT = 8192;
+
+	static final long DEPTH = 64;
+
+	/** Edge length of the tiles read by the tile patterns. */
+	static final int TILE = 256;
+
+	/** Depth of the window read by {@link Pattern#SLIDING_WINDOW}. */
+	static final int WINDOW_DEPTH = 16;
+
+	/** Distance the window moves along X with each invocation. */
+	static final int WINDOW_STEP = 32;
+
+	/** Maximum number of cells held by a {@link CacheType#BOUNDED} cache. */
+	static final int MAX_CACHED_CELLS = 512;
+
+	/** Ways of moving through the image, one region per invocation. */
+	public enum Pattern {
+			/** Tile-sized regions of each plane in turn, in raster order. */
+			SEQUENTIAL,
+			/** Tile-sized regions at random tile-aligned positions. */
+			RANDOM_TILE,
+			/** Full XZ slices, at successive Y positions. */
+			XZ_SLICE,
+			/** Full YZ slices, at successive X positions. */
+			YZ_SLICE,
+			/**
+			 * A tile-sized window {@value #WINDOW_DEPTH} planes deep, moving
+			 * {@value #WINDOW_STEP} pixels along X with each invocation.
+			 */
+			SLIDING_WINDOW
+	}
+
+	@Param({ "SEQUENTIAL", "RANDOM_TILE", "XZ_SLICE", "YZ_SLICE",
+		"SLIDING_WINDOW" })
+	public Pattern pattern;
+
+	/** Cell dimensions as {@code XxYxZ}. */
+	@Param({ "256x256x1", "64x64x64" })
+	public String cellShape;
+
+	@Param({ "SOFTREF", "BOUNDED" })
+	public CacheType cacheType;
+
+	@Param({ "1", "4" })
+	public int ioThreads;
+
+	private SCIFIO scifio;
+
+	private CountingFilter counter;
+
+	private SCIFIOCellImg<UnsignedShortType, ?> img;
+
+	private int[] cellDims;
+
+	private final long[] min = new long[3];
+
+	private final long[] max = new long[3];
+
+	private long step;
+
+	private Random random;
+
+	/**
+	 * Counts accumulated by each iteration, reported by JMH next to the
+	 * latency.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Counters {
+
+		/** Cells overlapped by the regions read. */
+		public long cellsTouched;
+
+		/** Cells loaded from the reader, i.e. cache misses. */
+		public long cellsLoaded;
+
+		/** Bytes of pixel data read from the reader. */
+		public long bytesRead;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			cellsTouched = cellsLoaded = bytesRead = 0;
+		}
+	}
+
+	@Setup
+	public void setup() throws FormatException, IOException {
+		scifio = new SCIFIO();
+		final ReaderFilter reader = scifio.initializer().initializeReader(
+			TestImgLocation.builder().name("benchmark").pixelType("uint16").axes("X",
+				"Y", "Z").lengths(WIDTH, HEIGHT, DEPTH).build());
+		counter = reader.enable(CountingFilter.class);
+
+		cellDims = parseCellShape(cellShape);
+		final SCIFIOCellImgFactory<UnsignedShortType> factory =
+			new SCIFIOCellImgFactory<>(new UnsignedShortType(),
+				DiskCachedCellImgOptions.options().cacheType(cacheType).maxCacheSize(
+					MAX_CACHED_CELLS).numIoThreads(ioThreads));
+		factory.setReader(reader, 0);
+		factory.setCellDimensions(cellDims);
+		img = factory.create(WIDTH, HEIGHT, DEPTH);
+		step = 0;
+		random = new Random(0xC311);
+	}
+
+	@TearDown
+	public void tearDown() {
+		img.dispose();
+		scifio.dispose();
+	}
+
+	@Benchmark
+	public long read(final Counters counters) {
+		nextRegion();
+		final long planes = counter.getPlaneCount();
+		final long bytes = counter.getByteCount();
+
+		long sum = 0;
+		final Cursor<UnsignedShortType> cursor = Views.flatIterable(Views.interval(
+			img, min, max)).cursor();
+		while (cursor.hasNext()) {
+			sum += cursor.next().get();
+		}
+
+		counters.cellsTouched += cellsOverlapped();
+		counters.cellsLoaded += (counter.getPlaneCount() - planes) / cellDims[2];
+		counters.bytesRead += counter.getByteCount() - bytes;
+		return sum;
+	}
+
+	public static void main(final String... args) throws Exception {
+		final Collection<RunResult> results = Benchmarks.run(
+			CellImgAccessBenchmark.class, args);
+
+		System.out.println();
+		System.out.println(String.format("  %-80s %8s %8s %8s %8s %10s %8s",
+			"Latency (ms)", "p50", "p90", "p99", "max", "MB read", "hit rate"));
+		for (final RunResult result : results) {
+			final Statistics stats = result.getPrimaryResult().getStatistics();
+			final Map<String, Result> secondary = result.getSecondaryResults();
+			final double touched = score(secondary, "cellsTouched");
+			final double loaded = score(secondary, "cellsLoaded");
+			final double mb = score(secondary, "bytesRead") / (1024.0 * 1024.0);
+			System.out.println(String.format(
+				"  %-80s %8.2f %8.2f %8.2f %8.2f %10.1f %8.3f", Benchmarks.label(result
+					.getParams()), stats.getPercentile(50), stats.getPercentile(90),
+				stats.getPercentile(99), stats.getMax(), mb, touched == 0 ? Double.NaN
+					: 1 - loaded / touched));
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Moves {@link #min} and {@link #max} to the next region to read. */
+	private void nextRegion() {
+		switch (pattern) {
+			case SEQUENTIAL: {
+				final long tilesX = WIDTH / TILE, tilesY = HEIGHT / TILE;
+				final long tile = step++ % (tilesX * tilesY * DEPTH);
+				setRegion(tile % tilesX * TILE, tile / tilesX % tilesY * TILE, tile /
+					(tilesX * tilesY), TILE, TILE, 1);
+				break;
+			}
+			case RANDOM_TILE:
+				setRegion(random.nextInt((int) (WIDTH / TILE)) * (long) TILE, random
+					.nextInt((int) (HEIGHT / TILE)) * (long) TILE, random.nextInt(
+						(int) DEPTH), TILE, TILE, 1);
+				break;
+			case XZ_SLICE:
+				setRegion(0, step++ % HEIGHT, 0, WIDTH, 1, DEPTH);
+				break;
+			case YZ_SLICE:
+				setRegion(step++ % WIDTH, 0, 0, 1, HEIGHT, DEPTH);
+				break;
+			case SLIDING_WINDOW: {
+				final long positionsX = (WIDTH - TILE) / WINDOW_STEP + 1;
+				final long rowsY = HEIGHT / TILE;
+				final long position = step++ % (positionsX * rowsY * (DEPTH /
+					WINDOW_DEPTH));
+				setRegion(position % positionsX * WINDOW_STEP, position / positionsX %
+					rowsY * TILE, position / (positionsX * rowsY) * WINDOW_DEPTH, TILE,
+					TILE, WINDOW_DEPTH);
+				break;
+			}
+		}
+	}
+
+	private void setRegion(final long x, final long y, final long z,
+		final long sizeX, final long sizeY, final long sizeZ)
+	{
+		min[0] = x;
+		min[1] = y;
+		min[2] = z;
+		max[0] = x + sizeX - 1;
+		max[1] = y + sizeY - 1;
+		max[2] = z + sizeZ - 1;
+	}
+
+	/** Gets the number of cells overlapped by the current region. */
+	private long cellsOverlapped() {
+		long cells = 1;
+		for (int d = 0; d < min.length; d++) {
+			cells *= max[d] / cellDims[d] - min[d] / cellDims[d] + 1;
+		}
+		return cells;
+	}
+
+	private static double score(final Map<String, Result> results,
+		final String counter)
+	{
+		final Result<?> result = results.get(counter);
+		return result == null ? 0 : result.getScore();
+	}
+
+	/** Parses cell dimensions given as e.g. {@code 64x64x64}. */
+	static int[] parseCellShape(final String shape) {
+		final String[] tokens = shape.split("x");
+		final int[] dims = new int[tokens.length];
+		for (int d = 0; d < dims.length; d++) {
+			dims[d] = Integer.parseInt(tokens[d]);
+		}
+		return dims;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.SCIFIO;
+import io.scif.benchmark.FormatFixture.FileFormat;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.img.ImgOpener;
+import io.scif.img.SCIFIOImgPlus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.view.Views;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scijava.io.location.Location;
+
+/**
+ * Scaling of {@link io.scif.img.cell.SCIFIOCellImg} loading with the number
+ * of threads, reading sample files written in each format.
+ * <p>
+ * Each invocation opens the image as a cell image with as many
+ * {@link SCIFIOConfig#imgOpenerSetCellReaders cell readers} as threads, and
+ * visits every pixel once, each thread visiting its share of the Z slices.
+ * With one reader, cells are loaded one at a time whatever the number of
+ * threads. Run via {@link #main} from the test classpath for a summary in
+ * MB/s of uncompressed data.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellLoadingBenchmark {
+
+	/** Number of planes of each image. */
+	static final int PLANES = 64;
+
+	@Param({ "TIFF", "ICS" })
+	public FileFormat format;
+
+	@Param({ "uint16" })
+	public String pixelType;
+
+	@Param({ "1024" })
+	public int size;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	@Param({ "true", "false" })
+	public boolean pooled;
+
+	private SCIFIO scifio;
+
+	private ImgOpener opener;
+
+	private Location source;
+
+	private SCIFIOConfig config;
+
+	private ExecutorService executor;
+
+	@Setup
+	public void setup() throws IOException {
+		scifio = new SCIFIO();
+		opener = new ImgOpener(scifio.getContext());
+		FormatFixture.checkSupported(format, pixelType);
+		source = FormatFixture.write(scifio.getContext(), format, pixelType, size,
+			PLANES);
+		config = new SCIFIOConfig().imgOpenerSetImgModes(ImgMode.CELL)
+			.imgOpenerSetCellReaders(pooled ? threads : 1);
+		executor = Executors.newFixedThreadPool(threads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+		scifio.dispose();
+	}
+
+	@Benchmark
+	public double load() throws Exception {
+		final SCIFIOImgPlus<?> img = opener.openImgs(source, config).get(0);
+		final List<Future<Double>> slices = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			final int first = t;
+			slices.add(executor.submit(() -> {
+				double sum = 0;
+				for (int z = first; z < PLANES; z += threads) {
+					for (final Object v : Views.hyperSlice(img.getImg(), 2, z)) {
+						sum += ((RealType<?>) v).getRealDouble();
+					}
+				}
+				return sum;
+			}));
+		}
+		double sum = 0;
+		for (final Future<Double> slice : slices) {
+			sum += slice.get();
+		}
+		img.dispose();
+		return sum;
+	}
+
+	public static void main(final String... args) throws Exception {
+		Benchmarks.printMegabytesPerSecond(Benchmarks.run(
+			CellLoadingBenchmark.class, args), params -> Benchmarks.imgBytes(params,
+				PLANES));
+	}
+}
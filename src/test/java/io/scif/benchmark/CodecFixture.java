@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.benchmark.SyntheticData.Pattern;
+import io.scif.codec.Base64Codec;
+import io.scif.codec.Codec;
+import io.scif.codec.CodecOptions;
+import io.scif.codec.CodecService;
+import io.scif.codec.HuffmanCodec;
+import io.scif.codec.HuffmanCodecOptions;
+import io.scif.codec.JPEGCodec;
+import io.scif.codec.LZWCodec;
+import io.scif.codec.LosslessJPEGCodec;
+import io.scif.codec.PackbitsCodec;
+import io.scif.codec.ZlibCodec;
+
+import org.scijava.Context;
+import org.scijava.io.handle.DataHandleService;
+
+/**
+ * Codec, options and synthetic input shared by the codec benchmarks.
+ */
+public class CodecFixture {
+
+	/** Codecs covered by the benchmarks. */
+	public enum CodecType {
+			LZW(LZWCodec.class), //
+			ZLIB(ZlibCodec.class), //
+			PACKBITS(PackbitsCodec.class), //
+			JPEG(JPEGCodec.class), //
+			LOSSLESS_JPEG(LosslessJPEGCodec.class), //
+			HUFFMAN(HuffmanCodec.class), //
+			BASE64(Base64Codec.class);
+
+		private final Class<? extends Codec> codecClass;
+
+		CodecType(final Class<? extends Codec> codecClass) {
+			this.codecClass = codecClass;
+		}
+	}
+
+	final Context context;
+
+	final Codec codec;
+
+	final CodecOptions options;
+
+	/** Uncompressed pixel data. */
+	final byte[] raw;
+
+	/** Encoded form of {@link #raw}. */
+	final byte[] compressed;
+
+	CodecFixture(final CodecType type, final Pattern pattern,
+		final int bitsPerSample, final int size) throws FormatException
+	{
+		context = new Context(CodecService.class, DataHandleService.class);
+		codec = context.service(CodecService.class).getCodec(type.codecClass);
+		raw = SyntheticData.generate(pattern, size, size, bitsPerSample);
+
+		options = type == CodecType.HUFFMAN ? new HuffmanCodecOptions()
+			: new CodecOptions();
+		options.width = size;
+		options.height = size;
+		options.channels = 1;
+		options.bitsPerSample = bitsPerSample;
+		options.interleaved = false;
+		options.littleEndian = false;
+		options.maxBytes = raw.length;
+
+		switch (type) {
+			case JPEG:
+				// JPEG is limited to 8 bits: treat 16-bit rows as twice as wide
+				options.width = size * SyntheticData.bytesPerSample(bitsPerSample);
+				options.bitsPerSample = 8;
+				compressed = codec.compress(raw, options);
+				break;
+			case PACKBITS:
+				compressed = SyntheticData.packbits(raw);
+				break;
+			case LOSSLESS_JPEG:
+				compressed = SyntheticData.losslessJPEG(raw, size, size,
+					bitsPerSample);
+				break;
+			case HUFFMAN:
+				((HuffmanCodecOptions) options).table = SyntheticData.HUFFMAN_TABLE;
+				compressed = SyntheticData.huffmanDifferences(raw, size,
+					bitsPerSample);
+				break;
+			default:
+				compressed = codec.compress(raw, options);
+		}
+	}
+
+	void dispose() {
+		context.dispose();
+	}
+}
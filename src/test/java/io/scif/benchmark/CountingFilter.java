@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.ImageMetadata;
+import io.scif.Plane;
+import io.scif.config.SCIFIOConfig;
+import io.scif.filters.AbstractReaderFilter;
+import io.scif.filters.Filter;
+import io.scif.util.FormatTools;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.imglib2.Interval;
+import net.imglib2.util.Intervals;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * Counts the planes, and the bytes of pixel data, read through a
+ * {@link io.scif.Reader}, so that benchmarks can report how much I/O a
+ * workload caused. Disabled unless explicitly enabled on a reader.
+ */
+@Plugin(type = Filter.class)
+public class CountingFilter extends AbstractReaderFilter {
+
+	// -- Fields --
+
+	private final LongAdder planes = new LongAdder();
+
+	private final LongAdder bytes = new LongAdder();
+
+	// -- CountingFilter API methods --
+
+	/** Gets the number of planes, or regions of planes, read so far. */
+	public long getPlaneCount() {
+		return planes.sum();
+	}
+
+	/** Gets the number of bytes of pixel data read so far. */
+	public long getByteCount() {
+		return bytes.sum();
+	}
+
+	/** Resets both counts to zero. */
+	public void reset() {
+		planes.reset();
+		bytes.reset();
+	}
+
+	// -- Reader API methods --
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final SCIFIOConfig config) throws FormatException, IOException
+	{
+		count(imageIndex, null);
+		return super.openPlane(imageIndex, planeIndex, config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		count(imageIndex, bounds);
+		return super.openPlane(imageIndex, planeIndex, bounds, config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		count(imageIndex, null);
+		return super.openPlane(imageIndex, planeIndex, plane, config);
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Plane plane, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		count(imageIndex, bounds);
+		return super.openPlane(imageIndex, planeIndex, plane, bounds, config);
+	}
+
+	// -- Helper methods --
+
+	private void count(final int imageIndex, final Interval bounds) {
+		final ImageMetadata meta = getMetadata().get(imageIndex);
+		planes.increment();
+		bytes.add(bounds == null ? meta.getPlaneSize() : Intervals.numElements(
+			bounds) * FormatTools.getBytesPerPixel(meta.getPixelType()));
+	}
+}
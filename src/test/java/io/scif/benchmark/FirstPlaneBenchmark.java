@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.Format;
+import io.scif.FormatException;
+import io.scif.Plane;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.benchmark.FormatFixture.FileFormat;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Time to detect the format of a file, and to open its first plane, in a
+ * freshly created context, for each format with a writer.
+ * <p>
+ * The sample file is written once per trial; the context used by each
+ * invocation is created beforehand and not included in the timing. Run via
+ * {@link #main} from the test classpath to measure both cold and warm
+ * latency; see {@link Benchmarks#runColdAndWarm}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class FirstPlaneBenchmark {
+
+	@Param
+	public FileFormat format;
+
+	@Param({ "512" })
+	public int size;
+
+	private FileLocation file;
+
+	private SCIFIO scifio;
+
+	@Setup(Level.Trial)
+	public void writeSample() throws IOException {
+		final SCIFIO writer = new SCIFIO();
+		try {
+			file = FormatFixture.write(writer.getContext(), format, "uint8", size,
+				1);
+		}
+		finally {
+			writer.dispose();
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void createContext() {
+		scifio = new SCIFIO();
+	}
+
+	@TearDown(Level.Invocation)
+	public void disposeContext() {
+		scifio.dispose();
+	}
+
+	@Benchmark
+	public Format detect() throws FormatException {
+		return scifio.format().getFormat(file);
+	}
+
+	@Benchmark
+	public byte[] firstPlane() throws FormatException, IOException {
+		final Reader reader = scifio.initializer().initializeReader(file);
+		try {
+			final Plane plane = reader.openPlane(0, 0);
+			return plane.getBytes();
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	public static void main(final String... args) throws Exception {
+		Benchmarks.runColdAndWarm(FirstPlaneBenchmark.class, args);
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.img.ImgIOException;
+import io.scif.img.ImgOpener;
+import io.scif.img.ImgSaver;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import net.imagej.ImgPlus;
+import net.imglib2.exception.IncompatibleTypeException;
+
+import org.scijava.Context;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Synthetic image files shared by the format benchmarks, generated on the fly
+ * by {@link io.scif.formats.TestImgFormat} and written with the bundled
+ * writers, so that no sample data is required.
+ */
+public final class FormatFixture {
+
+	/** File formats covered by the benchmarks, i.e. those with a writer. */
+	public enum FileFormat {
+			TIFF(".tif", "uint8", "uint16", "float"), //
+			ICS(".ics", "uint8", "uint16", "float"), //
+			APNG(".png", "uint8", "uint16"), //
+			AVI(".avi", "uint8"), //
+			JPEG(".jpg", "uint8"), //
+			JPEG2000(".jp2", "uint8", "uint16"), //
+			EPS(".eps", "uint8");
+
+		private final String suffix;
+
+		private final List<String> pixelTypes;
+
+		FileFormat(final String suffix, final String... pixelTypes) {
+			this.suffix = suffix;
+			this.pixelTypes = Arrays.asList(pixelTypes);
+		}
+
+		public String suffix() {
+			return suffix;
+		}
+
+		/**
+		 * Whether the format's writer supports the given pixel type, among those
+		 * used by the benchmarks.
+		 */
+		public boolean supports(final String pixelType) {
+			return pixelTypes.contains(pixelType);
+		}
+	}
+
+	private FormatFixture() {
+		// prevent instantiation of utility class
+	}
+
+	/**
+	 * Returns a location of a synthetic XY(Z) image served by
+	 * {@link io.scif.formats.TestImgFormat}.
+	 *
+	 * @param pixelType Pixel type, e.g. {@code "uint8"}.
+	 * @param size Width and height in pixels.
+	 * @param planes Number of planes along Z, or 1 for a single plane.
+	 */
+	public static TestImgLocation source(final String pixelType, final long size,
+		final long planes)
+	{
+		final TestImgLocation.Builder builder = TestImgLocation.builder().name(
+			"benchmark").pixelType(pixelType);
+		if (planes > 1) builder.axes("X", "Y", "Z").lengths(size, size, planes);
+		else builder.axes("X", "Y").lengths(size, size);
+		return builder.build();
+	}
+
+	/**
+	 * Writes a synthetic image to a new temporary file, deleted on exit.
+	 *
+	 * @see #source(String, long, long)
+	 */
+	public static FileLocation write(final Context context,
+		final FileFormat format, final String pixelType, final long size,
+		final long planes) throws IOException
+	{
+		final Path file = Files.createTempFile("scifio-benchmark", format
+			.suffix());
+		Files.delete(file);
+		file.toFile().deleteOnExit();
+		final FileLocation location = new FileLocation(file.toFile());
+		try {
+			final ImgPlus<?> img = new ImgOpener(context).openImgs(source(pixelType,
+				size, planes)).get(0);
+			new ImgSaver(context).saveImg(location, img);
+		}
+		catch (final ImgIOException | IncompatibleTypeException e) {
+			throw new IOException("Could not write " + format + " sample", e);
+		}
+		return location;
+	}
+
+	/**
+	 * Fails if the given format can't be written with the given pixel type, so
+	 * that JMH reports and skips unsupported parameter combinations.
+	 */
+	public static void checkSupported(final FileFormat format,
+		final String pixelType)
+	{
+		if (!format.supports(pixelType)) {
+			throw new IllegalArgumentException(format + " does not support " +
+				pixelType);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.SCIFIO;
+import io.scif.benchmark.FormatFixture.FileFormat;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.img.ImgIOException;
+import io.scif.img.ImgOpener;
+import io.scif.img.SCIFIOImgPlus;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.imglib2.type.numeric.RealType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scijava.io.location.Location;
+
+/**
+ * Throughput of {@link ImgOpener#openImgs} in each {@link ImgMode}, reading
+ * synthetic {@link io.scif.formats.TestImgFormat} images ({@code FAKE}) or
+ * sample files written in each format.
+ * <p>
+ * Each invocation opens the image and visits every pixel once, so that the
+ * lazily loaded cells of {@link ImgMode#CELL} images are included. Parameter
+ * combinations a format can't write are reported as errors and skipped. Run
+ * via {@link #main} from the test classpath for a summary in MB/s of
+ * uncompressed data, and the allocation rate.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImgOpenerBenchmark {
+
+	/** Number of planes of each image. */
+	static final int PLANES = 8;
+
+	@Param({ "FAKE", "TIFF", "ICS", "APNG", "AVI", "JPEG2000" })
+	public String format;
+
+	@Param({ "uint8", "uint16", "float" })
+	public String pixelType;
+
+	@Param({ "512", "2048" })
+	public int size;
+
+	@Param({ "ARRAY", "PLANAR", "CELL" })
+	public ImgMode mode;
+
+	private SCIFIO scifio;
+
+	private ImgOpener opener;
+
+	private Location source;
+
+	private SCIFIOConfig config;
+
+	@Setup
+	public void setup() throws IOException {
+		scifio = new SCIFIO();
+		opener = new ImgOpener(scifio.getContext());
+		config = new SCIFIOConfig().imgOpenerSetImgModes(mode);
+		if (format.equals("FAKE")) {
+			source = FormatFixture.source(pixelType, size, PLANES);
+		}
+		else {
+			final FileFormat fileFormat = FileFormat.valueOf(format);
+			FormatFixture.checkSupported(fileFormat, pixelType);
+			source = FormatFixture.write(scifio.getContext(), fileFormat, pixelType,
+				size, PLANES);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	@Benchmark
+	@SuppressWarnings("rawtypes")
+	public double open() throws ImgIOException {
+		final SCIFIOImgPlus<?> img = opener.openImgs(source, config).get(0);
+		double sum = 0;
+		for (final Object t : img) {
+			sum += ((RealType) t).getRealDouble();
+		}
+		img.dispose();
+		return sum;
+	}
+
+	public static void main(final String... args) throws Exception {
+		Benchmarks.printMegabytesPerSecond(Benchmarks.runWithAllocation(
+			ImgOpenerBenchmark.class, args), params -> Benchmarks.imgBytes(params,
+				PLANES));
+	}
+}
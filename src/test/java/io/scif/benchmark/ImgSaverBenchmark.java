@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.SCIFIO;
+import io.scif.benchmark.FormatFixture.FileFormat;
+import io.scif.config.SCIFIOConfig;
+import io.scif.img.ImgIOException;
+import io.scif.img.ImgOpener;
+import io.scif.img.ImgSaver;
+import io.scif.img.SCIFIOImgPlus;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.imglib2.exception.IncompatibleTypeException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Throughput of {@link ImgSaver#saveImg} writing synthetic
+ * {@link io.scif.formats.TestImgFormat} images, held in memory, to each
+ * format.
+ * <p>
+ * Parameter combinations a format can't write are reported as errors and
+ * skipped. Run via {@link #main} from the test classpath for a summary in MB/s
+ * of uncompressed data, and the allocation rate.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImgSaverBenchmark {
+
+	@Param({ "TIFF", "ICS", "APNG", "AVI", "JPEG2000" })
+	public FileFormat format;
+
+	@Param({ "uint8", "uint16", "float" })
+	public String pixelType;
+
+	@Param({ "512", "2048" })
+	public int size;
+
+	private SCIFIO scifio;
+
+	private ImgSaver saver;
+
+	private SCIFIOImgPlus<?> img;
+
+	private FileLocation destination;
+
+	private final SCIFIOConfig config = new SCIFIOConfig()
+		.writerSetFailIfOverwriting(false);
+
+	@Setup
+	public void setup() throws IOException {
+		FormatFixture.checkSupported(format, pixelType);
+		scifio = new SCIFIO();
+		saver = new ImgSaver(scifio.getContext());
+		img = new ImgOpener(scifio.getContext()).openImgs(FormatFixture.source(
+			pixelType, size, ImgOpenerBenchmark.PLANES)).get(0);
+		final File file = File.createTempFile("scifio-benchmark", format
+			.suffix());
+		file.deleteOnExit();
+		destination = new FileLocation(file);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (scifio != null) scifio.dispose();
+	}
+
+	@Benchmark
+	public Object save() throws ImgIOException, IncompatibleTypeException {
+		return saver.saveImg(destination, img, 0, config);
+	}
+
+	public static void main(final String... args) throws Exception {
+		Benchmarks.printMegabytesPerSecond(Benchmarks.runWithAllocation(
+			ImgSaverBenchmark.class, args), params -> Benchmarks.imgBytes(params,
+				ImgOpenerBenchmark.PLANES));
+	}
+}
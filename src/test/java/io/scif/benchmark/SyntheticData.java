@@ -0,0 +1,277 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.codec.BitWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic pixel data for benchmarks, so that no sample files
+ * are required. Also provides minimal encoders for the codecs which only
+ * support decompression, so that their decoders can be exercised with
+ * realistic input.
+ */
+public final class SyntheticData {
+
+	/** Seed used for all pseudo-random content. */
+	private static final long SEED = 0x5c1f10L;
+
+	/** Kinds of synthetic image content. */
+	public enum Pattern {
+			/** Uniformly distributed random samples; effectively incompressible. */
+			NOISE,
+			/** Smooth diagonal ramp spanning the full sample range. */
+			GRADIENT,
+			/** Mostly zero, with roughly one percent random non-zero samples. */
+			SPARSE
+	}
+
+	private SyntheticData() {
+		// prevent instantiation of utility class
+	}
+
+	// -- Pixel data --
+
+	/**
+	 * Generates a single-channel image of big-endian samples.
+	 *
+	 * @param pattern Kind of content to generate.
+	 * @param width Image width in pixels.
+	 * @param height Image height in pixels.
+	 * @param bitsPerSample 8 or 16.
+	 * @return {@code width * height * bitsPerSample / 8} bytes of pixel data.
+	 */
+	public static byte[] generate(final Pattern pattern, final int width,
+		final int height, final int bitsPerSample)
+	{
+		final int bpp = bytesPerSample(bitsPerSample);
+		final int max = (1 << bitsPerSample) - 1;
+		final byte[] data = new byte[width * height * bpp];
+		final Random r = new Random(SEED);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int value;
+				switch (pattern) {
+					case NOISE:
+						value = r.nextInt(max + 1);
+						break;
+					case GRADIENT:
+						value = (int) ((long) (x + y) * max / Math.max(1, width + height -
+							2));
+						break;
+					case SPARSE:
+						value = r.nextInt(100) == 0 ? 1 + r.nextInt(max) : 0;
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown pattern: " + pattern);
+				}
+				setSample(data, y * width + x, bpp, value);
+			}
+		}
+		return data;
+	}
+
+	/** Returns the number of bytes used to store one sample. */
+	public static int bytesPerSample(final int bitsPerSample) {
+		if (bitsPerSample != 8 && bitsPerSample != 16) {
+			throw new IllegalArgumentException("Unsupported bit depth: " +
+				bitsPerSample);
+		}
+		return bitsPerSample / 8;
+	}
+
+	// -- Encoders --
+
+	/**
+	 * Encodes the given bytes using PackBits run-length encoding, as understood
+	 * by {@link io.scif.codec.PackbitsCodec}.
+	 */
+	public static byte[] packbits(final byte[] data) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int i = 0;
+		while (i < data.length) {
+			// measure the run starting at i
+			int run = 1;
+			while (i + run < data.length && run < 128 && data[i + run] == data[i]) {
+				run++;
+			}
+			if (run >= 3) {
+				out.write(-(run - 1));
+				out.write(data[i]);
+				i += run;
+				continue;
+			}
+			// literal sequence up to the next run of three
+			int end = i;
+			while (end < data.length && end - i < 128) {
+				if (end + 2 < data.length && data[end] == data[end + 1] &&
+					data[end] == data[end + 2]) break;
+				end++;
+			}
+			out.write(end - i - 1);
+			out.write(data, i, end - i);
+			i = end;
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Huffman table ("BITS" followed by "HUFFVAL", as in a JPEG DHT segment)
+	 * covering difference categories 0 through 16.
+	 */
+	public static final short[] HUFFMAN_TABLE = { 0, 1, 5, 1, 1, 1, 1, 1, 1, 1,
+		1, 1, 1, 1, 0, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+		16 };
+
+	/**
+	 * Encodes a single-channel image as a lossless (process 14, predictor 1)
+	 * JPEG stream, as understood by {@link io.scif.codec.LosslessJPEGCodec}.
+	 *
+	 * @param data Big-endian samples, as returned by {@link #generate}.
+	 */
+	public static byte[] losslessJPEG(final byte[] data, final int width,
+		final int height, final int bitsPerSample)
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		// SOI
+		writeShort(out, 0xffd8);
+		// SOF3: lossless, Huffman coded
+		writeShort(out, 0xffc3);
+		writeShort(out, 11);
+		out.write(bitsPerSample);
+		writeShort(out, height);
+		writeShort(out, width);
+		out.write(1);
+		out.write(1);
+		out.write(0x11);
+		out.write(0);
+		// DHT
+		writeShort(out, 0xffc4);
+		writeShort(out, 3 + HUFFMAN_TABLE.length);
+		out.write(0);
+		for (final short v : HUFFMAN_TABLE)
+			out.write(v);
+		// SOS
+		writeShort(out, 0xffda);
+		writeShort(out, 8);
+		out.write(1);
+		out.write(1);
+		out.write(0);
+		out.write(1); // predictor
+		out.write(0);
+		out.write(0);
+
+		final byte[] scan = huffmanDifferences(data, width, bitsPerSample);
+		for (final byte b : scan) {
+			out.write(b);
+			// byte stuffing
+			if (b == (byte) 0xff) out.write(0);
+		}
+		// EOI
+		writeShort(out, 0xffd9);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Huffman-codes the predictor 1 differences of the given samples using
+	 * {@link #HUFFMAN_TABLE}, as decoded by {@link io.scif.codec.HuffmanCodec}.
+	 */
+	public static byte[] huffmanDifferences(final byte[] data, final int width,
+		final int bitsPerSample)
+	{
+		final int bpp = bytesPerSample(bitsPerSample);
+		final int modulus = 1 << bitsPerSample;
+		final int count = data.length / bpp;
+
+		// derive canonical codes from the table
+		final int[] codes = new int[17];
+		final int[] lengths = new int[17];
+		int code = 0, symbol = 16;
+		for (int len = 1; len <= 16; len++) {
+			for (int i = 0; i < HUFFMAN_TABLE[len - 1]; i++) {
+				final int value = HUFFMAN_TABLE[symbol++];
+				codes[value] = code++;
+				lengths[value] = len;
+			}
+			code <<= 1;
+		}
+
+		final BitWriter bits = new BitWriter(data.length);
+		for (int n = 0; n < count; n++) {
+			final int pred;
+			if (n == 0) pred = modulus / 2;
+			else if (n < width) pred = getSample(data, n - 1, bpp);
+			else if (n % width == 0) pred = getSample(data, n - width, bpp);
+			else pred = getSample(data, n - 1, bpp);
+
+			// modular difference in (-modulus/2, modulus/2]
+			int diff = Math.floorMod(getSample(data, n, bpp) - pred, modulus);
+			if (diff > modulus / 2) diff -= modulus;
+
+			final int ssss = diff == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(Math
+				.abs(diff));
+			bits.write(codes[ssss], lengths[ssss]);
+			if (ssss > 0 && ssss < 16) {
+				bits.write(diff >= 0 ? diff : diff - 1, ssss);
+			}
+		}
+		return bits.toByteArray();
+	}
+
+	// -- Helper methods --
+
+	private static int getSample(final byte[] data, final int index,
+		final int bpp)
+	{
+		int v = 0;
+		for (int b = 0; b < bpp; b++) {
+			v = (v << 8) | (data[index * bpp + b] & 0xff);
+		}
+		return v;
+	}
+
+	private static void setSample(final byte[] data, final int index,
+		final int bpp, final int value)
+	{
+		for (int b = 0; b < bpp; b++) {
+			data[index * bpp + b] = (byte) (value >> (8 * (bpp - b - 1)));
+		}
+	}
+
+	private static void writeShort(final ByteArrayOutputStream out,
+		final int value)
+	{
+		out.write((value >> 8) & 0xff);
+		out.write(value & 0xff);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import io.scif.benchmark.CodecFixture.CodecType;
+import io.scif.benchmark.SyntheticData.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Verifies that the synthetic benchmark inputs decode back to the original
+ * pixels, so that the codec benchmarks measure meaningful work.
+ */
+public class SyntheticDataTest {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		for (final CodecType type : new CodecType[] { CodecType.LZW,
+			CodecType.ZLIB, CodecType.PACKBITS, CodecType.LOSSLESS_JPEG,
+			CodecType.BASE64 })
+		{
+			for (final Pattern pattern : Pattern.values()) {
+				for (final int bits : new int[] { 8, 16 }) {
+					final CodecFixture fixture = new CodecFixture(type, pattern, bits,
+						33);
+					try {
+						assertArrayEquals(type + " " + pattern + " " + bits, fixture.raw,
+							fixture.codec.decompress(fixture.compressed, fixture.options));
+					}
+					finally {
+						fixture.dispose();
+					}
+				}
+			}
+		}
+	}
+}
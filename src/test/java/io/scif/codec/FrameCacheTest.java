@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.codec.FrameCache.FrameDecoder;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link FrameCache}.
+ */
+public class FrameCacheTest {
+
+	private static final int FRAME_SIZE = 16;
+
+	/**
+	 * Simple delta "codec": every frame adds one to each byte of its
+	 * predecessor, so frame {@code n} is filled with the value {@code n}. Counts
+	 * the number of frames decoded.
+	 */
+	private static class CountingDecoder implements FrameDecoder {
+
+		private int decoded;
+
+		@Override
+		public byte[] decode(final long frame, final byte[] previous) {
+			decoded++;
+			final byte[] out = previous == null ? new byte[FRAME_SIZE] : previous;
+			if (previous != null) {
+				for (int i = 0; i < out.length; i++)
+					out[i]++;
+			}
+			else {
+				for (int i = 0; i < out.length; i++)
+					out[i] = (byte) frame;
+			}
+			return out;
+		}
+	}
+
+	@Test
+	public void testReconstruct() throws Exception {
+		final FrameCache cache = new FrameCache(1024 * 1024, 8);
+		final CountingDecoder decoder = new CountingDecoder();
+
+		assertFrame(37, cache.reconstruct(37, decoder));
+		assertEquals(38, decoder.decoded);
+
+		// random access now decodes from the nearest checkpoint
+		decoder.decoded = 0;
+		assertFrame(21, cache.reconstruct(21, decoder));
+		assertEquals(5, decoder.decoded);
+
+		decoder.decoded = 0;
+		assertFrame(32, cache.reconstruct(32, decoder));
+		assertEquals(0, decoder.decoded);
+	}
+
+	@Test
+	public void testCheckpointsAreCopies() throws Exception {
+		final FrameCache cache = new FrameCache(1024 * 1024, 4);
+		final CountingDecoder decoder = new CountingDecoder();
+
+		final byte[] frame = cache.reconstruct(4, decoder);
+		frame[0] = 100;
+		assertFrame(4, cache.reconstruct(4, decoder));
+		// decoders may modify the previous frame in place
+		assertFrame(5, cache.reconstruct(5, decoder));
+		assertFrame(4, cache.reconstruct(4, decoder));
+	}
+
+	@Test
+	public void testKeyFrames() throws Exception {
+		final FrameCache cache = new FrameCache(1024 * 1024, 100);
+		final CountingDecoder decoder = new CountingDecoder();
+		cache.markKeyFrame(50);
+		assertTrue(cache.isKeyFrame(50));
+		assertFalse(cache.isKeyFrame(51));
+
+		assertFrame(53, cache.reconstruct(53, decoder));
+		assertEquals(4, decoder.decoded);
+	}
+
+	@Test
+	public void testByteBudget() throws Exception {
+		final FrameCache cache = new FrameCache(4 * FRAME_SIZE, 1);
+		final CountingDecoder decoder = new CountingDecoder();
+
+		assertFrame(99, cache.reconstruct(99, decoder));
+		assertTrue(cache.getCachedBytes() <= 4 * FRAME_SIZE);
+		assertTrue(cache.getInterval() > 1);
+
+		// every frame is still reachable within one checkpoint interval
+		decoder.decoded = 0;
+		assertFrame(98, cache.reconstruct(98, decoder));
+		assertTrue(decoder.decoded <= cache.getInterval());
+	}
+
+	// -- Helper methods --
+
+	private void assertFrame(final int value, final byte[] frame) {
+		final byte[] expected = new byte[FRAME_SIZE];
+		for (int i = 0; i < expected.length; i++)
+			expected[i] = (byte) value;
+		assertArrayEquals(expected, frame);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+import io.scif.metrics.CodecMetrics;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link InstrumentedCodec} and
+ * {@link CodecService#getInstrumentedCodec}.
+ */
+public class InstrumentedCodecTest {
+
+	private SCIFIO scifio;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		scifio.metrics().setJmxEnabled(false);
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	/** Tests that round trips are timed and their byte counts recorded. */
+	@Test
+	public void testRoundTrip() throws FormatException {
+		final Codec codec = scifio.codec().getInstrumentedCodec(ZlibCodec.class);
+		assertTrue(codec instanceof InstrumentedCodec);
+		assertSame(codec, scifio.codec().getInstrumentedCodec(ZlibCodec.class));
+
+		final byte[] data = new byte[4096];
+		Arrays.fill(data, (byte) 7);
+		final byte[] compressed = codec.compress(data, null);
+		assertArrayEquals(data, codec.decompress(compressed));
+
+		final CodecMetrics metrics = scifio.metrics().getCodecMetrics(
+			"ZlibCodec");
+		assertEquals(1, metrics.getCompressCount());
+		assertEquals(1, metrics.getDecompressCount());
+		assertEquals(2L * data.length, metrics.getUncompressedBytes());
+		assertEquals(2L * compressed.length, metrics.getCompressedBytes());
+		assertEquals((double) data.length / compressed.length, metrics
+			.getCompressionRatio(), 1e-9);
+		assertEquals(1, scifio.metrics().snapshot().getCodec("ZlibCodec")
+			.getDecompressCount());
+	}
+
+	/** Tests that the bare codec is returned when instrumentation is off. */
+	@Test
+	public void testDisabled() {
+		final CodecService codecService = scifio.codec();
+		codecService.setInstrumentationEnabled(false);
+		assertSame(codecService.getCodec(ZlibCodec.class), codecService
+			.getInstrumentedCodec(ZlibCodec.class));
+	}
+
+}
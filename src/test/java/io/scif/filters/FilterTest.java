@@ -30,6 +30,7 @@
 package io.scif.filters;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import io.scif.FormatException;
@@ -47,6 +48,9 @@ import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Test;
 import org.scijava.Context;
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.handle.DataHandleService;
+import org.scijava.io.location.BytesLocation;
 import org.scijava.io.location.FileLocation;
 import org.scijava.io.location.Location;
 import org.scijava.plugin.PluginInfo;
@@ -119,6 +123,25 @@ public class FilterTest {
 		assertEquals(128, y);
 	}
 
+	/** Verifies that filters hand their reader's handle to the tail reader. */
+	@Test
+	public void testSetHandle() throws FormatException, IOException {
+		final ReaderFilter filter = scifio.initializer().initializeReader(id);
+		readerFilter = filter;
+		final Location loc = new BytesLocation(new byte[16]);
+		final DataHandle<Location> handle = scifio.getContext().service(
+			DataHandleService.class).create(loc);
+
+		filter.setHandle(handle);
+		assertSame(handle, filter.getTail().getHandle());
+		assertSame(handle, filter.getHandle());
+		assertEquals(filter.getTail().isMetadataShareable(), filter
+			.isMetadataShareable());
+
+		filter.setHandle(null);
+		handle.close();
+	}
+
 	@Test
 	public void testDefaultEnabled() throws FormatException, IOException {
 		readerFilter = scifio.initializer().initializeReader(id);
@@ -0,0 +1,143 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+import io.scif.io.handle.CountingHandle;
+import io.scif.io.location.TestImgLocation;
+import io.scif.metrics.MetricsService;
+import io.scif.metrics.MetricsSnapshot;
+import io.scif.metrics.ReaderMetrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Tests for {@link MetricsFilter}.
+ */
+public class MetricsFilterTest {
+
+	private SCIFIO scifio;
+
+	private MetricsService metricsService;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		metricsService = scifio.metrics();
+		metricsService.setJmxEnabled(false);
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	/** Tests that planes and the reads they cause are recorded. */
+	@Test
+	public void testFileMetrics() throws FormatException, IOException {
+		final byte[] pixels = new byte[16 * 8];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (byte) i;
+		}
+		final File file = File.createTempFile("MetricsFilterTest", ".pgm");
+		file.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write("P5\n16 8\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(pixels);
+		}
+
+		final ReaderFilter filter = scifio.initializer().initializeReader(
+			new FileLocation(file));
+		final MetricsFilter metrics = filter.enable(MetricsFilter.class);
+		assertTrue(filter.getTail().getHandle() instanceof CountingHandle);
+
+		assertArrayEquals(pixels, filter.openPlane(0, 0).getBytes());
+		assertArrayEquals(pixels, filter.openPlane(0, 0).getBytes());
+
+		final ReaderMetrics readerMetrics = metrics.getMetrics();
+		assertEquals(2, readerMetrics.getPlaneCount());
+		assertEquals(2L * pixels.length, readerMetrics.getBytesRead());
+		assertTrue(readerMetrics.getReadCount() > 0);
+		assertTrue(readerMetrics.getOpenPlaneNanos() >= readerMetrics
+			.getReadNanos());
+
+		final String format = filter.getFormat().getFormatName();
+		final MetricsSnapshot snapshot = metricsService.snapshot();
+		assertEquals(2, snapshot.getFormat(format).getPlaneCount());
+		assertEquals(1, snapshot.getReaders().size());
+		assertEquals(readerMetrics.getBytesRead(), snapshot.getReaders().get(0)
+			.getBytesRead());
+
+		// disabling the filter restores the original handle
+		filter.disable(MetricsFilter.class);
+		assertFalse(filter.getTail().getHandle() instanceof CountingHandle);
+		assertArrayEquals(pixels, filter.openPlane(0, 0).getBytes());
+		assertNull(metrics.getMetrics());
+		assertTrue(metricsService.snapshot().getReaders().isEmpty());
+		filter.close();
+	}
+
+	/** Tests that planes of sources without a handle are recorded. */
+	@Test
+	public void testNoHandle() throws FormatException, IOException {
+		final ReaderFilter filter = scifio.initializer().initializeReader(
+			TestImgLocation.builder().name("metrics").axes("X", "Y", "Z").lengths(
+				16, 16, 4).build());
+		final MetricsFilter metrics = filter.enable(MetricsFilter.class);
+
+		for (int p = 0; p < 4; p++) {
+			filter.openPlane(0, p);
+		}
+		assertEquals(4, metrics.getMetrics().getPlaneCount());
+		assertEquals(0, metrics.getMetrics().getBytesRead());
+		assertSame(metricsService.getFormatMetrics(filter.getFormat()
+			.getFormatName()), metricsService.getFormatMetrics(filter.getFormat()
+				.getFormatName()));
+		filter.close();
+		assertTrue(metricsService.snapshot().getReaders().isEmpty());
+	}
+}
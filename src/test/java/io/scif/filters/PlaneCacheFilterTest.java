@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.FormatException;
+import io.scif.Plane;
+import io.scif.SCIFIO;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests for {@link PlaneCacheFilter}.
+ */
+public class PlaneCacheFilterTest {
+
+	/** Size of one 32 x 16 uint8 plane, in bytes. */
+	private static final int PLANE_SIZE = 32 * 16;
+
+	private SCIFIO scifio;
+
+	private ReaderFilter filter;
+
+	private PlaneCacheFilter cache;
+
+	@Before
+	public void setUp() throws FormatException, IOException {
+		scifio = new SCIFIO();
+		final Location id = new TestImgLocation.Builder().name("cache").lengths(32,
+			16, 4).axes("X", "Y", "Z").build();
+		filter = scifio.initializer().initializeReader(id);
+		cache = filter.enable(PlaneCacheFilter.class);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		filter.close();
+		scifio.dispose();
+	}
+
+	/** Tests that revisited planes are served from the cache. */
+	@Test
+	public void testHits() throws FormatException, IOException {
+		final byte[] expected = filter.getTail().openPlane(0, 2).getBytes();
+
+		assertArrayEquals(expected, filter.openPlane(0, 2).getBytes());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(PLANE_SIZE, cache.getCachedBytes());
+
+		// the cached copy is unaffected by changes to a returned plane
+		final Plane plane = filter.openPlane(0, 2);
+		plane.getBytes()[0]++;
+		assertArrayEquals(expected, filter.openPlane(0, 2).getBytes());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2 / 3.0, cache.getHitRate(), 1e-9);
+	}
+
+	/** Tests that sub-regions are served from a cached full plane. */
+	@Test
+	public void testContainedRegion() throws FormatException, IOException {
+		final Interval region = new FinalInterval(new long[] { 3, 5 }, new long[] {
+			20, 11 });
+		final byte[] expected = filter.getTail().openPlane(0, 1, region)
+			.getBytes();
+
+		filter.openPlane(0, 1);
+		assertArrayEquals(expected, filter.openPlane(0, 1, region).getBytes());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getContainedHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	/** Tests eviction once the byte budget is exceeded. */
+	@Test
+	public void testEviction() throws FormatException, IOException {
+		cache.setMaxBytes(2 * PLANE_SIZE);
+
+		filter.openPlane(0, 0);
+		filter.openPlane(0, 1);
+		filter.openPlane(0, 0);
+		filter.openPlane(0, 2);
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2 * PLANE_SIZE, cache.getCachedBytes());
+
+		// plane 1 was the least recently used
+		cache.resetStatistics();
+		filter.openPlane(0, 0);
+		filter.openPlane(0, 1);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// with LFU, plane 0 survives as it has been used most often
+		cache.setEviction(PlaneCacheFilter.Eviction.LFU);
+		filter.openPlane(0, 3);
+		cache.resetStatistics();
+		filter.openPlane(0, 0);
+		assertEquals(1, cache.getHitCount());
+	}
+}
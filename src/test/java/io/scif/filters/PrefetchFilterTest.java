@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests for {@link PrefetchFilter}.
+ */
+public class PrefetchFilterTest {
+
+	private SCIFIO scifio;
+
+	private ReaderFilter filter;
+
+	private PrefetchFilter prefetch;
+
+	@Before
+	public void setUp() throws FormatException, IOException {
+		scifio = new SCIFIO();
+		final Location id = new TestImgLocation.Builder().name("prefetch").lengths(
+			24, 16, 12).axes("X", "Y", "Z").build();
+		filter = scifio.initializer().initializeReader(id);
+		prefetch = filter.enable(PrefetchFilter.class);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		filter.close();
+		scifio.dispose();
+	}
+
+	/** Tests that planes read in order are read ahead. */
+	@Test
+	public void testSequential() throws FormatException, IOException {
+		for (int p = 0; p < 12; p++) {
+			assertArrayEquals(filter.getTail().openPlane(0, p).getBytes(), filter
+				.openPlane(0, p).getBytes());
+		}
+		// the first three requests establish the pattern
+		assertEquals(3, prefetch.getMissCount());
+		assertEquals(9, prefetch.getHitCount());
+	}
+
+	/** Tests that a strided pattern is followed, and a broken one is not. */
+	@Test
+	public void testStrided() throws FormatException, IOException {
+		for (int p = 11; p >= 0; p -= 3) {
+			assertArrayEquals(filter.getTail().openPlane(0, p).getBytes(), filter
+				.openPlane(0, p).getBytes());
+		}
+		assertEquals(1, prefetch.getHitCount());
+
+		filter.openPlane(0, 7);
+		assertEquals(1, prefetch.getHitCount());
+		assertEquals(4, prefetch.getMissCount());
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.img;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.Metadata;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.filters.ChannelFiller;
+import io.scif.filters.MinMaxFilter;
+import io.scif.filters.PlaneCacheFilter;
+import io.scif.filters.PlaneSeparator;
+import io.scif.filters.ReaderFilter;
+import io.scif.io.handle.CountingHandle;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import net.imagej.ImgPlus;
+import net.imglib2.Cursor;
+import net.imglib2.FinalInterval;
+import net.imglib2.type.numeric.RealType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link ImgOpener}.
+ */
+public class ImgOpenerTest {
+
+	private SCIFIO scifio;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	/**
+	 * Tests that consecutive planes of a raw format are read in bulk, with
+	 * fewer reads than planes.
+	 */
+	@Test
+	public void testContiguousPlanes() throws Exception {
+		final int planes = 8;
+		final byte[] pixels = new byte[6 * 4 * planes];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (byte) (i % 100);
+		}
+		final File file = File.createTempFile("ImgOpenerTest", ".fits");
+		file.deleteOnExit();
+		final StringBuilder header = new StringBuilder();
+		for (final String card : new String[] { "SIMPLE  = T", "BITPIX  = 8",
+			"NAXIS   = 3", "NAXIS1  = 6", "NAXIS2  = 4", "NAXIS3  = " + planes,
+			"END" })
+		{
+			header.append(String.format("%-80s", card));
+		}
+		while (header.length() % 2880 != 0) {
+			header.append(' ');
+		}
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(header.toString().getBytes(StandardCharsets.US_ASCII));
+			out.write(pixels);
+		}
+
+		final ReaderFilter reader = scifio.initializer().initializeReader(
+			new FileLocation(file));
+		// filters which leave these planes unchanged must not split the reads
+		reader.enable(ChannelFiller.class);
+		reader.enable(PlaneSeparator.class);
+		reader.enable(MinMaxFilter.class);
+		assertTrue(reader.isBulkReadable(0, new FinalInterval(6, 4)));
+		assertFalse(reader.isBulkReadable(0, new FinalInterval(3, 4)));
+		final byte[] expected = new byte[pixels.length];
+		for (int p = 0; p < planes; p++) {
+			final byte[] plane = reader.openPlane(0, p).getBytes();
+			System.arraycopy(plane, 0, expected, p * plane.length, plane.length);
+		}
+
+		// count the reads of the opener alone
+		final Metadata meta = reader.getTail().getMetadata();
+		final CountingHandle<Location> counter = new CountingHandle<>(meta
+			.getSource());
+		meta.setSource(counter);
+		final ImgPlus<?> img = new ImgOpener(scifio.getContext()).openImgs(reader,
+			new SCIFIOConfig().imgOpenerSetImgModes(ImgMode.ARRAY)).get(0);
+		assertTrue(counter.getReadCount() > 0);
+		assertTrue(counter.getReadCount() < planes);
+
+		final Cursor<?> cursor = img.getImg().cursor();
+		for (final byte value : expected) {
+			assertEquals(value, ((RealType<?>) cursor.next()).getRealDouble(), 0);
+		}
+		reader.close();
+	}
+
+	/**
+	 * Tests that readers which open each plane in turn are not asked to read
+	 * planes in bulk.
+	 */
+	@Test
+	public void testPlaneByPlane() throws Exception {
+		final ReaderFilter reader = scifio.initializer().initializeReader(
+			TestImgLocation.builder().name("planes").axes("X", "Y", "Z").lengths(6,
+				4, 8).build());
+		assertFalse(reader.isBulkReadable(0, new FinalInterval(6, 4)));
+		reader.enable(PlaneCacheFilter.class);
+		assertFalse(reader.isBulkReadable(0, new FinalInterval(6, 4)));
+		reader.close();
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Tests {@link MappedFileHandle}.
+ */
+public class MappedFileHandleTest {
+
+	private static final int LENGTH = 10000;
+
+	private static final int WINDOW = 1000;
+
+	private File file;
+
+	private byte[] data;
+
+	private MappedFileHandle handle;
+
+	@Before
+	public void setUp() throws IOException {
+		data = new byte[LENGTH];
+		new Random(0xdeadbeef).nextBytes(data);
+		file = File.createTempFile("MappedFileHandleTest", ".raw");
+		Files.write(file.toPath(), data);
+		handle = new MappedFileHandle(new FileLocation(file), WINDOW);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		handle.close();
+		file.delete();
+	}
+
+	@Test
+	public void testProperties() throws IOException {
+		assertEquals(LENGTH, handle.length());
+		assertEquals(WINDOW, handle.getWindowSize());
+		assertFalse(handle.isWritable());
+	}
+
+	/** Tests random reads, many of which span several windows. */
+	@Test
+	public void testRandomReads() throws IOException {
+		final Random r = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			final int offset = r.nextInt(LENGTH);
+			final int length = Math.min(r.nextInt(3 * WINDOW), LENGTH - offset);
+			final byte[] buf = new byte[length];
+			handle.seek(offset);
+			assertEquals(length, handle.read(buf, 0, length));
+			assertArrayEquals(Arrays.copyOfRange(data, offset, offset + length),
+				buf);
+			assertEquals(offset + length, handle.offset());
+		}
+	}
+
+	/** Tests primitive reads in both byte orders, including across windows. */
+	@Test
+	public void testPrimitives() throws IOException {
+		for (final ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+			ByteOrder.LITTLE_ENDIAN })
+		{
+			handle.setOrder(order);
+			final ByteBuffer expected = ByteBuffer.wrap(data).order(order);
+			for (int offset = WINDOW - 8; offset <= WINDOW; offset++) {
+				handle.seek(offset);
+				assertEquals(expected.getShort(offset), handle.readShort());
+				handle.seek(offset);
+				assertEquals(expected.getInt(offset), handle.readInt());
+				handle.seek(offset);
+				assertEquals(expected.getLong(offset), handle.readLong());
+				assertEquals(offset + 8, handle.offset());
+			}
+		}
+	}
+
+	@Test
+	public void testEndOfFile() throws IOException {
+		final byte[] buf = new byte[100];
+		handle.seek(LENGTH - 10);
+		assertEquals(10, handle.read(buf, 0, buf.length));
+		assertEquals(-1, handle.read(buf, 0, buf.length));
+		assertEquals(-1, handle.read());
+	}
+}
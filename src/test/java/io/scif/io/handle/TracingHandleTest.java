@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io.handle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.io.handle.HandleTrace.Event;
+import io.scif.io.handle.HandleTrace.Op;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Tests {@link TracingHandle} and {@link HandleTrace}.
+ */
+public class TracingHandleTest {
+
+	private File file;
+
+	private byte[] data;
+
+	@Before
+	public void setUp() throws IOException {
+		data = new byte[1000];
+		new Random(0xdeadbeef).nextBytes(data);
+		file = File.createTempFile("TracingHandleTest", ".raw");
+		Files.write(file.toPath(), data);
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	/** Tests that reads, seeks and skips are recorded in order. */
+	@Test
+	public void testTrace() throws IOException {
+		final FileLocation loc = new FileLocation(file);
+		final HandleTrace trace = new HandleTrace("Test", loc, 16);
+		try (final TracingHandle<FileLocation> handle = new TracingHandle<>(
+			new MappedFileHandle(loc, 256), trace))
+		{
+			final byte[] buf = new byte[10];
+			handle.seek(100);
+			handle.read(buf, 0, 10);
+			assertArrayEquals(Arrays.copyOfRange(data, 100, 110), buf);
+			handle.read(buf, 0, 10);
+			handle.skipBytes(5);
+			assertEquals(data[125], handle.readByte());
+		}
+
+		final List<Event> events = trace.getEvents();
+		assertEquals(5, events.size());
+		assertEvent(events.get(0), Op.SEEK, 100, 0);
+		assertEvent(events.get(1), Op.READ, 100, 10);
+		assertEvent(events.get(2), Op.READ, 110, 10);
+		assertEvent(events.get(3), Op.SKIP, 120, 5);
+		assertEvent(events.get(4), Op.READ, 125, 1);
+
+		final StringWriter out = new StringWriter();
+		trace.write(out);
+		assertEquals("op,offset,length\nSEEK,100,0\nREAD,100,10\n" +
+			"READ,110,10\nSKIP,120,5\nREAD,125,1\n", out.toString());
+	}
+
+	/** Tests that a full trace keeps the most recent calls. */
+	@Test
+	public void testOverflow() {
+		final HandleTrace trace = new HandleTrace("Test", new FileLocation(file),
+			4);
+		for (int i = 0; i < 10; i++) {
+			trace.record(Op.READ, i, 1);
+		}
+		assertEquals(10, trace.getRecordedCount());
+		assertEquals(6, trace.getDroppedCount());
+		final List<Event> events = trace.getEvents();
+		assertEquals(4, events.size());
+		for (int i = 0; i < 4; i++) {
+			assertEvent(events.get(i), Op.READ, 6 + i, 1);
+		}
+		trace.clear();
+		assertEquals(0, trace.getEvents().size());
+	}
+
+	// -- Helper methods --
+
+	private static void assertEvent(final Event event, final Op op,
+		final long offset, final int length)
+	{
+		assertEquals(op, event.op());
+		assertEquals(offset, event.offset());
+		assertEquals(length, event.length());
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+	/** Tests that every value falls within the bounds of its bucket. */
+	@Test
+	public void testBuckets() {
+		for (long v = 0; v < 100000; v += 7) {
+			assertBucket(v);
+		}
+		for (int shift = 0; shift < 63; shift++) {
+			assertBucket(1L << shift);
+			assertBucket((1L << shift) - 1);
+		}
+		assertBucket(Long.MAX_VALUE);
+		assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(
+			Long.MAX_VALUE));
+	}
+
+	/** Tests percentile estimates of uniformly distributed values. */
+	@Test
+	public void testPercentiles() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long v = 1; v <= 1000; v++) {
+			histogram.record(v * 1000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500500000, histogram.getTotalNanos());
+		assertEquals(1000000, histogram.getMaxNanos());
+		assertEquals(500500, histogram.getMeanNanos(), 1e-9);
+		assertWithin(500000, histogram.getPercentileNanos(50));
+		assertWithin(990000, histogram.getPercentileNanos(99));
+		assertEquals(1000000, histogram.getPercentileNanos(100));
+
+		final LatencyHistogram copy = histogram.copy();
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentileNanos(50));
+		assertEquals(1000, copy.getCount());
+	}
+
+	// -- Helper methods --
+
+	private static void assertBucket(final long value) {
+		final int bucket = LatencyHistogram.bucket(value);
+		assertTrue(value + " below bucket " + bucket, LatencyHistogram.lowerBound(
+			bucket) <= value);
+		assertTrue(value + " above bucket " + bucket, LatencyHistogram.upperBound(
+			bucket) >= value);
+	}
+
+	/** Asserts that an estimate is within the histogram's 25% resolution. */
+	private static void assertWithin(final long expected, final long actual) {
+		assertTrue(actual + " != " + expected, actual >= expected &&
+			actual <= expected * 1.25);
+	}
+}
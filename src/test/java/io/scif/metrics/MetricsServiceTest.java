@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.SCIFIO;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link MetricsService}.
+ */
+public class MetricsServiceTest {
+
+	/** Tests that the metrics of each format are registered as MBeans. */
+	@Test
+	public void testMBeans() throws Exception {
+		final SCIFIO scifio = new SCIFIO();
+		final MetricsService metricsService = scifio.metrics();
+		final ReaderMetrics metrics = metricsService.getFormatMetrics("Test");
+		metrics.record(2000000, 100, 2, 1, 500000);
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = ((DefaultMetricsService) metricsService)
+			.objectName(metrics);
+		assertTrue(server.isRegistered(name));
+		assertEquals(1L, server.getAttribute(name, "PlaneCount"));
+		assertEquals(100L, server.getAttribute(name, "BytesRead"));
+		assertEquals(1.5, (Double) server.getAttribute(name, "DecodeMillis"),
+			1e-9);
+
+		metricsService.setJmxEnabled(false);
+		assertFalse(server.isRegistered(name));
+		metricsService.setJmxEnabled(true);
+		assertTrue(server.isRegistered(name));
+		scifio.dispose();
+		assertFalse(server.isRegistered(name));
+	}
+
+	/** Tests that snapshots are copies, unaffected by later metrics. */
+	@Test
+	public void testSnapshot() {
+		final SCIFIO scifio = new SCIFIO();
+		final MetricsService metricsService = scifio.metrics();
+		metricsService.setJmxEnabled(false);
+		final ReaderMetrics format = metricsService.getFormatMetrics("Test");
+		final ReaderMetrics reader = new ReaderMetrics("Test: a.tif");
+		metricsService.addReaderMetrics(reader);
+		format.record(1000, 10, 1, 0, 100);
+		reader.record(1000, 10, 1, 0, 100);
+
+		final MetricsSnapshot snapshot = metricsService.snapshot();
+		format.record(1000, 10, 1, 0, 100);
+		assertEquals(1, snapshot.getFormat("Test").getPlaneCount());
+		assertEquals(1, snapshot.getReaders().size());
+		assertEquals("Test: a.tif", snapshot.getReaders().get(0).getName());
+
+		metricsService.reset();
+		assertEquals(0, format.getPlaneCount());
+		metricsService.removeReaderMetrics(reader);
+		assertTrue(metricsService.snapshot().getReaders().isEmpty());
+		scifio.dispose();
+	}
+}
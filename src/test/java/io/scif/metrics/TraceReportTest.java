@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+import io.scif.Reader;
+import io.scif.ReaderPool;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+import io.scif.io.handle.HandleTrace;
+import io.scif.io.handle.HandleTrace.Op;
+import io.scif.io.handle.TracingHandle;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link TraceReport}.
+ */
+public class TraceReportTest {
+
+	/** Tests the analysis of a hand-made trace. */
+	@Test
+	public void testAnalyze() {
+		final HandleTrace trace = new HandleTrace("Test", new FileLocation(
+			"test.raw"), 64);
+		// a header read twice, then one plane row by row
+		trace.record(Op.READ, 0, 8);
+		trace.record(Op.SEEK, 0, 0);
+		trace.record(Op.READ, 0, 8);
+		trace.record(Op.SEEK, 1000, 0);
+		for (int row = 0; row < 4; row++) {
+			trace.record(Op.READ, 1000 + row * 100, 100);
+		}
+		trace.record(Op.SKIP, 1400, 10);
+
+		final TraceReport report = TraceReport.analyze(trace);
+		assertEquals(6, report.getReadCount());
+		assertEquals(416, report.getBytesRead());
+		assertEquals(408, report.getDistinctBytesRead());
+		assertEquals(416 / 408.0, report.getReadAmplification(), 1e-9);
+		assertEquals(6, report.getSmallReadCount());
+		// the first read, and the rows after the first
+		assertEquals(4, report.getSequentialReadCount());
+		assertEquals(2, report.getRandomReadCount());
+		assertEquals(2, report.getSeekCount());
+		assertEquals(1, report.getSkipCount());
+	}
+
+	/** Tests that traced reading records the handles of readers. */
+	@Test
+	public void testTracedReading() throws FormatException, IOException {
+		final File pgm = File.createTempFile("TraceReportTest", ".pgm");
+		pgm.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(pgm)) {
+			out.write("P5\n8 4\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[8 * 4]);
+		}
+
+		final SCIFIO scifio = new SCIFIO();
+		try {
+			final Location loc = new FileLocation(pgm);
+			final Reader reader = scifio.initializer().initializeReader(loc,
+				new SCIFIOConfig().enableTracedReading(true));
+			assertTrue(reader.getHandle() instanceof TracingHandle);
+			reader.openPlane(0, 0);
+			reader.close();
+
+			final List<HandleTrace> traces = scifio.metrics().getTraces();
+			assertEquals(1, traces.size());
+			assertEquals(loc, traces.get(0).getLocation());
+			final String format = reader.getFormatName();
+			assertEquals(format, traces.get(0).getFormatName());
+
+			final Map<String, TraceReport> reports = TraceReport.analyzeByFormat(
+				Arrays.asList(traces.get(0)));
+			assertTrue(reports.get(format).getBytesRead() >= 8 * 4);
+		}
+		finally {
+			scifio.dispose();
+		}
+	}
+
+	/** Tests that the readers of a pool are traced too. */
+	@Test
+	public void testPooledTracedReading() throws FormatException, IOException {
+		final File pgm = File.createTempFile("TraceReportTest", ".pgm");
+		pgm.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(pgm)) {
+			out.write("P5\n8 4\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[8 * 4]);
+		}
+
+		final SCIFIO scifio = new SCIFIO();
+		try {
+			final SCIFIOConfig config = new SCIFIOConfig().enableTracedReading(
+				true);
+			final Reader reader = scifio.initializer().initializeReader(
+				new FileLocation(pgm), config);
+			try (final ReaderPool pool = new ReaderPool(reader, config, 1, null)) {
+				final Reader pooled = pool.acquire();
+				assertTrue(pooled.getHandle() instanceof TracingHandle);
+				pooled.openPlane(0, 0);
+				pool.release(pooled);
+			}
+			reader.close();
+			assertEquals(2, scifio.metrics().getTraces().size());
+		}
+		finally {
+			scifio.dispose();
+		}
+	}
+
+	/** Tests that only the most recent traces are kept. */
+	@Test
+	public void testTraceLimit() {
+		final SCIFIO scifio = new SCIFIO();
+		try {
+			final int count = DefaultMetricsService.MAX_TRACES + 1;
+			final HandleTrace[] added = new HandleTrace[count];
+			for (int i = 0; i < count; i++) {
+				added[i] = new HandleTrace("Test", new FileLocation("test" + i +
+					".raw"), 4);
+				scifio.metrics().addTrace(added[i]);
+			}
+			final List<HandleTrace> traces = scifio.metrics().getTraces();
+			assertEquals(DefaultMetricsService.MAX_TRACES, traces.size());
+			assertSame(added[1], traces.get(0));
+			assertSame(added[count - 1], traces.get(traces.size() - 1));
+		}
+		finally {
+			scifio.dispose();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import io.scif.Format;
+import io.scif.SCIFIO;
+import io.scif.formats.PGMFormat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link FormatCache}.
+ */
+public class FormatCacheTest {
+
+	private SCIFIO scifio;
+
+	private Format format;
+
+	private FormatCache cache;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		format = scifio.format().getFormatFromClass(PGMFormat.class);
+		cache = new FormatCache();
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	/** Tests that entries are dropped once their file changes. */
+	@Test
+	public void testValidation() throws IOException {
+		final File file = File.createTempFile("FormatCacheTest", ".pgm");
+		file.deleteOnExit();
+		final Location loc = new FileLocation(file);
+
+		cache.put(loc, format);
+		assertSame(format, cache.get(loc));
+		assertEquals(1, cache.getHitCount());
+
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(new byte[16]);
+		}
+		assertNull(cache.get(loc));
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getInvalidationCount());
+		assertEquals(0, cache.size());
+	}
+
+	/** Tests that entries expire after their time to live. */
+	@Test
+	public void testTimeToLive() throws InterruptedException {
+		final Location loc = new FileLocation("notAFile.pgm");
+		cache.setTimeToLive(1);
+		cache.put(loc, format);
+		Thread.sleep(10);
+		assertNull(cache.get(loc));
+		assertEquals(1, cache.getInvalidationCount());
+	}
+
+	/** Tests that the least recently used entries are evicted. */
+	@Test
+	public void testEviction() throws InterruptedException {
+		cache.setMaxSize(10);
+		final Location[] locs = new Location[11];
+		for (int i = 0; i < locs.length; i++) {
+			locs[i] = new FileLocation("image" + i + ".pgm");
+		}
+		for (int i = 0; i < 10; i++) {
+			cache.put(locs[i], format);
+			Thread.sleep(1);
+		}
+		// make the first entry the most recently used
+		assertSame(format, cache.get(locs[0]));
+
+		cache.put(locs[10], format);
+		assertEquals(9, cache.size());
+		assertEquals(2, cache.getEvictionCount());
+		assertSame(format, cache.get(locs[0]));
+		assertNull(cache.get(locs[1]));
+		assertNull(cache.get(locs[2]));
+		assertSame(format, cache.get(locs[10]));
+	}
+
+	/** Tests that the format service answers repeated lookups from its cache. */
+	@Test
+	public void testFormatService() throws Exception {
+		final Location loc = new FileLocation("image.pgm");
+		final FormatCache serviceCache = scifio.format().getFormatCache();
+		serviceCache.resetStatistics();
+
+		assertSame(format, scifio.format().getFormat(loc));
+		assertSame(format, scifio.format().getFormat(loc));
+		assertEquals(1, serviceCache.getMissCount());
+		assertEquals(1, serviceCache.getHitCount());
+	}
+}
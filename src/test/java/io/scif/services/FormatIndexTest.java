@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.Format;
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+import io.scif.formats.BMPFormat;
+import io.scif.formats.MinimalTIFFFormat;
+import io.scif.formats.PGMFormat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.handle.DataHandleService;
+import org.scijava.io.location.FileLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link FormatIndex} and the indexed format detection of
+ * {@link DefaultFormatService}.
+ */
+public class FormatIndexTest {
+
+	private SCIFIO scifio;
+
+	private FormatIndex index;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		index = new FormatIndex(scifio.format().getAllFormats());
+	}
+
+	@After
+	public void tearDown() {
+		scifio.dispose();
+	}
+
+	/** Tests suffix lookup, including compressed suffixes. */
+	@Test
+	public void testMatchSuffix() {
+		final Format pgm = scifio.format().getFormatFromClass(PGMFormat.class);
+		assertTrue(index.matchSuffix("image.pgm").contains(pgm));
+		assertTrue(index.matchSuffix("IMAGE.PGM").contains(pgm));
+		assertTrue(index.matchSuffix("image.pgm.gz").contains(pgm));
+		assertFalse(index.matchSuffix("image.pgmx").contains(pgm));
+		assertFalse(index.matchSuffix("pgm").contains(pgm));
+	}
+
+	/** Tests signature lookup against the leading bytes of a source. */
+	@Test
+	public void testMatchSignature() {
+		final Format pgm = scifio.format().getFormatFromClass(PGMFormat.class);
+		final Format bmp = scifio.format().getFormatFromClass(BMPFormat.class);
+		final Format tiff = scifio.format().getFormatFromClass(
+			MinimalTIFFFormat.class);
+
+		final byte[] header = "P5\n6 4\n255\n".getBytes(StandardCharsets.US_ASCII);
+		assertTrue(index.matchSignature(header, header.length).contains(pgm));
+		assertFalse(index.matchSignature(header, header.length).contains(bmp));
+		assertFalse(index.matchSignature(header, 0).contains(pgm));
+
+		final byte[] tiffHeader = { 0x4d, 0x4d, 0x00, 0x2a, 0x00 };
+		assertTrue(index.matchSignature(tiffHeader, 5).contains(tiff));
+		assertFalse(index.matchSignature(tiffHeader, 3).contains(tiff));
+	}
+
+	/**
+	 * Tests that indexed detection finds the same formats as asking every
+	 * checker in turn.
+	 */
+	@Test
+	public void testDetection() throws IOException, FormatException {
+		final byte[] pgm = "P5\n2 2\n255\n\0\0\0\0".getBytes(
+			StandardCharsets.US_ASCII);
+		final byte[] tiff = { 0x49, 0x49, 0x2a, 0x00, 0x08, 0, 0, 0, 0, 0 };
+		final byte[] bmp = "BM\0\0\0\0\0\0".getBytes(StandardCharsets.US_ASCII);
+		final byte[] other = "no known format".getBytes(
+			StandardCharsets.US_ASCII);
+
+		assertDetection(pgm, ".pgm");
+		assertDetection(pgm, ".dat");
+		assertDetection(tiff, ".tif");
+		assertDetection(tiff, ".dat");
+		assertDetection(bmp, ".bmp");
+		assertDetection(other, ".dat");
+		assertDetection(other, ".pgm");
+	}
+
+	// -- Helper methods --
+
+	private void assertDetection(final byte[] contents, final String suffix)
+		throws IOException, FormatException
+	{
+		final File file = File.createTempFile("FormatIndexTest", suffix);
+		file.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(contents);
+		}
+		final Location loc = new FileLocation(file);
+		final FormatService formatService = scifio.format();
+
+		for (final boolean open : new boolean[] { false, true }) {
+			final SCIFIOConfig config = new SCIFIOConfig().checkerSetOpen(open);
+			final List<Format> expected = new ArrayList<>();
+			for (final Format format : formatService.getAllFormats()) {
+				if (format.isEnabled() && format.createChecker().isFormat(loc,
+					config))
+				{
+					expected.add(format);
+				}
+			}
+			assertEquals(file.getName(), expected, formatService.getFormatList(loc,
+				config, false));
+		}
+
+		final DataHandleService handles = scifio.getContext().getService(
+			DataHandleService.class);
+		try (final DataHandle<Location> handle = handles.create(loc)) {
+			final List<Format> expected = new ArrayList<>();
+			for (final Format format : formatService.getAllFormats()) {
+				if (format.isEnabled() && format.createChecker().isFormat(handle)) {
+					expected.add(format);
+				}
+				handle.seek(0);
+			}
+			assertEquals(file.getName(), expected, formatService.getFormatList(
+				handle, new SCIFIOConfig(), false));
+		}
+	}
+}
@@ -36,10 +36,15 @@ import io.scif.FormatException;
 import io.scif.formats.StratecPQCTFormat;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.After;
 import org.junit.Before;
@@ -94,6 +99,30 @@ public class FormatServiceTest {
 			expectedSuffixes.isEmpty());
 	}
 
+	/**
+	 * Tests that threads racing to first use the service all see every format.
+	 */
+	@Test
+	public void testConcurrentInitialization() throws Exception {
+		final Context context = new Context();
+		final FormatService service = context.getService(FormatService.class);
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<Integer>> counts = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				counts.add(executor.submit(() -> service.getAllFormats().size()));
+			}
+			final int expected = formatService.getAllFormats().size();
+			for (final Future<Integer> count : counts) {
+				assertEquals(expected, count.get().intValue());
+			}
+		}
+		finally {
+			executor.shutdown();
+			context.dispose();
+		}
+	}
+
 	/**
 	 * Test simultaneous format caching on multiple threads.
 	 * <p>
@@ -0,0 +1,277 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.Format;
+import io.scif.Metadata;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import net.imagej.axis.Axes;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.FileLocation;
+
+/**
+ * Tests {@link MetadataCacheService}.
+ */
+public class MetadataCacheServiceTest {
+
+	private SCIFIO scifio;
+
+	private MetadataCacheService metadataCache;
+
+	private FileLocation loc;
+
+	private final byte[] pixels = new byte[6 * 4];
+
+	private final SCIFIOConfig config = new SCIFIOConfig().checkerSetOpen(false)
+		.parserSetMemoized(true);
+
+	@Before
+	public void setUp() throws IOException {
+		scifio = new SCIFIO();
+		metadataCache = scifio.metadataCache();
+		final File dir = Files.createTempDirectory("MetadataCache").toFile();
+		dir.deleteOnExit();
+		metadataCache.setDirectory(dir);
+
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (byte) (i * 5);
+		}
+		final File file = File.createTempFile("MetadataCacheServiceTest", ".pgm");
+		file.deleteOnExit();
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write("P5\n6 4\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(pixels);
+		}
+		loc = new FileLocation(file);
+	}
+
+	@After
+	public void tearDown() {
+		metadataCache.clear();
+		scifio.dispose();
+	}
+
+	/** Tests that parsed metadata is restored, and the dataset still read. */
+	@Test
+	public void testRestore() throws Exception {
+		final Format format = scifio.format().getFormat(loc, config);
+		assertNull(metadataCache.get(loc, format, config));
+
+		final Metadata parsed = scifio.initializer().parseMetadata(loc, config);
+		parsed.close();
+		final Metadata restored = metadataCache.get(loc, format, config);
+		assertNotNull(restored);
+		assertEquals(format.getMetadataClass(), restored.getClass());
+		assertEquals(6, restored.get(0).getAxisLength(Axes.X));
+		assertEquals(4, restored.get(0).getAxisLength(Axes.Y));
+		assertEquals(parsed.get(0).getPixelType(), restored.get(0).getPixelType());
+
+		final Reader reader = scifio.initializer().initializeReader(loc, config);
+		assertArrayEquals(pixels, reader.openPlane(0, 0).getBytes());
+		reader.close();
+	}
+
+	/** Tests that a FITS plane is read again after a cache hit. */
+	@Test
+	public void testRestoreFITS() throws Exception {
+		final File file = File.createTempFile("MetadataCacheServiceTest", ".fits");
+		file.deleteOnExit();
+		final StringBuilder header = new StringBuilder();
+		for (final String card : new String[] { "SIMPLE  = T", "BITPIX  = 8",
+			"NAXIS   = 2", "NAXIS1  = 6", "NAXIS2  = 4", "END" })
+		{
+			header.append(String.format("%-80s", card));
+		}
+		while (header.length() % 2880 != 0) {
+			header.append(' ');
+		}
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(header.toString().getBytes(StandardCharsets.US_ASCII));
+			out.write(pixels);
+		}
+		final FileLocation fits = new FileLocation(file);
+
+		final Format format = scifio.format().getFormat(fits, config);
+		scifio.initializer().parseMetadata(fits, config).close();
+		assertNotNull(metadataCache.get(fits, format, config));
+
+		final Reader reader = scifio.initializer().initializeReader(fits, config);
+		assertArrayEquals(pixels, reader.openPlane(0, 0).getBytes());
+		reader.close();
+	}
+
+	/** Tests that a TIFF plane is read again after a cache hit. */
+	@Test
+	public void testRestoreTIFF() throws Exception {
+		final ByteBuffer tiff = ByteBuffer.allocate(122 + pixels.length).order(
+			ByteOrder.LITTLE_ENDIAN);
+		tiff.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+		// ImageWidth, ImageLength, BitsPerSample, Compression,
+		// PhotometricInterpretation, StripOffsets, SamplesPerPixel,
+		// RowsPerStrip, StripByteCounts
+		final int[][] entries = { { 256, 3, 6 }, { 257, 3, 4 }, { 258, 3, 8 }, //
+			{ 259, 3, 1 }, { 262, 3, 1 }, { 273, 4, 122 }, { 277, 3, 1 }, //
+			{ 278, 3, 4 }, { 279, 4, pixels.length } };
+		tiff.putShort((short) entries.length);
+		for (final int[] entry : entries) {
+			tiff.putShort((short) entry[0]).putShort((short) entry[1]).putInt(1);
+			if (entry[1] == 3) tiff.putShort((short) entry[2]).putShort((short) 0);
+			else tiff.putInt(entry[2]);
+		}
+		tiff.putInt(0).put(pixels);
+		final File file = File.createTempFile("MetadataCacheServiceTest", ".tif");
+		file.deleteOnExit();
+		Files.write(file.toPath(), tiff.array());
+		final FileLocation tif = new FileLocation(file);
+
+		final Format format = scifio.format().getFormat(tif, config);
+		scifio.initializer().parseMetadata(tif, config).close();
+		assertNotNull(metadataCache.get(tif, format, config));
+
+		final Reader reader = scifio.initializer().initializeReader(tif, config);
+		assertArrayEquals(pixels, reader.openPlane(0, 0).getBytes());
+		reader.close();
+	}
+
+	/**
+	 * Tests that metadata which does not opt in to caching, here because its
+	 * reader state is transient, is parsed again and still read.
+	 */
+	@Test
+	public void testNotCacheable() throws Exception {
+		final File file = File.createTempFile("MetadataCacheServiceTest", ".gif");
+		file.deleteOnExit();
+		final BufferedImage image = new BufferedImage(6, 4,
+			BufferedImage.TYPE_BYTE_GRAY);
+		image.getRaster().setDataElements(0, 0, 6, 4, pixels);
+		assertTrue(ImageIO.write(image, "gif", file));
+		final FileLocation gif = new FileLocation(file);
+
+		final Format format = scifio.format().getFormat(gif, config);
+		final Reader first = scifio.initializer().initializeReader(gif, config);
+		final byte[] expected = first.openPlane(0, 0).getBytes();
+		first.close();
+		assertNull(metadataCache.get(gif, format, config));
+
+		final Reader reader = scifio.initializer().initializeReader(gif, config);
+		assertArrayEquals(expected, reader.openPlane(0, 0).getBytes());
+		reader.close();
+	}
+
+	/** Tests that entries holding classes foreign to metadata are rejected. */
+	@Test
+	public void testRejectForeignClasses() throws Exception {
+		final Format format = scifio.format().getFormat(loc, config);
+		scifio.initializer().parseMetadata(loc, config).close();
+		final File[] entries = metadataCache.getDirectory().listFiles();
+		assertEquals(1, entries.length);
+
+		// keep the valid header, but replace the metadata
+		final String key;
+		final String[] names;
+		final long[] stats;
+		try (final ObjectInputStream in = new ObjectInputStream(
+			new FileInputStream(entries[0])))
+		{
+			key = in.readUTF();
+			names = new String[in.readInt()];
+			stats = new long[2 * names.length];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = in.readUTF();
+				stats[2 * i] = in.readLong();
+				stats[2 * i + 1] = in.readLong();
+			}
+		}
+		try (final ObjectOutputStream out = new ObjectOutputStream(
+			new FileOutputStream(entries[0])))
+		{
+			out.writeUTF(key);
+			out.writeInt(names.length);
+			for (int i = 0; i < names.length; i++) {
+				out.writeUTF(names[i]);
+				out.writeLong(stats[2 * i]);
+				out.writeLong(stats[2 * i + 1]);
+			}
+			out.writeObject(new File("foreign"));
+		}
+
+		assertNull(metadataCache.get(loc, format, config));
+		assertFalse(Arrays.asList(metadataCache.getDirectory().list()).contains(
+			entries[0].getName()));
+	}
+
+	/** Tests that entries are ignored once the dataset changes. */
+	@Test
+	public void testStale() throws Exception {
+		final Format format = scifio.format().getFormat(loc, config);
+		scifio.initializer().parseMetadata(loc, config).close();
+		assertNotNull(metadataCache.get(loc, format, config));
+
+		final File file = loc.getFile();
+		assertTrue(file.setLastModified(file.lastModified() - 10000));
+		assertNull(metadataCache.get(loc, format, config));
+
+		// a different configuration is a different entry
+		scifio.initializer().parseMetadata(loc, config).close();
+		assertNull(metadataCache.get(loc, format, new SCIFIOConfig(config)
+			.parserSetFiltered(true)));
+		metadataCache.invalidate(loc);
+		assertNull(metadataCache.get(loc, format, config));
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+import io.scif.Plane;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.filters.ChannelFiller;
+import io.scif.filters.ReaderFilter;
+import io.scif.img.ImgOpener;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+
+import net.imglib2.FinalInterval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+
+/**
+ * Tests {@link PlaneBufferService}.
+ */
+public class PlaneBufferServiceTest {
+
+	private PlaneBufferService planeBufferService;
+
+	@Before
+	public void setUp() {
+		final Context context = new Context();
+		planeBufferService = context.getService(PlaneBufferService.class);
+	}
+
+	@After
+	public void tearDown() {
+		planeBufferService.getContext().dispose();
+	}
+
+	/** Tests that released buffers are reused, zeroed, for the same length. */
+	@Test
+	public void testReuse() {
+		final byte[] buf = planeBufferService.acquire(64);
+		buf[3] = 7;
+		planeBufferService.release(buf);
+		assertEquals(64, planeBufferService.getPooledBytes());
+
+		assertNotSame(buf, planeBufferService.acquire(32));
+		final byte[] reused = planeBufferService.acquire(64);
+		assertSame(buf, reused);
+		assertArrayEquals(new byte[64], reused);
+		assertEquals(0, planeBufferService.getPooledBytes());
+	}
+
+	/**
+	 * Tests that pooled planes return their buffer when released, and only
+	 * then.
+	 */
+	@Test
+	public void testRelease() throws FormatException, IOException {
+		final SCIFIO scifio = new SCIFIO(planeBufferService.getContext());
+		final Reader reader = scifio.initializer().initializeReader(
+			TestImgLocation.builder().name("pooled").lengths(16, 8).build());
+		final SCIFIOConfig config = new SCIFIOConfig().readerSetPooledPlanes(
+			true);
+
+		final Plane plane = reader.openPlane(0, 0, config);
+		final byte[] bytes = plane.getBytes();
+		assertEquals(0, planeBufferService.getPooledBytes());
+
+		plane.release();
+		assertNull(plane.getBytes());
+		assertEquals(bytes.length, planeBufferService.getPooledBytes());
+		assertSame(bytes, reader.openPlane(0, 0, config).getBytes());
+
+		// without opting in, buffers are never taken from the pool
+		planeBufferService.release(new byte[bytes.length]);
+		reader.openPlane(0, 0);
+		assertEquals(bytes.length, planeBufferService.getPooledBytes());
+		reader.close();
+	}
+
+	/**
+	 * Tests that planes read internally, in bulk and by the image opener, are
+	 * returned to the pool.
+	 */
+	@Test
+	public void testInternalRelease() throws FormatException, IOException {
+		final SCIFIO scifio = new SCIFIO(planeBufferService.getContext());
+		final Reader reader = scifio.initializer().initializeReader(
+			TestImgLocation.builder().name("pooled").axes("X", "Y", "Z").lengths(16,
+				8, 3).build());
+		final SCIFIOConfig config = new SCIFIOConfig().readerSetPooledPlanes(
+			true);
+
+		reader.openPlanes(0, new long[] { 0, 1, 2 }, new FinalInterval(16, 8),
+			null, config);
+		assertEquals(16 * 8, planeBufferService.getPooledBytes());
+		reader.close();
+
+		planeBufferService.clear();
+		new ImgOpener(scifio.getContext()).openImgs(TestImgLocation.builder()
+			.name("pooled").axes("X", "Y", "Z").lengths(16, 8, 3).build(), config
+				.imgOpenerSetImgModes(ImgMode.ARRAY));
+		assertTrue(planeBufferService.getPooledBytes() > 0);
+	}
+
+	/**
+	 * Tests that a {@link ChannelFiller} does not hand out a pooled plane again
+	 * once it was released.
+	 */
+	@Test
+	public void testChannelFillerRelease() throws FormatException, IOException {
+		final SCIFIO scifio = new SCIFIO(planeBufferService.getContext());
+		final ReaderFilter reader = scifio.initializer().initializeReader(
+			TestImgLocation.builder().name("pooled").lengths(16, 8).build());
+		reader.enable(ChannelFiller.class);
+		final SCIFIOConfig config = new SCIFIOConfig().readerSetPooledPlanes(
+			true);
+
+		final Plane plane = reader.openPlane(0, 0, config);
+		final byte[] expected = plane.getBytes().clone();
+		plane.release();
+		final Plane reopened = reader.openPlane(0, 0, config);
+		assertArrayEquals(expected, reopened.getBytes());
+		reader.close();
+	}
+
+	/** Tests that the pool never holds more than its maximum size. */
+	@Test
+	public void testMaxBytes() {
+		planeBufferService.setMaxBytes(100);
+		planeBufferService.release(new byte[60]);
+		planeBufferService.release(new byte[60]);
+		assertEquals(60, planeBufferService.getPooledBytes());
+
+		// buffers of other lengths make room for newly released ones
+		planeBufferService.release(new byte[40]);
+		planeBufferService.release(new byte[40]);
+		assertEquals(80, planeBufferService.getPooledBytes());
+		assertEquals(40, planeBufferService.acquire(40).length);
+		assertEquals(40, planeBufferService.getPooledBytes());
+
+		planeBufferService.release(new byte[101]);
+		assertEquals(40, planeBufferService.getPooledBytes());
+
+		planeBufferService.clear();
+		assertEquals(0, planeBufferService.getPooledBytes());
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.FormatException;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.config.SCIFIOConfig;
+import io.scif.io.location.TestImgLocation;
+
+import java.io.IOException;
+
+import net.imagej.axis.Axes;
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link Hyperslab} and {@link Reader#openRegion}.
+ */
+public class HyperslabTest {
+
+	private static final long[] LENGTHS = { 16, 12, 5, 3 };
+
+	private static final int BPP = 2;
+
+	private SCIFIO scifio;
+
+	private Reader reader;
+
+	@Before
+	public void setUp() throws FormatException, IOException {
+		scifio = new SCIFIO();
+		final Location sampleImage = TestImgLocation.builder().name("region")
+			.pixelType("uint16").axes("X", "Y", "Z", "Time").lengths(LENGTHS)
+			.planarDims(2).build();
+		reader = scifio.initializer().initializeReader(sampleImage);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		reader.close();
+		scifio.dispose();
+	}
+
+	/** Tests a region in native axis order against individually read planes. */
+	@Test
+	public void testNativeOrder() throws FormatException, IOException {
+		final Interval bounds = new FinalInterval(new long[] { 2, 1, 1, 0 },
+			new long[] { 9, 10, 3, 2 });
+		final byte[] region = reader.openRegion(0, bounds);
+		assertEquals(8 * 10 * 3 * 3 * BPP, region.length);
+		assertRegion(bounds, region, 0, 1, 2, 3);
+	}
+
+	/** Tests a region with Z as the fastest varying axis. */
+	@Test
+	public void testAxisOrder() throws FormatException, IOException {
+		final Interval bounds = new FinalInterval(new long[] { 0, 3, 0, 1 },
+			new long[] { 15, 5, 4, 2 });
+		final byte[] region = reader.openRegion(0, bounds, null,
+			new SCIFIOConfig(), Axes.Z, Axes.X);
+		assertRegion(bounds, region, 2, 0, 1, 3);
+	}
+
+	/** Tests that a region extending beyond the image is rejected. */
+	@Test(expected = FormatException.class)
+	public void testOutOfBounds() throws FormatException, IOException {
+		reader.openRegion(0, new FinalInterval(new long[] { 0, 0, 0, 0 },
+			new long[] { 15, 11, 5, 2 }));
+	}
+
+	/** Tests that an axis order naming an axis twice is rejected. */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidOrder() throws FormatException, IOException {
+		reader.openRegion(0, new FinalInterval(LENGTHS), null, new SCIFIOConfig(),
+			Axes.Y, Axes.Y);
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Checks every pixel of {@code region} against the full planes of the image.
+	 *
+	 * @param order native axis indices, fastest varying first.
+	 */
+	private void assertRegion(final Interval bounds, final byte[] region,
+		final int... order) throws FormatException, IOException
+	{
+		final long[] dims = new long[bounds.numDimensions()];
+		bounds.dimensions(dims);
+		final long[] pos = new long[dims.length];
+		final byte[] expected = new byte[region.length];
+		for (int i = 0; i < region.length / BPP; i++) {
+			long rem = i;
+			for (final int d : order) {
+				pos[d] = bounds.min(d) + rem % dims[d];
+				rem /= dims[d];
+			}
+			final long planeIndex = pos[2] + pos[3] * LENGTHS[2];
+			final byte[] plane = reader.openPlane(0, planeIndex).getBytes();
+			final int offset = (int) (pos[0] + pos[1] * LENGTHS[0]) * BPP;
+			System.arraycopy(plane, offset, expected, i * BPP, BPP);
+		}
+		assertArrayEquals(expected, region);
+	}
+}
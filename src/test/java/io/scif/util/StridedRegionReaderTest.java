@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2020 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.io.handle.DataHandle;
+import org.scijava.io.handle.DataHandleService;
+import org.scijava.io.location.BytesLocation;
+import org.scijava.io.location.Location;
+
+/**
+ * Tests {@link StridedRegionReader}.
+ */
+public class StridedRegionReaderTest {
+
+	private Context context;
+
+	private DataHandleService dataHandleService;
+
+	@Before
+	public void setUp() {
+		context = new Context(DataHandleService.class);
+		dataHandleService = context.getService(DataHandleService.class);
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	/** Tests a crop of a padded, 2-byte, multichannel plane. */
+	@Test
+	public void testCrop() throws IOException {
+		// X=100 (+3 samples of padding), Y=80, C=3, following a 17-byte header
+		final int bpp = 2;
+		final long[] strides = { bpp, bpp * 103, bpp * 103 * 80 };
+		final long[] min = { 10, 5, 1 };
+		final long[] dims = { 60, 70, 2 };
+		final byte[] data = new byte[17 + bpp * 103 * 80 * 3];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i * 31 + i / 251);
+		}
+
+		final byte[] expected = new byte[(int) (bpp * dims[0] * dims[1] *
+			dims[2])];
+		int e = 0;
+		for (long c = min[2]; c < min[2] + dims[2]; c++) {
+			for (long y = min[1]; y < min[1] + dims[1]; y++) {
+				for (long x = min[0]; x < min[0] + dims[0]; x++) {
+					final int offset = (int) (17 + c * strides[2] + y * strides[1] + x *
+						strides[0]);
+					expected[e++] = data[offset];
+					expected[e++] = data[offset + 1];
+				}
+			}
+		}
+
+		try (final DataHandle<Location> handle = dataHandleService.create(
+			new BytesLocation(data)))
+		{
+			handle.seek(17);
+			final StridedRegionReader reader = new StridedRegionReader(strides, min,
+				dims, bpp);
+			assertEquals(dims[1] * dims[2], reader.getRunCount());
+			assertEquals(expected.length, reader.getSize());
+
+			final byte[] actual = new byte[expected.length];
+			reader.read(handle, actual, 0);
+			assertArrayEquals(expected, actual);
+			assertEquals(17 + (min[2] + dims[2] - 1) * strides[2] + (min[1] +
+				dims[1] - 1) * strides[1] + (min[0] + dims[0]) * strides[0], handle
+					.offset());
+		}
+	}
+
+	/** Tests that full rows are merged into a single run. */
+	@Test
+	public void testFullRows() {
+		final StridedRegionReader reader = new StridedRegionReader(new long[] { 1,
+			64, 64 * 64 }, new long[] { 0, 8, 0 }, new long[] { 64, 16, 3 }, 1);
+		assertEquals(3, reader.getRunCount());
+		assertEquals(64 * 16 * 3, reader.getSize());
+	}
+}
@@ -28,8 +28,14 @@
  */
 package io.scif.writing;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.SCIFIO;
 import io.scif.config.SCIFIOConfig;
+import io.scif.formats.AVIFormat;
 import io.scif.img.ImgOpener;
+import io.scif.img.ImgSaver;
 import io.scif.io.location.TestImgLocation;
 
 import java.io.IOException;
@@ -70,6 +76,25 @@ public class AVIWriterTest extends AbstractSyntheticWriterTest {
 		testWriting(sourceImg);
 	}
 
+	/** Tests that the key frames flagged in the idx1 index are found. */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testKeyFrames() throws Exception {
+		final ImgPlus<IntType> sourceImg = (ImgPlus<IntType>) opener.openImgs(
+			new TestImgLocation.Builder().name("keyframes").pixelType("uint8")
+				.axes("X", "Y", "Time").lengths(16, 16, 4).build()).get(0);
+		final FileLocation out = createTempFileLocation(".avi");
+		new ImgSaver(opener.context()).saveImg(out, sourceImg,
+			new SCIFIOConfig().writerSetFailIfOverwriting(false));
+
+		// the writer flags the first frame only
+		final AVIFormat.Metadata meta = (AVIFormat.Metadata) new SCIFIO(opener
+			.context()).initializer().parseMetadata(out);
+		assertTrue(meta.getFrameCache().isKeyFrame(0));
+		assertFalse(meta.getFrameCache().isKeyFrame(1));
+		meta.close();
+	}
+
 	@Test
 	public void testSuccessfulOverwrite() throws IOException {
 		final SCIFIOConfig config = new SCIFIOConfig().writerSetFailIfOverwriting(